@@ -0,0 +1,262 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.BatchTransferResult;
+import com.javaquery.ftp.io.FileTransfer;
+import com.javaquery.ftp.io.TransferResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transfer files over sessions borrowed from {@link FileTransferClientPool}. Each worker keeps its session for
+ * consecutive files and takes the next file from the shared list, so small files are not held behind large ones.
+ * First worker uses the connected session of the client instead of borrowing another one. Worker holds a session
+ * before it takes a file, so waiting for a session of a busy pool is never an attempt of a file. Files are downloaded
+ * into a hidden {@code .part} sibling and moved into place once complete, so failed download never leaves partial file.
+ *
+ * @author javaquery
+ * @since 1.0.2
+ */
+class BatchTransfer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchTransfer.class);
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    /**
+     * Wait for a pooled session in slices, so worker stops waiting once other workers took all files.
+     */
+    private static final long SESSION_WAIT_IN_MILLISECONDS = 100;
+
+    private final FileTransferClientPool fileTransferClientPool;
+    private final FileTransferClient fileTransferClient;
+    private final FTPType ftpType;
+    private final Credentials credentials;
+    private final TransferConfig transferConfig;
+    private final boolean upload;
+
+    BatchTransfer(
+            FileTransferClientPool fileTransferClientPool,
+            FileTransferClient fileTransferClient,
+            FTPType ftpType,
+            Credentials credentials,
+            TransferConfig transferConfig,
+            boolean upload) {
+        if (transferConfig.getParallelism() <= 0
+                || transferConfig.getMaxAttempts() <= 0
+                || transferConfig.getRetryDelayInMilliseconds() < 0) {
+            throw new IllegalArgumentException("Please provide valid values for file transfer.");
+        }
+        this.fileTransferClientPool = fileTransferClientPool;
+        this.fileTransferClient = fileTransferClient;
+        this.ftpType = ftpType;
+        this.credentials = credentials;
+        this.transferConfig = transferConfig;
+        this.upload = upload;
+    }
+
+    BatchTransferResult transfer(List<FileTransfer> fileTransfers) throws FTPException {
+        long start = System.nanoTime();
+        TransferResult[] results = new TransferResult[fileTransfers.size()];
+        AtomicInteger next = new AtomicInteger();
+        // workers above sessions the pool can hand out would only wait
+        int sessions = fileTransferClientPool.getFileTransferClientPoolConfig().getMaxTotal()
+                + (fileTransferClient != null ? 1 : 0);
+        int workers = Math.min(Math.min(transferConfig.getParallelism(), sessions), fileTransfers.size());
+        if (workers > 0) {
+            ExecutorService executorService = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "ftp-transfer-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < workers; i++) {
+                    futures.add(executorService.submit(
+                            new Worker(fileTransfers, results, next, i == 0 ? fileTransferClient : null)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FTPException(e.getMessage(), e);
+            } catch (Exception e) {
+                throw new FTPException(e.getMessage(), e);
+            } finally {
+                executorService.shutdownNow();
+            }
+        }
+        return new BatchTransferResult(
+                Arrays.asList(results), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private class Worker implements Runnable {
+        private final List<FileTransfer> fileTransfers;
+        private final TransferResult[] results;
+        private final AtomicInteger next;
+        private FileTransferClient ownSession;
+        private PooledFileTransferClient session;
+
+        /**
+         * @param ownSession connected session of the client, used until it fails and never returned or disconnected
+         */
+        private Worker(
+                List<FileTransfer> fileTransfers,
+                TransferResult[] results,
+                AtomicInteger next,
+                FileTransferClient ownSession) {
+            this.fileTransfers = fileTransfers;
+            this.results = results;
+            this.next = next;
+            this.ownSession = ownSession;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    try {
+                        if (session(false) == null) {
+                            break;
+                        }
+                    } catch (RuntimeException e) {
+                        // failed connect is retried and reported by attempts of the next file
+                        LOGGER.debug(e.getMessage(), e);
+                    }
+                    int index = next.getAndIncrement();
+                    if (index >= fileTransfers.size()) {
+                        break;
+                    }
+                    results[index] = transfer(fileTransfers.get(index));
+                }
+            } finally {
+                if (session != null) {
+                    session.close();
+                }
+            }
+        }
+
+        private TransferResult transfer(FileTransfer fileTransfer) {
+            long start = System.nanoTime();
+            Path localFile = Paths.get(fileTransfer.getLocalFilePath());
+            Path partFile = localFile.resolveSibling("." + localFile.getFileName() + ".part");
+            FTPException exception = null;
+            int attempt = 0;
+            while (attempt < transferConfig.getMaxAttempts()
+                    && !Thread.currentThread().isInterrupted()) {
+                if (attempt > 0 && !retry(attempt)) {
+                    break;
+                }
+                attempt++;
+                try {
+                    FileTransferClient client = session(true);
+                    boolean success;
+                    if (upload) {
+                        success = client.uploadFile(fileTransfer.getLocalFilePath(), fileTransfer.getRemoteFilePath());
+                    } else {
+                        delete(partFile);
+                        success = client.downloadFile(fileTransfer.getRemoteFilePath(), partFile.toString());
+                        if (success) {
+                            Files.move(partFile, localFile, StandardCopyOption.REPLACE_EXISTING);
+                        }
+                    }
+                    if (success) {
+                        return TransferResult.builder()
+                                .fileTransfer(fileTransfer)
+                                .success(true)
+                                .attempts(attempt)
+                                .bytesTransferred(size(localFile))
+                                .durationInMilliseconds(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                                .build();
+                    }
+                    exception = new FTPException("Failed to transfer " + fileTransfer, null);
+                } catch (IOException e) {
+                    exception = new FTPException(e.getMessage(), e);
+                } catch (RuntimeException e) {
+                    // session may be left in the middle of a transfer, don't hand it to the next file
+                    if (ownSession != null) {
+                        ownSession = null;
+                    } else if (session != null) {
+                        session.invalidate();
+                        session = null;
+                    }
+                    exception = e instanceof FTPException ? (FTPException) e : new FTPException(e.getMessage(), e);
+                }
+                if (!upload) {
+                    delete(partFile);
+                }
+                LOGGER.warn("Attempt {} of {} failed: {}", attempt, fileTransfer, exception.getMessage());
+            }
+            if (exception == null) {
+                exception = new FTPException("Interrupted before transfer of " + fileTransfer, null);
+            }
+            return TransferResult.builder()
+                    .fileTransfer(fileTransfer)
+                    .attempts(attempt)
+                    .durationInMilliseconds(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .exception(exception)
+                    .build();
+        }
+
+        /**
+         * Session of this worker, borrowed when it has none. Borrow timeout of the pool is not a failure, worker keeps
+         * waiting until a session is returned to the pool.
+         *
+         * @param claimed whether worker took a file already, otherwise it stops waiting once no file is left
+         * @return the session, null when no file is left for a worker without file
+         */
+        private FileTransferClient session(boolean claimed) {
+            if (ownSession != null) {
+                return ownSession;
+            }
+            while (session == null) {
+                if (!claimed && next.get() >= fileTransfers.size()) {
+                    return null;
+                }
+                session = fileTransferClientPool.borrow(ftpType, credentials, SESSION_WAIT_IN_MILLISECONDS);
+            }
+            return session;
+        }
+
+        /**
+         * Wait before next attempt, false when interrupted.
+         */
+        private boolean retry(int attempt) {
+            try {
+                Thread.sleep(transferConfig.getRetryDelayInMilliseconds() << Math.min(attempt - 1, 20));
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void delete(Path file) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+        }
+
+        private long size(Path localFile) {
+            try {
+                return Files.size(localFile);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+    }
+}
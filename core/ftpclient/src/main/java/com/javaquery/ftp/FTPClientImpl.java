@@ -153,4 +153,13 @@ public class FTPClientImpl implements FileTransferClient {
         }
         return result;
     }
+
+    @Override
+    public boolean validate() {
+        try {
+            return Is.nonNull(ftpClient) && ftpClient.isConnected() && ftpClient.sendNoOp();
+        } catch (Exception e) {
+            return false;
+        }
+    }
 }
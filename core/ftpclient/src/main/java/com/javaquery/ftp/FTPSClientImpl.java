@@ -154,4 +154,13 @@ public class FTPSClientImpl implements FileTransferClient {
         }
         return result;
     }
+
+    @Override
+    public boolean validate() {
+        try {
+            return Is.nonNull(ftpsClient) && ftpsClient.isConnected() && ftpsClient.sendNoOp();
+        } catch (Exception e) {
+            return false;
+        }
+    }
 }
@@ -20,4 +20,15 @@ public interface FileTransferClient {
     boolean downloadFile(String remoteFilePath, String localFilePath) throws FTPException;
 
     boolean deleteFile(String remoteFilePath) throws FTPException;
+
+    /**
+     * Check the connection is still usable, used by {@link FileTransferClientPool} before a pooled session is
+     * handed out.
+     *
+     * @return true when connection is usable
+     * @since 1.0.2
+     */
+    default boolean validate() {
+        return true;
+    }
 }
@@ -0,0 +1,451 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread-safe pool of connected {@link FileTransferClient} sessions per server/user, keyed by {@link FTPType} and all
+ * connection settings of {@link Credentials}. Borrowing an idle session skips TCP connect, login and (for
+ * SFTP) SSH key exchange and channel open.
+ * <pre>{@code
+ * FileTransferClientPool pool = new FileTransferClientPool(FileTransferClientPoolConfig.builder().build());
+ * try (PooledFileTransferClient session = pool.borrow(FTPType.SFTP, credentials)) {
+ *     session.uploadFile("/tmp/report.csv", "/upload/report.csv");
+ * }
+ * }</pre>
+ *
+ * @author javaquery
+ * @since 1.0.2
+ */
+public class FileTransferClientPool implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileTransferClientPool.class);
+
+    private final FileTransferClientPoolConfig fileTransferClientPoolConfig;
+    private final Function<FTPType, FileTransferClient> fileTransferClientFactory;
+    private final Map<Key, Sessions> sessions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    public FileTransferClientPool(FileTransferClientPoolConfig fileTransferClientPoolConfig) {
+        this(fileTransferClientPoolConfig, JFTPClient::newFileTransferClient);
+    }
+
+    FileTransferClientPool(
+            FileTransferClientPoolConfig fileTransferClientPoolConfig,
+            Function<FTPType, FileTransferClient> fileTransferClientFactory) {
+        if (fileTransferClientPoolConfig.getMaxTotal() <= 0
+                || fileTransferClientPoolConfig.getMaxIdle() < 0
+                || fileTransferClientPoolConfig.getMinIdle() < 0
+                || fileTransferClientPoolConfig.getMinIdle() > fileTransferClientPoolConfig.getMaxIdle()
+                || fileTransferClientPoolConfig.getBorrowTimeoutInMilliseconds() < 0
+                || fileTransferClientPoolConfig.getIdleTimeoutInMilliseconds() < 0
+                || fileTransferClientPoolConfig.getEvictionIntervalInMilliseconds() < 0) {
+            throw new IllegalArgumentException("Please provide valid values for file transfer client pool.");
+        }
+        this.fileTransferClientPoolConfig = fileTransferClientPoolConfig;
+        this.fileTransferClientFactory = fileTransferClientFactory;
+        if (fileTransferClientPoolConfig.getEvictionIntervalInMilliseconds() > 0) {
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ftp-session-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(
+                    this::evict,
+                    fileTransferClientPoolConfig.getEvictionIntervalInMilliseconds(),
+                    fileTransferClientPoolConfig.getEvictionIntervalInMilliseconds(),
+                    TimeUnit.MILLISECONDS);
+        } else {
+            evictor = null;
+        }
+    }
+
+    /**
+     * Borrow a connected session of the server/user. Idle session is validated (when configured) and reused, new
+     * session is connected while there are less than max total sessions, otherwise caller waits up to borrow timeout
+     * for a session to be returned.
+     *
+     * @param ftpType     the ftp type
+     * @param credentials the credentials
+     * @return the pooled session, close it to return it to the pool
+     * @throws FTPException when session can't be connected or none is returned within borrow timeout
+     */
+    public PooledFileTransferClient borrow(FTPType ftpType, Credentials credentials) throws FTPException {
+        PooledFileTransferClient pooledFileTransferClient =
+                borrow(ftpType, credentials, fileTransferClientPoolConfig.getBorrowTimeoutInMilliseconds());
+        if (Objects.isNull(pooledFileTransferClient)) {
+            throw new FTPException("Timed out waiting for session of " + credentials.getHost() + ".", null);
+        }
+        return pooledFileTransferClient;
+    }
+
+    /**
+     * Borrow a connected session of the server/user, waiting up to given timeout instead of borrow timeout.
+     *
+     * @param ftpType               the ftp type
+     * @param credentials           the credentials
+     * @param timeoutInMilliseconds max time to wait when max total is reached
+     * @return the pooled session, null when none is returned within timeout
+     * @throws FTPException when session can't be connected or the pool is closed
+     */
+    PooledFileTransferClient borrow(FTPType ftpType, Credentials credentials, long timeoutInMilliseconds)
+            throws FTPException {
+        Key key = new Key(ftpType, credentials);
+        Sessions keySessions = sessions.computeIfAbsent(key, k -> new Sessions(ftpType, copy(credentials)));
+        FileTransferClient fileTransferClient = keySessions.borrow(timeoutInMilliseconds);
+        return Objects.nonNull(fileTransferClient) ? new PooledFileTransferClient(this, key, fileTransferClient) : null;
+    }
+
+    FileTransferClientPoolConfig getFileTransferClientPoolConfig() {
+        return fileTransferClientPoolConfig;
+    }
+
+    /**
+     * Gets number of idle sessions of the server/user.
+     *
+     * @param ftpType     the ftp type
+     * @param credentials the credentials
+     * @return the number of idle sessions
+     */
+    public int getNumIdle(FTPType ftpType, Credentials credentials) {
+        Sessions keySessions = sessions.get(new Key(ftpType, credentials));
+        return Objects.nonNull(keySessions) ? keySessions.numIdle() : 0;
+    }
+
+    /**
+     * Gets number of borrowed sessions of the server/user.
+     *
+     * @param ftpType     the ftp type
+     * @param credentials the credentials
+     * @return the number of borrowed sessions
+     */
+    public int getNumActive(FTPType ftpType, Credentials credentials) {
+        Sessions keySessions = sessions.get(new Key(ftpType, credentials));
+        return Objects.nonNull(keySessions) ? keySessions.numActive() : 0;
+    }
+
+    /**
+     * Disconnect idle sessions and stop eviction, sessions returned afterwards are disconnected.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (Objects.nonNull(evictor)) {
+            evictor.shutdownNow();
+        }
+        sessions.values().forEach(Sessions::clear);
+    }
+
+    void release(Object key, FileTransferClient fileTransferClient) {
+        Sessions keySessions = sessions.get(key);
+        if (Objects.nonNull(keySessions)) {
+            keySessions.release(fileTransferClient);
+        } else {
+            disconnect(fileTransferClient);
+        }
+    }
+
+    void invalidate(Object key, FileTransferClient fileTransferClient) {
+        Sessions keySessions = sessions.get(key);
+        if (Objects.nonNull(keySessions)) {
+            keySessions.invalidate(fileTransferClient);
+        } else {
+            disconnect(fileTransferClient);
+        }
+    }
+
+    /**
+     * Disconnect sessions idle longer than idle timeout and connect sessions up to min idle.
+     */
+    void evict() {
+        for (Sessions keySessions : sessions.values()) {
+            try {
+                keySessions.evict();
+            } catch (RuntimeException e) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static void disconnect(FileTransferClient fileTransferClient) {
+        try {
+            fileTransferClient.disconnect();
+        } catch (RuntimeException e) {
+            LOGGER.warn(e.getMessage(), e);
+        }
+    }
+
+    private static Credentials copy(Credentials credentials) {
+        return Credentials.builder()
+                .host(credentials.getHost())
+                .port(credentials.getPort())
+                .username(credentials.getUsername())
+                .password(credentials.getPassword())
+                .connectTimeout(credentials.getConnectTimeout())
+                .socketTimeout(credentials.getSocketTimeout())
+                .isImplicit(credentials.isImplicit())
+                .build();
+    }
+
+    /**
+     * Server/user of pooled sessions.
+     */
+    private static final class Key {
+        private final FTPType ftpType;
+        private final String host;
+        private final int port;
+        private final String username;
+        private final String password;
+        private final int connectTimeout;
+        private final int socketTimeout;
+        private final boolean implicit;
+
+        private Key(FTPType ftpType, Credentials credentials) {
+            this.ftpType = ftpType;
+            this.host = credentials.getHost();
+            this.port = credentials.getPort();
+            this.username = credentials.getUsername();
+            this.password = credentials.getPassword();
+            this.connectTimeout = credentials.getConnectTimeout();
+            this.socketTimeout = credentials.getSocketTimeout();
+            this.implicit = credentials.isImplicit();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return ftpType == key.ftpType
+                    && port == key.port
+                    && connectTimeout == key.connectTimeout
+                    && socketTimeout == key.socketTimeout
+                    && implicit == key.implicit
+                    && Objects.equals(host, key.host)
+                    && Objects.equals(username, key.username)
+                    && Objects.equals(password, key.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ftpType, host, port, username, connectTimeout, socketTimeout, implicit);
+        }
+    }
+
+    /**
+     * Idle session and time it was returned.
+     */
+    private static final class IdleSession {
+        private final FileTransferClient fileTransferClient;
+        private final long idleSinceNanos;
+
+        private IdleSession(FileTransferClient fileTransferClient, long idleSinceNanos) {
+            this.fileTransferClient = fileTransferClient;
+            this.idleSinceNanos = idleSinceNanos;
+        }
+    }
+
+    /**
+     * Sessions of single server/user. Idle sessions are kept most recently returned first, so busy servers reuse the
+     * same warm sessions and the rest ages out at the tail.
+     */
+    private final class Sessions {
+        private final FTPType ftpType;
+        private final Credentials credentials;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition available = lock.newCondition();
+        private final Deque<IdleSession> idle = new ArrayDeque<>();
+        private int total;
+
+        private Sessions(FTPType ftpType, Credentials credentials) {
+            this.ftpType = ftpType;
+            this.credentials = credentials;
+        }
+
+        /**
+         * Borrow idle or new session, null when none is returned within timeout.
+         */
+        private FileTransferClient borrow(long timeoutInMilliseconds) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutInMilliseconds);
+            while (true) {
+                IdleSession idleSession;
+                lock.lock();
+                try {
+                    while (true) {
+                        if (closed) {
+                            throw new FTPException("FileTransferClientPool is closed.", null);
+                        }
+                        idleSession = idle.pollFirst();
+                        if (Objects.nonNull(idleSession)) {
+                            break;
+                        }
+                        if (total < fileTransferClientPoolConfig.getMaxTotal()) {
+                            total++;
+                            break;
+                        }
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return null;
+                        }
+                        available.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new FTPException(e.getMessage(), e);
+                } finally {
+                    lock.unlock();
+                }
+                if (Objects.isNull(idleSession)) {
+                    return connect();
+                }
+                if (!fileTransferClientPoolConfig.isValidateOnBorrow() || idleSession.fileTransferClient.validate()) {
+                    return idleSession.fileTransferClient;
+                }
+                invalidate(idleSession.fileTransferClient);
+            }
+        }
+
+        /**
+         * Connect new session, slot of it must be reserved in total already.
+         */
+        private FileTransferClient connect() {
+            try {
+                FileTransferClient fileTransferClient = fileTransferClientFactory.apply(ftpType);
+                fileTransferClient.connect(credentials);
+                return fileTransferClient;
+            } catch (RuntimeException e) {
+                free(1);
+                throw e;
+            }
+        }
+
+        private void release(FileTransferClient fileTransferClient) {
+            boolean keep;
+            lock.lock();
+            try {
+                keep = !closed && idle.size() < fileTransferClientPoolConfig.getMaxIdle();
+                if (keep) {
+                    idle.addFirst(new IdleSession(fileTransferClient, System.nanoTime()));
+                } else {
+                    total--;
+                }
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            if (!keep) {
+                disconnect(fileTransferClient);
+            }
+        }
+
+        private void invalidate(FileTransferClient fileTransferClient) {
+            free(1);
+            disconnect(fileTransferClient);
+        }
+
+        private void free(int count) {
+            lock.lock();
+            try {
+                total -= count;
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void evict() {
+            List<FileTransferClient> evicted = new ArrayList<>();
+            int missing;
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                long idleTimeout =
+                        TimeUnit.MILLISECONDS.toNanos(fileTransferClientPoolConfig.getIdleTimeoutInMilliseconds());
+                Iterator<IdleSession> iterator = idle.descendingIterator();
+                while (iterator.hasNext() && idle.size() > fileTransferClientPoolConfig.getMinIdle()) {
+                    IdleSession idleSession = iterator.next();
+                    if (now - idleSession.idleSinceNanos < idleTimeout) {
+                        break;
+                    }
+                    iterator.remove();
+                    total--;
+                    evicted.add(idleSession.fileTransferClient);
+                }
+                missing = closed
+                        ? 0
+                        : Math.min(
+                                fileTransferClientPoolConfig.getMinIdle() - idle.size(),
+                                fileTransferClientPoolConfig.getMaxTotal() - total);
+                if (missing > 0) {
+                    total += missing;
+                }
+            } finally {
+                lock.unlock();
+            }
+            evicted.forEach(FileTransferClientPool::disconnect);
+            for (int i = 0; i < missing; i++) {
+                try {
+                    release(connect());
+                } catch (RuntimeException e) {
+                    // connect freed its own slot, free the ones not attempted
+                    free(missing - i - 1);
+                    LOGGER.warn(e.getMessage(), e);
+                    break;
+                }
+            }
+        }
+
+        private void clear() {
+            List<IdleSession> cleared;
+            lock.lock();
+            try {
+                cleared = new ArrayList<>(idle);
+                idle.clear();
+                total -= cleared.size();
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            cleared.forEach(idleSession -> disconnect(idleSession.fileTransferClient));
+        }
+
+        private int numIdle() {
+            lock.lock();
+            try {
+                return idle.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int numActive() {
+            lock.lock();
+            try {
+                return total - idle.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
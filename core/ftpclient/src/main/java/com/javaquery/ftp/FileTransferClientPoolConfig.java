@@ -0,0 +1,58 @@
+package com.javaquery.ftp;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of {@link FileTransferClientPool}, limits apply to each server/user (see
+ * {@link FileTransferClientPool#borrow(FTPType, Credentials)}).
+ *
+ * @author javaquery
+ * @since 1.0.2
+ */
+@Getter
+@Builder
+public class FileTransferClientPoolConfig {
+
+    /**
+     * Max number of sessions (borrowed and idle) per server/user.
+     */
+    @Builder.Default
+    private int maxTotal = 8;
+
+    /**
+     * Max number of idle sessions kept per server/user, sessions returned above it are disconnected.
+     */
+    @Builder.Default
+    private int maxIdle = 8;
+
+    /**
+     * Number of idle sessions kept connected by eviction per server/user once it was used.
+     */
+    @Builder.Default
+    private int minIdle = 0;
+
+    /**
+     * Max time to wait for a session when max total is reached.
+     */
+    @Builder.Default
+    private long borrowTimeoutInMilliseconds = 30 * 1000;
+
+    /**
+     * Validate idle session (NOOP for FTP/FTPS, stat for SFTP) before it's borrowed.
+     */
+    @Builder.Default
+    private boolean validateOnBorrow = true;
+
+    /**
+     * Idle sessions older than this are disconnected by eviction.
+     */
+    @Builder.Default
+    private long idleTimeoutInMilliseconds = 5 * 60 * 1000;
+
+    /**
+     * Interval of eviction of idle sessions, 0 to disable eviction.
+     */
+    @Builder.Default
+    private long evictionIntervalInMilliseconds = 60 * 1000;
+}
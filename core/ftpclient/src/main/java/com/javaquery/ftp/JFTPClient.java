@@ -1,6 +1,8 @@
 package com.javaquery.ftp;
 
 import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.BatchTransferResult;
+import com.javaquery.ftp.io.FileTransfer;
 import com.javaquery.ftp.io.RemoteFile;
 import java.util.List;
 
@@ -12,30 +14,59 @@ import java.util.List;
  */
 public class JFTPClient {
 
-    private final FileTransferClient fileTransferClient;
+    private final FTPType ftpType;
+    private final FileTransferClientPool fileTransferClientPool;
+    private FileTransferClient fileTransferClient;
+    private Credentials credentials;
 
     public JFTPClient(FTPType ftpType) {
+        this.ftpType = ftpType;
+        this.fileTransferClientPool = null;
+        this.fileTransferClient = newFileTransferClient(ftpType);
+    }
+
+    /**
+     * Client which borrows session from the pool on {@link #connect(Credentials)} and returns it on
+     * {@link #disconnect()} instead of reconnecting every time.
+     *
+     * @param ftpType                the ftp type
+     * @param fileTransferClientPool the file transfer client pool
+     * @since 1.0.2
+     */
+    public JFTPClient(FTPType ftpType, FileTransferClientPool fileTransferClientPool) {
+        this.ftpType = ftpType;
+        this.fileTransferClientPool = fileTransferClientPool;
+    }
+
+    static FileTransferClient newFileTransferClient(FTPType ftpType) {
         switch (ftpType) {
             case FTP:
-                this.fileTransferClient = new FTPClientImpl();
-                break;
+                return new FTPClientImpl();
             case SFTP:
-                this.fileTransferClient = new SFTPClientImpl();
-                break;
+                return new SFTPClientImpl();
             case FTPS:
-                this.fileTransferClient = new FTPSClientImpl();
-                break;
+                return new FTPSClientImpl();
             default:
                 throw new IllegalArgumentException("Unsupported FTP type: " + ftpType);
         }
     }
 
     public void connect(Credentials credentials) throws FTPException {
-        fileTransferClient.connect(credentials);
+        this.credentials = credentials;
+        if (fileTransferClientPool == null) {
+            fileTransferClient.connect(credentials);
+            return;
+        }
+        if (fileTransferClient != null) {
+            fileTransferClient.disconnect();
+        }
+        fileTransferClient = fileTransferClientPool.borrow(ftpType, credentials);
     }
 
     public void disconnect() throws FTPException {
-        fileTransferClient.disconnect();
+        if (fileTransferClient != null) {
+            fileTransferClient.disconnect();
+        }
     }
 
     public List<RemoteFile> listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter) throws FTPException {
@@ -53,4 +84,82 @@ public class JFTPClient {
     public boolean deleteFile(String remoteFilePath) throws FTPException {
         return fileTransferClient.deleteFile(remoteFilePath);
     }
+
+    /**
+     * Upload files concurrently over {@link TransferConfig#getParallelism()} sessions, see
+     * {@link #uploadFiles(List, TransferConfig)}.
+     *
+     * @param fileTransfers the local/remote file pairs
+     * @return the result of each file
+     * @since 1.0.2
+     */
+    public BatchTransferResult uploadFiles(List<FileTransfer> fileTransfers) throws FTPException {
+        return uploadFiles(fileTransfers, TransferConfig.builder().build());
+    }
+
+    /**
+     * Upload files concurrently over multiple sessions of the server. Failed file is retried on its own, failures are
+     * reported in the result instead of being thrown. Client must be connected, sessions are borrowed from the pool
+     * of this client (max total of the pool caps connections to the server) or opened only for this batch, session of
+     * this client is used as one of them.
+     *
+     * @param fileTransfers  the local/remote file pairs
+     * @param transferConfig the transfer config
+     * @return the result of each file
+     * @since 1.0.2
+     */
+    public BatchTransferResult uploadFiles(List<FileTransfer> fileTransfers, TransferConfig transferConfig)
+            throws FTPException {
+        return transferFiles(fileTransfers, transferConfig, true);
+    }
+
+    /**
+     * Download files concurrently over {@link TransferConfig#getParallelism()} sessions, see
+     * {@link #downloadFiles(List, TransferConfig)}.
+     *
+     * @param fileTransfers the local/remote file pairs
+     * @return the result of each file
+     * @since 1.0.2
+     */
+    public BatchTransferResult downloadFiles(List<FileTransfer> fileTransfers) throws FTPException {
+        return downloadFiles(fileTransfers, TransferConfig.builder().build());
+    }
+
+    /**
+     * Download files concurrently over multiple sessions of the server. Failed file is retried on its own, failures
+     * are reported in the result instead of being thrown. Client must be connected, sessions are borrowed from the
+     * pool of this client (max total of the pool caps connections to the server) or opened only for this batch, session
+     * of this client is used as one of them. Local file is replaced only by completely downloaded file.
+     *
+     * @param fileTransfers  the local/remote file pairs
+     * @param transferConfig the transfer config
+     * @return the result of each file
+     * @since 1.0.2
+     */
+    public BatchTransferResult downloadFiles(List<FileTransfer> fileTransfers, TransferConfig transferConfig)
+            throws FTPException {
+        return transferFiles(fileTransfers, transferConfig, false);
+    }
+
+    private BatchTransferResult transferFiles(
+            List<FileTransfer> fileTransfers, TransferConfig transferConfig, boolean upload) {
+        if (credentials == null) {
+            throw new IllegalStateException("Connect before transferring files.");
+        }
+        if (fileTransferClientPool != null) {
+            return new BatchTransfer(
+                            fileTransferClientPool, fileTransferClient, ftpType, credentials, transferConfig, upload)
+                    .transfer(fileTransfers);
+        }
+        // session of this client is one of parallelism sessions
+        FileTransferClientPoolConfig fileTransferClientPoolConfig = FileTransferClientPoolConfig.builder()
+                .maxTotal(Math.max(transferConfig.getParallelism() - 1, 1))
+                .maxIdle(Math.max(transferConfig.getParallelism() - 1, 1))
+                .evictionIntervalInMilliseconds(0)
+                .build();
+        try (FileTransferClientPool batchPool = new FileTransferClientPool(fileTransferClientPoolConfig)) {
+            return new BatchTransfer(batchPool, fileTransferClient, ftpType, credentials, transferConfig, upload)
+                    .transfer(fileTransfers);
+        }
+    }
 }
@@ -0,0 +1,107 @@
+package com.javaquery.ftp;
+
+import com.javaquery.ftp.exception.FTPException;
+import com.javaquery.ftp.io.RemoteFile;
+import java.util.List;
+
+/**
+ * Session borrowed from {@link FileTransferClientPool}. It is connected already, {@link #close()} (or
+ * {@link #disconnect()}) returns it to the pool instead of disconnecting. Call {@link #invalidate()} when the session
+ * is known to be broken, so it's disconnected instead of being returned.
+ *
+ * @author javaquery
+ * @since 1.0.2
+ */
+public class PooledFileTransferClient implements FileTransferClient, AutoCloseable {
+
+    private final FileTransferClientPool fileTransferClientPool;
+    private final Object key;
+    private final FileTransferClient fileTransferClient;
+    private boolean returned;
+
+    PooledFileTransferClient(
+            FileTransferClientPool fileTransferClientPool, Object key, FileTransferClient fileTransferClient) {
+        this.fileTransferClientPool = fileTransferClientPool;
+        this.key = key;
+        this.fileTransferClient = fileTransferClient;
+    }
+
+    /**
+     * Pooled session is connected by {@link FileTransferClientPool}.
+     *
+     * @param credentials the credentials
+     * @throws IllegalStateException always
+     */
+    @Override
+    public void connect(Credentials credentials) throws FTPException {
+        throw new IllegalStateException("Pooled session is connected by FileTransferClientPool.");
+    }
+
+    /**
+     * Return the session to the pool.
+     */
+    @Override
+    public void disconnect() throws FTPException {
+        close();
+    }
+
+    @Override
+    public List<RemoteFile> listFiles(String directoryPath, FileFilter<RemoteFile> fileFilter) throws FTPException {
+        checkBorrowed();
+        return fileTransferClient.listFiles(directoryPath, fileFilter);
+    }
+
+    @Override
+    public boolean uploadFile(String localFilePath, String remoteFilePath) throws FTPException {
+        checkBorrowed();
+        return fileTransferClient.uploadFile(localFilePath, remoteFilePath);
+    }
+
+    @Override
+    public boolean downloadFile(String remoteFilePath, String localFilePath) throws FTPException {
+        checkBorrowed();
+        return fileTransferClient.downloadFile(remoteFilePath, localFilePath);
+    }
+
+    @Override
+    public boolean deleteFile(String remoteFilePath) throws FTPException {
+        checkBorrowed();
+        return fileTransferClient.deleteFile(remoteFilePath);
+    }
+
+    @Override
+    public boolean validate() {
+        return fileTransferClient.validate();
+    }
+
+    /**
+     * Disconnect the session and remove it from the pool.
+     */
+    public synchronized void invalidate() {
+        if (!returned) {
+            returned = true;
+            fileTransferClientPool.invalidate(key, fileTransferClient);
+        }
+    }
+
+    /**
+     * Return the session to the pool, repeated calls are ignored.
+     */
+    @Override
+    public synchronized void close() {
+        if (!returned) {
+            returned = true;
+            fileTransferClientPool.release(key, fileTransferClient);
+        }
+    }
+
+    private synchronized void checkBorrowed() {
+        if (returned) {
+            throw new IllegalStateException("Pooled session is already returned to FileTransferClientPool.");
+        }
+    }
+
+    FileTransferClient getFileTransferClient() {
+        return fileTransferClient;
+    }
+}
@@ -140,4 +140,13 @@ public class SFTPClientImpl implements FileTransferClient {
         }
         return result;
     }
+
+    @Override
+    public boolean validate() {
+        try {
+            return channelSftp != null && channelSftp.isConnected() && channelSftp.stat(".") != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
 }
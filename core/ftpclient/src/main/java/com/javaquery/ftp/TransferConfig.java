@@ -0,0 +1,36 @@
+package com.javaquery.ftp;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of {@link JFTPClient#uploadFiles(java.util.List, TransferConfig)} and
+ * {@link JFTPClient#downloadFiles(java.util.List, TransferConfig)}.
+ *
+ * @author javaquery
+ * @since 1.0.2
+ */
+@Getter
+@Builder
+public class TransferConfig {
+
+    /**
+     * Number of sessions transferring files concurrently. Sessions are borrowed from {@link FileTransferClientPool},
+     * so max total of the pool caps connections to the server across all batches. Worker waits for a session of busy
+     * pool before it takes a file, waiting is not an attempt of the file.
+     */
+    @Builder.Default
+    private int parallelism = 4;
+
+    /**
+     * Max attempts of each file, failed attempt is retried on a new session.
+     */
+    @Builder.Default
+    private int maxAttempts = 3;
+
+    /**
+     * Delay before first retry of a file, doubled on every next retry.
+     */
+    @Builder.Default
+    private long retryDelayInMilliseconds = 1000;
+}
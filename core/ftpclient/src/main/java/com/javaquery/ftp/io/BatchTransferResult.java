@@ -0,0 +1,39 @@
+package com.javaquery.ftp.io;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.Getter;
+
+/**
+ * Aggregate result of batch transfer, results are in order of the requested files.
+ *
+ * @author javaquery
+ * @since 1.0.2
+ */
+@Getter
+public class BatchTransferResult {
+    private final List<TransferResult> results;
+    private final long durationInMilliseconds;
+
+    public BatchTransferResult(List<TransferResult> results, long durationInMilliseconds) {
+        this.results = Collections.unmodifiableList(results);
+        this.durationInMilliseconds = durationInMilliseconds;
+    }
+
+    public boolean isSuccess() {
+        return results.stream().allMatch(TransferResult::isSuccess);
+    }
+
+    public List<TransferResult> getSucceeded() {
+        return results.stream().filter(TransferResult::isSuccess).collect(Collectors.toList());
+    }
+
+    public List<TransferResult> getFailed() {
+        return results.stream().filter(result -> !result.isSuccess()).collect(Collectors.toList());
+    }
+
+    public long getBytesTransferred() {
+        return results.stream().mapToLong(TransferResult::getBytesTransferred).sum();
+    }
+}
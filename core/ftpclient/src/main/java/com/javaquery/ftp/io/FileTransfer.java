@@ -0,0 +1,26 @@
+package com.javaquery.ftp.io;
+
+import lombok.Getter;
+
+/**
+ * Local/remote file pair of {@link com.javaquery.ftp.JFTPClient#uploadFiles(java.util.List)} and
+ * {@link com.javaquery.ftp.JFTPClient#downloadFiles(java.util.List)}.
+ *
+ * @author javaquery
+ * @since 1.0.2
+ */
+@Getter
+public class FileTransfer {
+    private final String localFilePath;
+    private final String remoteFilePath;
+
+    public FileTransfer(String localFilePath, String remoteFilePath) {
+        this.localFilePath = localFilePath;
+        this.remoteFilePath = remoteFilePath;
+    }
+
+    @Override
+    public String toString() {
+        return localFilePath + " <-> " + remoteFilePath;
+    }
+}
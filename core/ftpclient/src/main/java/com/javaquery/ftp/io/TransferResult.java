@@ -0,0 +1,26 @@
+package com.javaquery.ftp.io;
+
+import com.javaquery.ftp.exception.FTPException;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Result of single file of batch transfer.
+ *
+ * @author javaquery
+ * @since 1.0.2
+ */
+@Getter
+@Builder
+public class TransferResult {
+    private FileTransfer fileTransfer;
+    private boolean success;
+    private int attempts;
+    private long bytesTransferred;
+    private long durationInMilliseconds;
+
+    /**
+     * Failure of last attempt, null when transfer succeeded.
+     */
+    private FTPException exception;
+}
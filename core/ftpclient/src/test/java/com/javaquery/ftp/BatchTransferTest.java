@@ -0,0 +1,255 @@
+package com.javaquery.ftp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.javaquery.ftp.io.BatchTransferResult;
+import com.javaquery.ftp.io.FileTransfer;
+import com.javaquery.ftp.io.TransferResult;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.command.RetrCommandHandler;
+import org.mockftpserver.fake.command.UserCommandHandler;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+/**
+ * @author javaquery
+ * @since 1.0.2
+ */
+public class BatchTransferTest {
+
+    private static final int FILES = 10;
+
+    private FakeFtpServer fakeFtpServer;
+    private FileSystem fileSystem;
+    private Credentials credentials;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setup() {
+        fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+
+        fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        for (int i = 0; i < FILES; i++) {
+            fileSystem.add(new FileEntry("/data/remote-" + i + ".txt", "remote content " + i));
+        }
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        fakeFtpServer.start();
+
+        credentials = Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fakeFtpServer.stop();
+    }
+
+    @Test
+    void uploadFiles_success() throws IOException {
+        List<FileTransfer> fileTransfers = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            Path localFile = Files.write(tempDir.resolve("local-" + i + ".txt"), ("local content " + i).getBytes());
+            fileTransfers.add(new FileTransfer(localFile.toString(), "/data/upload-" + i + ".txt"));
+        }
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(credentials);
+        BatchTransferResult result = jftpClient.uploadFiles(
+                fileTransfers, TransferConfig.builder().parallelism(3).build());
+        jftpClient.disconnect();
+
+        assertTrue(result.isSuccess());
+        assertEquals(FILES, result.getSucceeded().size());
+        for (int i = 0; i < FILES; i++) {
+            assertSame(fileTransfers.get(i), result.getResults().get(i).getFileTransfer());
+            assertTrue(fileSystem.exists("/data/upload-" + i + ".txt"));
+        }
+        assertTrue(result.getBytesTransferred() > 0);
+    }
+
+    @Test
+    void downloadFiles_retriesFailedFileAndRespectsPoolCap() throws IOException {
+        List<FileTransfer> fileTransfers = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            fileTransfers.add(new FileTransfer(
+                    tempDir.resolve("download-" + i + ".txt").toString(), "/data/remote-" + i + ".txt"));
+        }
+        fileTransfers.add(new FileTransfer(tempDir.resolve("missing.txt").toString(), "/data/missing.txt"));
+
+        try (FileTransferClientPool pool = new FileTransferClientPool(FileTransferClientPoolConfig.builder()
+                .maxTotal(2)
+                .evictionIntervalInMilliseconds(0)
+                .build())) {
+            JFTPClient jftpClient = new JFTPClient(FTPType.FTP, pool);
+            jftpClient.connect(credentials);
+            BatchTransferResult result = jftpClient.downloadFiles(
+                    fileTransfers,
+                    TransferConfig.builder()
+                            .parallelism(4)
+                            .maxAttempts(2)
+                            .retryDelayInMilliseconds(0)
+                            .build());
+            jftpClient.disconnect();
+
+            assertFalse(result.isSuccess());
+            assertEquals(FILES, result.getSucceeded().size());
+            TransferResult failed = result.getFailed().get(0);
+            assertEquals("/data/missing.txt", failed.getFileTransfer().getRemoteFilePath());
+            assertEquals(2, failed.getAttempts());
+            assertNotNull(failed.getException());
+            assertFalse(Files.exists(tempDir.resolve("missing.txt")));
+            assertFalse(Files.exists(tempDir.resolve(".missing.txt.part")));
+            for (int i = 0; i < FILES; i++) {
+                assertEquals(
+                        "remote content " + i,
+                        new String(
+                                Files.readAllBytes(tempDir.resolve("download-" + i + ".txt")), StandardCharsets.UTF_8));
+            }
+            assertEquals(0, pool.getNumActive(FTPType.FTP, credentials));
+            assertTrue(pool.getNumIdle(FTPType.FTP, credentials) <= 2);
+        }
+    }
+
+    @Test
+    void downloadFiles_waitsForSessionHeldBeyondBorrowTimeout() throws InterruptedException {
+        fakeFtpServer.setCommandHandler(CommandNames.RETR, new RetrCommandHandler() {
+            @Override
+            protected void handle(Command command, Session session) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.handle(command, session);
+            }
+        });
+        List<FileTransfer> fileTransfers = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            fileTransfers.add(new FileTransfer(
+                    tempDir.resolve("download-" + i + ".txt").toString(), "/data/remote-" + i + ".txt"));
+        }
+
+        try (FileTransferClientPool pool = new FileTransferClientPool(FileTransferClientPoolConfig.builder()
+                .maxTotal(2)
+                .borrowTimeoutInMilliseconds(20)
+                .evictionIntervalInMilliseconds(0)
+                .build())) {
+            // other batch holds one of the sessions far longer than borrow timeout
+            PooledFileTransferClient held = pool.borrow(FTPType.FTP, credentials);
+            Thread holder = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                held.close();
+            });
+            holder.start();
+
+            JFTPClient jftpClient = new JFTPClient(FTPType.FTP, pool);
+            jftpClient.connect(credentials);
+            BatchTransferResult result = jftpClient.downloadFiles(
+                    fileTransfers,
+                    TransferConfig.builder()
+                            .parallelism(4)
+                            .maxAttempts(1)
+                            .retryDelayInMilliseconds(0)
+                            .build());
+            jftpClient.disconnect();
+            holder.join();
+
+            assertTrue(result.isSuccess());
+            for (TransferResult transferResult : result.getResults()) {
+                assertEquals(1, transferResult.getAttempts());
+            }
+            assertEquals(0, pool.getNumActive(FTPType.FTP, credentials));
+        }
+    }
+
+    @Test
+    void downloadFiles_replacesLocalFileOnlyWhenComplete() throws IOException {
+        Path existing = Files.write(tempDir.resolve("existing.txt"), "old content".getBytes());
+        Path kept = Files.write(tempDir.resolve("kept.txt"), "old content".getBytes());
+        List<FileTransfer> fileTransfers = new ArrayList<>();
+        fileTransfers.add(new FileTransfer(existing.toString(), "/data/remote-0.txt"));
+        fileTransfers.add(new FileTransfer(kept.toString(), "/data/missing.txt"));
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(credentials);
+        BatchTransferResult result = jftpClient.downloadFiles(
+                fileTransfers,
+                TransferConfig.builder()
+                        .parallelism(2)
+                        .maxAttempts(2)
+                        .retryDelayInMilliseconds(0)
+                        .build());
+        jftpClient.disconnect();
+
+        assertEquals(1, result.getSucceeded().size());
+        assertEquals("remote content 0", new String(Files.readAllBytes(existing), StandardCharsets.UTF_8));
+        assertEquals("old content", new String(Files.readAllBytes(kept), StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void downloadFiles_usesSessionOfClient() {
+        AtomicInteger logins = new AtomicInteger();
+        fakeFtpServer.setCommandHandler(CommandNames.USER, new UserCommandHandler() {
+            @Override
+            protected void handle(Command command, Session session) {
+                logins.incrementAndGet();
+                super.handle(command, session);
+            }
+        });
+        List<FileTransfer> fileTransfers = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            fileTransfers.add(new FileTransfer(
+                    tempDir.resolve("download-" + i + ".txt").toString(), "/data/remote-" + i + ".txt"));
+        }
+
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        jftpClient.connect(credentials);
+        BatchTransferResult result = jftpClient.downloadFiles(
+                fileTransfers, TransferConfig.builder().parallelism(3).build());
+        jftpClient.disconnect();
+
+        assertTrue(result.isSuccess());
+        assertTrue(logins.get() <= 3);
+    }
+
+    @Test
+    void transferFiles_requiresConnect() {
+        JFTPClient jftpClient = new JFTPClient(FTPType.FTP);
+        assertThrows(IllegalStateException.class, () -> jftpClient.uploadFiles(Collections.emptyList()));
+    }
+}
@@ -0,0 +1,198 @@
+package com.javaquery.ftp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.javaquery.ftp.exception.FTPException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+/**
+ * @author javaquery
+ * @since 1.0.2
+ */
+public class FileTransferClientPoolTest {
+
+    private FakeFtpServer fakeFtpServer;
+    private Credentials credentials;
+
+    @BeforeEach
+    public void setup() {
+        fakeFtpServer = new FakeFtpServer();
+        fakeFtpServer.addUserAccount(new UserAccount("user", "password", "/data"));
+
+        FileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/data"));
+        fileSystem.add(new FileEntry("/data/foobar.txt", "abcdef 1234567890"));
+        fakeFtpServer.setFileSystem(fileSystem);
+        fakeFtpServer.setServerControlPort(0);
+        fakeFtpServer.start();
+
+        credentials = Credentials.builder()
+                .host("localhost")
+                .port(fakeFtpServer.getServerControlPort())
+                .username("user")
+                .password("password")
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fakeFtpServer.stop();
+    }
+
+    @Test
+    void borrow_reusesReturnedSession() {
+        try (FileTransferClientPool pool = new FileTransferClientPool(config().build())) {
+            FileTransferClient first;
+            try (PooledFileTransferClient session = pool.borrow(FTPType.FTP, credentials)) {
+                first = session.getFileTransferClient();
+                assertEquals(1, session.listFiles("/data", null).size());
+                assertEquals(1, pool.getNumActive(FTPType.FTP, credentials));
+            }
+            assertEquals(1, pool.getNumIdle(FTPType.FTP, credentials));
+            assertEquals(0, pool.getNumActive(FTPType.FTP, credentials));
+
+            try (PooledFileTransferClient session = pool.borrow(FTPType.FTP, credentials)) {
+                assertSame(first, session.getFileTransferClient());
+                assertEquals(1, session.listFiles("/data", null).size());
+            }
+        }
+    }
+
+    @Test
+    void borrow_waitsForReturnedSessionAndTimesOut() throws Exception {
+        FileTransferClientPoolConfig poolConfig =
+                config().maxTotal(1).borrowTimeoutInMilliseconds(200).build();
+        try (FileTransferClientPool pool = new FileTransferClientPool(poolConfig)) {
+            PooledFileTransferClient session = pool.borrow(FTPType.FTP, credentials);
+            assertThrows(FTPException.class, () -> pool.borrow(FTPType.FTP, credentials));
+
+            CompletableFuture<PooledFileTransferClient> waiting =
+                    CompletableFuture.supplyAsync(() -> pool.borrow(FTPType.FTP, credentials));
+            Thread.sleep(50);
+            session.close();
+            try (PooledFileTransferClient next = waiting.get(5, TimeUnit.SECONDS)) {
+                assertSame(session.getFileTransferClient(), next.getFileTransferClient());
+            }
+            assertThrows(IllegalStateException.class, () -> session.listFiles("/data", null));
+        }
+    }
+
+    @Test
+    void borrow_replacesBrokenSession() {
+        try (FileTransferClientPool pool = new FileTransferClientPool(config().build())) {
+            FileTransferClient broken;
+            try (PooledFileTransferClient session = pool.borrow(FTPType.FTP, credentials)) {
+                broken = session.getFileTransferClient();
+                broken.disconnect();
+                assertFalse(session.validate());
+            }
+
+            try (PooledFileTransferClient session = pool.borrow(FTPType.FTP, credentials)) {
+                assertNotSame(broken, session.getFileTransferClient());
+                assertTrue(session.validate());
+                assertEquals(1, pool.getNumActive(FTPType.FTP, credentials));
+            }
+        }
+    }
+
+    @Test
+    void invalidate_removesSession() {
+        try (FileTransferClientPool pool = new FileTransferClientPool(config().build())) {
+            PooledFileTransferClient session = pool.borrow(FTPType.FTP, credentials);
+            session.invalidate();
+            session.close();
+            assertEquals(0, pool.getNumIdle(FTPType.FTP, credentials));
+            assertEquals(0, pool.getNumActive(FTPType.FTP, credentials));
+        }
+    }
+
+    @Test
+    void evict_disconnectsIdleSessionsAndKeepsMinIdle() {
+        try (FileTransferClientPool pool =
+                new FileTransferClientPool(config().idleTimeoutInMilliseconds(0).build())) {
+            pool.borrow(FTPType.FTP, credentials).close();
+            assertEquals(1, pool.getNumIdle(FTPType.FTP, credentials));
+            pool.evict();
+            assertEquals(0, pool.getNumIdle(FTPType.FTP, credentials));
+        }
+
+        try (FileTransferClientPool pool = new FileTransferClientPool(
+                config().minIdle(2).idleTimeoutInMilliseconds(0).build())) {
+            pool.borrow(FTPType.FTP, credentials).close();
+            pool.evict();
+            assertEquals(2, pool.getNumIdle(FTPType.FTP, credentials));
+        }
+    }
+
+    @Test
+    void borrow_freesSlotWhenFactoryFails() {
+        AtomicInteger created = new AtomicInteger();
+        try (FileTransferClientPool pool =
+                new FileTransferClientPool(config().maxTotal(1).build(), ftpType -> {
+                    if (created.incrementAndGet() == 1) {
+                        throw new IllegalStateException("factory failed");
+                    }
+                    return JFTPClient.newFileTransferClient(ftpType);
+                })) {
+            assertThrows(IllegalStateException.class, () -> pool.borrow(FTPType.FTP, credentials));
+            assertEquals(0, pool.getNumActive(FTPType.FTP, credentials));
+            try (PooledFileTransferClient session = pool.borrow(FTPType.FTP, credentials)) {
+                assertTrue(session.validate());
+            }
+        }
+    }
+
+    @Test
+    void borrow_keysSessionsByTimeouts() {
+        Credentials shortTimeout = Credentials.builder()
+                .host(credentials.getHost())
+                .port(credentials.getPort())
+                .username(credentials.getUsername())
+                .password(credentials.getPassword())
+                .socketTimeout(1000)
+                .build();
+        try (FileTransferClientPool pool = new FileTransferClientPool(config().build())) {
+            pool.borrow(FTPType.FTP, credentials).close();
+            try (PooledFileTransferClient session = pool.borrow(FTPType.FTP, shortTimeout)) {
+                assertEquals(1, pool.getNumIdle(FTPType.FTP, credentials));
+                assertEquals(1, pool.getNumActive(FTPType.FTP, shortTimeout));
+            }
+        }
+    }
+
+    @Test
+    void jftpClient_disconnectWithoutConnect() {
+        try (FileTransferClientPool pool = new FileTransferClientPool(config().build())) {
+            assertDoesNotThrow(() -> new JFTPClient(FTPType.FTP, pool).disconnect());
+        }
+    }
+
+    @Test
+    void jftpClient_borrowsSessionFromPool() {
+        try (FileTransferClientPool pool = new FileTransferClientPool(config().build())) {
+            JFTPClient jftpClient = new JFTPClient(FTPType.FTP, pool);
+            for (int i = 0; i < 3; i++) {
+                jftpClient.connect(credentials);
+                assertEquals(1, jftpClient.listFiles("/data", null).size());
+                jftpClient.disconnect();
+            }
+            assertEquals(1, pool.getNumIdle(FTPType.FTP, credentials));
+            assertEquals(0, pool.getNumActive(FTPType.FTP, credentials));
+        }
+    }
+
+    private FileTransferClientPoolConfig.FileTransferClientPoolConfigBuilder config() {
+        return FileTransferClientPoolConfig.builder().evictionIntervalInMilliseconds(0);
+    }
+}
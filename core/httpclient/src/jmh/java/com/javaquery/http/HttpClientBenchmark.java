@@ -0,0 +1,168 @@
+package com.javaquery.http;
+
+import com.javaquery.http.handler.HttpRequestHandler;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.oauth.OAuth10HttpRequestHandler;
+import com.javaquery.http.oauth.OAuthConfig;
+import com.javaquery.http.retry.RetryPolicy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link HttpClient#execute} against {@link LocalHttpServer}, so request building, handlers, retry
+ * policy bookkeeping and logging are measured without network noise. Every operation builds its http request, sends
+ * it and reads the body as String. {@link HttpClientThroughputBenchmark} reports ops/s,
+ * {@link HttpClientLatencyBenchmark} latency percentiles and <code>gc.alloc.rate.norm</code> of the gc profiler is
+ * the number of bytes allocated per operation.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public abstract class HttpClientBenchmark {
+
+    private static final HttpResponseHandler<String> BODY = new HttpResponseHandler<String>() {
+        @Override
+        public String onResponse(HttpResponse httpResponse) {
+            return httpResponse != null ? httpResponse.getBody() : null;
+        }
+
+        @Override
+        public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+    };
+
+    /**
+     * Size of response body of GET and request payload of POST in bytes.
+     */
+    @Param({"128", "262144"})
+    public int bodySize;
+
+    private LocalHttpServer localHttpServer;
+    private HttpClient httpClient;
+    private byte[] body;
+    private String payload;
+    private RetryPolicy retryPolicy;
+    private HttpExecutionContext handlersContext;
+    private HttpExecutionContext oAuthContext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        body = new byte[bodySize];
+        Arrays.fill(body, (byte) 'a');
+        payload = "{\"data\":\"" + "a".repeat(bodySize) + "\"}";
+        localHttpServer = LocalHttpServer.start()
+                .handle("/get", httpExchange -> {
+                    httpExchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream outputStream = httpExchange.getResponseBody()) {
+                        outputStream.write(body);
+                    }
+                })
+                .handle("/post", httpExchange -> {
+                    try (InputStream inputStream = httpExchange.getRequestBody()) {
+                        inputStream.transferTo(OutputStream.nullOutputStream());
+                    }
+                    LocalHttpServer.respond(httpExchange, 200, "ok");
+                });
+        httpClient = new HttpClient();
+        retryPolicy = DefaultRetryPolicy.get(3);
+
+        handlersContext = new HttpExecutionContext();
+        handlersContext.addMetaData("tenant", "benchmark");
+        for (int i = 0; i < 3; i++) {
+            handlersContext.addHttpRequestHandler(new HeaderHttpRequestHandler("X-Handler-" + i));
+        }
+
+        oAuthContext = new HttpExecutionContext();
+        oAuthContext.addHttpRequestHandler(new OAuth10HttpRequestHandler(OAuthConfig.builder()
+                .consumerKey("consumer-key")
+                .consumerSecret("consumer-secret")
+                .accessToken("access-token")
+                .accessTokenSecret("access-token-secret")
+                .build()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        httpClient.close();
+        localHttpServer.close();
+    }
+
+    @Benchmark
+    public String get() {
+        return httpClient.execute(new HttpExecutionContext(), getRequest(null), BODY);
+    }
+
+    @Benchmark
+    public String post() {
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Post", HttpMethod.POST)
+                .withHost(localHttpServer.host())
+                .withEndPoint("/post")
+                .withHeader("Accept", "application/json")
+                .withHttpPayload(new HttpRequest.HttpPayload(StringPool.UTF8, "application/json", payload))
+                .build();
+        return httpClient.execute(new HttpExecutionContext(), httpRequest, BODY);
+    }
+
+    @Benchmark
+    public String getWithRetryPolicy() {
+        return httpClient.execute(new HttpExecutionContext(), getRequest(retryPolicy), BODY);
+    }
+
+    @Benchmark
+    public String getWithHandlers() {
+        return httpClient.execute(handlersContext, getRequest(null), BODY);
+    }
+
+    @Benchmark
+    public String getWithOAuth10() {
+        return httpClient.execute(oAuthContext, getRequest(null), BODY);
+    }
+
+    private HttpRequest getRequest(RetryPolicy retryPolicy) {
+        return new HttpRequest.HttpRequestBuilder("Get", HttpMethod.GET)
+                .withHost(localHttpServer.host())
+                .withEndPoint("/get")
+                .withHeader("Accept", "application/json")
+                .withQueryParameter("page", "1")
+                .withRetryPolicy(retryPolicy)
+                .build();
+    }
+
+    /**
+     * Handler setting a header before request, stands for typical tracing or auth handler.
+     */
+    private static final class HeaderHttpRequestHandler implements HttpRequestHandler {
+        private final String header;
+
+        private HeaderHttpRequestHandler(String header) {
+            this.header = header;
+        }
+
+        @Override
+        public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+            httpRequest.withHeader(header, String.valueOf(httpExecutionContext.getMeta("tenant", "")));
+        }
+
+        @Override
+        public void afterResponse(
+                HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {}
+
+        @Override
+        public void onError(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {}
+    }
+}
@@ -0,0 +1,16 @@
+package com.javaquery.http;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * Latency percentiles (p50 to p99.99) of {@link HttpClientBenchmark} in microseconds.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HttpClientLatencyBenchmark extends HttpClientBenchmark {}
@@ -0,0 +1,16 @@
+package com.javaquery.http;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * Operations per second of {@link HttpClientBenchmark}.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HttpClientThroughputBenchmark extends HttpClientBenchmark {}
@@ -0,0 +1,21 @@
+package com.javaquery.http;
+
+import ch.qos.logback.core.OutputStreamAppender;
+import java.io.OutputStream;
+
+/**
+ * Appender which encodes events like any other appender and discards the bytes, so benchmarks include cost of
+ * logging without flooding console or disk.
+ *
+ * @param <E> the type of event
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class NullOutputStreamAppender<E> extends OutputStreamAppender<E> {
+
+    @Override
+    public void start() {
+        setOutputStream(OutputStream.nullOutputStream());
+        super.start();
+    }
+}
@@ -3,23 +3,34 @@ package com.javaquery.http;
 import com.javaquery.http.exception.HttpException;
 import com.javaquery.util.Strings;
 import com.javaquery.util.collection.Collections;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.NameValuePair;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.*;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
+import org.apache.http.entity.FileEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.entity.mime.content.AbstractContentBody;
+import org.apache.http.entity.mime.content.ByteArrayBody;
 import org.apache.http.entity.mime.content.FileBody;
+import org.apache.http.entity.mime.content.InputStreamBody;
 import org.apache.http.entity.mime.content.StringBody;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.message.BasicNameValuePair;
@@ -76,6 +87,34 @@ class ApacheHttpRequestBuilder {
         return apacheHttpRequest;
     }
 
+    /**
+     * Build http request for non-blocking client and {@link JdkHttpTransport#executeAsync}, which read entity by pull.
+     * Multipart entity can't be read by pull so it's buffered in memory.
+     *
+     * @return the http uri request
+     */
+    public HttpUriRequest buildAsync() {
+        HttpUriRequest httpUriRequest = build();
+        if (httpUriRequest instanceof HttpEntityEnclosingRequest) {
+            HttpEntityEnclosingRequest httpEntityEnclosingRequest = (HttpEntityEnclosingRequest) httpUriRequest;
+            HttpEntity httpEntity = httpEntityEnclosingRequest.getEntity();
+            if (Objects.nonNull(httpEntity)
+                    && Objects.nonNull(httpEntity.getContentType())
+                    && httpEntity.getContentType().getValue().contains(StringPool.MULTIPART_FORM_DATA)) {
+                try {
+                    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+                    httpEntity.writeTo(byteArrayOutputStream);
+                    ByteArrayEntity byteArrayEntity = new ByteArrayEntity(byteArrayOutputStream.toByteArray());
+                    byteArrayEntity.setContentType(httpEntity.getContentType());
+                    httpEntityEnclosingRequest.setEntity(byteArrayEntity);
+                } catch (IOException e) {
+                    throw new HttpException(e);
+                }
+            }
+        }
+        return httpUriRequest;
+    }
+
     /**
      * Credentials provider credentials provider.
      *
@@ -107,6 +146,21 @@ class ApacheHttpRequestBuilder {
                 httpRequest.withHeader(
                         StringPool.CONTENT_TYPE, httpRequest.getHttpPayload().getContentType());
                 return stringEntity;
+            } else if (Objects.nonNull(httpRequest.getHttpPayload().getByteBuffer())) {
+                return byteBufferEntity(httpRequest.getHttpPayload().getByteBuffer(), contentType());
+            } else if (Objects.nonNull(httpRequest.getHttpPayload().getFile())) {
+                return new FileEntity(httpRequest.getHttpPayload().getFile(), contentType());
+            } else if (Objects.nonNull(httpRequest.getHttpPayload().getInputStreamSupplier())) {
+                return new InputStreamSupplierEntity(
+                        httpRequest.getHttpPayload().getInputStreamSupplier(),
+                        httpRequest.getHttpPayload().getContentLength(),
+                        httpRequest.getHttpPayload().isReplayable(),
+                        contentType());
+            } else if (Objects.nonNull(httpRequest.getHttpPayload().getJsonCodec())) {
+                return new JsonEntity(
+                        httpRequest.getHttpPayload().getJsonValue(),
+                        httpRequest.getHttpPayload().getJsonCodec(),
+                        contentType());
             } else if (Collections.nonNullNonEmpty(httpRequest.getHttpPayload().getForm())) {
                 if (StringPool.MULTIPART_FORM_DATA.equals(
                                 httpRequest.getHttpPayload().getContentType())
@@ -117,10 +171,10 @@ class ApacheHttpRequestBuilder {
                         if (value instanceof List) {
                             List values = (List) value;
                             for (Object o : values) {
-                                builder.addPart(key, addFormPart(o));
+                                builder.addPart(key, addFormPart(key, o));
                             }
                         } else {
-                            builder.addPart(key, addFormPart(value));
+                            builder.addPart(key, addFormPart(key, value));
                         }
                     });
                     return builder.build();
@@ -142,9 +196,46 @@ class ApacheHttpRequestBuilder {
         return null;
     }
 
-    private AbstractContentBody addFormPart(Object value) {
+    /**
+     * Content type of binary payload
+     * @return the content type or null when not provided
+     */
+    private ContentType contentType() {
+        String contentType = httpRequest.getHttpPayload().getContentType();
+        return Strings.nonNullNonEmpty(contentType) ? ContentType.parse(contentType) : null;
+    }
+
+    /**
+     * Wrap the byte buffer without copying when it's backed by an array
+     * @param byteBuffer the byte buffer
+     * @param contentType the content type
+     * @return the HttpEntity
+     */
+    private HttpEntity byteBufferEntity(ByteBuffer byteBuffer, ContentType contentType) {
+        if (byteBuffer.hasArray()) {
+            return new ByteArrayEntity(
+                    byteBuffer.array(),
+                    byteBuffer.arrayOffset() + byteBuffer.position(),
+                    byteBuffer.remaining(),
+                    contentType);
+        }
+        byte[] bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.get(bytes);
+        return new ByteArrayEntity(bytes, contentType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private AbstractContentBody addFormPart(String name, Object value) {
         if (value instanceof File) {
             return new FileBody((File) value, ContentType.DEFAULT_BINARY);
+        } else if (value instanceof Path) {
+            return new FileBody(((Path) value).toFile(), ContentType.DEFAULT_BINARY);
+        } else if (value instanceof byte[]) {
+            return new ByteArrayBody((byte[]) value, ContentType.DEFAULT_BINARY, name);
+        } else if (value instanceof InputStream) {
+            return new InputStreamBody((InputStream) value, ContentType.DEFAULT_BINARY, name);
+        } else if (value instanceof Supplier) {
+            return new InputStreamSupplierBody((Supplier<InputStream>) value, ContentType.DEFAULT_BINARY, name);
         } else {
             return new StringBody((String) value, ContentType.MULTIPART_FORM_DATA);
         }
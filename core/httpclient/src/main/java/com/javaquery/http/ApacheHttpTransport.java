@@ -0,0 +1,609 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.DeadlineExceededException;
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.metrics.ConnectionPoolStats;
+import com.javaquery.http.retry.RetryScheduler;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.cache.CacheConfig;
+import org.apache.http.impl.client.cache.CachingHttpClientBuilder;
+import org.apache.http.impl.client.cache.CachingHttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.ManagedNHttpClientConnectionFactory;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.entity.ContentBufferEntity;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.nio.util.HeapByteBufferAllocator;
+import org.apache.http.nio.util.SimpleInputBuffer;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * HTTP/1.1 transport backed by Apache HttpClient 4.5 (blocking) and Apache HttpAsyncClient 4.1 (non-blocking).
+ * Blocking client owns a long-lived pool of keep-alive connections as per {@link HttpClientConfig},
+ * non-blocking client is started on first use. Idle and expired connections are evicted by a timer shared by all
+ * transports which starts on first request and holds the pool weakly, so an unclosed transport doesn't keep a thread.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class ApacheHttpTransport implements HttpTransport {
+
+    private static final int WARM_UP_TIMEOUT_IN_MILLISECONDS = 10 * 1000;
+    private static final long EVICTION_INTERVAL_IN_MILLISECONDS = 5 * 1000;
+
+    private static final ScheduledThreadPoolExecutor EVICTOR = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "jlite-http-connection-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        EVICTOR.setRemoveOnCancelPolicy(true);
+    }
+
+    private final HttpClientConfig httpClientConfig;
+    private final DnsResolver dnsResolver;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient closeableHttpClient;
+    private final CloseableHttpClient uncachedHttpClient;
+    private final AtomicBoolean evictionStarted = new AtomicBoolean();
+    private volatile ScheduledFuture<?> eviction;
+    private volatile CloseableHttpAsyncClient closeableHttpAsyncClient;
+    private volatile boolean closed;
+
+    /**
+     * Instantiates a new Apache http transport.
+     *
+     * @param httpClientConfig the http client config
+     */
+    public ApacheHttpTransport(HttpClientConfig httpClientConfig) {
+        this.httpClientConfig = httpClientConfig;
+        this.dnsResolver = Objects.nonNull(httpClientConfig.getDnsCacheConfig())
+                ? new DnsCache(httpClientConfig.getDnsCacheConfig(), httpClientConfig.getAsyncCallbackExecutor())
+                : SystemDefaultDnsResolver.INSTANCE;
+        this.connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                        .build(),
+                null,
+                null,
+                dnsResolver,
+                httpClientConfig.getConnectionTimeToLiveInMilliseconds(),
+                TimeUnit.MILLISECONDS);
+        this.connectionManager.setMaxTotal(httpClientConfig.getMaxConnectionsTotal());
+        this.connectionManager.setDefaultMaxPerRoute(httpClientConfig.getMaxConnectionsPerRoute());
+        this.connectionManager.setValidateAfterInactivity(httpClientConfig.getValidateAfterInactivityInMilliseconds());
+
+        this.closeableHttpClient = httpClientBuilder(httpClientConfig.getHttpCacheConfig())
+                .setConnectionManager(connectionManager)
+                .build();
+        // basic auth header is added beneath the cache, such requests bypass it over the same pool
+        this.uncachedHttpClient = Objects.nonNull(httpClientConfig.getHttpCacheConfig())
+                ? HttpClients.custom()
+                        .setConnectionManager(connectionManager)
+                        .setConnectionManagerShared(true)
+                        .build()
+                : closeableHttpClient;
+    }
+
+    /**
+     * Start eviction of idle and expired connections once the pool is used.
+     */
+    private void startEviction() {
+        if ((httpClientConfig.getMaxIdleTimeInMilliseconds() > 0 || httpClientConfig.isEvictExpiredConnections())
+                && evictionStarted.compareAndSet(false, true)) {
+            long interval = httpClientConfig.getMaxIdleTimeInMilliseconds() > 0
+                    ? Math.min(httpClientConfig.getMaxIdleTimeInMilliseconds(), EVICTION_INTERVAL_IN_MILLISECONDS)
+                    : EVICTION_INTERVAL_IN_MILLISECONDS;
+            IdleConnectionEviction idleConnectionEviction = new IdleConnectionEviction(
+                    connectionManager,
+                    httpClientConfig.getMaxIdleTimeInMilliseconds(),
+                    httpClientConfig.isEvictExpiredConnections());
+            eviction =
+                    EVICTOR.scheduleWithFixedDelay(idleConnectionEviction, interval, interval, TimeUnit.MILLISECONDS);
+            idleConnectionEviction.scheduledFuture = eviction;
+        }
+    }
+
+    /**
+     * Caching client builder when http response cache is configured.
+     * @param httpCacheConfig the http cache config
+     * @return the http client builder
+     */
+    private static HttpClientBuilder httpClientBuilder(HttpCacheConfig httpCacheConfig) {
+        if (Objects.isNull(httpCacheConfig)) {
+            return HttpClients.custom();
+        }
+        CachingHttpClientBuilder cachingHttpClientBuilder = CachingHttpClients.custom()
+                .setCacheConfig(CacheConfig.custom()
+                        .setMaxCacheEntries(httpCacheConfig.getMaxCacheEntries())
+                        .setMaxObjectSize(httpCacheConfig.getMaxObjectSizeInBytes())
+                        .setSharedCache(httpCacheConfig.isSharedCache())
+                        .setHeuristicCachingEnabled(httpCacheConfig.isHeuristicCachingEnabled())
+                        .build());
+        if (Objects.nonNull(httpCacheConfig.getCacheDirectory())) {
+            cachingHttpClientBuilder.setCacheDir(
+                    httpCacheConfig.getCacheDirectory().toFile());
+        }
+        return cachingHttpClientBuilder;
+    }
+
+    @Override
+    public HttpTransportResponse execute(HttpRequest httpRequest) throws IOException {
+        return execute(httpRequest, httpClientConfig.getTimeoutConfig());
+    }
+
+    /**
+     * Send http request, request is aborted when response headers are not received within deadline of the attempt.
+     * Body is read after this method returns, so its reads are bounded by socket timeout.
+     */
+    @Override
+    public HttpTransportResponse execute(HttpRequest httpRequest, TimeoutConfig timeoutConfig) throws IOException {
+        startEviction();
+        ApacheHttpRequestBuilder apacheHttpRequestBuilder = new ApacheHttpRequestBuilder(httpRequest);
+        HttpRequestBase apacheHttpRequest = (HttpRequestBase) apacheHttpRequestBuilder.build();
+        apacheHttpRequest.setConfig(requestConfig(timeoutConfig));
+        CredentialsProvider credentialsProvider = apacheHttpRequestBuilder.credentialsProvider();
+        HttpClientContext httpClientContext = httpClientContext(credentialsProvider);
+        AtomicBoolean deadlineExceeded = new AtomicBoolean();
+        ScheduledFuture<?> deadline = timeoutConfig.hasDeadline()
+                ? RetryScheduler.schedule(
+                        () -> {
+                            if (deadlineExceeded.compareAndSet(false, true)) {
+                                apacheHttpRequest.abort();
+                            }
+                        },
+                        timeoutConfig.getDeadlineInMilliseconds(),
+                        httpClientConfig.getAsyncCallbackExecutor())
+                : null;
+        CloseableHttpResponse closeableHttpResponse;
+        try {
+            closeableHttpResponse = (Objects.nonNull(credentialsProvider) ? uncachedHttpClient : closeableHttpClient)
+                    .execute(apacheHttpRequest, httpClientContext);
+        } catch (IOException e) {
+            if (deadlineExceeded.get()) {
+                throw deadlineExceeded(httpRequest);
+            }
+            throw e;
+        } finally {
+            if (Objects.nonNull(deadline)) {
+                deadline.cancel(false);
+            }
+        }
+        if (Objects.nonNull(deadline) && !deadlineExceeded.compareAndSet(false, true)) {
+            closeableHttpResponse.close();
+            throw deadlineExceeded(httpRequest);
+        }
+        return new HttpTransportResponse(
+                closeableHttpResponse,
+                HttpCacheStatus.from(httpClientContext),
+                bytesSent(apacheHttpRequest),
+                closeableHttpResponse);
+    }
+
+    @Override
+    public CompletableFuture<HttpTransportResponse> executeAsync(HttpRequest httpRequest) {
+        return executeAsync(httpRequest, httpClientConfig.getTimeoutConfig());
+    }
+
+    /**
+     * Send http request over non-blocking client, future fails when response is not received within deadline of
+     * the attempt and the request is cancelled.
+     */
+    @Override
+    public CompletableFuture<HttpTransportResponse> executeAsync(HttpRequest httpRequest, TimeoutConfig timeoutConfig) {
+        CompletableFuture<HttpTransportResponse> future = new CompletableFuture<>();
+        ApacheHttpRequestBuilder apacheHttpRequestBuilder = new ApacheHttpRequestBuilder(httpRequest);
+        HttpRequestBase apacheHttpRequest = (HttpRequestBase) apacheHttpRequestBuilder.buildAsync();
+        apacheHttpRequest.setConfig(requestConfig(timeoutConfig));
+        HttpClientContext httpClientContext = httpClientContext(apacheHttpRequestBuilder.credentialsProvider());
+        Future<org.apache.http.HttpResponse> apacheFuture = closeableHttpAsyncClient()
+                .execute(
+                        HttpAsyncMethods.create(apacheHttpRequest),
+                        new MaxBodySizeResponseConsumer(httpClientConfig.getMaxResponseBodySizeInBytes()),
+                        httpClientContext,
+                        new FutureCallback<org.apache.http.HttpResponse>() {
+                            @Override
+                            public void completed(org.apache.http.HttpResponse apacheHttpResponse) {
+                                future.complete(new HttpTransportResponse(
+                                        apacheHttpResponse, null, bytesSent(apacheHttpRequest), null));
+                            }
+
+                            @Override
+                            public void failed(Exception exception) {
+                                future.completeExceptionally(
+                                        exception instanceof MaxBodySizeExceededException
+                                                ? new HttpException(exception.getMessage())
+                                                : exception);
+                            }
+
+                            @Override
+                            public void cancelled() {
+                                future.completeExceptionally(new CancellationException());
+                            }
+                        });
+        ScheduledFuture<?> deadline = timeoutConfig.hasDeadline()
+                ? RetryScheduler.schedule(
+                        () -> {
+                            if (future.completeExceptionally(deadlineExceeded(httpRequest))) {
+                                apacheFuture.cancel(true);
+                            }
+                        },
+                        timeoutConfig.getDeadlineInMilliseconds(),
+                        httpClientConfig.getAsyncCallbackExecutor())
+                : null;
+        future.whenComplete((httpTransportResponse, throwable) -> {
+            if (Objects.nonNull(deadline)) {
+                deadline.cancel(false);
+            }
+            if (future.isCancelled()) {
+                apacheFuture.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Request config with connect, connection request and socket timeouts, negative values use client defaults.
+     * @param timeoutConfig the timeout config
+     * @return the request config
+     */
+    private static RequestConfig requestConfig(TimeoutConfig timeoutConfig) {
+        return RequestConfig.custom()
+                .setConnectTimeout(timeoutConfig.getConnectTimeoutInMilliseconds())
+                .setConnectionRequestTimeout(timeoutConfig.getConnectionRequestTimeoutInMilliseconds())
+                .setSocketTimeout(timeoutConfig.getSocketTimeoutInMilliseconds())
+                .build();
+    }
+
+    private static DeadlineExceededException deadlineExceeded(HttpRequest httpRequest) {
+        return new DeadlineExceededException(
+                String.format(StringPool.ERROR_DEADLINE_EXCEEDED, httpRequest.getHttpRequestName()));
+    }
+
+    /**
+     * Gets current stats of connection pool of blocking client.
+     *
+     * @return the connection pool stats
+     */
+    @Override
+    public ConnectionPoolStats getConnectionPoolStats() {
+        PoolStats poolStats = connectionManager.getTotalStats();
+        return new ConnectionPoolStats(
+                poolStats.getLeased(), poolStats.getPending(), poolStats.getAvailable(), poolStats.getMax());
+    }
+
+    /**
+     * Lease connections to the host from the pool of blocking client, connect them in parallel and release them
+     * back to the pool as idle keep-alive connections. Number of connections is capped by max connections per route.
+     *
+     * @param host        the host, i.e. <code>https://api.example.com</code>
+     * @param connections the number of connections to open
+     * @param executor    the executor to connect on
+     * @return the future of number of connections opened (or already open) in the pool
+     */
+    @Override
+    public CompletableFuture<Integer> warmUp(URI host, int connections, Executor executor) {
+        startEviction();
+        boolean secure = "https".equalsIgnoreCase(host.getScheme());
+        HttpRoute httpRoute = new HttpRoute(
+                new HttpHost(host.getHost(), host.getPort() > 0 ? host.getPort() : secure ? 443 : 80, host.getScheme()),
+                null,
+                secure);
+        List<HttpClientConnection> leased = new ArrayList<>();
+        List<CompletableFuture<Boolean>> connected = new ArrayList<>();
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        try {
+            for (int i = 0; i < Math.min(connections, httpClientConfig.getMaxConnectionsPerRoute()); i++) {
+                leased.add(connectionManager
+                        .requestConnection(httpRoute, null)
+                        .get(WARM_UP_TIMEOUT_IN_MILLISECONDS, TimeUnit.MILLISECONDS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            leased.forEach(this::releaseWarmConnection);
+            return CompletableFuture.failedFuture(e);
+        } catch (ExecutionException | ConnectionPoolTimeoutException e) {
+            leased.forEach(this::releaseWarmConnection);
+            return CompletableFuture.failedFuture(e);
+        }
+        for (HttpClientConnection httpClientConnection : leased) {
+            connected.add(
+                    CompletableFuture.supplyAsync(() -> connect(httpClientConnection, httpRoute, failure), executor));
+        }
+        return CompletableFuture.allOf(connected.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignore -> {
+                    leased.forEach(this::releaseWarmConnection);
+                    int opened = (int)
+                            connected.stream().filter(CompletableFuture::join).count();
+                    if (opened == 0 && Objects.nonNull(failure.get())) {
+                        throw new CompletionException(failure.get());
+                    }
+                    return opened;
+                });
+    }
+
+    /**
+     * Open the connection unless it's already open.
+     * @param httpClientConnection the http client connection
+     * @param httpRoute the http route
+     * @param failure holds the last connect failure
+     * @return true if connection is open
+     */
+    private boolean connect(
+            HttpClientConnection httpClientConnection, HttpRoute httpRoute, AtomicReference<IOException> failure) {
+        try {
+            if (!httpClientConnection.isOpen()) {
+                HttpClientContext httpClientContext = HttpClientContext.create();
+                connectionManager.connect(
+                        httpClientConnection, httpRoute, WARM_UP_TIMEOUT_IN_MILLISECONDS, httpClientContext);
+                connectionManager.routeComplete(httpClientConnection, httpRoute, httpClientContext);
+            }
+            return true;
+        } catch (IOException e) {
+            failure.set(e);
+            return false;
+        }
+    }
+
+    /**
+     * Release warmed up connection to the pool, it's kept alive until evicted as idle.
+     * @param httpClientConnection the http client connection
+     */
+    private void releaseWarmConnection(HttpClientConnection httpClientConnection) {
+        connectionManager.releaseConnection(httpClientConnection, null, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Non-blocking client is started on first use, so blocking only users do not pay for I/O dispatcher threads.
+     * @return the closeable http async client
+     * @throws IllegalStateException when transport is closed
+     */
+    private CloseableHttpAsyncClient closeableHttpAsyncClient() {
+        if (closed) {
+            throw new IllegalStateException(StringPool.ERROR_TRANSPORT_CLOSED);
+        }
+        if (Objects.isNull(closeableHttpAsyncClient)) {
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException(StringPool.ERROR_TRANSPORT_CLOSED);
+                }
+                if (Objects.isNull(closeableHttpAsyncClient)) {
+                    IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                            .setIoThreadCount(httpClientConfig.getIoThreadCount())
+                            .build();
+                    HttpAsyncClientBuilder httpAsyncClientBuilder = HttpAsyncClients.custom()
+                            .setMaxConnTotal(httpClientConfig.getMaxConnectionsTotal())
+                            .setMaxConnPerRoute(httpClientConfig.getMaxConnectionsPerRoute())
+                            .setDefaultIOReactorConfig(ioReactorConfig);
+                    if (dnsResolver instanceof DnsCache) {
+                        httpAsyncClientBuilder.setConnectionManager(asyncConnectionManager(ioReactorConfig));
+                    }
+                    CloseableHttpAsyncClient httpAsyncClient = httpAsyncClientBuilder.build();
+                    httpAsyncClient.start();
+                    closeableHttpAsyncClient = httpAsyncClient;
+                }
+            }
+        }
+        return closeableHttpAsyncClient;
+    }
+
+    /**
+     * Connection manager of non-blocking client resolving hosts using DNS cache.
+     * @param ioReactorConfig the io reactor config
+     * @return the pooling connection manager
+     */
+    private PoolingNHttpClientConnectionManager asyncConnectionManager(IOReactorConfig ioReactorConfig) {
+        try {
+            PoolingNHttpClientConnectionManager asyncConnectionManager = new PoolingNHttpClientConnectionManager(
+                    new DefaultConnectingIOReactor(ioReactorConfig),
+                    ManagedNHttpClientConnectionFactory.INSTANCE,
+                    RegistryBuilder.<SchemeIOSessionStrategy>create()
+                            .register("http", NoopIOSessionStrategy.INSTANCE)
+                            .register("https", SSLIOSessionStrategy.getDefaultStrategy())
+                            .build(),
+                    dnsResolver);
+            asyncConnectionManager.setMaxTotal(httpClientConfig.getMaxConnectionsTotal());
+            asyncConnectionManager.setDefaultMaxPerRoute(httpClientConfig.getMaxConnectionsPerRoute());
+            return asyncConnectionManager;
+        } catch (IOReactorException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Credentials are set per request so the pooled client can be shared between requests.
+     * @param credentialsProvider the credentials provider of http request
+     * @return the http client context
+     */
+    private HttpClientContext httpClientContext(CredentialsProvider credentialsProvider) {
+        HttpClientContext httpClientContext = HttpClientContext.create();
+        if (Objects.nonNull(credentialsProvider)) {
+            httpClientContext.setCredentialsProvider(credentialsProvider);
+        }
+        return httpClientContext;
+    }
+
+    private static long bytesSent(HttpUriRequest apacheHttpRequest) {
+        if (apacheHttpRequest instanceof HttpEntityEnclosingRequest
+                && Objects.nonNull(((HttpEntityEnclosingRequest) apacheHttpRequest).getEntity())) {
+            return ((HttpEntityEnclosingRequest) apacheHttpRequest).getEntity().getContentLength();
+        }
+        return -1;
+    }
+
+    /**
+     * Close the blocking and non-blocking clients and all pooled connections.
+     */
+    @Override
+    public void close() throws IOException {
+        evictionStarted.set(true);
+        if (Objects.nonNull(eviction)) {
+            eviction.cancel(false);
+        }
+        uncachedHttpClient.close();
+        closeableHttpClient.close();
+        synchronized (this) {
+            closed = true;
+            if (Objects.nonNull(closeableHttpAsyncClient)) {
+                closeableHttpAsyncClient.close();
+            }
+        }
+    }
+
+    /**
+     * Response consumer of non-blocking client buffering the body in memory up to max body size, the exchange fails
+     * (and its connection is closed) as soon as more is received, so oversized body is never held in memory.
+     */
+    private static final class MaxBodySizeResponseConsumer
+            extends AbstractAsyncResponseConsumer<org.apache.http.HttpResponse> {
+        private static final int BUFFER_SIZE = 4096;
+
+        private final long maxBodySize;
+        private volatile org.apache.http.HttpResponse apacheHttpResponse;
+        private volatile SimpleInputBuffer simpleInputBuffer;
+
+        private MaxBodySizeResponseConsumer(long maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+
+        @Override
+        protected void onResponseReceived(org.apache.http.HttpResponse apacheHttpResponse) {
+            this.apacheHttpResponse = apacheHttpResponse;
+        }
+
+        @Override
+        protected void onEntityEnclosed(HttpEntity httpEntity, ContentType contentType) throws IOException {
+            long contentLength = httpEntity.getContentLength();
+            if (maxBodySize >= 0 && contentLength > maxBodySize) {
+                throw new MaxBodySizeExceededException(maxBodySize);
+            }
+            int capacity = contentLength < 0 ? BUFFER_SIZE : (int) Math.min(contentLength, Integer.MAX_VALUE);
+            simpleInputBuffer = new SimpleInputBuffer(capacity, new HeapByteBufferAllocator());
+            apacheHttpResponse.setEntity(httpEntity);
+        }
+
+        @Override
+        protected void onContentReceived(ContentDecoder contentDecoder, IOControl ioControl) throws IOException {
+            simpleInputBuffer.consumeContent(contentDecoder);
+            if (maxBodySize >= 0 && simpleInputBuffer.length() > maxBodySize) {
+                throw new MaxBodySizeExceededException(maxBodySize);
+            }
+        }
+
+        @Override
+        protected org.apache.http.HttpResponse buildResult(HttpContext httpContext) {
+            if (Objects.nonNull(simpleInputBuffer)) {
+                apacheHttpResponse.setEntity(
+                        new ContentBufferEntity(apacheHttpResponse.getEntity(), simpleInputBuffer));
+            }
+            return apacheHttpResponse;
+        }
+
+        @Override
+        protected void releaseResources() {
+            apacheHttpResponse = null;
+            simpleInputBuffer = null;
+        }
+    }
+
+    /**
+     * Body of non-blocking response exceeded max body size, reported as {@link HttpException}.
+     */
+    private static final class MaxBodySizeExceededException extends IOException {
+        private MaxBodySizeExceededException(long maxBodySize) {
+            super(String.format(StringPool.ERROR_MAX_BODY_SIZE, maxBodySize));
+        }
+    }
+
+    /**
+     * Evict idle and expired connections of the pool, task cancels itself once the pool is garbage collected so
+     * the shared timer never keeps an unclosed transport alive.
+     */
+    private static final class IdleConnectionEviction implements Runnable {
+        private final WeakReference<PoolingHttpClientConnectionManager> connectionManager;
+        private final long maxIdleTimeInMilliseconds;
+        private final boolean evictExpiredConnections;
+        private volatile ScheduledFuture<?> scheduledFuture;
+
+        private IdleConnectionEviction(
+                PoolingHttpClientConnectionManager connectionManager,
+                long maxIdleTimeInMilliseconds,
+                boolean evictExpiredConnections) {
+            this.connectionManager = new WeakReference<>(connectionManager);
+            this.maxIdleTimeInMilliseconds = maxIdleTimeInMilliseconds;
+            this.evictExpiredConnections = evictExpiredConnections;
+        }
+
+        @Override
+        public void run() {
+            PoolingHttpClientConnectionManager poolingHttpClientConnectionManager = connectionManager.get();
+            if (Objects.isNull(poolingHttpClientConnectionManager)) {
+                if (Objects.nonNull(scheduledFuture)) {
+                    scheduledFuture.cancel(false);
+                }
+                return;
+            }
+            if (evictExpiredConnections) {
+                poolingHttpClientConnectionManager.closeExpiredConnections();
+            }
+            if (maxIdleTimeInMilliseconds > 0) {
+                poolingHttpClientConnectionManager.closeIdleConnections(
+                        maxIdleTimeInMilliseconds, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.javaquery.http;
+
+import com.javaquery.helper.BatchProcessor;
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Execute many http requests with bounded concurrency over {@link HttpClient#executeAsync}.
+ * Requests are pulled from the source as capacity frees up so large (or lazily generated) sources are never
+ * held in memory at once. Results are delivered to {@link BatchProcessor} on the calling thread as they complete,
+ * either in order of the source or in order of completion. Failure or retries of one request never stall the rest.
+ * At most {@code maxConcurrency} requests are read ahead of those in flight and they are started in order of hosts
+ * within that read-ahead, so source with long run of requests to one host is sent at {@code maxConcurrencyPerHost}
+ * until the run is consumed, interleave hosts in the source to keep all of them busy.
+ * <pre>{@code
+ * BulkRequestExecutor.<JSONObject>builder(httpClient)
+ *     .httpResponseHandler(httpResponseHandler)
+ *     .maxConcurrency(64)
+ *     .maxConcurrencyPerHost(8)
+ *     .batchSize(100)
+ *     .batchProcessor(batch -> save(batch))
+ *     .execute(httpRequests);
+ * }</pre>
+ *
+ * @param <R> the type of result of http response handler
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class BulkRequestExecutor<R> {
+    /* ordered delivery holds at most maxConcurrency * ORDERED_WINDOW_FACTOR requests behind the oldest undelivered */
+    private static final int ORDERED_WINDOW_FACTOR = 4;
+
+    private final HttpClient httpClient;
+    private HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+    private HttpResponseHandler<R> httpResponseHandler;
+    private int maxConcurrency;
+    private int maxConcurrencyPerHost;
+    private boolean ordered = false;
+    private BatchProcessor<BulkResult<R>> batchProcessor;
+    private int batchSize = 100;
+
+    private BulkRequestExecutor(HttpClient httpClient) {
+        this.httpClient = httpClient;
+        this.maxConcurrency = httpClient.getHttpClientConfig().getMaxConnectionsTotal();
+        this.maxConcurrencyPerHost = httpClient.getHttpClientConfig().getMaxConnectionsPerRoute();
+    }
+
+    /**
+     * Creates a new BulkRequestExecutor instance using the builder pattern.
+     * Concurrency defaults to connection pool limits of {@link HttpClientConfig}.
+     * @param <R> the type of result of http response handler
+     * @param httpClient the http client
+     * @return a new BulkRequestExecutor instance
+     */
+    public static <R> BulkRequestExecutor<R> builder(HttpClient httpClient) {
+        return new BulkRequestExecutor<>(httpClient);
+    }
+
+    /**
+     * Sets the http execution context shared by all requests.
+     * @param httpExecutionContext the http execution context
+     * @return the BulkRequestExecutor instance
+     */
+    public BulkRequestExecutor<R> httpExecutionContext(HttpExecutionContext httpExecutionContext) {
+        this.httpExecutionContext = httpExecutionContext;
+        return this;
+    }
+
+    /**
+     * Sets the http response handler executed for each request.
+     * @param httpResponseHandler the http response handler
+     * @return the BulkRequestExecutor instance
+     */
+    public BulkRequestExecutor<R> httpResponseHandler(HttpResponseHandler<R> httpResponseHandler) {
+        this.httpResponseHandler = httpResponseHandler;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of requests in flight.
+     * @param maxConcurrency the max concurrency
+     * @return the BulkRequestExecutor instance
+     */
+    public BulkRequestExecutor<R> maxConcurrency(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException(StringPool.ERROR_MAX_CONCURRENCY_VALUE);
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of requests in flight to a single host.
+     * @param maxConcurrencyPerHost the max concurrency per host
+     * @return the BulkRequestExecutor instance
+     */
+    public BulkRequestExecutor<R> maxConcurrencyPerHost(int maxConcurrencyPerHost) {
+        if (maxConcurrencyPerHost <= 0) {
+            throw new IllegalArgumentException(StringPool.ERROR_MAX_CONCURRENCY_PER_HOST_VALUE);
+        }
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+        return this;
+    }
+
+    /**
+     * Deliver results in order of the source instead of order of completion.
+     * Source is not read further while results of {@code maxConcurrency * 4} requests wait for the oldest
+     * undelivered request, so one slow request bounds the memory held instead of buffering the rest of the source.
+     * @param ordered the ordered
+     * @return the BulkRequestExecutor instance
+     */
+    public BulkRequestExecutor<R> ordered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * Sets the batch processor to handle batches of results.
+     * @param batchProcessor the batch processor
+     * @return the BulkRequestExecutor instance
+     */
+    public BulkRequestExecutor<R> batchProcessor(BatchProcessor<BulkResult<R>> batchProcessor) {
+        this.batchProcessor = batchProcessor;
+        return this;
+    }
+
+    /**
+     * Sets the size of each batch to be processed.
+     * @param batchSize the batch size
+     * @return the BulkRequestExecutor instance
+     */
+    public BulkRequestExecutor<R> batchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(StringPool.ERROR_BATCH_SIZE_VALUE);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Execute http requests and block until all of them completed and results are delivered.
+     * @param httpRequests the http requests
+     */
+    public void execute(Iterable<HttpRequest> httpRequests) {
+        if (Objects.isNull(httpRequests)) {
+            throw new IllegalArgumentException(StringPool.ERROR_HTTP_REQUESTS_REQUIRED);
+        }
+        if (Objects.isNull(batchProcessor)) {
+            throw new IllegalArgumentException(StringPool.ERROR_BATCH_PROCESSOR_REQUIRED);
+        }
+        new Dispatcher(httpRequests.iterator()).run();
+    }
+
+    /**
+     * Keeps the state of single {@link #execute} and it's only accessed by the calling thread,
+     * completed requests are handed over through the completion queue.
+     */
+    private class Dispatcher {
+        private final Iterator<HttpRequest> source;
+        private final BlockingQueue<BulkResult<R>> completions = new LinkedBlockingQueue<>();
+        /* hosts with pending requests, in order they were first seen */
+        private final Map<String, Queue<BulkResult<R>>> pending = new LinkedHashMap<>();
+        private final Map<String, Integer> inFlightPerHost = new HashMap<>();
+        private final Map<Integer, BulkResult<R>> outOfOrder = new HashMap<>();
+        private List<BulkResult<R>> batch = new ArrayList<>(batchSize);
+        private int nextIndex;
+        private int pendingCount;
+        private int inFlight;
+        private int nextDeliveryIndex;
+        private int totalProcessed;
+        private int totalBatches;
+
+        private Dispatcher(Iterator<HttpRequest> source) {
+            this.source = source;
+        }
+
+        private void run() {
+            while (true) {
+                /* keep at most maxConcurrency requests pending, so the source is consumed as capacity frees up */
+                while (pendingCount < maxConcurrency && withinOrderedWindow() && source.hasNext()) {
+                    HttpRequest httpRequest = source.next();
+                    pending.computeIfAbsent(host(httpRequest), key -> new ArrayDeque<>())
+                            .add(new BulkResult<>(nextIndex++, httpRequest, null, null));
+                    pendingCount++;
+                }
+                dispatch();
+                if (inFlight == 0 && pendingCount == 0 && !source.hasNext()) {
+                    break;
+                }
+                try {
+                    onCompleted(completions.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new HttpException(e);
+                }
+                BulkResult<R> bulkResult;
+                while ((bulkResult = completions.poll()) != null) {
+                    onCompleted(bulkResult);
+                }
+            }
+            if (!batch.isEmpty()) {
+                flush();
+            }
+            batchProcessor.onComplete(totalProcessed, totalBatches);
+        }
+
+        /**
+         * In ordered mode stop reading the source while too many results wait behind the oldest undelivered request.
+         */
+        private boolean withinOrderedWindow() {
+            return !ordered || nextIndex - nextDeliveryIndex < (long) maxConcurrency * ORDERED_WINDOW_FACTOR;
+        }
+
+        /**
+         * Start pending requests of every host while global and per-host limits permit.
+         */
+        private void dispatch() {
+            Iterator<Map.Entry<String, Queue<BulkResult<R>>>> hosts =
+                    pending.entrySet().iterator();
+            while (inFlight < maxConcurrency && hosts.hasNext()) {
+                Map.Entry<String, Queue<BulkResult<R>>> host = hosts.next();
+                Queue<BulkResult<R>> queue = host.getValue();
+                int hostInFlight = inFlightPerHost.getOrDefault(host.getKey(), 0);
+                while (inFlight < maxConcurrency && hostInFlight < maxConcurrencyPerHost && !queue.isEmpty()) {
+                    start(queue.poll());
+                    hostInFlight++;
+                    pendingCount--;
+                }
+                if (hostInFlight > 0) {
+                    inFlightPerHost.put(host.getKey(), hostInFlight);
+                }
+                if (queue.isEmpty()) {
+                    hosts.remove();
+                }
+            }
+        }
+
+        private void start(BulkResult<R> request) {
+            inFlight++;
+            try {
+                httpClient
+                        .executeAsync(httpExecutionContext, request.getHttpRequest(), httpResponseHandler)
+                        .whenComplete((result, exception) -> completions.add(new BulkResult<>(
+                                request.getIndex(), request.getHttpRequest(), result, unwrap(exception))));
+            } catch (RuntimeException e) {
+                completions.add(new BulkResult<>(request.getIndex(), request.getHttpRequest(), null, e));
+            }
+        }
+
+        private void onCompleted(BulkResult<R> bulkResult) {
+            inFlight--;
+            inFlightPerHost.merge(
+                    host(bulkResult.getHttpRequest()), -1, (count, decrement) -> count == 1 ? null : count - 1);
+            if (!ordered) {
+                deliver(bulkResult);
+                return;
+            }
+            outOfOrder.put(bulkResult.getIndex(), bulkResult);
+            BulkResult<R> next;
+            while ((next = outOfOrder.remove(nextDeliveryIndex)) != null) {
+                deliver(next);
+                nextDeliveryIndex++;
+            }
+        }
+
+        private void deliver(BulkResult<R> bulkResult) {
+            batch.add(bulkResult);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            List<BulkResult<R>> currentBatch = batch;
+            batch = new ArrayList<>(batchSize);
+            totalProcessed += currentBatch.size();
+            totalBatches++;
+            batchProcessor.onBatch(currentBatch);
+        }
+
+        private String host(HttpRequest httpRequest) {
+            return Objects.nonNull(httpRequest.getHost())
+                    ? httpRequest.getHost().getHost() + ":"
+                            + httpRequest.getHost().getPort()
+                    : "";
+        }
+
+        private Throwable unwrap(Throwable exception) {
+            return exception instanceof CompletionException && Objects.nonNull(exception.getCause())
+                    ? exception.getCause()
+                    : exception;
+        }
+    }
+}
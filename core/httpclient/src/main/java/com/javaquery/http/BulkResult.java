@@ -0,0 +1,48 @@
+package com.javaquery.http;
+
+import java.util.Objects;
+import lombok.Getter;
+
+/**
+ * Result of single http request executed by {@link BulkRequestExecutor}.
+ *
+ * @param <R> the type of result of http response handler
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+public class BulkResult<R> {
+
+    /**
+     * Position of http request in the source.
+     */
+    private final int index;
+
+    private final HttpRequest httpRequest;
+
+    /**
+     * Result of {@link com.javaquery.http.handler.HttpResponseHandler}, null when execution failed.
+     */
+    private final R result;
+
+    /**
+     * Exception thrown while executing the request or its handlers, null on success.
+     */
+    private final Throwable exception;
+
+    BulkResult(int index, HttpRequest httpRequest, R result, Throwable exception) {
+        this.index = index;
+        this.httpRequest = httpRequest;
+        this.result = result;
+        this.exception = exception;
+    }
+
+    /**
+     * Request and its handlers completed without exception.
+     *
+     * @return the boolean
+     */
+    public boolean isSuccess() {
+        return Objects.isNull(exception);
+    }
+}
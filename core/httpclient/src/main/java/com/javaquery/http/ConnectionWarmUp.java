@@ -0,0 +1,92 @@
+package com.javaquery.http;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Status of connection warm-up started by {@link HttpClient#warmUp(Map)}, i.e. for readiness probe to wait until
+ * connections to known hosts are open.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class ConnectionWarmUp {
+
+    private final Map<String, Integer> connectionsOpened = new ConcurrentHashMap<>();
+    private final Map<String, Exception> errors = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    ConnectionWarmUp() {}
+
+    void onHostWarmedUp(String host, int connections) {
+        connectionsOpened.put(host, connections);
+    }
+
+    void onHostFailed(String host, Exception exception) {
+        errors.put(host, exception);
+    }
+
+    void onCompleted() {
+        completion.complete(null);
+    }
+
+    /**
+     * Warm-up of all hosts completed, successfully or not.
+     *
+     * @return the boolean
+     */
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    /**
+     * Warm-up completed and every host was warmed up.
+     *
+     * @return the boolean
+     */
+    public boolean isSuccessful() {
+        return completion.isDone() && errors.isEmpty();
+    }
+
+    /**
+     * Wait for warm-up to complete.
+     *
+     * @param timeout  the timeout
+     * @param timeUnit the time unit
+     * @return true if warm-up completed within timeout
+     * @throws InterruptedException the interrupted exception
+     */
+    public boolean await(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        try {
+            completion.get(timeout, timeUnit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Gets number of connections opened per host.
+     *
+     * @return the connections opened
+     */
+    public Map<String, Integer> getConnectionsOpened() {
+        return Collections.unmodifiableMap(connectionsOpened);
+    }
+
+    /**
+     * Gets errors per host which couldn't be resolved or connected.
+     *
+     * @return the errors
+     */
+    public Map<String, Exception> getErrors() {
+        return Collections.unmodifiableMap(errors);
+    }
+}
@@ -0,0 +1,97 @@
+package com.javaquery.http;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.http.conn.DnsResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process DNS cache with TTL and background refresh as per {@link DnsCacheConfig}.
+ * Address used within refresh-ahead period before its expiry is resolved again on the executor while the cached one
+ * is still returned, failed refresh keeps the cached address until it expires.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class DnsCache implements DnsResolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DnsCache.class);
+
+    private final DnsCacheConfig dnsCacheConfig;
+    private final Executor executor;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Dns cache.
+     *
+     * @param dnsCacheConfig the dns cache config
+     * @param executor       the executor of background refresh
+     */
+    public DnsCache(DnsCacheConfig dnsCacheConfig, Executor executor) {
+        this.dnsCacheConfig = dnsCacheConfig;
+        this.executor = executor;
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        Entry entry = entries.get(host);
+        long now = System.nanoTime();
+        if (Objects.nonNull(entry) && now - entry.expiresAt < 0) {
+            if (now - entry.refreshAt >= 0 && entry.refreshStarted.compareAndSet(false, true)) {
+                executor.execute(() -> refresh(host));
+            }
+            return entry.addresses.clone();
+        }
+        return lookup(host).addresses.clone();
+    }
+
+    /**
+     * Drop cached addresses of the host.
+     *
+     * @param host the host
+     */
+    public void invalidate(String host) {
+        entries.remove(host);
+    }
+
+    private Entry lookup(String host) throws UnknownHostException {
+        Entry entry = new Entry(dnsCacheConfig.getDnsResolver().resolve(host), dnsCacheConfig);
+        entries.put(host, entry);
+        return entry;
+    }
+
+    private void refresh(String host) {
+        try {
+            lookup(host);
+        } catch (UnknownHostException | RuntimeException e) {
+            LOGGER.warn(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resolved addresses with expiry and refresh time (System.nanoTime).
+     */
+    private static final class Entry {
+        private final InetAddress[] addresses;
+        private final long expiresAt;
+        private final long refreshAt;
+        private final AtomicBoolean refreshStarted;
+
+        private Entry(InetAddress[] addresses, DnsCacheConfig dnsCacheConfig) {
+            long now = System.nanoTime();
+            this.addresses = addresses;
+            this.expiresAt = now + TimeUnit.MILLISECONDS.toNanos(dnsCacheConfig.getTtlInMilliseconds());
+            this.refreshAt = dnsCacheConfig.getRefreshAheadInMilliseconds() > 0
+                    ? expiresAt - TimeUnit.MILLISECONDS.toNanos(dnsCacheConfig.getRefreshAheadInMilliseconds())
+                    : expiresAt;
+            this.refreshStarted = new AtomicBoolean(dnsCacheConfig.getRefreshAheadInMilliseconds() <= 0);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.javaquery.http;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+
+/**
+ * Configuration of in-process DNS cache of {@link ApacheHttpTransport}.
+ * Resolved addresses are reused for new connections until TTL expires, hosts in use are resolved again in the
+ * background shortly before expiry so requests don't wait for DNS.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+@Builder
+public class DnsCacheConfig {
+
+    /**
+     * Time to live of resolved addresses.
+     */
+    @Builder.Default
+    private long ttlInMilliseconds = 60 * 1000;
+
+    /**
+     * Addresses used within this period before expiry are resolved again in the background, 0 to disable.
+     */
+    @Builder.Default
+    private long refreshAheadInMilliseconds = 10 * 1000;
+
+    /**
+     * Resolver used on cache miss and refresh.
+     */
+    @Builder.Default
+    private DnsResolver dnsResolver = SystemDefaultDnsResolver.INSTANCE;
+}
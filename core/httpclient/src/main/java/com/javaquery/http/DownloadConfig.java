@@ -0,0 +1,47 @@
+package com.javaquery.http;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of {@link HttpClient#download(HttpExecutionContext, HttpRequest, java.nio.file.Path, DownloadConfig)}.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+@Builder
+public class DownloadConfig {
+
+    /**
+     * Number of byte ranges downloaded concurrently.
+     */
+    @Builder.Default
+    private int parallelism = 4;
+
+    /**
+     * Size of single byte range.
+     */
+    @Builder.Default
+    private long rangeSizeInBytes = 8 * 1024 * 1024;
+
+    /**
+     * Keep completed ranges of failed download and continue from them on next download to the same target.
+     * Download is resumed only when server sent <code>ETag</code> or <code>Last-Modified</code> and it didn't change.
+     */
+    @Builder.Default
+    private boolean resume = true;
+
+    /**
+     * {@link java.security.MessageDigest} algorithm (i.e. <code>SHA-256</code>) of checksum calculated over
+     * downloaded file, null to skip.
+     */
+    @Builder.Default
+    private String checksumAlgorithm = null;
+
+    /**
+     * Expected checksum in hex, download fails when calculated checksum doesn't match. Null to skip verification.
+     */
+    @Builder.Default
+    private String expectedChecksum = null;
+}
@@ -0,0 +1,59 @@
+package com.javaquery.http;
+
+import java.nio.file.Path;
+import lombok.Getter;
+
+/**
+ * Result of {@link HttpClient#download(HttpExecutionContext, HttpRequest, Path, DownloadConfig)}.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+public class DownloadResult {
+
+    /**
+     * Downloaded file.
+     */
+    private final Path path;
+
+    /**
+     * Length of downloaded file in bytes.
+     */
+    private final long contentLength;
+
+    /**
+     * Bytes received by this download, excluding ranges resumed from previous attempt.
+     */
+    private final long bytesTransferred;
+
+    /**
+     * Number of byte ranges, 1 when server doesn't support range requests.
+     */
+    private final int rangeCount;
+
+    /**
+     * Number of byte ranges completed by previous attempt and not downloaded again.
+     */
+    private final int resumedRangeCount;
+
+    /**
+     * Checksum in hex calculated with {@link DownloadConfig#getChecksumAlgorithm()}, null when not configured.
+     */
+    private final String checksum;
+
+    DownloadResult(
+            Path path,
+            long contentLength,
+            long bytesTransferred,
+            int rangeCount,
+            int resumedRangeCount,
+            String checksum) {
+        this.path = path;
+        this.contentLength = contentLength;
+        this.bytesTransferred = bytesTransferred;
+        this.rangeCount = rangeCount;
+        this.resumedRangeCount = resumedRangeCount;
+        this.checksum = checksum;
+    }
+}
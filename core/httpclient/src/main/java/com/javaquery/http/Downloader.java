@@ -0,0 +1,496 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.util.Strings;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Download of http resource into a file. Range support of server is probed with the first byte range: on
+ * <code>206</code> remaining ranges are fetched concurrently over {@link HttpClient#execute} and written at their
+ * offset of preallocated file with positional {@link FileChannel} writes, on <code>200</code> body is streamed into
+ * the file as is. File is written next to the target as <code>.part</code> and moved to the target once its length
+ * and checksum are verified. Completed ranges are recorded in <code>.part.state</code> so failed download continues
+ * from them. Empty resource answers the first range with <code>416</code> and <code>bytes *&#47;0</code>, it's
+ * downloaded as empty file.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+final class Downloader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Downloader.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PART = ".part";
+    private static final String STATE = ".state";
+    private static final String BYTES = "bytes";
+    private static final String EMPTY_CONTENT_RANGE = BYTES + " */0";
+
+    private final HttpClient httpClient;
+    private final HttpExecutionContext httpExecutionContext;
+    private final HttpRequest httpRequest;
+    private final Path target;
+    private final Path partPath;
+    private final Path statePath;
+    private final DownloadConfig downloadConfig;
+    private final AtomicLong bytesTransferred = new AtomicLong();
+
+    private long contentLength = -1;
+    private boolean ranged;
+    private String validator;
+    private Set<Integer> resumedRanges = Collections.emptySet();
+
+    Downloader(
+            HttpClient httpClient,
+            HttpExecutionContext httpExecutionContext,
+            HttpRequest httpRequest,
+            Path target,
+            DownloadConfig downloadConfig) {
+        if (downloadConfig.getParallelism() <= 0 || downloadConfig.getRangeSizeInBytes() <= 0) {
+            throw new IllegalArgumentException(StringPool.ERROR_DOWNLOAD_CONFIG);
+        }
+        if (Strings.nonNullNonEmpty(downloadConfig.getExpectedChecksum())
+                && Strings.nullOrEmpty(downloadConfig.getChecksumAlgorithm())) {
+            throw new IllegalArgumentException(StringPool.ERROR_DOWNLOAD_CHECKSUM_ALGORITHM);
+        }
+        this.httpClient = httpClient;
+        this.httpExecutionContext = httpExecutionContext;
+        this.httpRequest = httpRequest;
+        this.target = target;
+        this.partPath = target.resolveSibling(target.getFileName() + PART);
+        this.statePath = target.resolveSibling(target.getFileName() + PART + STATE);
+        this.downloadConfig = downloadConfig;
+    }
+
+    /**
+     * Download the http resource into the target, existing target is replaced.
+     *
+     * @return the download result
+     * @throws HttpException when any of ranges failed, length or checksum doesn't match
+     */
+    DownloadResult download() {
+        int rangeCount = 1;
+        int failedRanges = 0;
+        boolean firstRangeReceived = false;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(partPath.toFile(), "rw")) {
+            FileChannel fileChannel = randomAccessFile.getChannel();
+            Long firstRange = httpClient.execute(
+                    httpExecutionContext,
+                    rangeRequest(0, downloadConfig.getRangeSizeInBytes() - 1),
+                    new FirstRangeHandler(randomAccessFile));
+            if (Objects.isNull(firstRange)) {
+                throw new HttpException(
+                        String.format(StringPool.ERROR_DOWNLOAD_STATUS, httpRequest.getHttpRequestName(), -1));
+            }
+            firstRangeReceived = true;
+            if (ranged) {
+                rangeCount = (int) ((contentLength + downloadConfig.getRangeSizeInBytes() - 1)
+                        / downloadConfig.getRangeSizeInBytes());
+                failedRanges = downloadRanges(fileChannel, rangeCount);
+            }
+            if (failedRanges == 0) {
+                verifyLength(fileChannel.size());
+            }
+        } catch (IOException e) {
+            throw new HttpException(e);
+        } finally {
+            // part file created for failed first range is useless unless it belongs to resumable download
+            if (!firstRangeReceived && !(downloadConfig.isResume() && Files.exists(statePath))) {
+                deleteIncompletePart();
+            }
+        }
+        if (failedRanges > 0) {
+            if (!downloadConfig.isResume() || Objects.isNull(validator)) {
+                deletePart();
+            }
+            throw new HttpException(String.format(
+                    StringPool.ERROR_DOWNLOAD_INCOMPLETE, httpRequest.getHttpRequestName(), failedRanges, rangeCount));
+        }
+        String checksum = verifyChecksum();
+        try {
+            Files.move(partPath, target, StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(statePath);
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+        return new DownloadResult(
+                target, contentLength, bytesTransferred.get(), rangeCount, ranged ? resumedRanges.size() : 0, checksum);
+    }
+
+    /**
+     * Fetch ranges after the first one (and not completed by previous attempt) by worker threads.
+     * @param fileChannel the file channel
+     * @param rangeCount the number of ranges
+     * @return the number of failed ranges
+     */
+    private int downloadRanges(FileChannel fileChannel, int rangeCount) {
+        List<Integer> pendingRanges = new ArrayList<>();
+        for (int range = 1; range < rangeCount; range++) {
+            if (!resumedRanges.contains(range)) {
+                pendingRanges.add(range);
+            }
+        }
+        if (pendingRanges.isEmpty()) {
+            return 0;
+        }
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        int workers = Math.min(downloadConfig.getParallelism(), pendingRanges.size());
+        ExecutorService executorService = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "http-download-" + httpRequest.getHttpRequestName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(executorService.submit(() -> {
+                    int index;
+                    while ((index = next.getAndIncrement()) < pendingRanges.size()) {
+                        if (!downloadRange(fileChannel, pendingRanges.get(index))) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpException(e);
+        } catch (ExecutionException e) {
+            throw new HttpException(e);
+        } finally {
+            executorService.shutdownNow();
+        }
+        return failed.get();
+    }
+
+    /**
+     * Fetch single range and record it as completed.
+     * @param fileChannel the file channel
+     * @param range the index of range
+     * @return true when range is written completely
+     */
+    private boolean downloadRange(FileChannel fileChannel, int range) {
+        long start = range * downloadConfig.getRangeSizeInBytes();
+        long end = Math.min(start + downloadConfig.getRangeSizeInBytes(), contentLength) - 1;
+        try {
+            HttpRequest rangeRequest = rangeRequest(start, end);
+            if (Objects.nonNull(validator) && !validator.startsWith("W/")) {
+                rangeRequest.withHeader(StringPool.IF_RANGE, validator);
+            }
+            Long written =
+                    httpClient.execute(httpExecutionContext, rangeRequest, new RangeHandler(fileChannel, start, end));
+            if (Objects.nonNull(written)) {
+                recordCompleted(range);
+                return true;
+            }
+        } catch (Exception e) {
+            // range is reported as failed, rest of ranges continue and completed ones are kept for resume
+            LOGGER.error(e.getMessage(), e);
+        }
+        return false;
+    }
+
+    private HttpRequest rangeRequest(long start, long end) {
+        return new HttpRequest(httpRequest).withHeader(StringPool.RANGE, BYTES + "=" + start + "-" + end);
+    }
+
+    /**
+     * Prepare part file after response of first range is received: resume previous state when it belongs to the
+     * same resource, start from scratch otherwise.
+     * @param randomAccessFile the part file
+     * @throws IOException the io exception
+     */
+    private void prepare(RandomAccessFile randomAccessFile) throws IOException {
+        String state = contentLength + " " + downloadConfig.getRangeSizeInBytes() + " " + validator;
+        if (downloadConfig.isResume()
+                && Objects.nonNull(validator)
+                && Files.exists(statePath)
+                && randomAccessFile.length() == contentLength) {
+            List<String> lines = Files.readAllLines(statePath, StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && state.equals(lines.get(0))) {
+                // first range is received again with this response
+                resumedRanges = new HashSet<>();
+                for (String line : lines.subList(1, lines.size())) {
+                    if (Strings.nonNullNonEmpty(line) && Integer.parseInt(line.trim()) > 0) {
+                        resumedRanges.add(Integer.parseInt(line.trim()));
+                    }
+                }
+                return;
+            }
+        }
+        randomAccessFile.setLength(0);
+        randomAccessFile.setLength(contentLength);
+        if (downloadConfig.isResume() && Objects.nonNull(validator)) {
+            Files.write(statePath, (state + "\n").getBytes(StandardCharsets.UTF_8));
+        } else {
+            Files.deleteIfExists(statePath);
+        }
+    }
+
+    private synchronized void recordCompleted(int range) throws IOException {
+        if (downloadConfig.isResume() && Objects.nonNull(validator)) {
+            Files.write(statePath, (range + "\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        }
+    }
+
+    private void verifyLength(long length) {
+        if (contentLength >= 0 && length != contentLength) {
+            throw new HttpException(String.format(
+                    StringPool.ERROR_DOWNLOAD_LENGTH, length, httpRequest.getHttpRequestName(), contentLength));
+        }
+    }
+
+    /**
+     * Calculate checksum of part file and compare it with expected one, part file is deleted on mismatch as
+     * resuming it would not help.
+     * @return the checksum in hex or null when not configured
+     */
+    private String verifyChecksum() {
+        if (Strings.nullOrEmpty(downloadConfig.getChecksumAlgorithm())) {
+            return null;
+        }
+        String checksum;
+        try (FileChannel fileChannel = FileChannel.open(partPath, StandardOpenOption.READ)) {
+            MessageDigest messageDigest = MessageDigest.getInstance(downloadConfig.getChecksumAlgorithm());
+            ByteBuffer byteBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (fileChannel.read(byteBuffer) != -1) {
+                byteBuffer.flip();
+                messageDigest.update(byteBuffer);
+                byteBuffer.clear();
+            }
+            checksum = hex(messageDigest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new HttpException(e);
+        }
+        if (Strings.nonNullNonEmpty(downloadConfig.getExpectedChecksum())
+                && !downloadConfig.getExpectedChecksum().equalsIgnoreCase(checksum)) {
+            deletePart();
+            throw new HttpException(String.format(
+                    StringPool.ERROR_DOWNLOAD_CHECKSUM,
+                    checksum,
+                    httpRequest.getHttpRequestName(),
+                    downloadConfig.getExpectedChecksum()));
+        }
+        return checksum;
+    }
+
+    private void deletePart() {
+        try {
+            Files.deleteIfExists(partPath);
+            Files.deleteIfExists(statePath);
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Delete part file of failed download without masking its failure.
+     */
+    private void deleteIncompletePart() {
+        try {
+            Files.deleteIfExists(partPath);
+            Files.deleteIfExists(statePath);
+        } catch (IOException e) {
+            LOGGER.warn(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write body at the position of file channel.
+     * @param httpResponse the http response
+     * @param fileChannel the file channel
+     * @param position the position of first byte
+     * @param maxLength the max number of bytes expected, negative when unknown
+     * @return the number of bytes written
+     * @throws IOException the io exception
+     */
+    private long write(HttpResponse httpResponse, FileChannel fileChannel, long position, long maxLength)
+            throws IOException {
+        long written = 0;
+        try (InputStream inputStream = httpResponse.getBodyAsStream()) {
+            if (Objects.isNull(inputStream)) {
+                return written;
+            }
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                if (maxLength >= 0 && written + read > maxLength) {
+                    throw new HttpException(String.format(
+                            StringPool.ERROR_DOWNLOAD_LENGTH,
+                            written + read,
+                            httpRequest.getHttpRequestName(),
+                            maxLength));
+                }
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    written += fileChannel.write(byteBuffer, position + written);
+                }
+            }
+        }
+        bytesTransferred.addAndGet(written);
+        return written;
+    }
+
+    /**
+     * Parse <code>Content-Range: bytes start-end/length</code>.
+     * @param httpResponse the http response
+     * @return start, end and length (-1 when unknown)
+     */
+    private long[] contentRange(HttpResponse httpResponse) {
+        String contentRange = httpResponse.getHeader(StringPool.CONTENT_RANGE);
+        try {
+            if (Objects.nonNull(contentRange) && contentRange.startsWith(BYTES + " ")) {
+                int dash = contentRange.indexOf('-');
+                int slash = contentRange.indexOf('/');
+                String length = contentRange.substring(slash + 1).trim();
+                return new long[] {
+                    Long.parseLong(
+                            contentRange.substring(BYTES.length() + 1, dash).trim()),
+                    Long.parseLong(contentRange.substring(dash + 1, slash).trim()),
+                    "*".equals(length) ? -1 : Long.parseLong(length)
+                };
+            }
+        } catch (RuntimeException e) {
+            // reported below
+        }
+        throw new HttpException(
+                String.format(StringPool.ERROR_DOWNLOAD_CONTENT_RANGE, contentRange, httpRequest.getHttpRequestName()));
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder stringBuilder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            stringBuilder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Handler of first range, decides between ranged and single stream download.
+     */
+    private final class FirstRangeHandler implements HttpResponseHandler<Long> {
+        private final RandomAccessFile randomAccessFile;
+
+        private FirstRangeHandler(RandomAccessFile randomAccessFile) {
+            this.randomAccessFile = randomAccessFile;
+        }
+
+        @Override
+        public Long onResponse(HttpResponse httpResponse) {
+            if (Objects.isNull(httpResponse)) {
+                return null;
+            }
+            try {
+                if (httpResponse.getStatusCode() == 206) {
+                    long[] contentRange = contentRange(httpResponse);
+                    if (contentRange[0] != 0 || contentRange[2] < 0) {
+                        throw new HttpException(String.format(
+                                StringPool.ERROR_DOWNLOAD_CONTENT_RANGE,
+                                httpResponse.getHeader(StringPool.CONTENT_RANGE),
+                                httpRequest.getHttpRequestName()));
+                    }
+                    ranged = true;
+                    contentLength = contentRange[2];
+                    validator = Objects.nonNull(httpResponse.getHeader(StringPool.ETAG))
+                            ? httpResponse.getHeader(StringPool.ETAG)
+                            : httpResponse.getHeader(StringPool.LAST_MODIFIED);
+                    prepare(randomAccessFile);
+                    long expected = contentRange[1] - contentRange[0] + 1;
+                    long written = write(httpResponse, randomAccessFile.getChannel(), 0, expected);
+                    if (written != expected) {
+                        throw new HttpException(String.format(
+                                StringPool.ERROR_DOWNLOAD_LENGTH, written, httpRequest.getHttpRequestName(), expected));
+                    }
+                    recordCompleted(0);
+                    return written;
+                } else if (httpResponse.getStatusCode() == 200) {
+                    contentLength = httpResponse.getContentLength();
+                    randomAccessFile.setLength(0);
+                    Files.deleteIfExists(statePath);
+                    long written = write(httpResponse, randomAccessFile.getChannel(), 0, contentLength);
+                    if (contentLength < 0) {
+                        contentLength = written;
+                    }
+                    return written;
+                } else if (httpResponse.getStatusCode() == 416
+                        && EMPTY_CONTENT_RANGE.equals(httpResponse.getHeader(StringPool.CONTENT_RANGE))) {
+                    // no range of empty resource is satisfiable
+                    contentLength = 0;
+                    randomAccessFile.setLength(0);
+                    Files.deleteIfExists(statePath);
+                    return 0L;
+                }
+            } catch (IOException e) {
+                throw new HttpException(e);
+            }
+            throw new HttpException(String.format(
+                    StringPool.ERROR_DOWNLOAD_STATUS, httpRequest.getHttpRequestName(), httpResponse.getStatusCode()));
+        }
+
+        @Override
+        public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+    }
+
+    /**
+     * Handler of ranges after the first one.
+     */
+    private final class RangeHandler implements HttpResponseHandler<Long> {
+        private final FileChannel fileChannel;
+        private final long start;
+        private final long end;
+
+        private RangeHandler(FileChannel fileChannel, long start, long end) {
+            this.fileChannel = fileChannel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public Long onResponse(HttpResponse httpResponse) {
+            if (Objects.isNull(httpResponse) || httpResponse.getStatusCode() != 206) {
+                return null;
+            }
+            long[] contentRange = contentRange(httpResponse);
+            if (contentRange[0] != start || contentRange[1] != end || contentRange[2] != contentLength) {
+                return null;
+            }
+            try {
+                long written = write(httpResponse, fileChannel, start, end - start + 1);
+                return written == end - start + 1 ? written : null;
+            } catch (IOException e) {
+                throw new HttpException(e);
+            }
+        }
+
+        @Override
+        public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+    }
+}
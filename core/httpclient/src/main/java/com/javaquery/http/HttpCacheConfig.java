@@ -0,0 +1,53 @@
+package com.javaquery.http;
+
+import java.nio.file.Path;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of http response cache of {@link HttpClient}.
+ * Cacheable responses are stored as per <code>Cache-Control</code>/<code>Expires</code> keyed on method, URI and
+ * <code>Vary</code> headers, stale entries carrying <code>ETag</code>/<code>Last-Modified</code> are revalidated
+ * with conditional request and served from cache on <code>304 Not Modified</code>.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+@Builder
+public class HttpCacheConfig {
+
+    /**
+     * Maximum number of entries held in the cache, least recently used entries are evicted first.
+     */
+    @Builder.Default
+    private int maxCacheEntries = 1000;
+
+    /**
+     * Responses with body larger than this are not cached.
+     */
+    @Builder.Default
+    private long maxObjectSizeInBytes = 1024 * 1024;
+
+    /**
+     * Directory to store cached bodies on disk, null to keep them in memory.
+     * Cache entries are still tracked in memory and files are deleted when {@link HttpClient} is closed.
+     */
+    @Builder.Default
+    private Path cacheDirectory = null;
+
+    /**
+     * Behave as shared (proxy) cache (default), responses to requests carrying <code>Authorization</code> header
+     * and responses marked <code>Cache-Control: private</code> are not stored unless explicitly allowed by server.
+     * Private cache stores them for every caller of the client, use it only when client is used on behalf of
+     * a single user. Requests with username/password are never served from cache.
+     */
+    @Builder.Default
+    private boolean sharedCache = true;
+
+    /**
+     * Cache responses without explicit freshness information using heuristic of <code>Last-Modified</code>.
+     */
+    @Builder.Default
+    private boolean heuristicCachingEnabled = false;
+}
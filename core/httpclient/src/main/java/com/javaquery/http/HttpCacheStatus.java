@@ -0,0 +1,54 @@
+package com.javaquery.http;
+
+import java.util.Objects;
+import org.apache.http.client.cache.CacheResponseStatus;
+import org.apache.http.client.cache.HttpCacheContext;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Status of http response served by http response cache of {@link HttpClient}.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public enum HttpCacheStatus {
+    /**
+     * Response served from cache without contacting the server.
+     */
+    HIT,
+    /**
+     * Response fetched from the server.
+     */
+    MISS,
+    /**
+     * Stale cache entry revalidated with conditional request and served from cache.
+     */
+    VALIDATED,
+    /**
+     * Response generated by cache itself, i.e. <code>504</code> for <code>only-if-cached</code> request.
+     */
+    CACHE_MODULE_RESPONSE;
+
+    /**
+     * Status of response from http context.
+     *
+     * @param httpContext the http context
+     * @return the http cache status or null when response cache is not enabled
+     */
+    static HttpCacheStatus from(HttpContext httpContext) {
+        Object status = httpContext.getAttribute(HttpCacheContext.CACHE_RESPONSE_STATUS);
+        if (Objects.isNull(status)) {
+            return null;
+        }
+        switch ((CacheResponseStatus) status) {
+            case CACHE_HIT:
+                return HIT;
+            case VALIDATED:
+                return VALIDATED;
+            case CACHE_MODULE_RESPONSE:
+                return CACHE_MODULE_RESPONSE;
+            default:
+                return MISS;
+        }
+    }
+}
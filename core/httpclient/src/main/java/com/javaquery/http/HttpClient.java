@@ -2,32 +2,153 @@ package com.javaquery.http;
 
 import static net.logstash.logback.marker.Markers.appendEntries;
 
+import com.javaquery.http.exception.CircuitBreakerOpenException;
+import com.javaquery.http.exception.DeadlineExceededException;
+import com.javaquery.http.exception.HttpException;
 import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.metrics.ConnectionPoolStats;
+import com.javaquery.http.metrics.HttpClientMetrics;
+import com.javaquery.http.retry.CircuitBreaker;
+import com.javaquery.http.retry.HedgingPolicy;
+import com.javaquery.http.retry.RetryBudget;
 import com.javaquery.http.retry.RetryPolicy;
+import com.javaquery.http.retry.RetryScheduler;
+import com.javaquery.util.Strings;
 import com.javaquery.util.collection.Collections;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.message.BasicHttpResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The Http client responsible for making http requests.
+ * Client created with {@link HttpClientConfig} owns a pool of keep-alive connections (of its {@link HttpTransport})
+ * which is shared by all requests and retries, create it once, reuse it and {@link #close()} it when it is no longer
+ * needed. Clients created with {@link #HttpClient()} share one default transport, so creating one per call (and not
+ * closing it) doesn't leak connections or threads.
  *
  * @author javaquery
  * @since 1.0.0
  */
-public class HttpClient {
+public class HttpClient implements Closeable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpClient.class);
 
     private static final int MAX_BACKOFF_IN_MILLISECONDS = 5 * 60 * 1000;
 
+    private final HttpClientConfig httpClientConfig;
+    private final HttpTransport httpTransport;
+    private final boolean ownsHttpTransport;
+    private final RequestCoalescer requestCoalescer;
+    private final RequestHedger requestHedger;
+    private final ConnectionWarmUp connectionWarmUp;
+
+    /**
+     * Instantiates a new Http client with default {@link HttpClientConfig}.
+     * Client uses the default transport shared by all such clients, {@link #close()} doesn't close it.
+     */
+    public HttpClient() {
+        this(DefaultHttpTransport.HTTP_CLIENT_CONFIG, DefaultHttpTransport.HTTP_TRANSPORT, false);
+    }
+
+    /**
+     * Instantiates a new Http client.
+     *
+     * @param httpClientConfig the http client config
+     */
+    public HttpClient(HttpClientConfig httpClientConfig) {
+        this(httpClientConfig, httpClientConfig.getHttpTransportFactory().create(httpClientConfig), true);
+    }
+
+    private HttpClient(HttpClientConfig httpClientConfig, HttpTransport httpTransport, boolean ownsHttpTransport) {
+        this.httpClientConfig = httpClientConfig;
+        this.httpTransport = httpTransport;
+        this.ownsHttpTransport = ownsHttpTransport;
+        this.requestCoalescer = httpClientConfig.isRequestCoalescingEnabled()
+                ? new RequestCoalescer(httpClientConfig.getCoalescingHeaders())
+                : null;
+        this.requestHedger = new RequestHedger(
+                httpTransport,
+                httpClientConfig.getAsyncCallbackExecutor(),
+                httpClientConfig.getHttpClientMetrics(),
+                httpClientConfig.getRateLimiterRegistry());
+        httpClientConfig.getHttpClientMetrics().bindConnectionPool(this::getConnectionPoolStats);
+        this.connectionWarmUp = warmUp(httpClientConfig.getWarmUpConnections());
+    }
+
+    /**
+     * Gets http client config.
+     *
+     * @return the http client config
+     */
+    public HttpClientConfig getHttpClientConfig() {
+        return httpClientConfig;
+    }
+
+    /**
+     * Gets current stats of connection pool of {@link HttpTransport}.
+     *
+     * @return the connection pool stats
+     */
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return httpTransport.getConnectionPoolStats();
+    }
+
+    /**
+     * Resolve hosts and open connections to them in the background ahead of first request, so requests after deploy
+     * or idle period don't pay for DNS, TCP and TLS setup. Warmed connections stay in the pool until evicted as idle.
+     *
+     * @param warmUpConnections the number of connections per host, i.e. <code>https://api.example.com</code>
+     * @return the connection warm-up status
+     */
+    public ConnectionWarmUp warmUp(Map<String, Integer> warmUpConnections) {
+        ConnectionWarmUp warmUp = new ConnectionWarmUp();
+        List<CompletableFuture<Void>> hosts = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : warmUpConnections.entrySet()) {
+            CompletableFuture<Integer> connected;
+            try {
+                connected = httpTransport.warmUp(
+                        URI.create(entry.getKey()), entry.getValue(), httpClientConfig.getAsyncCallbackExecutor());
+            } catch (RuntimeException e) {
+                connected = CompletableFuture.failedFuture(e);
+            }
+            hosts.add(connected.handle((connections, throwable) -> {
+                if (Objects.isNull(throwable)) {
+                    warmUp.onHostWarmedUp(entry.getKey(), connections);
+                } else {
+                    LOGGER.warn(throwable.getMessage(), throwable);
+                    warmUp.onHostFailed(entry.getKey(), exception(throwable));
+                }
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(hosts.toArray(new CompletableFuture<?>[0])).thenRun(warmUp::onCompleted);
+        return warmUp;
+    }
+
+    /**
+     * Gets status of warm-up of {@link HttpClientConfig#getWarmUpConnections()} started when client was created.
+     *
+     * @return the connection warm-up status
+     */
+    public ConnectionWarmUp getConnectionWarmUp() {
+        return connectionWarmUp;
+    }
+
     /**
      * Execute.
      *
@@ -41,24 +162,34 @@ public class HttpClient {
             HttpExecutionContext httpExecutionContext,
             HttpRequest httpRequest,
             HttpResponseHandler<R> httpResponseHandler) {
-        final Map<String, String> originalHeaders = new HashMap<>(httpRequest.getHeaders());
-        final Map<String, String> originalQueryParameters = new LinkedHashMap<>(httpRequest.getQueryParameters());
-        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(httpRequest);
+        final boolean retryable = Objects.nonNull(httpRequest.getRetryPolicy());
+        final Map<String, String> originalHeaders = retryable ? new HashMap<>(httpRequest.getHeaders()) : null;
+        final Map<String, String> originalQueryParameters =
+                retryable ? new LinkedHashMap<>(httpRequest.getQueryParameters()) : null;
+        recordRequest(httpRequest);
+        HttpRequestResponse httpRequestResponse = firstAttempt(httpRequest);
 
         R responseHandlerResult = doExecute(httpExecutionContext, httpRequestResponse, httpResponseHandler);
 
-        if (Objects.nonNull(httpRequest.getRetryPolicy())) {
-            while (shouldRetry(httpRequest.getRetryPolicy(), httpRequestResponse)) {
-                sleepFor(httpRequest.getRetryPolicy(), httpRequestResponse, httpRequestResponse.getRetriesAttempted());
-                int retriesAttempted = httpRequestResponse.getRetriesAttempted();
-                httpRequestResponse = new HttpRequestResponse(httpRequest);
-                httpRequestResponse.setRetriesAttempted(retriesAttempted + 1);
-                httpRequest.withHeaders(originalHeaders);
-                httpRequest.withQueryParameter(originalQueryParameters);
-                responseHandlerResult = doExecute(httpExecutionContext, httpRequestResponse, httpResponseHandler);
+        while (httpRequestResponse.isReplayScheduled() || httpRequestResponse.isRetryScheduled()) {
+            if (httpRequestResponse.isReplayScheduled()) {
+                httpRequestResponse = replayAttempt(httpRequestResponse);
+            } else {
+                long delay = backoffDelay(
+                        httpRequest.getRetryPolicy(), httpRequestResponse, httpRequestResponse.getRetriesAttempted());
+                if (!sleepFor(delay)) {
+                    break;
+                }
+                httpRequestResponse = nextAttempt(httpRequestResponse, delay);
+                restore(httpRequest, originalHeaders, originalQueryParameters);
             }
-            if (httpRequestResponse.getRetriesAttempted()
-                    == httpRequest.getRetryPolicy().getMaxErrorRetry()) {
+            responseHandlerResult = doExecute(httpExecutionContext, httpRequestResponse, httpResponseHandler);
+        }
+
+        if (Objects.nonNull(httpRequest.getRetryPolicy())) {
+            if (!httpRequestResponse.isCircuitBreakerOpen()
+                    && httpRequestResponse.getRetriesAttempted()
+                            == httpRequest.getRetryPolicy().getMaxErrorRetry()) {
                 httpResponseHandler.onMaxRetryAttempted(httpRequestResponse.getHttpResponse());
             }
         }
@@ -78,115 +209,915 @@ public class HttpClient {
             HttpRequestResponse httpRequestResponse,
             HttpResponseHandler<R> httpResponseHandler) {
         HttpRequest httpRequest = httpRequestResponse.getHttpRequest();
+        if (!acquireCircuitBreakerPermission(httpExecutionContext, httpRequestResponse)) {
+            return Objects.nonNull(httpResponseHandler) ? httpResponseHandler.onCircuitBreakerOpen(httpRequest) : null;
+        }
+        HttpTransportResponse httpTransportResponse = null;
         try {
-            beforeRequest(httpExecutionContext, httpRequest);
-
-            ApacheHttpRequestBuilder apacheHttpRequestBuilder = new ApacheHttpRequestBuilder(httpRequest);
-            HttpUriRequest apacheHttpRequest = apacheHttpRequestBuilder.build();
-
-            CloseableHttpClient closeableHttpClient = HttpClients.custom()
-                    .setDefaultCredentialsProvider(apacheHttpRequestBuilder.credentialsProvider())
-                    .build();
-            org.apache.http.HttpResponse closeableHttpResponse = closeableHttpClient.execute(apacheHttpRequest);
-            httpRequestResponse.setExecutionEndTime();
-            HttpResponse httpResponse = new HttpResponse(closeableHttpResponse);
-            afterResponse(httpExecutionContext, httpRequest, httpResponse);
-            httpRequestResponse.setHttpResponse(httpResponse);
+            waitForRateLimit(httpRequest);
+            beforeRequest(httpExecutionContext, httpRequestResponse);
+            TimeoutConfig timeoutConfig = attemptTimeoutConfig(httpRequestResponse);
+            onAttemptStarted(httpRequestResponse);
+
+            if (isCoalesced(httpRequest)) {
+                CoalescedResponse coalescedResponse = requestCoalescer.execute(
+                        httpRequest, () -> executeBuffered(httpRequestResponse, timeoutConfig));
+                onResponseReceived(
+                        httpExecutionContext,
+                        httpRequestResponse,
+                        coalescedResponse.copy(),
+                        coalescedResponse.httpCacheStatus);
+            } else {
+                httpTransportResponse = isHedged(httpRequest)
+                        ? requestHedger.execute(httpRequestResponse, timeoutConfig)
+                        : httpTransport.execute(httpRequest, timeoutConfig);
+                httpRequestResponse.setBytesSent(httpTransportResponse.getBytesSent());
+                onResponseReceived(
+                        httpExecutionContext,
+                        httpRequestResponse,
+                        httpTransportResponse.getApacheHttpResponse(),
+                        httpTransportResponse.getHttpCacheStatus());
+            }
         } catch (Exception exception) {
-            LOGGER.error(exception.getMessage(), exception);
-            onError(httpExecutionContext, httpRequest, exception);
+            onRequestFailed(httpExecutionContext, httpRequestResponse, exception);
         } finally {
+            logHttpRequestResponse(httpRequestResponse);
+        }
+        recordCircuitBreakerResult(httpRequestResponse);
+        recordMetrics(httpRequestResponse);
+        HttpResponse httpResponse = httpRequestResponse.getHttpResponse();
+        httpRequestResponse.setRetryScheduled(
+                !httpRequestResponse.isReplayScheduled() && shouldRetry(httpExecutionContext, httpRequestResponse));
+
+        try {
+            if (Objects.nonNull(httpResponseHandler)
+                    && !httpRequestResponse.isRetryScheduled()
+                    && !httpRequestResponse.isReplayScheduled()) {
+                return httpResponseHandler.onResponse(httpRequestResponse.getHttpResponse());
+            }
+            return null;
+        } finally {
+            releaseConnection(httpTransportResponse, httpResponse);
+        }
+    }
+
+    /**
+     * Execute http requests concurrently within connection pool limits of {@link HttpClientConfig} and
+     * block until all of them completed. Use {@link BulkRequestExecutor} to stream results in batches,
+     * deliver them in order of completion or to set custom concurrency limits.
+     *
+     * @param <R>                  the type parameter
+     * @param httpExecutionContext the http execution context
+     * @param httpRequests         the http requests
+     * @param httpResponseHandler  the http response handler
+     * @return the results in order of http requests
+     */
+    public <R> List<BulkResult<R>> executeAll(
+            HttpExecutionContext httpExecutionContext,
+            Collection<HttpRequest> httpRequests,
+            HttpResponseHandler<R> httpResponseHandler) {
+        List<BulkResult<R>> results = new ArrayList<>(httpRequests.size());
+        BulkRequestExecutor.<R>builder(this)
+                .httpExecutionContext(httpExecutionContext)
+                .httpResponseHandler(httpResponseHandler)
+                .ordered(true)
+                .batchProcessor(results::addAll)
+                .execute(httpRequests);
+        return results;
+    }
+
+    /**
+     * Lazy iterator over items of paged http API, next page is prefetched while the caller processes current one.
+     *
+     * @param <T>                  the type of items
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest          the http request of first page
+     * @param pageExtractor        the page extractor
+     * @return the paginator
+     * @see #paginate(HttpExecutionContext, HttpRequest, PageExtractor, int)
+     */
+    public <T> Paginator<T> paginate(
+            HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, PageExtractor<T> pageExtractor) {
+        return paginate(httpExecutionContext, httpRequest, pageExtractor, 1);
+    }
+
+    /**
+     * Lazy iterator over items of paged http API. Pages are requested over {@link #executeAsync} one after another
+     * and up to <code>prefetchPages</code> pages are fetched ahead of the caller, so network round trip of next page
+     * overlaps with processing of current one. Use {@link Paginator#stream()} for a {@link java.util.stream.Stream}
+     * or {@link Paginator#forEachBatch(int, com.javaquery.helper.BatchProcessor)} to process items in batches.
+     *
+     * @param <T>                  the type of items
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest          the http request of first page
+     * @param pageExtractor        the page extractor
+     * @param prefetchPages        the number of pages fetched ahead of the caller (1 or more)
+     * @return the paginator
+     */
+    public <T> Paginator<T> paginate(
+            HttpExecutionContext httpExecutionContext,
+            HttpRequest httpRequest,
+            PageExtractor<T> pageExtractor,
+            int prefetchPages) {
+        return new Paginator<>(this, httpExecutionContext, httpRequest, pageExtractor, prefetchPages);
+    }
+
+    /**
+     * Download http resource into the file with default {@link DownloadConfig}.
+     *
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest          the http request
+     * @param target               the target file, existing file is replaced
+     * @return the download result
+     * @see #download(HttpExecutionContext, HttpRequest, Path, DownloadConfig)
+     */
+    public DownloadResult download(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Path target) {
+        return download(
+                httpExecutionContext,
+                httpRequest,
+                target,
+                DownloadConfig.builder().build());
+    }
+
+    /**
+     * Download large http resource into the file without holding it in memory. When server supports range requests
+     * byte ranges are fetched concurrently into preallocated file with positional writes, otherwise body is streamed
+     * into the file. Ranges completed before a failure are kept and skipped by the next download to the same target.
+     * Every range is executed over {@link #execute} so {@link RetryPolicy}, handlers and timeouts apply per range,
+     * keep {@link HttpClientConfig#getMaxResponseBodySizeInBytes()} above the range size.
+     *
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest          the http request
+     * @param target               the target file, existing file is replaced
+     * @param downloadConfig       the download config
+     * @return the download result
+     * @throws HttpException when download failed, its length or checksum doesn't match
+     */
+    public DownloadResult download(
+            HttpExecutionContext httpExecutionContext,
+            HttpRequest httpRequest,
+            Path target,
+            DownloadConfig downloadConfig) {
+        return new Downloader(this, httpExecutionContext, httpRequest, target, downloadConfig).download();
+    }
+
+    /**
+     * Only idempotent requests without payload are coalesced, range requests and requests with username/password
+     * are never shared as coalescing key doesn't include the range or credentials.
+     * @param httpRequest the http request
+     * @return true when request coalescing is enabled and request can be shared
+     */
+    private boolean isCoalesced(HttpRequest httpRequest) {
+        return Objects.nonNull(requestCoalescer)
+                && httpRequest.getHttpMethod() == HttpMethod.GET
+                && Strings.nullOrEmpty(httpRequest.getUsername())
+                && Strings.nullOrEmpty(httpRequest.getPassword())
+                && (Objects.isNull(httpRequest.getHeaders())
+                        || httpRequest.getHeaders().keySet().stream().noneMatch(StringPool.RANGE::equalsIgnoreCase));
+    }
+
+    /**
+     * Hedged attempts are sent only for idempotent requests with {@link HedgingPolicy}.
+     * @param httpRequest the http request
+     * @return true when request is hedged
+     */
+    private boolean isHedged(HttpRequest httpRequest) {
+        HedgingPolicy hedgingPolicy = httpRequest.getHedgingPolicy();
+        return Objects.nonNull(hedgingPolicy) && hedgingPolicy.isHedgeable(httpRequest);
+    }
+
+    /**
+     * Execute http request and read its body into memory so the response can be shared between coalesced callers.
+     * @param httpRequestResponse the http request response
+     * @param timeoutConfig the timeout config of the attempt
+     * @return the coalesced response
+     * @throws IOException the io exception
+     */
+    private CoalescedResponse executeBuffered(HttpRequestResponse httpRequestResponse, TimeoutConfig timeoutConfig)
+            throws IOException {
+        HttpRequest httpRequest = httpRequestResponse.getHttpRequest();
+        HttpTransportResponse httpTransportResponse = isHedged(httpRequest)
+                ? requestHedger.execute(httpRequestResponse, timeoutConfig)
+                : httpTransport.execute(httpRequest, timeoutConfig);
+        HttpResponse httpResponse = new HttpResponse(
+                httpTransportResponse.getApacheHttpResponse(), httpClientConfig.getMaxResponseBodySizeInBytes());
+        try {
+            httpResponse.bufferBody();
+            return new CoalescedResponse(
+                    httpTransportResponse.getApacheHttpResponse(), httpTransportResponse.getHttpCacheStatus());
+        } finally {
+            releaseConnection(httpTransportResponse, httpResponse);
+        }
+    }
+
+    /**
+     * Execute http request without blocking the caller thread.
+     * Request is sent over non-blocking I/O, {@link com.javaquery.http.handler.HttpRequestHandler} hooks and
+     * {@link HttpResponseHandler} are executed on {@link HttpClientConfig#getAsyncCallbackExecutor()} and retries
+     * as per {@link RetryPolicy} are scheduled without holding any thread during backoff.
+     *
+     * @param <R>                  the type parameter
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest          the http request
+     * @param httpResponseHandler  the http response handler
+     * @return the future completed with result of http response handler
+     */
+    public <R> CompletableFuture<R> executeAsync(
+            HttpExecutionContext httpExecutionContext,
+            HttpRequest httpRequest,
+            HttpResponseHandler<R> httpResponseHandler) {
+        final boolean retryable = Objects.nonNull(httpRequest.getRetryPolicy());
+        final Map<String, String> originalHeaders = retryable ? new HashMap<>(httpRequest.getHeaders()) : null;
+        final Map<String, String> originalQueryParameters =
+                retryable ? new LinkedHashMap<>(httpRequest.getQueryParameters()) : null;
+        CompletableFuture<R> result = new CompletableFuture<>();
+        recordRequest(httpRequest);
+        executeAsyncAttempt(
+                httpExecutionContext,
+                firstAttempt(httpRequest),
+                httpResponseHandler,
+                originalHeaders,
+                originalQueryParameters,
+                result);
+        return result;
+    }
+
+    /**
+     * Execute single attempt and either schedule the retry or complete the result.
+     */
+    private <R> void executeAsyncAttempt(
+            HttpExecutionContext httpExecutionContext,
+            HttpRequestResponse httpRequestResponse,
+            HttpResponseHandler<R> httpResponseHandler,
+            Map<String, String> originalHeaders,
+            Map<String, String> originalQueryParameters,
+            CompletableFuture<R> result) {
+        CompletableFuture<HttpRequestResponse> attempt =
+                acquireCircuitBreakerPermission(httpExecutionContext, httpRequestResponse)
+                        ? doExecuteAsync(httpExecutionContext, httpRequestResponse)
+                        : CompletableFuture.completedFuture(httpRequestResponse);
+        attempt.thenAcceptAsync(
+                completed -> onAsyncAttemptCompleted(
+                        httpExecutionContext,
+                        completed,
+                        httpResponseHandler,
+                        originalHeaders,
+                        originalQueryParameters,
+                        result),
+                httpClientConfig.getAsyncCallbackExecutor());
+    }
+
+    /**
+     * Schedule the retry on shared {@link RetryScheduler} or process response handler and complete the result.
+     */
+    private <R> void onAsyncAttemptCompleted(
+            HttpExecutionContext httpExecutionContext,
+            HttpRequestResponse httpRequestResponse,
+            HttpResponseHandler<R> httpResponseHandler,
+            Map<String, String> originalHeaders,
+            Map<String, String> originalQueryParameters,
+            CompletableFuture<R> result) {
+        HttpRequest httpRequest = httpRequestResponse.getHttpRequest();
+        RetryPolicy retryPolicy = httpRequest.getRetryPolicy();
+        try {
+            if (httpRequestResponse.isCircuitBreakerOpen()) {
+                result.complete(
+                        Objects.nonNull(httpResponseHandler)
+                                ? httpResponseHandler.onCircuitBreakerOpen(httpRequest)
+                                : null);
+                return;
+            }
+            recordCircuitBreakerResult(httpRequestResponse);
+            recordMetrics(httpRequestResponse);
+            if (httpRequestResponse.isReplayScheduled()) {
+                beforeAsyncReplay(httpExecutionContext, httpRequest)
+                        .whenCompleteAsync(
+                                (ignored, throwable) -> executeAsyncAttempt(
+                                        httpExecutionContext,
+                                        replayAttempt(httpRequestResponse),
+                                        httpResponseHandler,
+                                        originalHeaders,
+                                        originalQueryParameters,
+                                        result),
+                                httpClientConfig.getAsyncCallbackExecutor());
+                return;
+            }
+            httpRequestResponse.setRetryScheduled(shouldRetry(httpExecutionContext, httpRequestResponse));
+            if (httpRequestResponse.isRetryScheduled()) {
+                long delay = backoffDelay(retryPolicy, httpRequestResponse, httpRequestResponse.getRetriesAttempted());
+                RetryScheduler.schedule(
+                        () -> {
+                            restore(httpRequest, originalHeaders, originalQueryParameters);
+                            executeAsyncAttempt(
+                                    httpExecutionContext,
+                                    nextAttempt(httpRequestResponse, delay),
+                                    httpResponseHandler,
+                                    originalHeaders,
+                                    originalQueryParameters,
+                                    result);
+                        },
+                        delay,
+                        httpClientConfig.getAsyncCallbackExecutor());
+                return;
+            }
+            R responseHandlerResult = null;
+            if (Objects.nonNull(httpResponseHandler)) {
+                responseHandlerResult = httpResponseHandler.onResponse(httpRequestResponse.getHttpResponse());
+                if (Objects.nonNull(retryPolicy)
+                        && httpRequestResponse.getRetriesAttempted() == retryPolicy.getMaxErrorRetry()) {
+                    httpResponseHandler.onMaxRetryAttempted(httpRequestResponse.getHttpResponse());
+                }
+            }
+            result.complete(responseHandlerResult);
+        } catch (Exception exception) {
+            result.completeExceptionally(exception);
+        }
+    }
+
+    /**
+     * Send single http request over non-blocking client, waiting for rate limit permit on shared timer.
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse the http request response
+     * @return future completed once response is received and handlers are processed
+     */
+    private CompletableFuture<HttpRequestResponse> doExecuteAsync(
+            HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse) {
+        CompletableFuture<HttpRequestResponse> future = new CompletableFuture<>();
+        try {
+            long delay = Objects.nonNull(httpClientConfig.getRateLimiterRegistry())
+                    ? httpClientConfig.getRateLimiterRegistry().reserve(httpRequestResponse.getHttpRequest())
+                    : 0;
+            if (delay > 0) {
+                RetryScheduler.schedule(
+                        () -> sendAsync(httpExecutionContext, httpRequestResponse, future),
+                        delay,
+                        httpClientConfig.getAsyncCallbackExecutor());
+            } else {
+                sendAsync(httpExecutionContext, httpRequestResponse, future);
+            }
+        } catch (Exception exception) {
+            onRequestFailed(httpExecutionContext, httpRequestResponse, exception);
+            logHttpRequestResponse(httpRequestResponse);
+            future.complete(httpRequestResponse);
+        }
+        return future;
+    }
+
+    /**
+     * Send http request over non-blocking {@link HttpTransport#executeAsync} and complete the future once response
+     * is processed.
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse the http request response
+     * @param future the future of http request response
+     */
+    private void sendAsync(
+            HttpExecutionContext httpExecutionContext,
+            HttpRequestResponse httpRequestResponse,
+            CompletableFuture<HttpRequestResponse> future) {
+        try {
+            beforeAsyncRequest(httpExecutionContext, httpRequestResponse);
+            TimeoutConfig timeoutConfig = attemptTimeoutConfig(httpRequestResponse);
+            onAttemptStarted(httpRequestResponse);
+
+            HttpRequest httpRequest = httpRequestResponse.getHttpRequest();
+            (isHedged(httpRequest)
+                            ? requestHedger.executeAsync(httpRequestResponse, timeoutConfig)
+                            : httpTransport.executeAsync(httpRequest, timeoutConfig))
+                    .whenCompleteAsync(
+                            (httpTransportResponse, throwable) -> {
+                                try {
+                                    if (Objects.nonNull(throwable)) {
+                                        onRequestFailed(
+                                                httpExecutionContext, httpRequestResponse, exception(throwable));
+                                    } else {
+                                        httpRequestResponse.setBytesSent(httpTransportResponse.getBytesSent());
+                                        onResponseReceived(
+                                                httpExecutionContext,
+                                                httpRequestResponse,
+                                                httpTransportResponse.getApacheHttpResponse(),
+                                                httpTransportResponse.getHttpCacheStatus());
+                                    }
+                                } catch (Exception exception) {
+                                    onRequestFailed(httpExecutionContext, httpRequestResponse, exception);
+                                } finally {
+                                    logHttpRequestResponse(httpRequestResponse);
+                                    future.complete(httpRequestResponse);
+                                }
+                            },
+                            httpClientConfig.getAsyncCallbackExecutor());
+        } catch (Exception exception) {
+            onRequestFailed(httpExecutionContext, httpRequestResponse, exception);
+            logHttpRequestResponse(httpRequestResponse);
+            future.complete(httpRequestResponse);
+        }
+    }
+
+    /**
+     * Unwrap the exception of completed future
+     * @param throwable the throwable
+     * @return the exception
+     */
+    private static Exception exception(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && Objects.nonNull(throwable.getCause())
+                ? throwable.getCause()
+                : throwable;
+        return cause instanceof Exception ? (Exception) cause : new ExecutionException(cause);
+    }
+
+    /**
+     * process received response with after response handler
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse the http request response
+     * @param apacheHttpResponse the apache http response
+     * @param httpCacheStatus the http cache status, null when response cache is not used
+     */
+    private void onResponseReceived(
+            HttpExecutionContext httpExecutionContext,
+            HttpRequestResponse httpRequestResponse,
+            org.apache.http.HttpResponse apacheHttpResponse,
+            HttpCacheStatus httpCacheStatus) {
+        httpRequestResponse.setAttemptEndNanos(System.nanoTime());
+        httpRequestResponse.setExecutionEndTime();
+        HttpResponse httpResponse =
+                new HttpResponse(apacheHttpResponse, httpClientConfig.getMaxResponseBodySizeInBytes());
+        httpResponse.setCacheStatus(httpCacheStatus);
+        afterResponse(httpExecutionContext, httpRequestResponse, httpResponse);
+        httpRequestResponse.setHttpResponse(httpResponse);
+        httpRequestResponse.setReplayScheduled(!httpRequestResponse.isReplayed()
+                && shouldReplay(httpExecutionContext, httpRequestResponse.getHttpRequest(), httpResponse));
+    }
+
+    /**
+     * log the exception and process error handler
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse the http request response
+     * @param exception the exception
+     */
+    private void onRequestFailed(
+            HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse, Exception exception) {
+        httpRequestResponse.setAttemptEndNanos(System.nanoTime());
+        httpRequestResponse.setException(exception);
+        LOGGER.error(exception.getMessage(), exception);
+        onError(httpExecutionContext, httpRequestResponse, exception);
+    }
+
+    /**
+     * log http request and response attributes
+     * @param httpRequestResponse the http request response
+     */
+    private void logHttpRequestResponse(HttpRequestResponse httpRequestResponse) {
+        if (!LOGGER.isInfoEnabled()) {
+            return;
+        }
+        HttpLoggingConfig httpLoggingConfig = httpClientConfig.getHttpLoggingConfig();
+        if (Objects.isNull(httpLoggingConfig)) {
             LOGGER.info(appendEntries(httpRequestResponse.getAttributes()), null);
+        } else if (HttpRequestLogMarker.isSampled(httpRequestResponse, httpLoggingConfig)) {
+            LOGGER.info(new HttpRequestLogMarker(httpRequestResponse, httpLoggingConfig), null);
         }
+    }
 
-        if (Objects.nonNull(httpResponseHandler) && shouldExecuteHttpResponseHandler(httpRequestResponse)) {
-            return httpResponseHandler.onResponse(httpRequestResponse.getHttpResponse());
+    /**
+     * Consume remaining content of response so the connection goes back to the pool for reuse.
+     * Connection is closed instead when body exceeded max body size, so the rest of it is not downloaded.
+     * @param httpTransportResponse the http transport response
+     * @param httpResponse the http response
+     */
+    private void releaseConnection(HttpTransportResponse httpTransportResponse, HttpResponse httpResponse) {
+        if (Objects.nonNull(httpTransportResponse)) {
+            httpTransportResponse.release(Objects.isNull(httpResponse) || !httpResponse.isMaxBodySizeExceeded());
         }
-        return null;
     }
 
     /**
      * process before request handler
      * @param httpExecutionContext the http execution context
-     * @param httpRequest the http request
+     * @param httpRequestResponse the http request response of the attempt
      */
-    private void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+    private void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse) {
         if (Collections.nonNullNonEmpty(httpExecutionContext.getHttpRequestHandlers())) {
             httpExecutionContext
                     .getHttpRequestHandlers()
-                    .forEach(httpRequestHandler -> httpRequestHandler.beforeRequest(httpExecutionContext, httpRequest));
+                    .forEach(httpRequestHandler ->
+                            httpRequestHandler.beforeRequest(httpExecutionContext, httpRequestResponse));
+        }
+    }
+
+    /**
+     * process before request handler of non-blocking request
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse the http request response of the attempt
+     */
+    private void beforeAsyncRequest(
+            HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse) {
+        if (Collections.nonNullNonEmpty(httpExecutionContext.getHttpRequestHandlers())) {
+            httpExecutionContext
+                    .getHttpRequestHandlers()
+                    .forEach(httpRequestHandler ->
+                            httpRequestHandler.beforeAsyncRequest(httpExecutionContext, httpRequestResponse));
         }
     }
 
     /**
      * process after response handler
      * @param httpExecutionContext the http execution context
-     * @param httpRequest the http request
+     * @param httpRequestResponse the http request response of the attempt
      * @param httpResponse the http response
      */
     private void afterResponse(
-            HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {
+            HttpExecutionContext httpExecutionContext,
+            HttpRequestResponse httpRequestResponse,
+            HttpResponse httpResponse) {
         if (Collections.nonNullNonEmpty(httpExecutionContext.getHttpRequestHandlers())) {
             httpExecutionContext
                     .getHttpRequestHandlers()
                     .forEach(httpRequestHandler ->
-                            httpRequestHandler.afterResponse(httpExecutionContext, httpRequest, httpResponse));
+                            httpRequestHandler.afterResponse(httpExecutionContext, httpRequestResponse, httpResponse));
         }
     }
 
     /**
-     * process error handler
+     * ask http request handlers whether the http request should be sent once more
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest the http request
+     * @param httpResponse the http response
+     * @return true when any of handlers asked for replay and payload can be sent again
+     */
+    private boolean shouldReplay(
+            HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {
+        return isPayloadReplayable(httpRequest)
+                && Collections.nonNullNonEmpty(httpExecutionContext.getHttpRequestHandlers())
+                && httpExecutionContext.getHttpRequestHandlers().stream()
+                        .anyMatch(httpRequestHandler ->
+                                httpRequestHandler.shouldReplay(httpExecutionContext, httpRequest, httpResponse));
+    }
+
+    /**
+     * wait for http request handlers to get ready for replay of non-blocking request
      * @param httpExecutionContext the http execution context
      * @param httpRequest the http request
+     * @return the future completed when all handlers are ready
+     */
+    private CompletableFuture<Void> beforeAsyncReplay(
+            HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+        if (Collections.nullOrEmpty(httpExecutionContext.getHttpRequestHandlers())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.allOf(httpExecutionContext.getHttpRequestHandlers().stream()
+                .map(httpRequestHandler -> httpRequestHandler.beforeAsyncReplay(httpExecutionContext, httpRequest))
+                .toArray(CompletableFuture<?>[]::new));
+    }
+
+    /**
+     * process error handler
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse the http request response of the attempt
      * @param exception the exception
      */
-    private void onError(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {
+    private void onError(
+            HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse, Exception exception) {
         if (Collections.nonNullNonEmpty(httpExecutionContext.getHttpRequestHandlers())) {
             httpExecutionContext
                     .getHttpRequestHandlers()
                     .forEach(httpRequestHandler ->
-                            httpRequestHandler.onError(httpExecutionContext, httpRequest, exception));
+                            httpRequestHandler.onError(httpExecutionContext, httpRequestResponse, exception));
         }
     }
 
     /**
-     * check when to execute response handler
+     * Acquire permission from circuit breaker of http request, rejected request is reported to error handler
+     * and logged without being sent.
+     * @param httpExecutionContext the http execution context
      * @param httpRequestResponse the http request response
-     * @return result true or false
+     * @return false when circuit is open
      */
-    private boolean shouldExecuteHttpResponseHandler(HttpRequestResponse httpRequestResponse) {
-        return Objects.isNull(httpRequestResponse.getHttpRequest().getRetryPolicy())
-                || !shouldRetry(httpRequestResponse.getHttpRequest().getRetryPolicy(), httpRequestResponse);
+    private boolean acquireCircuitBreakerPermission(
+            HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse) {
+        HttpRequest httpRequest = httpRequestResponse.getHttpRequest();
+        CircuitBreaker circuitBreaker = httpRequest.getCircuitBreaker();
+        if (Objects.isNull(circuitBreaker) || circuitBreaker.tryAcquirePermission(httpRequest)) {
+            return true;
+        }
+        httpRequestResponse.setCircuitBreakerOpen(true);
+        httpRequestResponse.setExecutionEndTime();
+        onError(
+                httpExecutionContext,
+                httpRequestResponse,
+                new CircuitBreakerOpenException(
+                        String.format(StringPool.ERROR_CIRCUIT_BREAKER_OPEN, httpRequest.getHttpRequestName())));
+        logHttpRequestResponse(httpRequestResponse);
+        return false;
     }
 
     /**
-     * check should we retry the request based on retry policy
-     * @param retryPolicy the retry policy
+     * Wait for permit of rate limiters configured for the http request
+     * @param httpRequest the http request
+     */
+    private void waitForRateLimit(HttpRequest httpRequest) {
+        if (Objects.nonNull(httpClientConfig.getRateLimiterRegistry())) {
+            long delay = httpClientConfig.getRateLimiterRegistry().reserve(httpRequest);
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new HttpException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mark start of the attempt right before request is sent
+     * @param httpRequestResponse the http request response
+     */
+    private void onAttemptStarted(HttpRequestResponse httpRequestResponse) {
+        httpRequestResponse.setAttemptStartNanos(System.nanoTime());
+    }
+
+    /**
+     * Record the attempt in {@link HttpClientMetrics}
+     * @param httpRequestResponse the http request response
+     */
+    private void recordMetrics(HttpRequestResponse httpRequestResponse) {
+        long latency = httpRequestResponse.getAttemptStartNanos() != 0 && httpRequestResponse.getAttemptEndNanos() != 0
+                ? httpRequestResponse.getAttemptEndNanos() - httpRequestResponse.getAttemptStartNanos()
+                : -1;
+        httpClientConfig
+                .getHttpClientMetrics()
+                .recordAttempt(
+                        httpRequestResponse,
+                        httpRequestResponse.getException(),
+                        latency,
+                        httpRequestResponse.getBytesSent(),
+                        Objects.nonNull(httpRequestResponse.getHttpResponse())
+                                ? httpRequestResponse.getHttpResponse().getContentLength()
+                                : -1);
+    }
+
+    /**
+     * Record outcome of the attempt in circuit breaker of http request, attempt rejected locally before it was sent
+     * (rate limit, concurrency limit, deadline) gives the permission back instead as the host is not to blame
+     * @param httpRequestResponse the http request response
+     */
+    private void recordCircuitBreakerResult(HttpRequestResponse httpRequestResponse) {
+        CircuitBreaker circuitBreaker = httpRequestResponse.getHttpRequest().getCircuitBreaker();
+        if (Objects.nonNull(circuitBreaker) && httpRequestResponse.getAttemptStartNanos() == 0) {
+            circuitBreaker.releasePermission(httpRequestResponse.getHttpRequest());
+        } else if (Objects.nonNull(circuitBreaker)) {
+            long executionEndTime = httpRequestResponse.getExecutionEndTime() != 0
+                    ? httpRequestResponse.getExecutionEndTime()
+                    : System.currentTimeMillis();
+            circuitBreaker.onResult(
+                    httpRequestResponse, executionEndTime - httpRequestResponse.getExecutionStartTime());
+        }
+    }
+
+    /**
+     * Restore headers and query parameters changed by handlers before next attempt, query parameters are only
+     * restored when changed so the memoized URI of http request is reused.
+     * @param httpRequest the http request
+     * @param originalHeaders the headers before first attempt
+     * @param originalQueryParameters the query parameters before first attempt
+     */
+    private void restore(
+            HttpRequest httpRequest, Map<String, String> originalHeaders, Map<String, String> originalQueryParameters) {
+        httpRequest.withHeaders(originalHeaders);
+        if (!originalQueryParameters.equals(httpRequest.getQueryParameters())) {
+            httpRequest.withQueryParameter(originalQueryParameters);
+        }
+    }
+
+    /**
+     * Record the request in retry budget of its retry policy and hedging budget of its hedging policy,
+     * budget shared by both policies records the request once
+     * @param httpRequest the http request
+     */
+    private void recordRequest(HttpRequest httpRequest) {
+        RetryPolicy retryPolicy = httpRequest.getRetryPolicy();
+        RetryBudget retryBudget = Objects.nonNull(retryPolicy) ? retryPolicy.getRetryBudget() : null;
+        if (Objects.nonNull(retryBudget)) {
+            retryBudget.recordRequest(host(httpRequest));
+        }
+        HedgingPolicy hedgingPolicy = httpRequest.getHedgingPolicy();
+        if (Objects.nonNull(hedgingPolicy) && hedgingPolicy.getHedgingConfig().getHedgingBudget() != retryBudget) {
+            hedgingPolicy.recordRequest(host(httpRequest));
+        }
+    }
+
+    /**
+     * check should we retry the request based on retry policy and its retry budget.
+     * Must be called once per attempt as it withdraws the retry from budget. Attempt which should be retried once
+     * deadline of the request passed fails with {@link DeadlineExceededException}.
+     * @param httpExecutionContext the http execution context
      * @param httpRequestResponse the http request response
      * @return result true or false
      */
-    private boolean shouldRetry(RetryPolicy retryPolicy, HttpRequestResponse httpRequestResponse) {
+    private boolean shouldRetry(HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse) {
+        RetryPolicy retryPolicy = httpRequestResponse.getHttpRequest().getRetryPolicy();
+        if (Objects.isNull(retryPolicy) || !isPayloadReplayable(httpRequestResponse.getHttpRequest())) {
+            return false;
+        }
         boolean shouldRetryAttempted = retryPolicy.isRetryTillSucceed()
                 || retryPolicy.getMaxErrorRetry() > httpRequestResponse.getRetriesAttempted();
-        boolean shouldRetryCustomCondition = retryPolicy
-                .getRetryCondition()
-                .shouldRetry(httpRequestResponse, httpRequestResponse.getRetriesAttempted());
-        return shouldRetryAttempted && shouldRetryCustomCondition;
+        boolean shouldRetryCustomCondition = shouldRetryAttempted
+                && retryPolicy
+                        .getRetryCondition()
+                        .shouldRetry(httpRequestResponse, httpRequestResponse.getRetriesAttempted());
+        if (shouldRetryCustomCondition && remainingTime(httpRequestResponse) <= 0) {
+            if (!(httpRequestResponse.getException() instanceof DeadlineExceededException)) {
+                onDeadlineExceeded(httpExecutionContext, httpRequestResponse);
+            }
+            return false;
+        }
+        return shouldRetryCustomCondition
+                && (Objects.isNull(retryPolicy.getRetryBudget())
+                        || retryPolicy.getRetryBudget().tryAcquireRetry(host(httpRequestResponse.getHttpRequest())));
     }
 
     /**
-     * Sleep for given milliseconds between retries
-     * @param retryPolicy the retry policy
+     * Fail the attempt which should be retried but deadline of the request passed, so caller gets the same
+     * {@link DeadlineExceededException} and no response as when next attempt is rejected by the deadline
+     * @param httpExecutionContext the http execution context
      * @param httpRequestResponse the http request response
-     * @param retriesAttempted retries attempted
      */
-    private void sleepFor(RetryPolicy retryPolicy, HttpRequestResponse httpRequestResponse, int retriesAttempted) {
-        long delay = retryPolicy.getBackOffStrategy().delayBeforeNextRetry(httpRequestResponse, retriesAttempted);
-        delay = Math.min(delay, MAX_BACKOFF_IN_MILLISECONDS);
+    private void onDeadlineExceeded(
+            HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse) {
+        httpRequestResponse.setHttpResponse(null);
+        onRequestFailed(
+                httpExecutionContext,
+                httpRequestResponse,
+                new DeadlineExceededException(String.format(
+                        StringPool.ERROR_DEADLINE_EXCEEDED,
+                        httpRequestResponse.getHttpRequest().getHttpRequestName())));
+    }
+
+    /**
+     * Payload of http request can be sent once more, stream of {@link HttpRequest.HttpPayload} is consumed (and
+     * closed) by the first attempt
+     * @param httpRequest the http request
+     * @return true when http request has no payload or payload is replayable
+     */
+    private static boolean isPayloadReplayable(HttpRequest httpRequest) {
+        return Objects.isNull(httpRequest.getHttpPayload())
+                || httpRequest.getHttpPayload().isReplayable();
+    }
+
+    /**
+     * Create http request response for first attempt, deadline of the request starts now
+     * @param httpRequest the http request
+     * @return the http request response
+     */
+    private HttpRequestResponse firstAttempt(HttpRequest httpRequest) {
+        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(httpRequest);
+        TimeoutConfig timeoutConfig = Objects.nonNull(httpRequest.getTimeoutConfig())
+                ? httpRequest.getTimeoutConfig().orElse(httpClientConfig.getTimeoutConfig())
+                : httpClientConfig.getTimeoutConfig();
+        httpRequestResponse.setTimeoutConfig(timeoutConfig);
+        if (timeoutConfig.hasDeadline()) {
+            httpRequestResponse.setDeadlineNanos(
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutConfig.getDeadlineInMilliseconds()));
+        }
+        return httpRequestResponse;
+    }
+
+    /**
+     * Timeouts of the attempt capped by time left till deadline of the request
+     * @param httpRequestResponse the http request response
+     * @return the timeout config of the attempt
+     * @throws DeadlineExceededException when deadline passed
+     */
+    private TimeoutConfig attemptTimeoutConfig(HttpRequestResponse httpRequestResponse) {
+        TimeoutConfig timeoutConfig = httpRequestResponse.getTimeoutConfig();
+        if (httpRequestResponse.getDeadlineNanos() == 0) {
+            return timeoutConfig;
+        }
+        long remainingTime = remainingTime(httpRequestResponse);
+        if (remainingTime <= 0) {
+            throw new DeadlineExceededException(String.format(
+                    StringPool.ERROR_DEADLINE_EXCEEDED,
+                    httpRequestResponse.getHttpRequest().getHttpRequestName()));
+        }
+        return timeoutConfig.forAttempt(remainingTime);
+    }
+
+    /**
+     * Time left till deadline of the request
+     * @param httpRequestResponse the http request response
+     * @return the time left in milliseconds, Long.MAX_VALUE when request has no deadline
+     */
+    private long remainingTime(HttpRequestResponse httpRequestResponse) {
+        return httpRequestResponse.getDeadlineNanos() != 0
+                ? TimeUnit.NANOSECONDS.toMillis(httpRequestResponse.getDeadlineNanos() - System.nanoTime())
+                : Long.MAX_VALUE;
+    }
+
+    /**
+     * Create http request response for next attempt
+     * @param httpRequestResponse the http request response of previous attempt
+     * @param delay the delay applied before next attempt
+     * @return the http request response
+     */
+    private HttpRequestResponse nextAttempt(HttpRequestResponse httpRequestResponse, long delay) {
+        HttpRequestResponse nextHttpRequestResponse = new HttpRequestResponse(httpRequestResponse.getHttpRequest());
+        nextHttpRequestResponse.setRetriesAttempted(httpRequestResponse.getRetriesAttempted() + 1);
+        nextHttpRequestResponse.setPreviousRetryDelay(delay);
+        nextHttpRequestResponse.setReplayed(httpRequestResponse.isReplayed());
+        nextHttpRequestResponse.setTimeoutConfig(httpRequestResponse.getTimeoutConfig());
+        nextHttpRequestResponse.setDeadlineNanos(httpRequestResponse.getDeadlineNanos());
+        httpClientConfig.getHttpClientMetrics().recordRetry(httpRequestResponse.getHttpRequest());
+        return nextHttpRequestResponse;
+    }
+
+    /**
+     * Create http request response to replay the attempt as asked by http request handler, replay is not a retry
+     * @param httpRequestResponse the http request response of replayed attempt
+     * @return the http request response
+     */
+    private HttpRequestResponse replayAttempt(HttpRequestResponse httpRequestResponse) {
+        HttpRequestResponse replayHttpRequestResponse = new HttpRequestResponse(httpRequestResponse.getHttpRequest());
+        replayHttpRequestResponse.setRetriesAttempted(httpRequestResponse.getRetriesAttempted());
+        replayHttpRequestResponse.setPreviousRetryDelay(httpRequestResponse.getPreviousRetryDelay());
+        replayHttpRequestResponse.setReplayed(true);
+        replayHttpRequestResponse.setTimeoutConfig(httpRequestResponse.getTimeoutConfig());
+        replayHttpRequestResponse.setDeadlineNanos(httpRequestResponse.getDeadlineNanos());
+        return replayHttpRequestResponse;
+    }
+
+    private String host(HttpRequest httpRequest) {
+        return Objects.nonNull(httpRequest.getHost()) ? httpRequest.getHost().getHost() : null;
+    }
+
+    /**
+     * Sleep for given milliseconds between retries of blocking request
+     * @param delay the delay in milliseconds
+     * @return false when thread is interrupted and retries should stop
+     */
+    private boolean sleepFor(long delay) {
         try {
             TimeUnit.MILLISECONDS.sleep(delay);
+            return true;
         } catch (InterruptedException e) {
             LOGGER.error(e.getMessage(), e);
+            Thread.currentThread().interrupt();
+            return false;
         }
     }
+
+    /**
+     * Delay in milliseconds before next retry as per backoff strategy, never past deadline of the request
+     * @param retryPolicy the retry policy
+     * @param httpRequestResponse the http request response
+     * @param retriesAttempted retries attempted
+     * @return delay in milliseconds
+     */
+    private long backoffDelay(RetryPolicy retryPolicy, HttpRequestResponse httpRequestResponse, int retriesAttempted) {
+        long delay = retryPolicy.getBackOffStrategy().delayBeforeNextRetry(httpRequestResponse, retriesAttempted);
+        return Math.min(Math.min(delay, MAX_BACKOFF_IN_MILLISECONDS), remainingTime(httpRequestResponse));
+    }
+
+    /**
+     * Close the client and connections of its {@link HttpTransport}, default transport shared by clients created
+     * with {@link #HttpClient()} is left open.
+     */
+    @Override
+    public void close() throws IOException {
+        if (ownsHttpTransport) {
+            httpTransport.close();
+        }
+    }
+
+    /**
+     * Response of coalesced request with body buffered in memory.
+     */
+    private static final class CoalescedResponse {
+        private final org.apache.http.HttpResponse apacheHttpResponse;
+        private final HttpCacheStatus httpCacheStatus;
+
+        private CoalescedResponse(org.apache.http.HttpResponse apacheHttpResponse, HttpCacheStatus httpCacheStatus) {
+            this.apacheHttpResponse = apacheHttpResponse;
+            this.httpCacheStatus = httpCacheStatus;
+        }
+
+        /**
+         * Copy of response for each caller, buffered entity is repeatable so it's shared.
+         * @return the apache http response
+         */
+        private org.apache.http.HttpResponse copy() {
+            BasicHttpResponse basicHttpResponse = new BasicHttpResponse(apacheHttpResponse.getStatusLine());
+            basicHttpResponse.setHeaders(apacheHttpResponse.getAllHeaders());
+            basicHttpResponse.setEntity(apacheHttpResponse.getEntity());
+            return basicHttpResponse;
+        }
+    }
+
+    /**
+     * Default transport shared by clients created with {@link #HttpClient()}, created on first use.
+     */
+    private static final class DefaultHttpTransport {
+        private static final HttpClientConfig HTTP_CLIENT_CONFIG =
+                HttpClientConfig.builder().build();
+        private static final HttpTransport HTTP_TRANSPORT =
+                HTTP_CLIENT_CONFIG.getHttpTransportFactory().create(HTTP_CLIENT_CONFIG);
+    }
 }
@@ -0,0 +1,145 @@
+package com.javaquery.http;
+
+import com.javaquery.http.metrics.HistogramHttpClientMetrics;
+import com.javaquery.http.metrics.HttpClientMetrics;
+import com.javaquery.http.retry.RateLimiterRegistry;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of {@link HttpClient} and its pooled connection manager.
+ * Connections are kept alive and reused across requests and retries until the {@link HttpClient} is closed.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+@Builder
+public class HttpClientConfig {
+
+    /**
+     * Maximum number of connections in the pool across all routes.
+     */
+    @Builder.Default
+    private int maxConnectionsTotal = 200;
+
+    /**
+     * Maximum number of connections per route (scheme, host and port).
+     */
+    @Builder.Default
+    private int maxConnectionsPerRoute = 20;
+
+    /**
+     * Idle connections older than this are closed by the background evictor, 0 or negative to disable.
+     */
+    @Builder.Default
+    private long maxIdleTimeInMilliseconds = 30 * 1000;
+
+    /**
+     * Close connections whose keep-alive expired (as advertised by the server) in the background evictor.
+     */
+    @Builder.Default
+    private boolean evictExpiredConnections = true;
+
+    /**
+     * Pooled connection is re-validated before being leased when it was inactive for this period, negative to disable.
+     */
+    @Builder.Default
+    private int validateAfterInactivityInMilliseconds = 2000;
+
+    /**
+     * Total time to live of a pooled connection regardless of keep-alive, 0 or negative for infinite.
+     */
+    @Builder.Default
+    private long connectionTimeToLiveInMilliseconds = -1;
+
+    /**
+     * Number of I/O dispatcher threads of the non-blocking client used by {@link HttpClient#executeAsync}.
+     */
+    @Builder.Default
+    private int ioThreadCount = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Executor used to run handlers of {@link HttpClient#executeAsync} so they never block I/O dispatcher threads.
+     */
+    @Builder.Default
+    private Executor asyncCallbackExecutor = ForkJoinPool.commonPool();
+
+    /**
+     * Maximum size of response body in bytes that can be read, negative for unlimited.
+     * Exceeding it always surfaces as {@link com.javaquery.http.exception.HttpException}. On {@code execute} it is
+     * thrown by the body read methods of {@link HttpResponse} ({@code getBody} included), on {@code executeAsync},
+     * hedged attempts and {@link JdkHttpTransport} the attempt fails with it before the body is fully received.
+     */
+    @Builder.Default
+    private long maxResponseBodySizeInBytes = -1;
+
+    /**
+     * Http response cache of {@link HttpClient#execute}, null (default) to disable caching.
+     */
+    @Builder.Default
+    private HttpCacheConfig httpCacheConfig = null;
+
+    /**
+     * Concurrent identical GET requests of {@link HttpClient#execute} share single network call and receive
+     * response with buffered body. Requests are identical when their URI and {@link #coalescingHeaders} match.
+     */
+    @Builder.Default
+    private boolean requestCoalescingEnabled = false;
+
+    /**
+     * Headers (case-insensitive) which are part of identity of coalesced request.
+     */
+    @Builder.Default
+    private Set<String> coalescingHeaders = Set.of(StringPool.AUTHORIZATION, StringPool.ACCEPT);
+
+    /**
+     * Client-side rate limits per host and per request name applied to every attempt, null (default) for no limit.
+     */
+    @Builder.Default
+    private RateLimiterRegistry rateLimiterRegistry = null;
+
+    /**
+     * Latency, status, retry and connection pool metrics, i.e. {@link HistogramHttpClientMetrics}.
+     * Default records nothing.
+     */
+    @Builder.Default
+    private HttpClientMetrics httpClientMetrics = HttpClientMetrics.NOOP;
+
+    /**
+     * Sampled request logging with allowlisted fields, null (default) logs every attempt with request and response.
+     */
+    @Builder.Default
+    private HttpLoggingConfig httpLoggingConfig = null;
+
+    /**
+     * Transport sending requests, {@link ApacheHttpTransport} (HTTP/1.1) by default or
+     * <code>JdkHttpTransport::new</code> to multiplex requests over HTTP/2 connections.
+     */
+    @Builder.Default
+    private HttpTransport.Factory httpTransportFactory = ApacheHttpTransport::new;
+
+    /**
+     * In-process DNS cache used for new connections, null (default) to resolve every connection with system resolver.
+     */
+    @Builder.Default
+    private DnsCacheConfig dnsCacheConfig = null;
+
+    /**
+     * Number of connections per host (i.e. <code>https://api.example.com</code>) opened in the background once
+     * {@link HttpClient} is created, see {@link HttpClient#getConnectionWarmUp()}.
+     */
+    @Builder.Default
+    private Map<String, Integer> warmUpConnections = Map.of();
+
+    /**
+     * Connect, connection request (pool wait) and socket timeouts and the deadline of every request, values set on
+     * {@link HttpRequest#getTimeoutConfig()} take precedence. Default waits indefinitely.
+     */
+    @Builder.Default
+    private TimeoutConfig timeoutConfig = TimeoutConfig.builder().build();
+}
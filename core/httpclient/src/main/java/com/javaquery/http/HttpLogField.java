@@ -0,0 +1,58 @@
+package com.javaquery.http;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of http request log line written when {@link HttpLoggingConfig} is set.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public enum HttpLogField {
+    ACTION(StringPool.LOG_ACTION),
+    HTTP_REQUEST_NAME("httpRequestName"),
+    HTTP_METHOD("httpMethod"),
+    URI("uri"),
+    STATUS_CODE("statusCode"),
+    EXECUTION_TIME_MS(StringPool.EXECUTION_TIME_MS),
+    RETRIES_ATTEMPTED(StringPool.RETRIES_ATTEMPTED),
+    CACHE_STATUS(StringPool.CACHE_STATUS),
+    CIRCUIT_BREAKER_OPEN(StringPool.CIRCUIT_BREAKER_OPEN),
+    HEDGED(StringPool.HEDGED),
+    ERROR("error"),
+    /**
+     * Opt-in, values of sensitive headers (i.e. Authorization) are masked.
+     */
+    REQUEST_HEADERS("requestHeaders"),
+    /**
+     * Opt-in.
+     */
+    RESPONSE_HEADERS("responseHeaders"),
+    /**
+     * Opt-in, body is buffered in memory to be logged.
+     */
+    RESPONSE_BODY("responseBody");
+
+    /**
+     * Scalar fields logged by default, headers and body are opt-in.
+     */
+    public static final Set<HttpLogField> DEFAULT = Collections.unmodifiableSet(
+            EnumSet.complementOf(EnumSet.of(REQUEST_HEADERS, RESPONSE_HEADERS, RESPONSE_BODY)));
+
+    private final String fieldName;
+
+    HttpLogField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    /**
+     * Gets name of field in log line.
+     *
+     * @return the field name
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+}
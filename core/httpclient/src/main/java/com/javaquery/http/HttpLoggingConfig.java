@@ -0,0 +1,48 @@
+package com.javaquery.http;
+
+import java.util.Set;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of sampled, allocation-light request logging of {@link HttpClient}.
+ * Log line is written only when the attempt is sampled, fields are written straight to the log encoder from
+ * {@link HttpRequestResponse} without building intermediate map or serializing request and response objects.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+@Builder
+public class HttpLoggingConfig {
+
+    /**
+     * Fraction (0.0-1.0) of successful attempts to log.
+     */
+    @Builder.Default
+    private double successSampleRate = 1.0;
+
+    /**
+     * Fraction (0.0-1.0) of failed attempts (exception or status 4xx/5xx) to log.
+     */
+    @Builder.Default
+    private double errorSampleRate = 1.0;
+
+    /**
+     * Attempts taking longer than this are always logged, negative to disable.
+     */
+    @Builder.Default
+    private long slowCallThresholdInMilliseconds = -1;
+
+    /**
+     * Fields to log, see {@link HttpLogField#DEFAULT}.
+     */
+    @Builder.Default
+    private Set<HttpLogField> fields = HttpLogField.DEFAULT;
+
+    /**
+     * Captured response body and header values are truncated to this many characters.
+     */
+    @Builder.Default
+    private int maxCapturedLength = 1024;
+}
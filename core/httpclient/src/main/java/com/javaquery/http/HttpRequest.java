@@ -3,13 +3,25 @@ package com.javaquery.http;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.retry.CircuitBreaker;
+import com.javaquery.http.retry.HedgingPolicy;
 import com.javaquery.http.retry.RetryPolicy;
 import com.javaquery.util.collection.Collections;
+import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import org.apache.http.client.utils.URIBuilder;
 
 /**
@@ -41,6 +53,28 @@ public class HttpRequest {
     private final HttpPayload httpPayload;
     private final RetryPolicy retryPolicy;
 
+    @JsonIgnore
+    private final CircuitBreaker circuitBreaker;
+
+    @JsonIgnore
+    private final HedgingPolicy hedgingPolicy;
+
+    @JsonIgnore
+    private final TimeoutConfig timeoutConfig;
+
+    /**
+     * Scheme and authority resolved by {@link HttpRequestTemplate}, null for requests built by
+     * {@link HttpRequestBuilder}.
+     */
+    @JsonIgnore
+    private final String baseURI;
+
+    @JsonIgnore
+    private final String encodedEndPoint;
+
+    @JsonIgnore
+    private BuiltURI uri;
+
     /**
      * Instantiates a new Http request.
      *
@@ -60,6 +94,74 @@ public class HttpRequest {
         this.queryParameters = httpRequestBuilder.queryParameters;
         this.httpPayload = httpRequestBuilder.httpPayload;
         this.retryPolicy = httpRequestBuilder.retryPolicy;
+        this.circuitBreaker = httpRequestBuilder.circuitBreaker;
+        this.hedgingPolicy = httpRequestBuilder.hedgingPolicy;
+        this.timeoutConfig = httpRequestBuilder.timeoutConfig;
+        this.baseURI = null;
+        this.encodedEndPoint = null;
+    }
+
+    /**
+     * Instantiates a new Http request bound from {@link HttpRequestTemplate}.
+     *
+     * @param httpRequestTemplate the http request template
+     * @param endPoint            the end point with path variables
+     * @param encodedEndPoint     the percent-encoded end point
+     * @param headers             the headers
+     * @param queryParameters     the query parameters
+     * @param httpPayload         the http payload
+     */
+    HttpRequest(
+            HttpRequestTemplate httpRequestTemplate,
+            String endPoint,
+            String encodedEndPoint,
+            Map<String, String> headers,
+            Map<String, String> queryParameters,
+            HttpPayload httpPayload) {
+        this.httpRequestName = httpRequestTemplate.getHttpRequestName();
+        this.httpMethod = httpRequestTemplate.getHttpMethod();
+        this.username = httpRequestTemplate.getUsername();
+        this.password = httpRequestTemplate.getPassword();
+        this.host = httpRequestTemplate.getHost();
+        this.port = httpRequestTemplate.getPort();
+        this.endPoint = endPoint;
+        this.headers = headers;
+        this.queryParameters = queryParameters;
+        this.httpPayload = httpPayload;
+        this.retryPolicy = httpRequestTemplate.getRetryPolicy();
+        this.circuitBreaker = httpRequestTemplate.getCircuitBreaker();
+        this.hedgingPolicy = httpRequestTemplate.getHedgingPolicy();
+        this.timeoutConfig = httpRequestTemplate.getTimeoutConfig();
+        this.baseURI = httpRequestTemplate.getBaseURI();
+        this.encodedEndPoint = encodedEndPoint;
+    }
+
+    /**
+     * Instantiates a copy of http request with its own headers and query parameters, so parts of the same request
+     * (i.e. byte ranges of download) can be sent concurrently.
+     *
+     * @param httpRequest the http request
+     */
+    HttpRequest(HttpRequest httpRequest) {
+        this.httpRequestName = httpRequest.httpRequestName;
+        this.httpMethod = httpRequest.httpMethod;
+        this.username = httpRequest.username;
+        this.password = httpRequest.password;
+        this.host = httpRequest.host;
+        this.port = httpRequest.port;
+        this.endPoint = httpRequest.endPoint;
+        this.headers = Objects.nonNull(httpRequest.headers) ? new HashMap<>(httpRequest.headers) : new HashMap<>();
+        this.queryParameters = Objects.nonNull(httpRequest.queryParameters)
+                ? new LinkedHashMap<>(httpRequest.queryParameters)
+                : new LinkedHashMap<>();
+        this.httpPayload = httpRequest.httpPayload;
+        this.retryPolicy = httpRequest.retryPolicy;
+        this.circuitBreaker = httpRequest.circuitBreaker;
+        this.hedgingPolicy = httpRequest.hedgingPolicy;
+        this.timeoutConfig = httpRequest.timeoutConfig;
+        this.baseURI = httpRequest.baseURI;
+        this.encodedEndPoint = httpRequest.encodedEndPoint;
+        this.uri = httpRequest.uri;
     }
 
     /**
@@ -164,6 +266,7 @@ public class HttpRequest {
      */
     public HttpRequest withQueryParameter(String key, String value) {
         this.queryParameters.put(key, value);
+        this.uri = null;
         return this;
     }
 
@@ -175,11 +278,12 @@ public class HttpRequest {
      */
     public HttpRequest withQueryParameter(Map<String, String> queryParameters) {
         this.queryParameters.putAll(queryParameters);
+        this.uri = null;
         return this;
     }
 
     /**
-     * Gets query parameters.
+     * Gets query parameters, {@link #httpRequestURI()} is rebuilt when they are changed.
      *
      * @return the query parameters
      */
@@ -206,11 +310,89 @@ public class HttpRequest {
     }
 
     /**
-     * Build http request complete URI with parameters
+     * Gets circuit breaker.
+     *
+     * @return the circuit breaker
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Gets hedging policy.
+     *
+     * @return the hedging policy
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Gets timeout config, set values override {@link HttpClientConfig#getTimeoutConfig()}.
+     *
+     * @return the timeout config
+     */
+    public TimeoutConfig getTimeoutConfig() {
+        return timeoutConfig;
+    }
+
+    /**
+     * Build http request complete URI with parameters.
+     * URI is built once and shared by handlers, transport and retries until query parameters are changed
+     * (including changes made through {@link #getQueryParameters()}).
      *
      * @return the URI
      */
     public URI httpRequestURI() {
+        BuiltURI builtURI = uri;
+        if (Objects.isNull(builtURI) || !builtURI.queryParameters.equals(queryParameters)) {
+            builtURI = new BuiltURI(
+                    Objects.nonNull(encodedEndPoint) ? templateURI() : buildURI(), new HashMap<>(queryParameters));
+            uri = builtURI;
+        }
+        return builtURI.uri;
+    }
+
+    /**
+     * URI and query parameters it was built from.
+     */
+    private static final class BuiltURI {
+        private final URI uri;
+        private final Map<String, String> queryParameters;
+
+        private BuiltURI(URI uri, Map<String, String> queryParameters) {
+            this.uri = uri;
+            this.queryParameters = queryParameters;
+        }
+    }
+
+    /**
+     * Append the encoded query to URI pre-resolved by {@link HttpRequestTemplate}
+     *
+     * @return the URI
+     */
+    private URI templateURI() {
+        StringBuilder stringBuilder = new StringBuilder(baseURI.length() + encodedEndPoint.length() + 64)
+                .append(baseURI)
+                .append(encodedEndPoint);
+        if (Collections.nonNullNonEmpty(queryParameters)) {
+            char separator = '?';
+            for (Map.Entry<String, String> queryParameter : queryParameters.entrySet()) {
+                stringBuilder
+                        .append(separator)
+                        .append(URLEncoder.encode(queryParameter.getKey(), StandardCharsets.UTF_8));
+                if (Objects.nonNull(queryParameter.getValue())) {
+                    stringBuilder
+                            .append('=')
+                            .append(URLEncoder.encode(queryParameter.getValue(), StandardCharsets.UTF_8));
+                }
+                separator = '&';
+            }
+        }
+        return URI.create(stringBuilder.toString());
+    }
+
+    private URI buildURI() {
         try {
             URIBuilder uriBuilder = new URIBuilder(getHost());
             if (getPort() != 0) {
@@ -230,9 +412,15 @@ public class HttpRequest {
      * The type Http payload.
      * Use HttpPayload(String charset, String contentType, String payload) for String based payload.
      * Use HttpPayload(String charset, String contentType, Map&lt;String, Object&gt; form) for form based payload.
+     * Use HttpPayload(String contentType, byte[]/ByteBuffer/File/Path) for binary payload.
+     * Use HttpPayload(String contentType, Supplier&lt;InputStream&gt;, long contentLength) for streaming payload,
+     * supplier is called for every attempt so retries don't need the body in memory.
+     * Form values of multipart payload can be String, File, Path, byte[], InputStream or Supplier&lt;InputStream&gt;.
      */
     @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class HttpPayload {
+        private static final String APPLICATION_JSON = "application/json; charset=UTF-8";
+
         private final String charset;
         private final String contentType;
         private final String payload;
@@ -240,6 +428,26 @@ public class HttpRequest {
         @JsonInclude(JsonInclude.Include.NON_EMPTY)
         private final Map<String, Object> form;
 
+        @JsonIgnore
+        private final ByteBuffer byteBuffer;
+
+        private final File file;
+
+        @JsonIgnore
+        private final Supplier<InputStream> inputStreamSupplier;
+
+        @JsonIgnore
+        private final long contentLength;
+
+        @JsonIgnore
+        private final boolean replayable;
+
+        @JsonIgnore
+        private final Object jsonValue;
+
+        @JsonIgnore
+        private final JsonCodec jsonCodec;
+
         /**
          * Instantiates a new Http payload.
          *
@@ -248,10 +456,7 @@ public class HttpRequest {
          * @param payload     the payload
          */
         public HttpPayload(String charset, String contentType, String payload) {
-            this.charset = charset;
-            this.contentType = contentType;
-            this.payload = payload;
-            this.form = null;
+            this(charset, contentType, payload, null, null, null, null, -1, true, null, null);
         }
 
         /**
@@ -262,10 +467,141 @@ public class HttpRequest {
          * @param form        the form
          */
         public HttpPayload(String charset, String contentType, Map<String, Object> form) {
+            this(charset, contentType, null, form, null, null, null, -1, isFormReplayable(form), null, null);
+        }
+
+        /**
+         * Instantiates a new binary Http payload.
+         *
+         * @param contentType the content type
+         * @param bytes       the bytes
+         */
+        public HttpPayload(String contentType, byte[] bytes) {
+            this(null, contentType, null, null, ByteBuffer.wrap(bytes), null, null, bytes.length, true, null, null);
+        }
+
+        /**
+         * Instantiates a new binary Http payload, remaining bytes of buffer are sent.
+         *
+         * @param contentType the content type
+         * @param byteBuffer  the byte buffer
+         */
+        public HttpPayload(String contentType, ByteBuffer byteBuffer) {
+            this(null, contentType, null, null, byteBuffer, null, null, byteBuffer.remaining(), true, null, null);
+        }
+
+        /**
+         * Instantiates a new file Http payload, file is streamed from disk.
+         *
+         * @param contentType the content type
+         * @param file        the file
+         */
+        public HttpPayload(String contentType, File file) {
+            this(null, contentType, null, null, null, file, null, file.length(), true, null, null);
+        }
+
+        /**
+         * Instantiates a new file Http payload, file is streamed from disk.
+         *
+         * @param contentType the content type
+         * @param path        the path
+         */
+        public HttpPayload(String contentType, Path path) {
+            this(contentType, path.toFile());
+        }
+
+        /**
+         * Instantiates a new streaming Http payload.
+         * Supplier is called for every attempt, so it must return a new stream of the same content each time.
+         *
+         * @param contentType         the content type
+         * @param inputStreamSupplier the input stream supplier
+         * @param contentLength       the content length, negative when unknown (sent with chunked transfer encoding)
+         */
+        public HttpPayload(String contentType, Supplier<InputStream> inputStreamSupplier, long contentLength) {
+            this(null, contentType, null, null, null, null, inputStreamSupplier, contentLength, true, null, null);
+        }
+
+        /**
+         * Instantiates a new streaming Http payload.
+         * Stream can be sent only once, use {@link #HttpPayload(String, Supplier, long)} when request can be retried.
+         *
+         * @param contentType   the content type
+         * @param inputStream   the input stream
+         * @param contentLength the content length, negative when unknown (sent with chunked transfer encoding)
+         */
+        public HttpPayload(String contentType, InputStream inputStream, long contentLength) {
+            this(null, contentType, null, null, null, null, () -> inputStream, contentLength, false, null, null);
+        }
+
+        private HttpPayload(
+                String charset,
+                String contentType,
+                String payload,
+                Map<String, Object> form,
+                ByteBuffer byteBuffer,
+                File file,
+                Supplier<InputStream> inputStreamSupplier,
+                long contentLength,
+                boolean replayable,
+                Object jsonValue,
+                JsonCodec jsonCodec) {
             this.charset = charset;
             this.contentType = contentType;
+            this.payload = payload;
             this.form = form;
-            this.payload = null;
+            this.byteBuffer = byteBuffer;
+            this.file = file;
+            this.inputStreamSupplier = inputStreamSupplier;
+            this.contentLength = contentLength;
+            this.replayable = replayable;
+            this.jsonValue = jsonValue;
+            this.jsonCodec = jsonCodec;
+        }
+
+        /**
+         * InputStream value of multipart form can be sent only once, element of List value is sent as its own part.
+         * @param form the form
+         * @return true when form has no InputStream value
+         */
+        private static boolean isFormReplayable(Map<String, Object> form) {
+            return Objects.isNull(form)
+                    || form.values().stream()
+                            .flatMap(value -> value instanceof List ? ((List<?>) value).stream() : Stream.of(value))
+                            .noneMatch(InputStream.class::isInstance);
+        }
+
+        /**
+         * Json Http payload, value is serialized by {@link JsonCodec#DEFAULT} straight into the request stream
+         * on every attempt.
+         *
+         * @param value the value
+         * @return the http payload
+         */
+        public static HttpPayload json(Object value) {
+            return json(value, JsonCodec.DEFAULT);
+        }
+
+        /**
+         * Json Http payload, value is serialized by the codec straight into the request stream on every attempt.
+         *
+         * @param value     the value
+         * @param jsonCodec the json codec
+         * @return the http payload
+         */
+        public static HttpPayload json(Object value, JsonCodec jsonCodec) {
+            return new HttpPayload(
+                    StandardCharsets.UTF_8.name(),
+                    APPLICATION_JSON,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    -1,
+                    true,
+                    value,
+                    jsonCodec);
         }
 
         /**
@@ -303,6 +639,69 @@ public class HttpRequest {
         public Map<String, Object> getForm() {
             return form;
         }
+
+        /**
+         * Gets byte buffer, returned buffer is a read-only view so the payload can be sent again.
+         *
+         * @return the byte buffer
+         */
+        public ByteBuffer getByteBuffer() {
+            return Objects.nonNull(byteBuffer) ? byteBuffer.asReadOnlyBuffer() : null;
+        }
+
+        /**
+         * Gets file.
+         *
+         * @return the file
+         */
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Gets input stream supplier.
+         *
+         * @return the input stream supplier
+         */
+        public Supplier<InputStream> getInputStreamSupplier() {
+            return inputStreamSupplier;
+        }
+
+        /**
+         * Gets content length.
+         *
+         * @return the content length, negative when unknown
+         */
+        public long getContentLength() {
+            return contentLength;
+        }
+
+        /**
+         * Payload can be sent more than once (i.e. on retry).
+         *
+         * @return the boolean
+         */
+        public boolean isReplayable() {
+            return replayable;
+        }
+
+        /**
+         * Gets value of json payload.
+         *
+         * @return the json value
+         */
+        public Object getJsonValue() {
+            return jsonValue;
+        }
+
+        /**
+         * Gets codec of json payload.
+         *
+         * @return the json codec
+         */
+        public JsonCodec getJsonCodec() {
+            return jsonCodec;
+        }
     }
 
     /**
@@ -320,6 +719,9 @@ public class HttpRequest {
         private Map<String, String> queryParameters;
         private HttpPayload httpPayload;
         private RetryPolicy retryPolicy;
+        private CircuitBreaker circuitBreaker;
+        private HedgingPolicy hedgingPolicy;
+        private TimeoutConfig timeoutConfig;
 
         /**
          * Instantiates a new Http request builder.
@@ -446,6 +848,39 @@ public class HttpRequest {
             return this;
         }
 
+        /**
+         * With circuit breaker http request builder.
+         *
+         * @param circuitBreaker the circuit breaker
+         * @return the http request builder
+         */
+        public HttpRequestBuilder withCircuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * With hedging policy http request builder, applies to idempotent requests only.
+         *
+         * @param hedgingPolicy the hedging policy
+         * @return the http request builder
+         */
+        public HttpRequestBuilder withHedgingPolicy(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        /**
+         * With timeout config http request builder, set values override {@link HttpClientConfig#getTimeoutConfig()}.
+         *
+         * @param timeoutConfig the timeout config
+         * @return the http request builder
+         */
+        public HttpRequestBuilder withTimeoutConfig(TimeoutConfig timeoutConfig) {
+            this.timeoutConfig = timeoutConfig;
+            return this;
+        }
+
         /**
          * Build http request.
          *
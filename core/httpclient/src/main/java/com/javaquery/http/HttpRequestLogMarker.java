@@ -0,0 +1,181 @@
+package com.javaquery.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import net.logstash.logback.marker.LogstashMarker;
+
+/**
+ * Marker writing fields of {@link HttpRequestResponse} straight to the json generator of log encoder.
+ * Values of the attempt are captured in fields of the marker when it's created (async appender writes it later,
+ * when request may be restored for next attempt and response released) and written without serializing request and
+ * response objects.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+class HttpRequestLogMarker extends LogstashMarker {
+
+    private static final String MARKER_NAME = LogstashMarker.MARKER_NAME_PREFIX + "HTTP_REQUEST";
+    private static final String MASKED = "****";
+    private static final Set<String> SENSITIVE_HEADERS =
+            Set.of(StringPool.AUTHORIZATION.toLowerCase(), "proxy-authorization", "cookie", "set-cookie");
+
+    private final transient HttpLoggingConfig httpLoggingConfig;
+    private final String httpRequestName;
+    private final String httpMethod;
+    private final String uri;
+    private final transient Map<String, String> requestHeaders;
+    private final transient Map<String, String> responseHeaders;
+    private final transient String responseBody;
+    private final transient HttpCacheStatus cacheStatus;
+    private final transient Exception exception;
+    private final int statusCode;
+    private final long executionTime;
+    private final int retriesAttempted;
+    private final boolean circuitBreakerOpen;
+    private final boolean hedged;
+
+    /**
+     * Instantiates a new Http request log marker.
+     *
+     * @param httpRequestResponse the http request response
+     * @param httpLoggingConfig   the http logging config
+     */
+    HttpRequestLogMarker(HttpRequestResponse httpRequestResponse, HttpLoggingConfig httpLoggingConfig) {
+        super(MARKER_NAME);
+        this.httpLoggingConfig = httpLoggingConfig;
+        Set<HttpLogField> fields = httpLoggingConfig.getFields();
+        HttpRequest httpRequest = httpRequestResponse.getHttpRequest();
+        this.httpRequestName = httpRequest.getHttpRequestName();
+        this.httpMethod = String.valueOf(httpRequest.getHttpMethod());
+        this.uri = fields.contains(HttpLogField.URI) ? String.valueOf(httpRequest.httpRequestURI()) : null;
+        this.requestHeaders = fields.contains(HttpLogField.REQUEST_HEADERS) ? capture(httpRequest.getHeaders()) : null;
+        HttpResponse httpResponse = httpRequestResponse.getHttpResponse();
+        this.statusCode = Objects.nonNull(httpResponse) ? httpResponse.getStatusCode() : -1;
+        this.responseHeaders = Objects.nonNull(httpResponse) && fields.contains(HttpLogField.RESPONSE_HEADERS)
+                ? capture(httpResponse.getHeaders())
+                : null;
+        this.responseBody = Objects.nonNull(httpResponse) && fields.contains(HttpLogField.RESPONSE_BODY)
+                ? truncate(httpResponse.peekBody(httpLoggingConfig.getMaxCapturedLength()))
+                : null;
+        this.cacheStatus = Objects.nonNull(httpResponse) ? httpResponse.getCacheStatus() : null;
+        this.exception = httpRequestResponse.getException();
+        this.executionTime = executionTime(httpRequestResponse);
+        this.retriesAttempted = httpRequestResponse.getRetriesAttempted();
+        this.circuitBreakerOpen = httpRequestResponse.isCircuitBreakerOpen();
+        this.hedged = httpRequestResponse.isHedged();
+    }
+
+    /**
+     * Decide whether the attempt is logged as per sample rates and slow call threshold.
+     *
+     * @param httpRequestResponse the http request response
+     * @param httpLoggingConfig   the http logging config
+     * @return the boolean
+     */
+    static boolean isSampled(HttpRequestResponse httpRequestResponse, HttpLoggingConfig httpLoggingConfig) {
+        if (httpLoggingConfig.getSlowCallThresholdInMilliseconds() >= 0
+                && executionTime(httpRequestResponse) > httpLoggingConfig.getSlowCallThresholdInMilliseconds()) {
+            return true;
+        }
+        HttpResponse httpResponse = httpRequestResponse.getHttpResponse();
+        boolean error = Objects.isNull(httpResponse) || httpResponse.getStatusCode() >= 400;
+        double sampleRate = error ? httpLoggingConfig.getErrorSampleRate() : httpLoggingConfig.getSuccessSampleRate();
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        Set<HttpLogField> fields = httpLoggingConfig.getFields();
+        if (fields.contains(HttpLogField.ACTION)) {
+            generator.writeStringField(HttpLogField.ACTION.getFieldName(), StringPool.LOG_HTTP_REQUEST);
+        }
+        if (fields.contains(HttpLogField.HTTP_REQUEST_NAME)) {
+            generator.writeStringField(HttpLogField.HTTP_REQUEST_NAME.getFieldName(), httpRequestName);
+        }
+        if (fields.contains(HttpLogField.HTTP_METHOD)) {
+            generator.writeStringField(HttpLogField.HTTP_METHOD.getFieldName(), httpMethod);
+        }
+        if (fields.contains(HttpLogField.URI)) {
+            generator.writeStringField(HttpLogField.URI.getFieldName(), uri);
+        }
+        if (fields.contains(HttpLogField.STATUS_CODE) && statusCode != -1) {
+            generator.writeNumberField(HttpLogField.STATUS_CODE.getFieldName(), statusCode);
+        }
+        if (fields.contains(HttpLogField.EXECUTION_TIME_MS)) {
+            generator.writeNumberField(HttpLogField.EXECUTION_TIME_MS.getFieldName(), executionTime);
+        }
+        if (fields.contains(HttpLogField.RETRIES_ATTEMPTED)) {
+            generator.writeNumberField(HttpLogField.RETRIES_ATTEMPTED.getFieldName(), retriesAttempted);
+        }
+        if (fields.contains(HttpLogField.CACHE_STATUS) && Objects.nonNull(cacheStatus)) {
+            generator.writeStringField(HttpLogField.CACHE_STATUS.getFieldName(), cacheStatus.name());
+        }
+        if (fields.contains(HttpLogField.CIRCUIT_BREAKER_OPEN) && circuitBreakerOpen) {
+            generator.writeBooleanField(HttpLogField.CIRCUIT_BREAKER_OPEN.getFieldName(), true);
+        }
+        if (fields.contains(HttpLogField.HEDGED) && hedged) {
+            generator.writeBooleanField(HttpLogField.HEDGED.getFieldName(), true);
+        }
+        if (fields.contains(HttpLogField.ERROR) && Objects.nonNull(exception)) {
+            generator.writeStringField(
+                    HttpLogField.ERROR.getFieldName(), exception.getClass().getName() + ": " + exception.getMessage());
+        }
+        if (fields.contains(HttpLogField.REQUEST_HEADERS)) {
+            writeHeaders(generator, HttpLogField.REQUEST_HEADERS, requestHeaders);
+        }
+        if (fields.contains(HttpLogField.RESPONSE_HEADERS)) {
+            writeHeaders(generator, HttpLogField.RESPONSE_HEADERS, responseHeaders);
+        }
+        if (fields.contains(HttpLogField.RESPONSE_BODY) && Objects.nonNull(responseBody)) {
+            generator.writeStringField(HttpLogField.RESPONSE_BODY.getFieldName(), responseBody);
+        }
+    }
+
+    private void writeHeaders(JsonGenerator generator, HttpLogField httpLogField, Map<String, String> headers)
+            throws IOException {
+        if (Objects.isNull(headers) || headers.isEmpty()) {
+            return;
+        }
+        generator.writeObjectFieldStart(httpLogField.getFieldName());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            generator.writeStringField(header.getKey(), header.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Copy of headers with sensitive values masked and others truncated.
+     */
+    private Map<String, String> capture(Map<String, String> headers) {
+        if (Objects.isNull(headers) || headers.isEmpty()) {
+            return null;
+        }
+        Map<String, String> captured = new LinkedHashMap<>(headers.size() * 2);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            captured.put(
+                    header.getKey(),
+                    SENSITIVE_HEADERS.contains(header.getKey().toLowerCase()) ? MASKED : truncate(header.getValue()));
+        }
+        return captured;
+    }
+
+    private String truncate(String value) {
+        int maxCapturedLength = httpLoggingConfig.getMaxCapturedLength();
+        return Objects.nonNull(value) && value.length() > maxCapturedLength
+                ? value.substring(0, maxCapturedLength)
+                : value;
+    }
+
+    private static long executionTime(HttpRequestResponse httpRequestResponse) {
+        long executionEndTime = httpRequestResponse.getExecutionEndTime() != 0
+                ? httpRequestResponse.getExecutionEndTime()
+                : System.currentTimeMillis();
+        return executionEndTime - httpRequestResponse.getExecutionStartTime();
+    }
+}
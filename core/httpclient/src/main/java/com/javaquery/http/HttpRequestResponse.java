@@ -3,6 +3,7 @@ package com.javaquery.http;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -20,6 +21,72 @@ public class HttpRequestResponse {
     private int retriesAttempted = 0;
     private long executionStartTime;
     private long executionEndTime;
+    private long previousRetryDelay;
+
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private boolean retryScheduled;
+
+    /**
+     * Http request handler asked to send the request once more, see
+     * {@link com.javaquery.http.handler.HttpRequestHandler#shouldReplay}.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private boolean replayScheduled;
+
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private boolean replayed;
+
+    /**
+     * Request was rejected by open circuit of {@link com.javaquery.http.retry.CircuitBreaker}.
+     */
+    private boolean circuitBreakerOpen;
+
+    /**
+     * Hedged attempt was sent as per {@link com.javaquery.http.retry.HedgingPolicy}.
+     */
+    private volatile boolean hedged;
+
+    /**
+     * Exception of failed attempt.
+     */
+    private Exception exception;
+
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private long attemptStartNanos;
+
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private long attemptEndNanos;
+
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private long bytesSent = -1;
+
+    /**
+     * Timeouts of http request resolved against {@link HttpClientConfig#getTimeoutConfig()}.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private TimeoutConfig timeoutConfig;
+
+    /**
+     * Deadline (System.nanoTime) shared by all attempts, 0 when request has no deadline.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private long deadlineNanos;
+
+    /**
+     * State of {@link com.javaquery.http.handler.HttpRequestHandler}s kept for this attempt only, keyed by handler.
+     * Hooks of single attempt run one after another, so it's not synchronized.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<Object, Object> handlerState;
 
     /**
      * Instantiates a new Http request response.
@@ -38,6 +105,30 @@ public class HttpRequestResponse {
         executionEndTime = System.currentTimeMillis();
     }
 
+    /**
+     * Keep state of http request handler for this attempt, i.e. permit taken before request and released after
+     * response.
+     *
+     * @param key   the key, usually the handler itself
+     * @param value the value
+     */
+    public void putHandlerState(Object key, Object value) {
+        if (Objects.isNull(handlerState)) {
+            handlerState = new HashMap<>(4);
+        }
+        handlerState.put(key, value);
+    }
+
+    /**
+     * Remove state of http request handler kept for this attempt.
+     *
+     * @param key the key, usually the handler itself
+     * @return the value, null when handler kept no state for this attempt
+     */
+    public Object removeHandlerState(Object key) {
+        return Objects.nonNull(handlerState) ? handlerState.remove(key) : null;
+    }
+
     /**
      * Gets attributes.
      *
@@ -54,6 +145,15 @@ public class HttpRequestResponse {
             attributes.put(StringPool.LOG_HTTP_RESPONSE, httpResponse);
         }
         attributes.put(StringPool.RETRIES_ATTEMPTED, retriesAttempted);
+        if (circuitBreakerOpen) {
+            attributes.put(StringPool.CIRCUIT_BREAKER_OPEN, true);
+        }
+        if (hedged) {
+            attributes.put(StringPool.HEDGED, true);
+        }
+        if (Objects.nonNull(httpResponse) && Objects.nonNull(httpResponse.getCacheStatus())) {
+            attributes.put(StringPool.CACHE_STATUS, httpResponse.getCacheStatus());
+        }
         return attributes;
     }
 }
@@ -0,0 +1,512 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.retry.CircuitBreaker;
+import com.javaquery.http.retry.HedgingPolicy;
+import com.javaquery.http.retry.RetryPolicy;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, thread-safe template of {@link HttpRequest} which resolves host, port, end point, static headers,
+ * retry policy and circuit breaker once. Per call only path variables, query parameters, headers and payload are
+ * bound, without re-parsing the host or building URI with <code>URIBuilder</code>.
+ * <pre>
+ * HttpRequestTemplate getUser = new HttpRequestTemplate.HttpRequestTemplateBuilder("GetUser", HttpMethod.GET)
+ *         .withHost("https://api.example.com")
+ *         .withEndPoint("/v1/users/{id}")
+ *         .withHeader("Accept", "application/json")
+ *         .build();
+ * HttpRequest httpRequest = getUser.newHttpRequest().withPathVariable("id", "42").build();
+ * </pre>
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public final class HttpRequestTemplate {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final String PATH_SAFE = "/:@!$&'()*+,;=";
+
+    private final String httpRequestName;
+    private final HttpMethod httpMethod;
+    private final String username;
+    private final String password;
+    private final URI host;
+    private final int port;
+    private final String baseURI;
+    private final Map<String, String> headers;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final HedgingPolicy hedgingPolicy;
+    private final TimeoutConfig timeoutConfig;
+
+    /**
+     * Literal parts of end point, path variable <code>variables[i]</code> follows <code>segments[i]</code>.
+     */
+    private final String[] segments;
+
+    private final String[] encodedSegments;
+    private final String[] variables;
+
+    private HttpRequestTemplate(HttpRequestTemplateBuilder httpRequestTemplateBuilder) {
+        this.httpRequestName = httpRequestTemplateBuilder.httpRequestName;
+        this.httpMethod = httpRequestTemplateBuilder.httpMethod;
+        this.username = httpRequestTemplateBuilder.username;
+        this.password = httpRequestTemplateBuilder.password;
+        this.host = Objects.requireNonNull(httpRequestTemplateBuilder.host, "host");
+        this.port = httpRequestTemplateBuilder.port;
+        this.baseURI = host.getScheme() + "://" + (port != 0 ? host.getHost() + ":" + port : host.getRawAuthority());
+        this.headers = Collections.unmodifiableMap(new HashMap<>(httpRequestTemplateBuilder.headers));
+        this.retryPolicy = httpRequestTemplateBuilder.retryPolicy;
+        this.circuitBreaker = httpRequestTemplateBuilder.circuitBreaker;
+        this.hedgingPolicy = httpRequestTemplateBuilder.hedgingPolicy;
+        this.timeoutConfig = httpRequestTemplateBuilder.timeoutConfig;
+
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        String endPoint =
+                Objects.nonNull(httpRequestTemplateBuilder.endPoint) ? httpRequestTemplateBuilder.endPoint : "";
+        int start = 0;
+        int open;
+        while ((open = endPoint.indexOf('{', start)) != -1) {
+            int close = endPoint.indexOf('}', open);
+            if (close == -1) {
+                throw new IllegalArgumentException(String.format(StringPool.ERROR_INVALID_END_POINT, endPoint));
+            }
+            literals.add(endPoint.substring(start, open));
+            names.add(endPoint.substring(open + 1, close));
+            start = close + 1;
+        }
+        literals.add(endPoint.substring(start));
+        this.segments = literals.toArray(new String[0]);
+        this.variables = names.toArray(new String[0]);
+        this.encodedSegments = new String[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            encodedSegments[i] = encode(segments[i], PATH_SAFE);
+        }
+    }
+
+    /**
+     * Start binding new http request from the template.
+     *
+     * @return the http request binder
+     */
+    public HttpRequestBinder newHttpRequest() {
+        return new HttpRequestBinder(this);
+    }
+
+    /**
+     * Gets http request name.
+     *
+     * @return the http request name
+     */
+    public String getHttpRequestName() {
+        return httpRequestName;
+    }
+
+    /**
+     * Gets http method.
+     *
+     * @return the http method
+     */
+    public HttpMethod getHttpMethod() {
+        return httpMethod;
+    }
+
+    /**
+     * Gets username.
+     *
+     * @return the username
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Gets password.
+     *
+     * @return the password
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Gets host.
+     *
+     * @return the host
+     */
+    public URI getHost() {
+        return host;
+    }
+
+    /**
+     * Gets port.
+     *
+     * @return the port, 0 when port of host is used
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Gets static headers.
+     *
+     * @return the unmodifiable headers
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets retry policy.
+     *
+     * @return the retry policy
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Gets circuit breaker.
+     *
+     * @return the circuit breaker
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Gets hedging policy.
+     *
+     * @return the hedging policy
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Gets timeout config.
+     *
+     * @return the timeout config
+     */
+    public TimeoutConfig getTimeoutConfig() {
+        return timeoutConfig;
+    }
+
+    /**
+     * Scheme and authority of the URI.
+     *
+     * @return the base URI
+     */
+    String getBaseURI() {
+        return baseURI;
+    }
+
+    /**
+     * Percent-encode the value keeping unreserved characters and provided safe characters.
+     *
+     * @param value the value
+     * @param safe  the characters not encoded
+     * @return the encoded value
+     */
+    static String encode(String value, String safe) {
+        StringBuilder stringBuilder = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean unreserved = (c >= 'a' && c <= 'z')
+                    || (c >= 'A' && c <= 'Z')
+                    || (c >= '0' && c <= '9')
+                    || c == '-'
+                    || c == '.'
+                    || c == '_'
+                    || c == '~'
+                    || safe.indexOf(c) != -1;
+            if (unreserved) {
+                if (Objects.nonNull(stringBuilder)) {
+                    stringBuilder.append(c);
+                }
+                continue;
+            }
+            if (Objects.isNull(stringBuilder)) {
+                stringBuilder = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            int end = Character.isHighSurrogate(c) && i + 1 < value.length() ? i + 2 : i + 1;
+            for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                stringBuilder.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+            }
+            i = end - 1;
+        }
+        return Objects.nonNull(stringBuilder) ? stringBuilder.toString() : value;
+    }
+
+    /**
+     * Binds per call values of http request created from {@link HttpRequestTemplate}.
+     * Binder is not thread-safe, create one per call using {@link HttpRequestTemplate#newHttpRequest()}.
+     */
+    public static final class HttpRequestBinder {
+        private final HttpRequestTemplate httpRequestTemplate;
+        private final String[] values;
+        private final Map<String, String> headers;
+        private final Map<String, String> queryParameters = new LinkedHashMap<>();
+        private HttpRequest.HttpPayload httpPayload;
+
+        private HttpRequestBinder(HttpRequestTemplate httpRequestTemplate) {
+            this.httpRequestTemplate = httpRequestTemplate;
+            this.values = new String[httpRequestTemplate.variables.length];
+            this.headers = new HashMap<>(httpRequestTemplate.headers);
+        }
+
+        /**
+         * With path variable http request binder, value is percent-encoded as a single path segment.
+         *
+         * @param name  the name of path variable
+         * @param value the value
+         * @return the http request binder
+         */
+        public HttpRequestBinder withPathVariable(String name, String value) {
+            for (int i = 0; i < httpRequestTemplate.variables.length; i++) {
+                if (httpRequestTemplate.variables[i].equals(name)) {
+                    values[i] = value;
+                    return this;
+                }
+            }
+            throw new IllegalArgumentException(String.format(StringPool.ERROR_UNKNOWN_PATH_VARIABLE, name));
+        }
+
+        /**
+         * With query parameter http request binder.
+         *
+         * @param key   the key
+         * @param value the value
+         * @return the http request binder
+         */
+        public HttpRequestBinder withQueryParameter(String key, String value) {
+            this.queryParameters.put(key, value);
+            return this;
+        }
+
+        /**
+         * With header http request binder, overrides static header of template.
+         *
+         * @param key   the key
+         * @param value the value
+         * @return the http request binder
+         */
+        public HttpRequestBinder withHeader(String key, String value) {
+            this.headers.put(key, value);
+            return this;
+        }
+
+        /**
+         * With http payload http request binder.
+         *
+         * @param httpPayload the http payload
+         * @return the http request binder
+         */
+        public HttpRequestBinder withHttpPayload(HttpRequest.HttpPayload httpPayload) {
+            this.httpPayload = httpPayload;
+            return this;
+        }
+
+        /**
+         * Build http request.
+         *
+         * @return the http request
+         */
+        public HttpRequest build() {
+            String[] segments = httpRequestTemplate.segments;
+            String[] encodedSegments = httpRequestTemplate.encodedSegments;
+            // http request gets its own maps, binder may build more requests or change values afterwards
+            Map<String, String> headers = new HashMap<>(this.headers);
+            Map<String, String> queryParameters = new LinkedHashMap<>(this.queryParameters);
+            if (values.length == 0) {
+                return new HttpRequest(
+                        httpRequestTemplate, segments[0], encodedSegments[0], headers, queryParameters, httpPayload);
+            }
+            StringBuilder endPoint = new StringBuilder(segments[0]);
+            StringBuilder encodedEndPoint = new StringBuilder(encodedSegments[0]);
+            for (int i = 0; i < values.length; i++) {
+                if (Objects.isNull(values[i])) {
+                    throw new IllegalArgumentException(
+                            String.format(StringPool.ERROR_PATH_VARIABLE_NOT_BOUND, httpRequestTemplate.variables[i]));
+                }
+                endPoint.append(values[i]).append(segments[i + 1]);
+                encodedEndPoint.append(encode(values[i], "")).append(encodedSegments[i + 1]);
+            }
+            return new HttpRequest(
+                    httpRequestTemplate,
+                    endPoint.toString(),
+                    encodedEndPoint.toString(),
+                    headers,
+                    queryParameters,
+                    httpPayload);
+        }
+    }
+
+    /**
+     * The type Http request template builder.
+     */
+    public static final class HttpRequestTemplateBuilder {
+        private final String httpRequestName;
+        private final HttpMethod httpMethod;
+        private String username;
+        private String password;
+        private URI host;
+        private int port;
+        private String endPoint;
+        private final Map<String, String> headers = new HashMap<>();
+        private RetryPolicy retryPolicy;
+        private CircuitBreaker circuitBreaker;
+        private HedgingPolicy hedgingPolicy;
+        private TimeoutConfig timeoutConfig;
+
+        /**
+         * Instantiates a new Http request template builder.
+         *
+         * @param httpRequestName the http request name
+         * @param httpMethod      the http method
+         */
+        public HttpRequestTemplateBuilder(String httpRequestName, HttpMethod httpMethod) {
+            this.httpRequestName = httpRequestName;
+            this.httpMethod = httpMethod;
+        }
+
+        /**
+         * With username password http request template builder.
+         *
+         * @param username the username
+         * @param password the password
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withUsernamePassword(String username, String password) {
+            this.username = username;
+            this.password = password;
+            return this;
+        }
+
+        /**
+         * With host http request template builder.
+         *
+         * @param host the host, i.e. https://api.example.com
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withHost(String host) {
+            try {
+                this.host = new URI(host);
+            } catch (URISyntaxException e) {
+                throw new HttpException(e);
+            }
+            return this;
+        }
+
+        /**
+         * With port http request template builder.
+         *
+         * @param port the port
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withPort(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * With end point http request template builder, path variables are enclosed in braces
+         * i.e. /v1/users/{id}/orders.
+         *
+         * @param endPoint the end point
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withEndPoint(String endPoint) {
+            this.endPoint = endPoint;
+            return this;
+        }
+
+        /**
+         * With static header http request template builder.
+         *
+         * @param key   the key
+         * @param value the value
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withHeader(String key, String value) {
+            this.headers.put(key, value);
+            return this;
+        }
+
+        /**
+         * With static headers http request template builder.
+         *
+         * @param headers the headers
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withHeaders(Map<String, String> headers) {
+            this.headers.putAll(headers);
+            return this;
+        }
+
+        /**
+         * With retry policy http request template builder.
+         *
+         * @param retryPolicy the retry policy
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withRetryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * With circuit breaker http request template builder.
+         *
+         * @param circuitBreaker the circuit breaker
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withCircuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * With hedging policy http request template builder, applies to idempotent requests only.
+         *
+         * @param hedgingPolicy the hedging policy
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withHedgingPolicy(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        /**
+         * With timeout config http request template builder, set values override
+         * {@link HttpClientConfig#getTimeoutConfig()}.
+         *
+         * @param timeoutConfig the timeout config
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withTimeoutConfig(TimeoutConfig timeoutConfig) {
+            this.timeoutConfig = timeoutConfig;
+            return this;
+        }
+
+        /**
+         * Build http request template.
+         *
+         * @return the http request template
+         */
+        public HttpRequestTemplate build() {
+            return new HttpRequestTemplate(this);
+        }
+    }
+}
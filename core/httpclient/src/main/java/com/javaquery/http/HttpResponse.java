@@ -2,14 +2,30 @@ package com.javaquery.http;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.javaquery.http.exception.HttpException;
 import com.javaquery.util.Strings;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import lombok.Getter;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.HttpEntityWrapper;
 import org.apache.http.util.EntityUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -18,6 +34,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The Http response object.
+ * Body can be read as String (memoized, so repeated calls are cheap), streamed using {@link #getBodyAsStream()}
+ * and {@link #writeBodyTo(Path)} without holding it in memory or read straight into objects using
+ * {@link #getBodyAs(Class)}.
  *
  * @author javaquery
  * @since 1.0.0
@@ -26,6 +45,9 @@ import org.slf4j.LoggerFactory;
 public class HttpResponse {
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpResponse.class);
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long TRANSFER_SIZE = 8 * 1024 * 1024;
+
     private int statusCode;
 
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
@@ -38,13 +60,32 @@ public class HttpResponse {
     @JsonIgnore
     private org.apache.http.HttpResponse apacheHttpResponse;
 
+    @JsonIgnore
+    private final long maxBodySize;
+
+    @JsonIgnore
+    private volatile boolean maxBodySizeExceeded;
+
+    private HttpCacheStatus cacheStatus;
+
     /**
      * Instantiates a new Http response.
      *
      * @param httpResponse the http response
      */
     public HttpResponse(org.apache.http.HttpResponse httpResponse) {
+        this(httpResponse, -1);
+    }
+
+    /**
+     * Instantiates a new Http response.
+     *
+     * @param httpResponse the http response
+     * @param maxBodySize  the max size of body in bytes, negative for unlimited
+     */
+    public HttpResponse(org.apache.http.HttpResponse httpResponse, long maxBodySize) {
         apacheHttpResponse = httpResponse;
+        this.maxBodySize = maxBodySize;
         if (Objects.nonNull(httpResponse.getAllHeaders()) && httpResponse.getAllHeaders().length > 0) {
             headers = new HashMap<>();
             for (Header header : httpResponse.getAllHeaders()) {
@@ -60,17 +101,22 @@ public class HttpResponse {
      */
     public void updateHttpResponse(HttpEntity httpEntity) {
         this.apacheHttpResponse.setEntity(httpEntity);
+        this.body = null;
     }
 
     /**
      * Gets body.
+     * Body is read once and memoized, entity is buffered so it can still be streamed afterwards.
+     * I/O errors are logged and null is returned.
      *
      * @return the body
+     * @throws HttpException when body exceeds {@link HttpClientConfig#getMaxResponseBodySizeInBytes()}
      */
     public String getBody() {
-        if (Objects.nonNull(apacheHttpResponse)) {
+        if (Objects.isNull(body) && Objects.nonNull(entity())) {
             try {
-                body = EntityUtils.toString(apacheHttpResponse.getEntity());
+                HttpEntity bufferedEntity = buffer();
+                body = EntityUtils.toString(bufferedEntity);
                 if (Strings.nonNullNonEmpty(body) && body.startsWith(StringPool.UTF8_BOM)) {
                     body = body.substring(1);
                 }
@@ -81,6 +127,70 @@ public class HttpResponse {
         return body;
     }
 
+    /**
+     * Gets body as stream without buffering it in memory.
+     * Stream of a non-buffered body can be read only once, close it when done.
+     *
+     * @return the body as stream or null when response has no body
+     * @throws IOException the io exception
+     */
+    @JsonIgnore
+    public InputStream getBodyAsStream() throws IOException {
+        HttpEntity httpEntity = entity();
+        return Objects.nonNull(httpEntity) ? new MaxBodySizeEntity(httpEntity).getContent() : null;
+    }
+
+    /**
+     * Write body to the output stream.
+     *
+     * @param outputStream the output stream
+     * @return the number of bytes written
+     * @throws IOException the io exception
+     */
+    public long writeBodyTo(OutputStream outputStream) throws IOException {
+        long written = 0;
+        try (InputStream inputStream = getBodyAsStream()) {
+            if (Objects.isNull(inputStream)) {
+                return written;
+            }
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+                written += read;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Write body to the file, existing file is replaced.
+     * Body is transferred straight into the file channel without being held in memory.
+     *
+     * @param path the path of file
+     * @return the number of bytes written
+     * @throws IOException the io exception
+     */
+    public long writeBodyTo(Path path) throws IOException {
+        long position = 0;
+        try (InputStream inputStream = getBodyAsStream();
+                FileChannel fileChannel = FileChannel.open(
+                        path,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (Objects.isNull(inputStream)) {
+                return position;
+            }
+            ReadableByteChannel readableByteChannel = Channels.newChannel(inputStream);
+            long transferred;
+            while ((transferred = fileChannel.transferFrom(readableByteChannel, position, TRANSFER_SIZE)) > 0) {
+                position += transferred;
+            }
+        }
+        return position;
+    }
+
     /**
      * Gets json object body.
      *
@@ -109,6 +219,73 @@ public class HttpResponse {
         return null;
     }
 
+    /**
+     * Gets body as object of the type, body is read by {@link JsonCodec#DEFAULT} straight from the response stream.
+     * Body is not buffered, so read it only once unless {@link #getBody()} was called before.
+     *
+     * @param <T>  the type parameter
+     * @param type the type
+     * @return the object or null when response has no body
+     */
+    public <T> T getBodyAs(Class<T> type) {
+        return getBodyAs(type, JsonCodec.DEFAULT);
+    }
+
+    /**
+     * Gets body as object of the type, body is read by the codec straight from the response stream.
+     *
+     * @param <T>       the type parameter
+     * @param type      the type
+     * @param jsonCodec the json codec
+     * @return the object or null when response has no body
+     */
+    public <T> T getBodyAs(Class<T> type, JsonCodec jsonCodec) {
+        try (InputStream inputStream = getBodyAsStream()) {
+            return Objects.nonNull(inputStream) ? jsonCodec.read(inputStream, type) : null;
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Gets body as object of the generic type (i.e. <code>List&lt;Order&gt;</code>), body is read by
+     * {@link JsonCodec#DEFAULT} straight from the response stream.
+     *
+     * @param <T>           the type parameter
+     * @param typeReference the type reference
+     * @return the object or null when response has no body
+     */
+    public <T> T getBodyAs(TypeReference<T> typeReference) {
+        return getBodyAs(typeReference, JsonCodec.DEFAULT);
+    }
+
+    /**
+     * Gets body as object of the generic type, body is read by the codec straight from the response stream.
+     *
+     * @param <T>           the type parameter
+     * @param typeReference the type reference
+     * @param jsonCodec     the json codec
+     * @return the object or null when response has no body
+     */
+    public <T> T getBodyAs(TypeReference<T> typeReference, JsonCodec jsonCodec) {
+        try (InputStream inputStream = getBodyAsStream()) {
+            return Objects.nonNull(inputStream) ? jsonCodec.read(inputStream, typeReference) : null;
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Gets value of first header with the name (case-insensitive).
+     *
+     * @param name the name of header
+     * @return the value or null when header is not present
+     */
+    public String getHeader(String name) {
+        Header header = Objects.nonNull(apacheHttpResponse) ? apacheHttpResponse.getFirstHeader(name) : null;
+        return Objects.nonNull(header) ? header.getValue() : null;
+    }
+
     /**
      * Gets status code.
      *
@@ -119,4 +296,201 @@ public class HttpResponse {
                 ? apacheHttpResponse.getStatusLine().getStatusCode()
                 : -1;
     }
+
+    /**
+     * Gets status of response cache.
+     *
+     * @return the http cache status or null when response cache is not enabled
+     */
+    public HttpCacheStatus getCacheStatus() {
+        return cacheStatus;
+    }
+
+    /**
+     * Sets status of response cache.
+     *
+     * @param cacheStatus the http cache status
+     */
+    void setCacheStatus(HttpCacheStatus cacheStatus) {
+        this.cacheStatus = cacheStatus;
+    }
+
+    /**
+     * Length of body as received from server.
+     *
+     * @return the content length, -1 when unknown
+     */
+    long getContentLength() {
+        HttpEntity httpEntity = entity();
+        return Objects.nonNull(httpEntity) ? httpEntity.getContentLength() : -1;
+    }
+
+    /**
+     * Body exceeded the max body size, connection of such response must not be reused.
+     *
+     * @return the boolean
+     */
+    boolean isMaxBodySizeExceeded() {
+        return maxBodySizeExceeded;
+    }
+
+    /**
+     * Read at most max length bytes of body for logging without buffering the rest of it. Prefix read from
+     * non-repeatable entity is replayed in front of remaining stream, so body can still be read or streamed.
+     *
+     * @param maxLength the max number of bytes to read
+     * @return the prefix of body, null when response has no body or it could not be read
+     */
+    String peekBody(int maxLength) {
+        if (Objects.nonNull(body)) {
+            return body;
+        }
+        HttpEntity httpEntity = entity();
+        if (Objects.isNull(httpEntity)) {
+            return null;
+        }
+        try {
+            byte[] prefix;
+            if (httpEntity.isRepeatable()) {
+                try (InputStream inputStream = httpEntity.getContent()) {
+                    prefix = inputStream.readNBytes(maxLength);
+                }
+            } else {
+                InputStream inputStream = httpEntity.getContent();
+                prefix = inputStream.readNBytes(maxLength);
+                apacheHttpResponse.setEntity(new ReplayedPrefixEntity(httpEntity, prefix, inputStream));
+            }
+            ContentType contentType = ContentType.get(httpEntity);
+            String value = new String(
+                    prefix,
+                    Objects.nonNull(contentType) && Objects.nonNull(contentType.getCharset())
+                            ? contentType.getCharset()
+                            : StandardCharsets.ISO_8859_1);
+            return value.startsWith(StringPool.UTF8_BOM) ? value.substring(1) : value;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Read the body into memory so the response can be shared and read repeatedly after connection is released.
+     *
+     * @throws IOException the io exception
+     */
+    void bufferBody() throws IOException {
+        if (Objects.nonNull(entity())) {
+            buffer();
+        }
+    }
+
+    private HttpEntity entity() {
+        return Objects.nonNull(apacheHttpResponse) ? apacheHttpResponse.getEntity() : null;
+    }
+
+    /**
+     * Buffer the entity in memory (once) so it can be read repeatedly.
+     * @return the buffered entity
+     * @throws IOException the io exception
+     */
+    private HttpEntity buffer() throws IOException {
+        HttpEntity httpEntity = entity();
+        if (!httpEntity.isRepeatable()) {
+            httpEntity = new BufferedHttpEntity(new MaxBodySizeEntity(httpEntity));
+            apacheHttpResponse.setEntity(httpEntity);
+        }
+        return httpEntity;
+    }
+
+    /**
+     * Entity streaming prefix already read from the wrapped entity followed by rest of its content stream.
+     */
+    private static class ReplayedPrefixEntity extends HttpEntityWrapper {
+        private final InputStream content;
+
+        private ReplayedPrefixEntity(HttpEntity httpEntity, byte[] prefix, InputStream remaining) {
+            super(httpEntity);
+            this.content = new SequenceInputStream(new ByteArrayInputStream(prefix), remaining);
+        }
+
+        @Override
+        public InputStream getContent() {
+            return content;
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            try (InputStream inputStream = content) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, read);
+                }
+            }
+        }
+    }
+
+    /**
+     * Entity which fails when more than max body size bytes are read.
+     */
+    private class MaxBodySizeEntity extends HttpEntityWrapper {
+
+        private MaxBodySizeEntity(HttpEntity httpEntity) {
+            super(httpEntity);
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            if (maxBodySize < 0) {
+                return super.getContent();
+            }
+            if (getContentLength() > maxBodySize) {
+                throw maxBodySizeExceeded();
+            }
+            return new FilterInputStream(super.getContent()) {
+                private long count;
+
+                @Override
+                public int read() throws IOException {
+                    int read = super.read();
+                    if (read != -1) {
+                        count(1);
+                    }
+                    return read;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    int read = super.read(bytes, offset, length);
+                    if (read > 0) {
+                        count(read);
+                    }
+                    return read;
+                }
+
+                private void count(long read) {
+                    count += read;
+                    if (count > maxBodySize) {
+                        throw maxBodySizeExceeded();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            try (InputStream inputStream = getContent()) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, read);
+                }
+            }
+        }
+
+        private HttpException maxBodySizeExceeded() {
+            maxBodySizeExceeded = true;
+            return new HttpException(String.format(StringPool.ERROR_MAX_BODY_SIZE, maxBodySize));
+        }
+    }
 }
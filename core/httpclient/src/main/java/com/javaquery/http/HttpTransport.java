@@ -0,0 +1,114 @@
+package com.javaquery.http;
+
+import com.javaquery.http.metrics.ConnectionPoolStats;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Transport sending {@link HttpRequest} over the wire beneath {@link HttpClient}.
+ * Handlers, retries, circuit breaker, rate limits, logging and metrics are applied by {@link HttpClient}
+ * so they behave the same on every transport, i.e. {@link ApacheHttpTransport} (default) and
+ * {@link JdkHttpTransport} (HTTP/2).
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public interface HttpTransport extends Closeable {
+
+    /**
+     * Send http request and block until response headers are received, body is streamed on read.
+     * Response must be released using {@link HttpTransportResponse#release(boolean)}.
+     *
+     * @param httpRequest the http request
+     * @return the http transport response
+     * @throws IOException the io exception
+     */
+    HttpTransportResponse execute(HttpRequest httpRequest) throws IOException;
+
+    /**
+     * Send http request without blocking the caller thread, body is read into memory before future is completed.
+     * Cancelling the future aborts the request.
+     *
+     * @param httpRequest the http request
+     * @return the future of http transport response
+     */
+    CompletableFuture<HttpTransportResponse> executeAsync(HttpRequest httpRequest);
+
+    /**
+     * Send http request with timeouts of the attempt, deadline of timeout config is the time left for the attempt.
+     * Transport fails with {@link com.javaquery.http.exception.DeadlineExceededException} when response headers are
+     * not received in time. Default ignores timeouts.
+     *
+     * @param httpRequest   the http request
+     * @param timeoutConfig the timeout config of the attempt
+     * @return the http transport response
+     * @throws IOException the io exception
+     */
+    default HttpTransportResponse execute(HttpRequest httpRequest, TimeoutConfig timeoutConfig) throws IOException {
+        return execute(httpRequest);
+    }
+
+    /**
+     * Send http request without blocking the caller thread with timeouts of the attempt, future fails with
+     * {@link com.javaquery.http.exception.DeadlineExceededException} when response is not received in time.
+     * Default ignores timeouts.
+     *
+     * @param httpRequest   the http request
+     * @param timeoutConfig the timeout config of the attempt
+     * @return the future of http transport response
+     */
+    default CompletableFuture<HttpTransportResponse> executeAsync(
+            HttpRequest httpRequest, TimeoutConfig timeoutConfig) {
+        return executeAsync(httpRequest);
+    }
+
+    /**
+     * Gets current stats of connections of transport.
+     *
+     * @return the connection pool stats
+     */
+    ConnectionPoolStats getConnectionPoolStats();
+
+    /**
+     * Resolve the host and open connections to it ahead of first request, so requests don't pay for DNS, TCP and
+     * TLS setup. Default only resolves the host.
+     *
+     * @param host        the host, i.e. <code>https://api.example.com</code>
+     * @param connections the number of connections to open
+     * @param executor    the executor to resolve and connect on
+     * @return the future of number of connections opened
+     */
+    default CompletableFuture<Integer> warmUp(URI host, int connections, Executor executor) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        InetAddress.getAllByName(host.getHost());
+                        return 0;
+                    } catch (UnknownHostException e) {
+                        throw new CompletionException(e);
+                    }
+                },
+                executor);
+    }
+
+    /**
+     * Creates transport for {@link HttpClient}, i.e. <code>JdkHttpTransport::new</code>.
+     */
+    @FunctionalInterface
+    interface Factory {
+
+        /**
+         * Create http transport.
+         *
+         * @param httpClientConfig the http client config
+         * @return the http transport
+         */
+        HttpTransport create(HttpClientConfig httpClientConfig);
+    }
+}
@@ -0,0 +1,86 @@
+package com.javaquery.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Objects;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Response received by {@link HttpTransport}, status line, headers and entity are exposed as apache http response
+ * regardless of transport so {@link HttpResponse} and handlers work unchanged.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HttpTransportResponse {
+
+    private final org.apache.http.HttpResponse apacheHttpResponse;
+    private final HttpCacheStatus httpCacheStatus;
+    private final long bytesSent;
+    private final Closeable closeable;
+
+    /**
+     * Instantiates a new Http transport response.
+     *
+     * @param apacheHttpResponse the apache http response
+     * @param httpCacheStatus    the http cache status, null when response cache is not used
+     * @param bytesSent          the size of request body in bytes, -1 when unknown
+     * @param closeable          closed on release to give connection (or stream) back to transport, nullable
+     */
+    public HttpTransportResponse(
+            org.apache.http.HttpResponse apacheHttpResponse,
+            HttpCacheStatus httpCacheStatus,
+            long bytesSent,
+            Closeable closeable) {
+        this.apacheHttpResponse = apacheHttpResponse;
+        this.httpCacheStatus = httpCacheStatus;
+        this.bytesSent = bytesSent;
+        this.closeable = closeable;
+    }
+
+    /**
+     * Gets apache http response.
+     *
+     * @return the apache http response
+     */
+    public org.apache.http.HttpResponse getApacheHttpResponse() {
+        return apacheHttpResponse;
+    }
+
+    /**
+     * Gets http cache status.
+     *
+     * @return the http cache status, null when response cache is not used
+     */
+    public HttpCacheStatus getHttpCacheStatus() {
+        return httpCacheStatus;
+    }
+
+    /**
+     * Gets size of request body in bytes.
+     *
+     * @return the bytes sent, -1 when unknown
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * Consume remaining content of response so the connection can be reused and close the response.
+     * Remaining content is not consumed when connection must not be reused, i.e. body exceeded max body size.
+     *
+     * @param reuseConnection consume remaining content before closing the response
+     */
+    public void release(boolean reuseConnection) {
+        if (reuseConnection) {
+            EntityUtils.consumeQuietly(apacheHttpResponse.getEntity());
+        }
+        if (Objects.nonNull(closeable)) {
+            try {
+                closeable.close();
+            } catch (IOException ignore) {
+                /* connection is discarded by transport */
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.javaquery.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Supplier;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MIME;
+import org.apache.http.entity.mime.content.AbstractContentBody;
+
+/**
+ * Multipart body streaming content of {@link Supplier} of {@link InputStream}, stream is opened when part is written.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+class InputStreamSupplierBody extends AbstractContentBody {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Supplier<InputStream> inputStreamSupplier;
+    private final String filename;
+
+    /**
+     * Instantiates a new Input stream supplier body.
+     *
+     * @param inputStreamSupplier the input stream supplier
+     * @param contentType         the content type
+     * @param filename            the filename
+     */
+    InputStreamSupplierBody(Supplier<InputStream> inputStreamSupplier, ContentType contentType, String filename) {
+        super(contentType);
+        this.inputStreamSupplier = inputStreamSupplier;
+        this.filename = filename;
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        try (InputStream inputStream = inputStreamSupplier.get()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        }
+    }
+
+    @Override
+    public String getTransferEncoding() {
+        return MIME.ENC_BINARY;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+}
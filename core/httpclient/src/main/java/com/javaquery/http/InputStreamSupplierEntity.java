@@ -0,0 +1,77 @@
+package com.javaquery.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Supplier;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+/**
+ * Http entity streaming content of {@link Supplier} of {@link InputStream}.
+ * Entity is repeatable when supplier returns new stream of the same content on every call.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+class InputStreamSupplierEntity extends AbstractHttpEntity {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Supplier<InputStream> inputStreamSupplier;
+    private final long contentLength;
+    private final boolean repeatable;
+
+    /**
+     * Instantiates a new Input stream supplier entity.
+     *
+     * @param inputStreamSupplier the input stream supplier
+     * @param contentLength       the content length, negative when unknown
+     * @param repeatable          the repeatable
+     * @param contentType         the content type
+     */
+    InputStreamSupplierEntity(
+            Supplier<InputStream> inputStreamSupplier,
+            long contentLength,
+            boolean repeatable,
+            ContentType contentType) {
+        this.inputStreamSupplier = inputStreamSupplier;
+        this.contentLength = contentLength;
+        this.repeatable = repeatable;
+        if (contentType != null) {
+            setContentType(contentType.toString());
+        }
+        setChunked(contentLength < 0);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return repeatable;
+    }
+
+    @Override
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return inputStreamSupplier.get();
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        try (InputStream inputStream = getContent()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        }
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return !repeatable;
+    }
+}
@@ -0,0 +1,451 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.DeadlineExceededException;
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.metrics.ConnectionPoolStats;
+import com.javaquery.util.Strings;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpStatus;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+
+/**
+ * Transport backed by JDK {@link java.net.http.HttpClient} which negotiates HTTP/2 (ALPN over TLS, h2c upgrade
+ * over plain http) and multiplexes concurrent requests to the same host over single connection,
+ * falling back to HTTP/1.1 when server doesn't support HTTP/2.
+ * <ul>
+ *     <li>Connection pool limits of {@link HttpClientConfig} are not applicable, connections are managed by JDK.</li>
+ *     <li>Response cache ({@link HttpClientConfig#getHttpCacheConfig()}) is not supported.</li>
+ *     <li>DNS cache ({@link HttpClientConfig#getDnsCacheConfig()}) is not supported, JVM caches addresses as per
+ *     <code>networkaddress.cache.ttl</code> security property. Warm-up only resolves the host.</li>
+ *     <li>Basic auth credentials of {@link HttpRequest} are sent preemptively.</li>
+ *     <li>Connect timeout of {@link HttpClientConfig#getTimeoutConfig()} applies to all requests, deadline of the
+ *     attempt is set as request timeout (till response headers), connection request and socket timeouts are not
+ *     supported.</li>
+ *     <li>Multipart payload is streamed by a writer thread per request on {@link #execute}, {@link #executeAsync}
+ *     buffers it in memory.</li>
+ * </ul>
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+    private static final ProtocolVersion HTTP_2 = new ProtocolVersion("HTTP", 2, 0);
+    private static final ProtocolVersion HTTP_1_1 = new ProtocolVersion("HTTP", 1, 1);
+    private static final Set<String> RESTRICTED_HEADERS =
+            Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final TimeoutConfig defaultTimeoutConfig;
+    private final long maxBodySize;
+    private final java.net.http.HttpClient jdkHttpClient;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Instantiates a new Jdk http transport.
+     *
+     * @param httpClientConfig the http client config
+     */
+    public JdkHttpTransport(HttpClientConfig httpClientConfig) {
+        if (Objects.nonNull(httpClientConfig.getHttpCacheConfig())) {
+            throw new IllegalArgumentException(StringPool.ERROR_CACHE_NOT_SUPPORTED);
+        }
+        if (Objects.nonNull(httpClientConfig.getDnsCacheConfig())) {
+            throw new IllegalArgumentException(StringPool.ERROR_DNS_CACHE_NOT_SUPPORTED);
+        }
+        this.defaultTimeoutConfig = httpClientConfig.getTimeoutConfig();
+        this.maxBodySize = httpClientConfig.getMaxResponseBodySizeInBytes();
+        java.net.http.HttpClient.Builder builder =
+                java.net.http.HttpClient.newBuilder().version(Version.HTTP_2).followRedirects(Redirect.NORMAL);
+        if (defaultTimeoutConfig.getConnectTimeoutInMilliseconds() > 0) {
+            builder.connectTimeout(Duration.ofMillis(defaultTimeoutConfig.getConnectTimeoutInMilliseconds()));
+        }
+        this.jdkHttpClient = builder.build();
+    }
+
+    @Override
+    public HttpTransportResponse execute(HttpRequest httpRequest) throws IOException {
+        return execute(httpRequest, defaultTimeoutConfig);
+    }
+
+    @Override
+    public HttpTransportResponse execute(HttpRequest httpRequest, TimeoutConfig timeoutConfig) throws IOException {
+        HttpUriRequest apacheHttpRequest = new ApacheHttpRequestBuilder(httpRequest).build();
+        EntityPipe entityPipe = new EntityPipe(httpRequest.getHttpRequestName());
+        inFlight.incrementAndGet();
+        try {
+            java.net.http.HttpResponse<InputStream> jdkHttpResponse = jdkHttpClient.send(
+                    jdkHttpRequest(httpRequest, apacheHttpRequest, timeoutConfig, entityPipe),
+                    BodyHandlers.ofInputStream());
+            InputStream body = jdkHttpResponse.body();
+            return new HttpTransportResponse(
+                    apacheHttpResponse(jdkHttpResponse, body), null, bytesSent(apacheHttpRequest), body);
+        } catch (HttpConnectTimeoutException e) {
+            throw e;
+        } catch (HttpTimeoutException e) {
+            throw deadlineExceeded(httpRequest);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } finally {
+            entityPipe.close();
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public CompletableFuture<HttpTransportResponse> executeAsync(HttpRequest httpRequest) {
+        return executeAsync(httpRequest, defaultTimeoutConfig);
+    }
+
+    @Override
+    public CompletableFuture<HttpTransportResponse> executeAsync(HttpRequest httpRequest, TimeoutConfig timeoutConfig) {
+        HttpUriRequest apacheHttpRequest = new ApacheHttpRequestBuilder(httpRequest).buildAsync();
+        BodyHandler<byte[]> bodyHandler = responseInfo -> new MaxBodySizeSubscriber(
+                maxBodySize,
+                responseInfo
+                        .headers()
+                        .firstValueAsLong(StringPool.CONTENT_LENGTH)
+                        .orElse(-1));
+        inFlight.incrementAndGet();
+        CompletableFuture<java.net.http.HttpResponse<byte[]>> sent = jdkHttpClient.sendAsync(
+                jdkHttpRequest(httpRequest, apacheHttpRequest, timeoutConfig, null), bodyHandler);
+        CompletableFuture<HttpTransportResponse> future = new CompletableFuture<>();
+        sent.whenComplete((jdkHttpResponse, throwable) -> {
+            inFlight.decrementAndGet();
+            if (Objects.isNull(throwable)) {
+                future.complete(new HttpTransportResponse(
+                        apacheHttpResponse(jdkHttpResponse, new ByteArrayInputStream(jdkHttpResponse.body())),
+                        null,
+                        bytesSent(apacheHttpRequest),
+                        null));
+                return;
+            }
+            Throwable cause = throwable instanceof CompletionException && Objects.nonNull(throwable.getCause())
+                    ? throwable.getCause()
+                    : throwable;
+            future.completeExceptionally(
+                    cause instanceof HttpTimeoutException && !(cause instanceof HttpConnectTimeoutException)
+                            ? deadlineExceeded(httpRequest)
+                            : cause);
+        });
+        future.whenComplete((httpTransportResponse, throwable) -> {
+            if (future.isCancelled()) {
+                sent.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Connections are managed by JDK client so stats are not available, requests in flight are reported as leased.
+     *
+     * @return the connection pool stats
+     */
+    @Override
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return new ConnectionPoolStats(inFlight.get(), 0, 0, -1);
+    }
+
+    /**
+     * Build jdk http request from apache http request, so payloads of {@link HttpRequest} are encoded same way on
+     * both transports. Entity of apache request is read by pull, multipart entity is written into the pipe.
+     * @param httpRequest the http request
+     * @param apacheHttpRequest the apache http request
+     * @param timeoutConfig the timeout config of the attempt, deadline is set as request timeout
+     * @param entityPipe the pipe of multipart entity, null when entity was built for non-blocking client
+     * @return the jdk http request
+     */
+    private java.net.http.HttpRequest jdkHttpRequest(
+            HttpRequest httpRequest,
+            HttpUriRequest apacheHttpRequest,
+            TimeoutConfig timeoutConfig,
+            EntityPipe entityPipe) {
+        java.net.http.HttpRequest.Builder builder = java.net.http.HttpRequest.newBuilder(apacheHttpRequest.getURI());
+        if (timeoutConfig.hasDeadline()) {
+            builder.timeout(Duration.ofMillis(timeoutConfig.getDeadlineInMilliseconds()));
+        }
+        for (Header header : apacheHttpRequest.getAllHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase())) {
+                builder.header(header.getName(), header.getValue());
+            }
+        }
+        HttpEntity httpEntity = apacheHttpRequest instanceof HttpEntityEnclosingRequest
+                ? ((HttpEntityEnclosingRequest) apacheHttpRequest).getEntity()
+                : null;
+        if (Objects.nonNull(httpEntity)
+                && Objects.nonNull(httpEntity.getContentType())
+                && !apacheHttpRequest.containsHeader(StringPool.CONTENT_TYPE)) {
+            builder.header(StringPool.CONTENT_TYPE, httpEntity.getContentType().getValue());
+        }
+        if (Strings.nonNullNonEmpty(httpRequest.getUsername()) || Strings.nonNullNonEmpty(httpRequest.getPassword())) {
+            String credentials = httpRequest.getUsername() + ":" + httpRequest.getPassword();
+            builder.header(
+                    StringPool.AUTHORIZATION,
+                    "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+        return builder.method(apacheHttpRequest.getMethod(), bodyPublisher(httpEntity, entityPipe))
+                .build();
+    }
+
+    private static BodyPublisher bodyPublisher(HttpEntity httpEntity, EntityPipe entityPipe) {
+        if (Objects.isNull(httpEntity)) {
+            return BodyPublishers.noBody();
+        }
+        boolean multipart = Objects.nonNull(httpEntity.getContentType())
+                && httpEntity.getContentType().getValue().contains(StringPool.MULTIPART_FORM_DATA);
+        BodyPublisher bodyPublisher = BodyPublishers.ofInputStream(() -> {
+            try {
+                return multipart && Objects.nonNull(entityPipe) ? entityPipe.open(httpEntity) : httpEntity.getContent();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return httpEntity.getContentLength() >= 0
+                ? BodyPublishers.fromPublisher(bodyPublisher, httpEntity.getContentLength())
+                : bodyPublisher;
+    }
+
+    /**
+     * Expose jdk http response as apache http response.
+     * @param jdkHttpResponse the jdk http response
+     * @param body the body
+     * @return the apache http response
+     */
+    private static org.apache.http.HttpResponse apacheHttpResponse(
+            java.net.http.HttpResponse<?> jdkHttpResponse, InputStream body) {
+        int statusCode = jdkHttpResponse.statusCode();
+        BasicHttpResponse basicHttpResponse = new BasicHttpResponse(new BasicStatusLine(
+                jdkHttpResponse.version() == Version.HTTP_2 ? HTTP_2 : HTTP_1_1,
+                statusCode,
+                EnglishReasonPhraseCatalog.INSTANCE.getReason(statusCode, null)));
+        HttpHeaders httpHeaders = jdkHttpResponse.headers();
+        httpHeaders.map().forEach((name, values) -> values.forEach(value -> basicHttpResponse.addHeader(name, value)));
+        if (statusCode >= HttpStatus.SC_OK
+                && statusCode != HttpStatus.SC_NO_CONTENT
+                && statusCode != HttpStatus.SC_NOT_MODIFIED) {
+            InputStreamEntity inputStreamEntity = new InputStreamEntity(
+                    body,
+                    httpHeaders.firstValueAsLong(StringPool.CONTENT_LENGTH).orElse(-1));
+            httpHeaders.firstValue(StringPool.CONTENT_TYPE).ifPresent(inputStreamEntity::setContentType);
+            httpHeaders.firstValue(StringPool.CONTENT_ENCODING).ifPresent(inputStreamEntity::setContentEncoding);
+            basicHttpResponse.setEntity(inputStreamEntity);
+        } else {
+            closeQuietly(body);
+        }
+        return basicHttpResponse;
+    }
+
+    private static DeadlineExceededException deadlineExceeded(HttpRequest httpRequest) {
+        return new DeadlineExceededException(
+                String.format(StringPool.ERROR_DEADLINE_EXCEEDED, httpRequest.getHttpRequestName()));
+    }
+
+    private static long bytesSent(HttpUriRequest apacheHttpRequest) {
+        if (apacheHttpRequest instanceof HttpEntityEnclosingRequest
+                && Objects.nonNull(((HttpEntityEnclosingRequest) apacheHttpRequest).getEntity())) {
+            return ((HttpEntityEnclosingRequest) apacheHttpRequest).getEntity().getContentLength();
+        }
+        return -1;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignore) {
+            /* stream is discarded */
+        }
+    }
+
+    /**
+     * Multipart entity can't be read by pull, it's written into a pipe by a writer thread so parts (i.e. files) are
+     * streamed instead of buffered in memory. Pipes are closed once the exchange is over, which releases writer
+     * blocked on request body the server didn't read.
+     */
+    private static final class EntityPipe implements Closeable {
+        private static final int PIPE_SIZE = 64 * 1024;
+
+        private final String httpRequestName;
+        private final List<PipedInputStream> pipedInputStreams = new CopyOnWriteArrayList<>();
+
+        private EntityPipe(String httpRequestName) {
+            this.httpRequestName = httpRequestName;
+        }
+
+        /**
+         * Start writing the entity into a new pipe, body is opened again when JDK client resends it (i.e. redirect).
+         * @param httpEntity the http entity
+         * @return the input stream of the pipe, read fails with the exception of writer
+         * @throws IOException the io exception
+         */
+        private InputStream open(HttpEntity httpEntity) throws IOException {
+            PipedInputStream pipedInputStream = new PipedInputStream(PIPE_SIZE);
+            PipedOutputStream pipedOutputStream = new PipedOutputStream(pipedInputStream);
+            pipedInputStreams.add(pipedInputStream);
+            AtomicReference<IOException> failure = new AtomicReference<>();
+            Thread writer = new Thread(
+                    () -> {
+                        try {
+                            httpEntity.writeTo(pipedOutputStream);
+                        } catch (IOException e) {
+                            failure.set(e);
+                        } catch (RuntimeException e) {
+                            failure.set(new IOException(e));
+                        } finally {
+                            closeQuietly(pipedOutputStream);
+                        }
+                    },
+                    "http-multipart-" + httpRequestName);
+            writer.setDaemon(true);
+            writer.start();
+            return new FilterInputStream(pipedInputStream) {
+                @Override
+                public int read() throws IOException {
+                    return checkFailure(super.read());
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    return checkFailure(super.read(bytes, offset, length));
+                }
+
+                private int checkFailure(int read) throws IOException {
+                    // writer closes the pipe after it failed, so partial entity isn't sent as complete body
+                    if (read < 0 && Objects.nonNull(failure.get())) {
+                        throw failure.get();
+                    }
+                    return read;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            pipedInputStreams.forEach(JdkHttpTransport::closeQuietly);
+        }
+    }
+
+    /**
+     * Subscriber buffering the body in memory up to max body size, subscription is cancelled and body fails with
+     * {@link HttpException} as soon as more is received, so oversized body is never held in memory.
+     */
+    private static final class MaxBodySizeSubscriber implements BodySubscriber<byte[]> {
+        private final BodySubscriber<byte[]> bodySubscriber = BodySubscribers.ofByteArray();
+        private final CompletableFuture<byte[]> body = new CompletableFuture<>();
+        private final long maxBodySize;
+        private final long contentLength;
+        private Flow.Subscription subscription;
+        private long received;
+        private boolean exceeded;
+
+        private MaxBodySizeSubscriber(long maxBodySize, long contentLength) {
+            this.maxBodySize = maxBodySize;
+            this.contentLength = contentLength;
+            bodySubscriber.getBody().whenComplete((bytes, throwable) -> {
+                if (Objects.isNull(throwable)) {
+                    body.complete(bytes);
+                } else {
+                    body.completeExceptionally(throwable);
+                }
+            });
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (maxBodySize >= 0 && contentLength > maxBodySize) {
+                exceeded();
+                return;
+            }
+            bodySubscriber.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> byteBuffers) {
+            if (exceeded) {
+                return;
+            }
+            for (ByteBuffer byteBuffer : byteBuffers) {
+                received += byteBuffer.remaining();
+            }
+            if (maxBodySize >= 0 && received > maxBodySize) {
+                exceeded();
+                return;
+            }
+            bodySubscriber.onNext(byteBuffers);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!exceeded) {
+                bodySubscriber.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!exceeded) {
+                bodySubscriber.onComplete();
+            }
+        }
+
+        private void exceeded() {
+            exceeded = true;
+            subscription.cancel();
+            body.completeExceptionally(new HttpException(String.format(StringPool.ERROR_MAX_BODY_SIZE, maxBodySize)));
+        }
+    }
+
+    /**
+     * JDK client releases its connections once it is no longer referenced.
+     */
+    @Override
+    public void close() {
+        /* nothing to close */
+    }
+}
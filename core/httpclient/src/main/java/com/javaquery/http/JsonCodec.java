@@ -0,0 +1,101 @@
+package com.javaquery.http;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Jackson codec which writes objects straight into request entity stream and reads response entity stream straight
+ * into objects, without intermediate String or tree. {@link ObjectReader} and {@link ObjectWriter} are resolved once
+ * per type and reused.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class JsonCodec {
+
+    /**
+     * Shared codec, unknown properties of response are ignored.
+     */
+    public static final JsonCodec DEFAULT =
+            new JsonCodec(new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+
+    private final ObjectMapper objectMapper;
+    private final Map<JavaType, ObjectReader> objectReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> objectWriters = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Json codec, object mapper must not be reconfigured afterwards.
+     *
+     * @param objectMapper the object mapper
+     */
+    public JsonCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Read json from the stream into object of the type.
+     *
+     * @param <T>         the type parameter
+     * @param inputStream the input stream, not closed
+     * @param type        the type
+     * @return the object or null when stream is empty
+     * @throws IOException the io exception
+     */
+    public <T> T read(InputStream inputStream, Class<T> type) throws IOException {
+        return read(inputStream, objectMapper.constructType(type));
+    }
+
+    /**
+     * Read json from the stream into object of the generic type, i.e. <code>List&lt;Order&gt;</code>.
+     *
+     * @param <T>           the type parameter
+     * @param inputStream   the input stream, not closed
+     * @param typeReference the type reference
+     * @return the object or null when stream is empty
+     * @throws IOException the io exception
+     */
+    public <T> T read(InputStream inputStream, TypeReference<T> typeReference) throws IOException {
+        return read(inputStream, objectMapper.getTypeFactory().constructType(typeReference));
+    }
+
+    /**
+     * Write object as json into the stream.
+     *
+     * @param value        the value
+     * @param outputStream the output stream, not closed
+     * @throws IOException the io exception
+     */
+    public void write(Object value, OutputStream outputStream) throws IOException {
+        ObjectWriter objectWriter = Objects.isNull(value)
+                ? objectMapper.writer()
+                : objectWriters.computeIfAbsent(value.getClass(), objectMapper::writerFor);
+        try (JsonGenerator jsonGenerator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            jsonGenerator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            objectWriter.writeValue(jsonGenerator, value);
+        }
+    }
+
+    private <T> T read(InputStream inputStream, JavaType javaType) throws IOException {
+        ObjectReader objectReader = objectReaders.computeIfAbsent(javaType, objectMapper::readerFor);
+        try (JsonParser jsonParser = objectMapper.getFactory().createParser(inputStream)) {
+            jsonParser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (Objects.isNull(jsonParser.nextToken())) {
+                return null;
+            }
+            return objectReader.readValue(jsonParser);
+        }
+    }
+}
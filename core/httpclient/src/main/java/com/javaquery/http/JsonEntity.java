@@ -0,0 +1,68 @@
+package com.javaquery.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+/**
+ * Http entity which serializes the value straight into the connection output stream on every attempt,
+ * sent with chunked transfer encoding as length is not known upfront.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+class JsonEntity extends AbstractHttpEntity {
+
+    private final Object value;
+    private final JsonCodec jsonCodec;
+
+    /**
+     * Instantiates a new Json entity.
+     *
+     * @param value       the value
+     * @param jsonCodec   the json codec
+     * @param contentType the content type
+     */
+    JsonEntity(Object value, JsonCodec jsonCodec, ContentType contentType) {
+        this.value = value;
+        this.jsonCodec = jsonCodec;
+        if (contentType != null) {
+            setContentType(contentType.toString());
+        }
+        setChunked(true);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    /**
+     * Serialized value for transports which pull the body as stream (i.e. {@link JdkHttpTransport}).
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        jsonCodec.write(value, outputStream);
+        return new ByteArrayInputStream(outputStream.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        jsonCodec.write(value, outputStream);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+}
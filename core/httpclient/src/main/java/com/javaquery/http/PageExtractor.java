@@ -0,0 +1,46 @@
+package com.javaquery.http;
+
+import java.util.List;
+
+/**
+ * Extract items and request of next page from response of paged http API, used by
+ * {@link HttpClient#paginate(HttpExecutionContext, HttpRequest, PageExtractor)}.
+ * Methods are called on the thread completing the response while the body can still be read.
+ * <pre>{@code
+ * new PageExtractor<JSONObject>() {
+ *     public List<JSONObject> getItems(HttpResponse httpResponse) {
+ *         return toList(httpResponse.getJSONObjectBody().getJSONArray("items"));
+ *     }
+ *
+ *     public HttpRequest getNextPageRequest(HttpRequest httpRequest, HttpResponse httpResponse) {
+ *         String cursor = httpResponse.getJSONObjectBody().optString("next_cursor", null);
+ *         return cursor == null ? null : ordersTemplate.newHttpRequest().withQueryParameter("cursor", cursor).build();
+ *     }
+ * }
+ * }</pre>
+ *
+ * @param <T> the type of items
+ * @author javaquery
+ * @since 1.0.8
+ */
+public interface PageExtractor<T> {
+
+    /**
+     * Gets items of the page.
+     *
+     * @param httpResponse the http response of the page
+     * @return the items, empty when page has no items
+     */
+    List<T> getItems(HttpResponse httpResponse);
+
+    /**
+     * Gets request of next page, i.e. with cursor or page number of next page in query parameters.
+     * Return a new {@link HttpRequest} (i.e. from {@link HttpRequestTemplate}) as request of current page may still
+     * be in use.
+     *
+     * @param httpRequest  the http request of the page
+     * @param httpResponse the http response of the page
+     * @return the http request of next page or null when this is the last page
+     */
+    HttpRequest getNextPageRequest(HttpRequest httpRequest, HttpResponse httpResponse);
+}
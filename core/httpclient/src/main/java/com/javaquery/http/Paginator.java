@@ -0,0 +1,236 @@
+package com.javaquery.http;
+
+import com.javaquery.helper.BatchProcessor;
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy iterator over items of paged http API which prefetches next pages while the caller processes current one.
+ * Pages are requested one after another over {@link HttpClient#executeAsync} (request of next page is known only
+ * once current page is received), at most <code>prefetchPages</code> pages are buffered ahead of the consumer.
+ * {@link com.javaquery.http.retry.RetryPolicy} and handlers of {@link HttpExecutionContext} apply to every page.
+ * <p>
+ * Close the paginator (or the stream) when it's not consumed to the end, so no more pages are requested.
+ *
+ * @param <T> the type of items
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class Paginator<T> implements Iterator<T>, Closeable {
+
+    private final HttpClient httpClient;
+    private final HttpExecutionContext httpExecutionContext;
+    private final PageExtractor<T> pageExtractor;
+    private final int prefetchPages;
+
+    private final Deque<List<T>> pages = new ArrayDeque<>();
+    private Iterator<T> current = Collections.emptyIterator();
+    private HttpRequest nextPageRequest;
+    private CompletableFuture<Page<T>> inFlight;
+    private RuntimeException failure;
+    private boolean closed;
+
+    /**
+     * Instantiates a new Paginator, first page is requested right away.
+     *
+     * @param httpClient           the http client
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest          the http request of first page
+     * @param pageExtractor        the page extractor
+     * @param prefetchPages        the number of pages fetched ahead of the consumer
+     */
+    Paginator(
+            HttpClient httpClient,
+            HttpExecutionContext httpExecutionContext,
+            HttpRequest httpRequest,
+            PageExtractor<T> pageExtractor,
+            int prefetchPages) {
+        if (prefetchPages < 1) {
+            throw new IllegalArgumentException(StringPool.ERROR_PREFETCH_PAGES_VALUE);
+        }
+        this.httpClient = httpClient;
+        this.httpExecutionContext = httpExecutionContext;
+        this.pageExtractor = pageExtractor;
+        this.prefetchPages = prefetchPages;
+        synchronized (this) {
+            this.nextPageRequest = httpRequest;
+            fetchNextPage();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (current.hasNext()) {
+            return true;
+        }
+        synchronized (this) {
+            while (true) {
+                if (!pages.isEmpty()) {
+                    current = pages.poll().iterator();
+                    fetchNextPage();
+                    return true;
+                }
+                if (Objects.nonNull(failure)) {
+                    throw failure;
+                }
+                if (closed || (Objects.isNull(inFlight) && Objects.isNull(nextPageRequest))) {
+                    return false;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new HttpException(e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Sequential stream of items, closing the stream closes the paginator.
+     *
+     * @return the stream
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Consume all items in batches on the calling thread, next pages are fetched while a batch is processed.
+     *
+     * @param batchSize      the max number of items in a batch
+     * @param batchProcessor the batch processor
+     */
+    public void forEachBatch(int batchSize, BatchProcessor<T> batchProcessor) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(StringPool.ERROR_BATCH_SIZE_VALUE);
+        }
+        int totalProcessed = 0;
+        int totalBatches = 0;
+        try {
+            List<T> batch = new ArrayList<>(batchSize);
+            while (hasNext()) {
+                batch.add(next());
+                if (batch.size() == batchSize) {
+                    batchProcessor.onBatch(batch);
+                    totalProcessed += batch.size();
+                    totalBatches++;
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batchProcessor.onBatch(batch);
+                totalProcessed += batch.size();
+                totalBatches++;
+            }
+        } finally {
+            close();
+        }
+        batchProcessor.onComplete(totalProcessed, totalBatches);
+    }
+
+    /**
+     * Stop requesting pages, page in flight is cancelled.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        nextPageRequest = null;
+        pages.clear();
+        if (Objects.nonNull(inFlight)) {
+            inFlight.cancel(true);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Request next page unless one is in flight or enough pages are buffered, must hold the lock.
+     */
+    private void fetchNextPage() {
+        if (closed
+                || Objects.nonNull(inFlight)
+                || Objects.nonNull(failure)
+                || Objects.isNull(nextPageRequest)
+                || pages.size() >= prefetchPages) {
+            return;
+        }
+        HttpRequest httpRequest = nextPageRequest;
+        nextPageRequest = null;
+        CompletableFuture<Page<T>> future =
+                httpClient.executeAsync(httpExecutionContext, httpRequest, new HttpResponseHandler<Page<T>>() {
+                    @Override
+                    public Page<T> onResponse(HttpResponse httpResponse) {
+                        return new Page<>(
+                                pageExtractor.getItems(httpResponse),
+                                pageExtractor.getNextPageRequest(httpRequest, httpResponse));
+                    }
+
+                    @Override
+                    public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+                });
+        inFlight = future;
+        future.whenComplete((page, throwable) -> onPageCompleted(future, page, throwable));
+    }
+
+    private synchronized void onPageCompleted(CompletableFuture<Page<T>> future, Page<T> page, Throwable throwable) {
+        if (inFlight != future || closed) {
+            return;
+        }
+        inFlight = null;
+        if (Objects.nonNull(throwable)) {
+            Throwable cause = throwable instanceof CompletionException && Objects.nonNull(throwable.getCause())
+                    ? throwable.getCause()
+                    : throwable;
+            failure = cause instanceof RuntimeException
+                    ? (RuntimeException) cause
+                    : new HttpException(cause.getMessage());
+        } else if (Objects.isNull(page)) {
+            failure = new HttpException(StringPool.ERROR_PAGE_NOT_RECEIVED);
+        } else {
+            if (Objects.nonNull(page.items) && !page.items.isEmpty()) {
+                pages.add(page.items);
+            }
+            nextPageRequest = page.nextPageRequest;
+            fetchNextPage();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Items and request of next page.
+     */
+    private static final class Page<T> {
+        private final List<T> items;
+        private final HttpRequest nextPageRequest;
+
+        private Page(List<T> items, HttpRequest nextPageRequest) {
+            this.items = items;
+            this.nextPageRequest = nextPageRequest;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.HttpException;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coalesce concurrent identical requests into single network call (single-flight).
+ * First caller of a key executes the call, callers arriving while it's in flight wait for and share its result.
+ * Key is made of http method, {@link HttpRequest#httpRequestURI()} and values of configured headers.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+class RequestCoalescer {
+
+    private final Set<String> headers;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Request coalescer.
+     *
+     * @param headers the headers which are part of the key (case-insensitive)
+     */
+    RequestCoalescer(Set<String> headers) {
+        this.headers = headers;
+    }
+
+    /**
+     * Execute the call or join the identical call in flight.
+     *
+     * @param <T>         the type parameter
+     * @param httpRequest the http request
+     * @param call        the call
+     * @return the result of call
+     * @throws IOException the io exception thrown by call
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(HttpRequest httpRequest, Call<T> call) throws IOException {
+        String key = key(httpRequest);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (Objects.nonNull(existing)) {
+            return (T) join(existing);
+        }
+        try {
+            T result = call.call();
+            future.complete(result);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Number of calls in flight.
+     *
+     * @return the int
+     */
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private Object join(CompletableFuture<Object> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new HttpException((Exception) cause);
+        }
+    }
+
+    private String key(HttpRequest httpRequest) {
+        StringBuilder key = new StringBuilder()
+                .append(httpRequest.getHttpMethod())
+                .append(' ')
+                .append(httpRequest.httpRequestURI());
+        httpRequest.getHeaders().entrySet().stream()
+                .filter(header -> headers.stream().anyMatch(name -> name.equalsIgnoreCase(header.getKey())))
+                .sorted(Map.Entry.comparingByKey(String.CASE_INSENSITIVE_ORDER))
+                .forEach(header -> key.append('\n')
+                        .append(header.getKey().toLowerCase())
+                        .append(':')
+                        .append(header.getValue()));
+        return key.toString();
+    }
+
+    /**
+     * Network call of coalesced request.
+     *
+     * @param <T> the type parameter
+     */
+    @FunctionalInterface
+    interface Call<T> {
+        /**
+         * Execute the call.
+         *
+         * @return the result
+         * @throws IOException the io exception
+         */
+        T call() throws IOException;
+    }
+}
@@ -0,0 +1,168 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.metrics.HttpClientMetrics;
+import com.javaquery.http.retry.HedgingPolicy;
+import com.javaquery.http.retry.RateLimiterRegistry;
+import com.javaquery.http.retry.RetryScheduler;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Send hedged attempts of http request as per its {@link HedgingPolicy}.
+ * First attempt is sent immediately, second one when first has not completed within hedge delay. Response which
+ * arrives first wins and the other attempt is cancelled (or released when it completed meanwhile). Attempt failure
+ * is reported only when no other attempt is pending.
+ * Attempts are sent over non-blocking {@link HttpTransport#executeAsync} so no thread waits for the loser.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+class RequestHedger {
+
+    private final HttpTransport httpTransport;
+    private final Executor executor;
+    private final HttpClientMetrics httpClientMetrics;
+    private final RateLimiterRegistry rateLimiterRegistry;
+
+    /**
+     * Instantiates a new Request hedger.
+     *
+     * @param httpTransport       the http transport
+     * @param executor            the executor of hedge timer
+     * @param httpClientMetrics   the http client metrics
+     * @param rateLimiterRegistry the rate limiter registry, hedge is sent only when permit is available right away
+     */
+    RequestHedger(
+            HttpTransport httpTransport,
+            Executor executor,
+            HttpClientMetrics httpClientMetrics,
+            RateLimiterRegistry rateLimiterRegistry) {
+        this.httpTransport = httpTransport;
+        this.executor = executor;
+        this.httpClientMetrics = httpClientMetrics;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+    }
+
+    /**
+     * Send http request and block until the winning attempt completes.
+     *
+     * @param httpRequestResponse the http request response of the attempt
+     * @param timeoutConfig       the timeout config of the attempt
+     * @return the http transport response of the winning attempt
+     * @throws IOException the io exception of failed attempt
+     */
+    HttpTransportResponse execute(HttpRequestResponse httpRequestResponse, TimeoutConfig timeoutConfig)
+            throws IOException {
+        CompletableFuture<HttpTransportResponse> future = executeAsync(httpRequestResponse, timeoutConfig);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HttpException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = Objects.nonNull(e.getCause()) ? e.getCause() : e;
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Send http request, hedged attempt is scheduled on shared {@link RetryScheduler}.
+     *
+     * @param httpRequestResponse the http request response of the attempt
+     * @param timeoutConfig       the timeout config of the attempt, hedged attempt gets the time left
+     * @return the future of http transport response of the winning attempt
+     */
+    CompletableFuture<HttpTransportResponse> executeAsync(
+            HttpRequestResponse httpRequestResponse, TimeoutConfig timeoutConfig) {
+        HttpRequest httpRequest = httpRequestResponse.getHttpRequest();
+        HedgingPolicy hedgingPolicy = httpRequest.getHedgingPolicy();
+        CompletableFuture<HttpTransportResponse> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        String host =
+                Objects.nonNull(httpRequest.getHost()) ? httpRequest.getHost().getHost() : null;
+        long startNanos = System.nanoTime();
+
+        CompletableFuture<HttpTransportResponse> primary = httpTransport.executeAsync(httpRequest, timeoutConfig);
+        ScheduledFuture<?> hedge = RetryScheduler.schedule(
+                () -> {
+                    if (result.isDone()
+                            || !hedgingPolicy.tryAcquireHedge(host)
+                            || (Objects.nonNull(rateLimiterRegistry) && !rateLimiterRegistry.tryAcquire(httpRequest))) {
+                        return;
+                    }
+                    pending.incrementAndGet();
+                    httpRequestResponse.setHedged(true);
+                    httpClientMetrics.recordHedge(httpRequest);
+                    CompletableFuture<HttpTransportResponse> hedged =
+                            sendHedge(httpRequest, hedgeTimeoutConfig(timeoutConfig, startNanos));
+                    onAttemptCompleted(hedged, result, pending, hedgingPolicy, httpRequest, startNanos);
+                    result.whenComplete((httpTransportResponse, throwable) -> hedged.cancel(true));
+                },
+                hedgingPolicy.hedgeDelay(httpRequest),
+                executor);
+        onAttemptCompleted(primary, result, pending, hedgingPolicy, httpRequest, startNanos);
+        result.whenComplete((httpTransportResponse, throwable) -> {
+            hedge.cancel(false);
+            primary.cancel(true);
+        });
+        return result;
+    }
+
+    /**
+     * Send hedged attempt, failure to send it is reported as failed attempt so the primary one still decides.
+     */
+    private CompletableFuture<HttpTransportResponse> sendHedge(HttpRequest httpRequest, TimeoutConfig timeoutConfig) {
+        try {
+            return httpTransport.executeAsync(httpRequest, timeoutConfig);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Hedged attempt ends no later than the primary one.
+     */
+    private static TimeoutConfig hedgeTimeoutConfig(TimeoutConfig timeoutConfig, long startNanos) {
+        return timeoutConfig.hasDeadline()
+                ? timeoutConfig.forAttempt(timeoutConfig.getDeadlineInMilliseconds()
+                        - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+                : timeoutConfig;
+    }
+
+    /**
+     * Complete the result with first response, response of the loser which completed meanwhile is released.
+     */
+    private void onAttemptCompleted(
+            CompletableFuture<HttpTransportResponse> attempt,
+            CompletableFuture<HttpTransportResponse> result,
+            AtomicInteger pending,
+            HedgingPolicy hedgingPolicy,
+            HttpRequest httpRequest,
+            long startNanos) {
+        attempt.whenComplete((httpTransportResponse, throwable) -> {
+            if (Objects.isNull(throwable)) {
+                if (result.complete(httpTransportResponse)) {
+                    hedgingPolicy.recordLatency(httpRequest, System.nanoTime() - startNanos);
+                } else {
+                    httpTransportResponse.release(true);
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(throwable);
+            }
+        });
+    }
+}
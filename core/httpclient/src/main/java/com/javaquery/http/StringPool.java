@@ -9,10 +9,61 @@ public class StringPool {
     public static final String UTF8_BOM = "\uFEFF";
     public static final String EXECUTION_TIME_MS = "executionTimeMs";
     public static final String CONTENT_TYPE = "content-type";
+    public static final String CONTENT_LENGTH = "content-length";
+    public static final String CONTENT_ENCODING = "content-encoding";
+    public static final String AUTHORIZATION = "Authorization";
+    public static final String ACCEPT = "Accept";
+    public static final String RANGE = "Range";
+    public static final String IF_RANGE = "If-Range";
+    public static final String CONTENT_RANGE = "Content-Range";
+    public static final String ETAG = "ETag";
+    public static final String LAST_MODIFIED = "Last-Modified";
     public static final String LOG_ACTION = "action";
     public static final String LOG_HTTP_REQUEST = "httpRequest";
     public static final String LOG_HTTP_RESPONSE = "httpResponse";
     public static final String ERROR_MAX_RETRY_VALUE = "Please provide positive value for maxErrorRetry.";
     public static final String RETRIES_ATTEMPTED = "retriesAttempted";
+    public static final String CACHE_STATUS = "cacheStatus";
     public static final String MULTIPART_FORM_DATA = "multipart/form-data";
+    public static final String CIRCUIT_BREAKER_OPEN = "circuitBreakerOpen";
+    public static final String HEDGED = "hedged";
+    public static final String ERROR_CIRCUIT_BREAKER_OPEN = "Circuit breaker is open for http request %s.";
+    public static final String ERROR_RATE_LIMIT_EXCEEDED = "Rate limit exceeded for http request %s.";
+    public static final String ERROR_CACHE_NOT_SUPPORTED = "Response cache is not supported by JdkHttpTransport.";
+    public static final String ERROR_DNS_CACHE_NOT_SUPPORTED = "DNS cache is not supported by JdkHttpTransport.";
+    public static final String ERROR_INVALID_END_POINT = "Path variable is not closed in end point %s.";
+    public static final String ERROR_UNKNOWN_PATH_VARIABLE = "Path variable %s is not part of end point.";
+    public static final String ERROR_PATH_VARIABLE_NOT_BOUND = "Path variable %s is not bound.";
+    public static final String ERROR_OAUTH20_ACCESS_TOKEN = "Access token request failed with status %d.";
+    public static final String ERROR_OAUTH20_ACCESS_TOKEN_NOT_READY = "Access token of scope '%s' is not fetched yet.";
+    public static final String ERROR_HEDGE_DELAY_VALUE = "Please provide hedge delay of 0 or more milliseconds.";
+    public static final String ERROR_HEDGE_PERCENTILE_VALUE =
+            "Please provide latency percentile of 100 or less and at least 1 sample.";
+    public static final String ERROR_PREFETCH_PAGES_VALUE = "Please provide positive value for prefetchPages.";
+    public static final String ERROR_PAGE_NOT_RECEIVED = "Page of paginated http request was not received.";
+    public static final String ERROR_DEADLINE_EXCEEDED = "Deadline exceeded for http request %s.";
+    public static final String ERROR_CONCURRENCY_LIMIT_EXCEEDED = "Concurrency limit exceeded for http request %s.";
+    public static final String ERROR_DOWNLOAD_CONFIG = "Please provide positive values for download.";
+    public static final String ERROR_DOWNLOAD_CHECKSUM_ALGORITHM =
+            "Please provide checksum algorithm of expected checksum.";
+    public static final String ERROR_DOWNLOAD_STATUS = "Download of http request %s failed with status %d.";
+    public static final String ERROR_DOWNLOAD_CONTENT_RANGE = "Unexpected Content-Range %s of http request %s.";
+    public static final String ERROR_DOWNLOAD_INCOMPLETE =
+            "Download of http request %s is incomplete, %d of %d ranges failed.";
+    public static final String ERROR_DOWNLOAD_LENGTH = "Downloaded %d bytes of http request %s but expected %d bytes.";
+    public static final String ERROR_DOWNLOAD_CHECKSUM = "Checksum %s of http request %s does not match expected %s.";
+    public static final String ERROR_RETRY_BUDGET_VALUE = "Please provide positive values for retry budget.";
+    public static final String ERROR_MAX_CONCURRENCY_VALUE = "Please provide positive value for maxConcurrency.";
+    public static final String ERROR_MAX_CONCURRENCY_PER_HOST_VALUE =
+            "Please provide positive value for maxConcurrencyPerHost.";
+    public static final String ERROR_BATCH_SIZE_VALUE = "Please provide positive value for batchSize.";
+    public static final String ERROR_HTTP_REQUESTS_REQUIRED = "Please provide http requests.";
+    public static final String ERROR_BATCH_PROCESSOR_REQUIRED = "Please provide batch processor.";
+    public static final String ERROR_CIRCUIT_BREAKER_VALUE = "Please provide positive values for circuit breaker.";
+    public static final String ERROR_RATE_LIMITER_VALUE = "Please provide positive values for rate limiter.";
+    public static final String ERROR_MAX_WAIT_VALUE = "Please provide positive value for max wait.";
+    public static final String ERROR_ADAPTIVE_CONCURRENCY_LIMIT_VALUE =
+            "Please provide valid values for adaptive concurrency limit.";
+    public static final String ERROR_TRANSPORT_CLOSED = "Http transport is closed.";
+    public static final String ERROR_MAX_BODY_SIZE = "Response body exceeds maximum size of %d bytes.";
 }
@@ -0,0 +1,101 @@
+package com.javaquery.http;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Timeouts of http request, set on {@link HttpClientConfig} for all requests or on {@link HttpRequest} to override
+ * values of the client. Negative value is not set (inherits value of the client or transport default),
+ * 0 waits indefinitely.
+ * <p>
+ * Deadline bounds the whole {@link HttpClient#execute} call, all attempts of
+ * {@link com.javaquery.http.retry.RetryPolicy} and backoff sleeps in between. Each attempt is sent with timeouts capped
+ * by the time left till deadline and no attempt is started once deadline passed, so even
+ * <code>retryTillSuccess</code> requests end.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+@Builder
+public class TimeoutConfig {
+
+    /**
+     * Time to establish connection.
+     */
+    @Builder.Default
+    private int connectTimeoutInMilliseconds = -1;
+
+    /**
+     * Time to wait for a connection from the pool.
+     */
+    @Builder.Default
+    private int connectionRequestTimeoutInMilliseconds = -1;
+
+    /**
+     * Max inactivity between two packets of response (socket read timeout).
+     */
+    @Builder.Default
+    private int socketTimeoutInMilliseconds = -1;
+
+    /**
+     * Time from start of the request till response of last attempt is received, including retries and backoff.
+     * Passed to {@link HttpTransport} as time left for the attempt.
+     */
+    @Builder.Default
+    private long deadlineInMilliseconds = -1;
+
+    /**
+     * Values of this config, not set values are taken from the defaults.
+     *
+     * @param defaults the defaults
+     * @return the timeout config
+     */
+    TimeoutConfig orElse(TimeoutConfig defaults) {
+        return TimeoutConfig.builder()
+                .connectTimeoutInMilliseconds(
+                        connectTimeoutInMilliseconds >= 0
+                                ? connectTimeoutInMilliseconds
+                                : defaults.connectTimeoutInMilliseconds)
+                .connectionRequestTimeoutInMilliseconds(
+                        connectionRequestTimeoutInMilliseconds >= 0
+                                ? connectionRequestTimeoutInMilliseconds
+                                : defaults.connectionRequestTimeoutInMilliseconds)
+                .socketTimeoutInMilliseconds(
+                        socketTimeoutInMilliseconds >= 0
+                                ? socketTimeoutInMilliseconds
+                                : defaults.socketTimeoutInMilliseconds)
+                .deadlineInMilliseconds(
+                        deadlineInMilliseconds >= 0 ? deadlineInMilliseconds : defaults.deadlineInMilliseconds)
+                .build();
+    }
+
+    /**
+     * Has deadline.
+     *
+     * @return true when deadline is set
+     */
+    boolean hasDeadline() {
+        return deadlineInMilliseconds > 0;
+    }
+
+    /**
+     * Timeouts of single attempt capped by the time left till deadline.
+     *
+     * @param remainingInMilliseconds the time left till deadline
+     * @return the timeout config of the attempt
+     */
+    TimeoutConfig forAttempt(long remainingInMilliseconds) {
+        int remaining = (int) Math.max(1, Math.min(Integer.MAX_VALUE, remainingInMilliseconds));
+        return TimeoutConfig.builder()
+                .connectTimeoutInMilliseconds(cap(connectTimeoutInMilliseconds, remaining))
+                .connectionRequestTimeoutInMilliseconds(cap(connectionRequestTimeoutInMilliseconds, remaining))
+                .socketTimeoutInMilliseconds(cap(socketTimeoutInMilliseconds, remaining))
+                .deadlineInMilliseconds(remaining)
+                .build();
+    }
+
+    private static int cap(int timeout, int remaining) {
+        return timeout > 0 ? Math.min(timeout, remaining) : remaining;
+    }
+}
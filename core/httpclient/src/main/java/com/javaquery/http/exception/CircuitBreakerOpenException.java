@@ -0,0 +1,20 @@
+package com.javaquery.http.exception;
+
+/**
+ * Thrown (and passed to {@link com.javaquery.http.handler.HttpRequestHandler#onError}) when http request is rejected
+ * without being sent because its circuit is open.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class CircuitBreakerOpenException extends HttpException {
+
+    /**
+     * Instantiates a new Circuit breaker open exception.
+     *
+     * @param message the message
+     */
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
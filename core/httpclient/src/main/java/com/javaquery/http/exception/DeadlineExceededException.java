@@ -0,0 +1,21 @@
+package com.javaquery.http.exception;
+
+/**
+ * Thrown (and passed to {@link com.javaquery.http.handler.HttpRequestHandler#onError}) when deadline of
+ * {@link com.javaquery.http.TimeoutConfig} passed before response of the attempt was received, or before next attempt
+ * could be sent.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class DeadlineExceededException extends HttpException {
+
+    /**
+     * Instantiates a new Deadline exceeded exception.
+     *
+     * @param message the message
+     */
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -16,4 +16,13 @@ public class HttpException extends RuntimeException {
     public HttpException(Exception e) {
         super(e);
     }
+
+    /**
+     * Instantiates a new Http exception.
+     *
+     * @param message the message
+     */
+    public HttpException(String message) {
+        super(message);
+    }
 }
@@ -0,0 +1,20 @@
+package com.javaquery.http.exception;
+
+/**
+ * Thrown (and passed to {@link com.javaquery.http.handler.HttpRequestHandler#onError}) when http request can't get
+ * permit of {@link com.javaquery.http.retry.RateLimiterRegistry} within max wait.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class RateLimitExceededException extends HttpException {
+
+    /**
+     * Instantiates a new Rate limit exceeded exception.
+     *
+     * @param message the message
+     */
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
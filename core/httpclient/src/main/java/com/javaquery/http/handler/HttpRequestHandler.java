@@ -2,7 +2,9 @@ package com.javaquery.http.handler;
 
 import com.javaquery.http.HttpExecutionContext;
 import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpRequestResponse;
 import com.javaquery.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implement interface to intercept the http request.
@@ -20,6 +22,19 @@ public interface HttpRequestHandler {
      */
     void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest);
 
+    /**
+     * Method will be called instead of {@link #beforeRequest} before http request of
+     * {@link com.javaquery.http.HttpClient#executeAsync}. It runs on the calling thread or on
+     * {@link com.javaquery.http.HttpClientConfig#getAsyncCallbackExecutor()} (for retries), so it must not block.
+     * Default calls {@link #beforeRequest}.
+     *
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest          the http request
+     */
+    default void beforeAsyncRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+        beforeRequest(httpExecutionContext, httpRequest);
+    }
+
     /**
      * Method will be called after http response received.
      *
@@ -37,4 +52,91 @@ public interface HttpRequestHandler {
      * @param exception            the exception
      */
     void onError(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception);
+
+    /**
+     * Method will be called before each attempt of http request, instead of
+     * {@link #beforeRequest(HttpExecutionContext, HttpRequest)}. Same http request may be sent by several attempts at
+     * once, override attempt methods to keep state of single attempt with
+     * {@link HttpRequestResponse#putHandlerState(Object, Object)}. Default calls
+     * {@link #beforeRequest(HttpExecutionContext, HttpRequest)}.
+     *
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse  the http request response of the attempt
+     */
+    default void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse) {
+        beforeRequest(httpExecutionContext, httpRequestResponse.getHttpRequest());
+    }
+
+    /**
+     * Method will be called before each attempt of {@link com.javaquery.http.HttpClient#executeAsync}, instead of
+     * {@link #beforeAsyncRequest(HttpExecutionContext, HttpRequest)}. Default calls
+     * {@link #beforeAsyncRequest(HttpExecutionContext, HttpRequest)}.
+     *
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse  the http request response of the attempt
+     */
+    default void beforeAsyncRequest(
+            HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse) {
+        beforeAsyncRequest(httpExecutionContext, httpRequestResponse.getHttpRequest());
+    }
+
+    /**
+     * Method will be called after http response of the attempt received, instead of
+     * {@link #afterResponse(HttpExecutionContext, HttpRequest, HttpResponse)}. Default calls
+     * {@link #afterResponse(HttpExecutionContext, HttpRequest, HttpResponse)}.
+     *
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse  the http request response of the attempt
+     * @param httpResponse         the http response
+     */
+    default void afterResponse(
+            HttpExecutionContext httpExecutionContext,
+            HttpRequestResponse httpRequestResponse,
+            HttpResponse httpResponse) {
+        afterResponse(httpExecutionContext, httpRequestResponse.getHttpRequest(), httpResponse);
+    }
+
+    /**
+     * Method will be called when exception occurs while processing the attempt, instead of
+     * {@link #onError(HttpExecutionContext, HttpRequest, Exception)}. Attempt may fail before
+     * {@link #beforeRequest(HttpExecutionContext, HttpRequestResponse)} of this handler was called. Default calls
+     * {@link #onError(HttpExecutionContext, HttpRequest, Exception)}.
+     *
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse  the http request response of the attempt
+     * @param exception            the exception
+     */
+    default void onError(
+            HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse, Exception exception) {
+        onError(httpExecutionContext, httpRequestResponse.getHttpRequest(), exception);
+    }
+
+    /**
+     * Method will be called after {@link #afterResponse}, return true to send the http request once more right away
+     * i.e. with refreshed credentials after 401 response. Http request is replayed at most once per execution and
+     * replay is not counted as retry of {@link com.javaquery.http.retry.RetryPolicy}.
+     *
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest          the http request
+     * @param httpResponse         the http response
+     * @return true to replay the http request
+     */
+    default boolean shouldReplay(
+            HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {
+        return false;
+    }
+
+    /**
+     * Method will be called when replay of {@link com.javaquery.http.HttpClient#executeAsync} is scheduled, replay is
+     * sent once returned future completes so handler can i.e. refresh credentials without blocking async callback
+     * executor. Replay is sent even when the future completes exceptionally.
+     *
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest          the http request
+     * @return the future completed when http request can be replayed
+     */
+    default CompletableFuture<Void> beforeAsyncReplay(
+            HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+        return CompletableFuture.completedFuture(null);
+    }
 }
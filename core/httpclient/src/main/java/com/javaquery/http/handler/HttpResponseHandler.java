@@ -1,5 +1,6 @@
 package com.javaquery.http.handler;
 
+import com.javaquery.http.HttpRequest;
 import com.javaquery.http.HttpResponse;
 
 /**
@@ -24,4 +25,15 @@ public interface HttpResponseHandler<R> {
      * @param httpResponse the http response
      */
     void onMaxRetryAttempted(HttpResponse httpResponse);
+
+    /**
+     * Method will be called instead of {@link #onResponse(HttpResponse)} when http request is rejected without being
+     * sent because circuit of {@link com.javaquery.http.retry.CircuitBreaker} is open. Retries are not attempted.
+     *
+     * @param httpRequest the http request
+     * @return the r
+     */
+    default R onCircuitBreakerOpen(HttpRequest httpRequest) {
+        return null;
+    }
 }
@@ -0,0 +1,48 @@
+package com.javaquery.http.metrics;
+
+import lombok.Getter;
+
+/**
+ * Snapshot of connection pool of {@link com.javaquery.http.HttpClient}.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+public class ConnectionPoolStats {
+
+    /**
+     * Connections in use.
+     */
+    private final int leased;
+
+    /**
+     * Requests waiting for a connection.
+     */
+    private final int pending;
+
+    /**
+     * Idle connections kept alive in the pool.
+     */
+    private final int available;
+
+    /**
+     * Maximum number of connections.
+     */
+    private final int max;
+
+    /**
+     * Instantiates a new Connection pool stats.
+     *
+     * @param leased    the leased
+     * @param pending   the pending
+     * @param available the available
+     * @param max       the max
+     */
+    public ConnectionPoolStats(int leased, int pending, int available, int max) {
+        this.leased = leased;
+        this.pending = pending;
+        this.available = available;
+        this.max = max;
+    }
+}
@@ -0,0 +1,209 @@
+package com.javaquery.http.metrics;
+
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpRequestResponse;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-memory {@link HttpClientMetrics} which can be read programmatically, i.e. to publish to dashboards.
+ * Latency histograms are kept per http request name and per host, counters are striped ({@link LongAdder}) so
+ * recording never blocks concurrent requests.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HistogramHttpClientMetrics implements HttpClientMetrics {
+
+    private final Map<String, LatencyHistogram> requestNameHistograms = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> hostHistograms = new ConcurrentHashMap<>();
+    private final LongAdder[] statusClasses = new LongAdder[6];
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private volatile Supplier<ConnectionPoolStats> connectionPoolStats = () -> new ConnectionPoolStats(0, 0, 0, 0);
+
+    /**
+     * Instantiates a new Histogram http client metrics.
+     */
+    public HistogramHttpClientMetrics() {
+        for (int i = 0; i < statusClasses.length; i++) {
+            statusClasses[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void bindConnectionPool(Supplier<ConnectionPoolStats> connectionPoolStats) {
+        this.connectionPoolStats = connectionPoolStats;
+    }
+
+    @Override
+    public void recordAttempt(
+            HttpRequestResponse httpRequestResponse,
+            Exception exception,
+            long latencyInNanos,
+            long bytesSent,
+            long bytesReceived) {
+        HttpRequest httpRequest = httpRequestResponse.getHttpRequest();
+        if (latencyInNanos >= 0) {
+            requestNameHistograms
+                    .computeIfAbsent(String.valueOf(httpRequest.getHttpRequestName()), key -> new LatencyHistogram())
+                    .record(latencyInNanos);
+            hostHistograms
+                    .computeIfAbsent(host(httpRequest), key -> new LatencyHistogram())
+                    .record(latencyInNanos);
+        }
+        if (Objects.nonNull(httpRequestResponse.getHttpResponse())) {
+            int statusClass = httpRequestResponse.getHttpResponse().getStatusCode() / 100;
+            if (statusClass > 0 && statusClass < statusClasses.length) {
+                statusClasses[statusClass].increment();
+            }
+        }
+        if (Objects.nonNull(exception)) {
+            errors.increment();
+            if (HttpClientMetrics.isTimeout(exception)) {
+                timeouts.increment();
+            }
+        }
+        if (bytesSent > 0) {
+            this.bytesSent.add(bytesSent);
+        }
+        if (bytesReceived > 0) {
+            this.bytesReceived.add(bytesReceived);
+        }
+    }
+
+    @Override
+    public void recordRetry(HttpRequest httpRequest) {
+        retries.increment();
+    }
+
+    @Override
+    public void recordHedge(HttpRequest httpRequest) {
+        hedges.increment();
+    }
+
+    /**
+     * Gets latency histogram of http request name.
+     *
+     * @param httpRequestName the http request name
+     * @return the latency histogram or null when nothing was recorded
+     */
+    public LatencyHistogram getRequestNameHistogram(String httpRequestName) {
+        return requestNameHistograms.get(httpRequestName);
+    }
+
+    /**
+     * Gets latency histogram of host.
+     *
+     * @param host the host, i.e. <code>api.example.com</code>
+     * @return the latency histogram or null when nothing was recorded
+     */
+    public LatencyHistogram getHostHistogram(String host) {
+        return hostHistograms.get(host);
+    }
+
+    /**
+     * Gets http request names with recorded latency.
+     *
+     * @return the request names
+     */
+    public Set<String> getRequestNames() {
+        return requestNameHistograms.keySet();
+    }
+
+    /**
+     * Gets hosts with recorded latency.
+     *
+     * @return the hosts
+     */
+    public Set<String> getHosts() {
+        return hostHistograms.keySet();
+    }
+
+    /**
+     * Gets number of responses of status class, i.e. 5 for 5xx.
+     *
+     * @param statusClass the status class (1-5)
+     * @return the count
+     */
+    public long getStatusClassCount(int statusClass) {
+        return statusClass > 0 && statusClass < statusClasses.length ? statusClasses[statusClass].sum() : 0;
+    }
+
+    /**
+     * Gets number of failed attempts (no response received).
+     *
+     * @return the errors
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Gets number of attempts failed due to timeout, see {@link HttpClientMetrics#isTimeout(Throwable)}.
+     *
+     * @return the timeouts
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Gets number of retries scheduled.
+     *
+     * @return the retries
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Gets number of hedged attempts sent.
+     *
+     * @return the hedges
+     */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * Gets bytes of request bodies sent, bodies of unknown length (chunked) are not counted.
+     *
+     * @return the bytes sent
+     */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * Gets bytes of response bodies received, bodies of unknown length (chunked) are not counted.
+     *
+     * @return the bytes received
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Gets current stats of connection pool.
+     *
+     * @return the connection pool stats
+     */
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return connectionPoolStats.get();
+    }
+
+    private String host(HttpRequest httpRequest) {
+        return Objects.nonNull(httpRequest.getHost())
+                ? String.valueOf(httpRequest.getHost().getHost())
+                : "null";
+    }
+}
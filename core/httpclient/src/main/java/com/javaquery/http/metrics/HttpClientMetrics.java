@@ -0,0 +1,86 @@
+package com.javaquery.http.metrics;
+
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.http.exception.DeadlineExceededException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.impl.execchain.RequestAbortedException;
+
+/**
+ * Instrumentation SPI of {@link com.javaquery.http.HttpClient}, set via
+ * {@link com.javaquery.http.HttpClientConfig#getHttpClientMetrics()}.
+ * Methods are called on the request path so implementations must be thread-safe and must not block.
+ * Default ({@link #NOOP}) records nothing.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public interface HttpClientMetrics {
+
+    /**
+     * Metrics which records nothing.
+     */
+    HttpClientMetrics NOOP = new HttpClientMetrics() {};
+
+    /**
+     * Method will be called once http client is created, supplier returns current stats of its connection pool.
+     *
+     * @param connectionPoolStats the supplier of connection pool stats
+     */
+    default void bindConnectionPool(Supplier<ConnectionPoolStats> connectionPoolStats) {}
+
+    /**
+     * Method will be called after every attempt (including retries) of http request.
+     *
+     * @param httpRequestResponse the http request response, response is null when attempt failed
+     * @param exception           the exception of failed attempt or null
+     * @param latencyInNanos      the time from sending request till response headers received, -1 when not sent
+     * @param bytesSent           the size of request body, -1 when unknown
+     * @param bytesReceived       the size of response body, -1 when unknown
+     */
+    default void recordAttempt(
+            HttpRequestResponse httpRequestResponse,
+            Exception exception,
+            long latencyInNanos,
+            long bytesSent,
+            long bytesReceived) {}
+
+    /**
+     * Method will be called when retry of http request is scheduled.
+     *
+     * @param httpRequest the http request
+     */
+    default void recordRetry(HttpRequest httpRequest) {}
+
+    /**
+     * Method will be called when hedged attempt of http request is sent.
+     *
+     * @param httpRequest the http request
+     */
+    default void recordHedge(HttpRequest httpRequest) {}
+
+    /**
+     * Whether exception of failed attempt (or any of its causes) is a timeout: deadline exceeded, connect, socket
+     * or connection pool timeout of either transport, or attempt aborted while waiting for response.
+     *
+     * @param throwable the exception of failed attempt
+     * @return true if attempt timed out
+     */
+    static boolean isTimeout(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException
+                    || cause instanceof SocketTimeoutException
+                    || cause instanceof ConnectTimeoutException
+                    || cause instanceof HttpTimeoutException
+                    || cause instanceof RequestAbortedException
+                    || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
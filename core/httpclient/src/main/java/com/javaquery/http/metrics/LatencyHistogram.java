@@ -0,0 +1,110 @@
+package com.javaquery.http.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (HDR style).
+ * Values are recorded in microseconds, every power of two range is split into 16 linear sub-buckets so
+ * percentiles are accurate within ~6% from 1 microsecond up to hours, in fixed memory of ~8KB.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record latency.
+     *
+     * @param latencyInNanos the latency in nanoseconds
+     */
+    public void record(long latencyInNanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(latencyInNanos));
+        counts.incrementAndGet(index(micros));
+        count.incrementAndGet();
+        sum.addAndGet(micros);
+        max.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * Gets number of recorded values.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets mean latency in microseconds.
+     *
+     * @return the mean
+     */
+    public double getMeanInMicros() {
+        long total = count.get();
+        return total == 0 ? 0 : (double) sum.get() / total;
+    }
+
+    /**
+     * Gets max latency in microseconds.
+     *
+     * @return the max
+     */
+    public long getMaxInMicros() {
+        return max.get();
+    }
+
+    /**
+     * Gets latency at percentile in microseconds, i.e. <code>getPercentileInMicros(99.0)</code> for p99.
+     * Value is the upper bound of the bucket holding the percentile.
+     *
+     * @param percentile the percentile (0-100]
+     * @return the latency in microseconds
+     */
+    public long getPercentileInMicros(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Bucket index, values below 16 map 1:1, larger values by position of the top bit and 4 bits below it.
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
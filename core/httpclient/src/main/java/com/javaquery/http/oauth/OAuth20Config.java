@@ -0,0 +1,36 @@
+package com.javaquery.http.oauth;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of OAuth 2.0 client credentials grant used by {@link OAuth20HttpRequestHandler}.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+@Builder
+public class OAuth20Config {
+    private String clientId;
+    private String clientSecret;
+    private String tokenEndpoint;
+
+    /**
+     * Default scope of access token, can be overridden per request using
+     * {@link OAuth20HttpRequestHandler#SCOPE} meta data of execution context.
+     */
+    private String scope;
+
+    /**
+     * Access token is refreshed in the background this long before it expires.
+     */
+    @Builder.Default
+    private long refreshBeforeExpiryInSeconds = 60;
+
+    /**
+     * Lifetime of access token when token response has no <code>expires_in</code>.
+     */
+    @Builder.Default
+    private long defaultExpiresInSeconds = 3600;
+}
@@ -0,0 +1,288 @@
+package com.javaquery.http.oauth;
+
+import com.javaquery.http.HttpClient;
+import com.javaquery.http.HttpExecutionContext;
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpResponse;
+import com.javaquery.http.StringPool;
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.handler.HttpRequestHandler;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.retry.RetryScheduler;
+import com.javaquery.util.Strings;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * OAuth 2.0 client credentials handler which sets <code>Authorization: Bearer</code> header on http request.
+ * <ul>
+ *     <li>Access tokens are cached per scope and refreshed in the background before they expire,
+ *     so most requests don't wait for token endpoint.</li>
+ *     <li>Concurrent requests needing a new token share single token request.</li>
+ *     <li>Http request is replayed once with a fresh token when server responds with 401, replay of
+ *     {@link HttpClient#executeAsync} is sent once the fresh token is fetched in the background.</li>
+ *     <li>{@link HttpClient#executeAsync} never waits for token endpoint, attempt without cached token fails with
+ *     {@link HttpException} while the token is fetched in the background. Call {@link #prefetchAccessToken} before
+ *     first async request.</li>
+ * </ul>
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class OAuth20HttpRequestHandler implements HttpRequestHandler {
+
+    /**
+     * Meta data key of {@link HttpExecutionContext} to request access token of a different scope.
+     */
+    public static final String SCOPE = "oauth2Scope";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OAuth20HttpRequestHandler.class);
+    private static final String BEARER = "Bearer ";
+    private static final int UNAUTHORIZED = 401;
+
+    private final OAuth20Config oAuth20Config;
+    private final HttpClient httpClient;
+    private final Executor refreshExecutor;
+    private final Map<String, AccessToken> accessTokens = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<AccessToken>> refreshes = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new OAuth 2.0 http request handler.
+     *
+     * @param oAuth20Config the OAuth 2.0 config
+     * @param httpClient    the http client used to request access tokens
+     */
+    public OAuth20HttpRequestHandler(OAuth20Config oAuth20Config, HttpClient httpClient) {
+        this.oAuth20Config = oAuth20Config;
+        this.httpClient = httpClient;
+        this.refreshExecutor = httpClient.getHttpClientConfig().getAsyncCallbackExecutor();
+    }
+
+    @Override
+    public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+        httpRequest.withHeader(StringPool.AUTHORIZATION, BEARER + accessToken(scope(httpExecutionContext)).value);
+    }
+
+    /**
+     * Uses cached access token only, so threads of async callback executor never wait for token endpoint.
+     */
+    @Override
+    public void beforeAsyncRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+        String scope = scope(httpExecutionContext);
+        AccessToken accessToken = cachedAccessToken(scope);
+        if (Objects.isNull(accessToken)) {
+            refreshExecutor.execute(() -> refresh(scope));
+            throw new HttpException(String.format(StringPool.ERROR_OAUTH20_ACCESS_TOKEN_NOT_READY, scope));
+        }
+        httpRequest.withHeader(StringPool.AUTHORIZATION, BEARER + accessToken.value);
+    }
+
+    /**
+     * Fetch access token of the scope of http execution context in the background unless it's cached already.
+     *
+     * @param httpExecutionContext the http execution context
+     * @return the future completed once access token is available
+     */
+    public CompletableFuture<Void> prefetchAccessToken(HttpExecutionContext httpExecutionContext) {
+        String scope = scope(httpExecutionContext);
+        return Objects.nonNull(cachedAccessToken(scope))
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(() -> accessToken(scope), refreshExecutor);
+    }
+
+    @Override
+    public void afterResponse(
+            HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {}
+
+    @Override
+    public void onError(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {}
+
+    /**
+     * Access token sent with the request is dropped from cache when server responds with 401,
+     * so the replayed request gets a fresh one.
+     */
+    @Override
+    public boolean shouldReplay(
+            HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {
+        if (httpResponse.getStatusCode() != UNAUTHORIZED) {
+            return false;
+        }
+        String scope = scope(httpExecutionContext);
+        AccessToken accessToken = accessTokens.get(scope);
+        if (Objects.nonNull(accessToken)
+                && (BEARER + accessToken.value).equals(httpRequest.getHeaders().get(StringPool.AUTHORIZATION))) {
+            accessTokens.remove(scope, accessToken);
+        }
+        return true;
+    }
+
+    /**
+     * Replay of async request is sent once access token dropped by {@link #shouldReplay} is fetched again.
+     */
+    @Override
+    public CompletableFuture<Void> beforeAsyncReplay(
+            HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+        return prefetchAccessToken(httpExecutionContext);
+    }
+
+    /**
+     * Cached access token of the scope, token is requested when missing or expired.
+     * @param scope the scope
+     * @return the access token
+     */
+    private AccessToken accessToken(String scope) {
+        AccessToken accessToken = cachedAccessToken(scope);
+        if (Objects.nonNull(accessToken)) {
+            return accessToken;
+        }
+        try {
+            accessToken = refresh(scope).join();
+            accessToken.used = true;
+            return accessToken;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Cached access token of the scope, refresh is started in the background when it's due.
+     * @param scope the scope
+     * @return the access token, null when missing or expired
+     */
+    private AccessToken cachedAccessToken(String scope) {
+        AccessToken accessToken = accessTokens.get(scope);
+        long now = System.nanoTime();
+        if (Objects.isNull(accessToken) || now - accessToken.expiresAt >= 0) {
+            return null;
+        }
+        accessToken.used = true;
+        if (now - accessToken.refreshAt >= 0 && accessToken.refreshStarted.compareAndSet(false, true)) {
+            refreshExecutor.execute(() -> refresh(scope));
+        }
+        return accessToken;
+    }
+
+    /**
+     * Request new access token of the scope, concurrent callers share the token request in flight.
+     * @param scope the scope
+     * @return the future of access token
+     */
+    private CompletableFuture<AccessToken> refresh(String scope) {
+        CompletableFuture<AccessToken> future = new CompletableFuture<>();
+        CompletableFuture<AccessToken> inFlight = refreshes.putIfAbsent(scope, future);
+        if (Objects.nonNull(inFlight)) {
+            return inFlight;
+        }
+        try {
+            AccessToken accessToken = requestAccessToken(scope);
+            accessTokens.put(scope, accessToken);
+            scheduleRefresh(scope, accessToken);
+            future.complete(accessToken);
+        } catch (Throwable throwable) {
+            LOGGER.error(throwable.getMessage(), throwable);
+            future.completeExceptionally(throwable);
+        } finally {
+            refreshes.remove(scope, future);
+        }
+        return future;
+    }
+
+    /**
+     * Refresh the token before it expires when it was used since it was issued, unused tokens are left to expire.
+     * @param scope the scope
+     * @param accessToken the access token
+     */
+    private void scheduleRefresh(String scope, AccessToken accessToken) {
+        long delay = TimeUnit.NANOSECONDS.toMillis(accessToken.refreshAt - System.nanoTime());
+        RetryScheduler.schedule(
+                () -> {
+                    if (accessToken.used
+                            && accessTokens.get(scope) == accessToken
+                            && accessToken.refreshStarted.compareAndSet(false, true)) {
+                        refresh(scope);
+                    }
+                },
+                delay,
+                refreshExecutor);
+    }
+
+    private AccessToken requestAccessToken(String scope) {
+        Map<String, Object> form = new LinkedHashMap<>();
+        form.put("grant_type", "client_credentials");
+        if (Strings.nonNullNonEmpty(scope)) {
+            form.put("scope", scope);
+        }
+        String credentials = URLEncoder.encode(oAuth20Config.getClientId(), StandardCharsets.UTF_8) + ":"
+                + URLEncoder.encode(oAuth20Config.getClientSecret(), StandardCharsets.UTF_8);
+        HttpRequest tokenRequest = new HttpRequest.HttpRequestBuilder("OAuth20AccessToken", HttpMethod.POST)
+                .withHost(oAuth20Config.getTokenEndpoint())
+                .withEndPoint(URI.create(oAuth20Config.getTokenEndpoint()).getPath())
+                .withHeader(
+                        StringPool.AUTHORIZATION,
+                        "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                .withHeader(StringPool.ACCEPT, "application/json")
+                .withHttpPayload(new HttpRequest.HttpPayload(
+                        StandardCharsets.UTF_8.name(), "application/x-www-form-urlencoded", form))
+                .build();
+        return httpClient.execute(new HttpExecutionContext(), tokenRequest, new HttpResponseHandler<AccessToken>() {
+            @Override
+            public AccessToken onResponse(HttpResponse httpResponse) {
+                if (Objects.isNull(httpResponse) || httpResponse.getStatusCode() / 100 != 2) {
+                    throw new HttpException(String.format(
+                            StringPool.ERROR_OAUTH20_ACCESS_TOKEN,
+                            Objects.nonNull(httpResponse) ? httpResponse.getStatusCode() : -1));
+                }
+                JSONObject tokenResponse = httpResponse.getJSONObjectBody();
+                long expiresIn = tokenResponse.optLong("expires_in", oAuth20Config.getDefaultExpiresInSeconds());
+                return new AccessToken(
+                        tokenResponse.getString("access_token"),
+                        expiresIn,
+                        Math.min(oAuth20Config.getRefreshBeforeExpiryInSeconds(), expiresIn / 2));
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        });
+    }
+
+    private String scope(HttpExecutionContext httpExecutionContext) {
+        Object scope = httpExecutionContext.getMeta(SCOPE, oAuth20Config.getScope());
+        return Objects.nonNull(scope) ? scope.toString() : "";
+    }
+
+    /**
+     * Access token with its expiry and refresh time (System.nanoTime).
+     */
+    private static final class AccessToken {
+        private final String value;
+        private final long expiresAt;
+        private final long refreshAt;
+        private final AtomicBoolean refreshStarted = new AtomicBoolean();
+        private volatile boolean used;
+
+        private AccessToken(String value, long expiresInSeconds, long refreshBeforeExpiryInSeconds) {
+            long now = System.nanoTime();
+            this.value = value;
+            this.expiresAt = now + TimeUnit.SECONDS.toNanos(expiresInSeconds);
+            this.refreshAt = expiresAt - TimeUnit.SECONDS.toNanos(refreshBeforeExpiryInSeconds);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.javaquery.http.retry;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of {@link AdaptiveConcurrencyLimiter}.
+ * Limit of each host starts at {@link #initialLimit} and moves between {@link #minLimit} and {@link #maxLimit}:
+ * it grows while round-trip time stays within {@link #rttTolerance} of the long-term average and shrinks by the
+ * gradient when it doesn't, overload (error or 429/502/503/504 response) cuts it by {@link #backoffRatio}.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+@Builder
+public class AdaptiveConcurrencyLimitConfig {
+
+    /**
+     * Limit of in-flight requests per host before any latency is measured.
+     */
+    @Builder.Default
+    private int initialLimit = 20;
+
+    /**
+     * Lowest limit of in-flight requests per host.
+     */
+    @Builder.Default
+    private int minLimit = 1;
+
+    /**
+     * Highest limit of in-flight requests per host.
+     */
+    @Builder.Default
+    private int maxLimit = 200;
+
+    /**
+     * Round-trip time up to this multiple of the long-term average is treated as stable.
+     */
+    @Builder.Default
+    private double rttTolerance = 1.5;
+
+    /**
+     * Weight (0-1) of new limit when it's blended with current limit.
+     */
+    @Builder.Default
+    private double smoothing = 0.2;
+
+    /**
+     * Number of samples averaged into long-term round-trip time.
+     */
+    @Builder.Default
+    private int longWindow = 600;
+
+    /**
+     * Multiplier (0-1) applied to limit on overload.
+     */
+    @Builder.Default
+    private double backoffRatio = 0.9;
+
+    /**
+     * Max time to wait for permit when limit is reached, 0 to fail fast.
+     */
+    @Builder.Default
+    private long maxWaitInMilliseconds = 0;
+
+    /**
+     * Max number of requests waiting for permit per host, excess requests fail fast.
+     */
+    @Builder.Default
+    private int maxQueueSize = 100;
+}
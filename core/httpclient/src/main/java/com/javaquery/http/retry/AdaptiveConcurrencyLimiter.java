@@ -0,0 +1,276 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpExecutionContext;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.http.HttpResponse;
+import com.javaquery.http.StringPool;
+import com.javaquery.http.exception.ConcurrencyLimitExceededException;
+import com.javaquery.http.handler.HttpRequestHandler;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Adaptive limit of in-flight requests per host (or any other key), plugged in as {@link HttpRequestHandler}.
+ * Every attempt takes a permit in {@link #beforeRequest(HttpExecutionContext, HttpRequestResponse)} and gives it back
+ * with its round-trip time in {@link #afterResponse(HttpExecutionContext, HttpRequestResponse, HttpResponse)} or
+ * {@link #onError(HttpExecutionContext, HttpRequestResponse, Exception)}. Permit is kept with the attempt, so attempts
+ * sharing the same http request never release permits of each other. Limit follows the gradient between long-term
+ * and current round-trip time, so it grows while latency is stable and shrinks when requests start queueing at the
+ * downstream. Overload (error or 429/502/503/504 response) cuts the limit multiplicatively.
+ * <p>
+ * Attempt over the limit waits up to max wait (blocking the calling thread) and fails with
+ * {@link ConcurrencyLimitExceededException} otherwise, which is passed to {@link RetryPolicy} like any other failure.
+ * Attempts of {@link com.javaquery.http.HttpClient#executeAsync} never wait, they fail right away so threads of async
+ * callback executor are not blocked, use {@link RetryPolicy} with backoff to send them once permits free up.
+ * Share the same instance between requests of a service and add it first to {@link HttpExecutionContext}.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class AdaptiveConcurrencyLimiter implements HttpRequestHandler {
+
+    private final AdaptiveConcurrencyLimitConfig adaptiveConcurrencyLimitConfig;
+    private final Function<HttpRequest, String> keyFunction;
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+    private Predicate<HttpResponse> overloadPredicate = AdaptiveConcurrencyLimiter::isOverload;
+
+    /**
+     * Instantiates a new Adaptive concurrency limiter.
+     *
+     * @param adaptiveConcurrencyLimitConfig the adaptive concurrency limit config
+     * @param keyFunction                    the function to resolve limit of http request
+     */
+    public AdaptiveConcurrencyLimiter(
+            AdaptiveConcurrencyLimitConfig adaptiveConcurrencyLimitConfig, Function<HttpRequest, String> keyFunction) {
+        if (adaptiveConcurrencyLimitConfig.getMinLimit() <= 0
+                || adaptiveConcurrencyLimitConfig.getMaxLimit() < adaptiveConcurrencyLimitConfig.getMinLimit()
+                || adaptiveConcurrencyLimitConfig.getInitialLimit() < adaptiveConcurrencyLimitConfig.getMinLimit()
+                || adaptiveConcurrencyLimitConfig.getInitialLimit() > adaptiveConcurrencyLimitConfig.getMaxLimit()
+                || adaptiveConcurrencyLimitConfig.getRttTolerance() < 1
+                || adaptiveConcurrencyLimitConfig.getSmoothing() <= 0
+                || adaptiveConcurrencyLimitConfig.getSmoothing() > 1
+                || adaptiveConcurrencyLimitConfig.getLongWindow() <= 0
+                || adaptiveConcurrencyLimitConfig.getBackoffRatio() <= 0
+                || adaptiveConcurrencyLimitConfig.getBackoffRatio() >= 1
+                || adaptiveConcurrencyLimitConfig.getMaxWaitInMilliseconds() < 0
+                || adaptiveConcurrencyLimitConfig.getMaxQueueSize() < 0) {
+            throw new IllegalArgumentException(StringPool.ERROR_ADAPTIVE_CONCURRENCY_LIMIT_VALUE);
+        }
+        this.adaptiveConcurrencyLimitConfig = adaptiveConcurrencyLimitConfig;
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * Adaptive concurrency limiter with limit per host.
+     *
+     * @param adaptiveConcurrencyLimitConfig the adaptive concurrency limit config
+     * @return the adaptive concurrency limiter
+     */
+    public static AdaptiveConcurrencyLimiter perHost(AdaptiveConcurrencyLimitConfig adaptiveConcurrencyLimitConfig) {
+        return new AdaptiveConcurrencyLimiter(
+                adaptiveConcurrencyLimitConfig,
+                httpRequest -> Objects.nonNull(httpRequest.getHost())
+                        ? httpRequest.getHost().getHost()
+                        : null);
+    }
+
+    /**
+     * Use custom predicate to decide overloaded downstream, default treats 429, 502, 503 and 504 responses as
+     * overload. Exceptions are always treated as overload.
+     *
+     * @param overloadPredicate the overload predicate
+     * @return the adaptive concurrency limiter
+     */
+    public AdaptiveConcurrencyLimiter withOverloadPredicate(Predicate<HttpResponse> overloadPredicate) {
+        this.overloadPredicate = overloadPredicate;
+        return this;
+    }
+
+    @Override
+    public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse) {
+        acquire(
+                httpRequestResponse,
+                TimeUnit.MILLISECONDS.toNanos(adaptiveConcurrencyLimitConfig.getMaxWaitInMilliseconds()));
+    }
+
+    @Override
+    public void beforeAsyncRequest(HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse) {
+        acquire(httpRequestResponse, 0);
+    }
+
+    private void acquire(HttpRequestResponse httpRequestResponse, long maxWaitInNanos) {
+        HttpRequest httpRequest = httpRequestResponse.getHttpRequest();
+        Limit limit = limit(httpRequest);
+        if (!limit.acquire(maxWaitInNanos)) {
+            throw new ConcurrencyLimitExceededException(
+                    String.format(StringPool.ERROR_CONCURRENCY_LIMIT_EXCEEDED, httpRequest.getHttpRequestName()));
+        }
+        httpRequestResponse.putHandlerState(this, new Permit(limit, System.nanoTime()));
+    }
+
+    @Override
+    public void afterResponse(
+            HttpExecutionContext httpExecutionContext,
+            HttpRequestResponse httpRequestResponse,
+            HttpResponse httpResponse) {
+        release(httpRequestResponse, overloadPredicate.test(httpResponse));
+    }
+
+    @Override
+    public void onError(
+            HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse, Exception exception) {
+        // attempt rejected before this handler took a permit has nothing to release
+        release(httpRequestResponse, true);
+    }
+
+    /**
+     * Permit is taken per attempt by {@link #beforeRequest(HttpExecutionContext, HttpRequestResponse)}.
+     */
+    @Override
+    public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {}
+
+    /**
+     * Permit is released per attempt by
+     * {@link #afterResponse(HttpExecutionContext, HttpRequestResponse, HttpResponse)}.
+     */
+    @Override
+    public void afterResponse(
+            HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {}
+
+    /**
+     * Permit is released per attempt by {@link #onError(HttpExecutionContext, HttpRequestResponse, Exception)}.
+     */
+    @Override
+    public void onError(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {}
+
+    /**
+     * Gets current limit of in-flight requests of http request's host (or key).
+     *
+     * @param httpRequest the http request
+     * @return the limit
+     */
+    public int getLimit(HttpRequest httpRequest) {
+        return limit(httpRequest).currentLimit();
+    }
+
+    /**
+     * Gets number of in-flight requests of http request's host (or key).
+     *
+     * @param httpRequest the http request
+     * @return the in-flight requests
+     */
+    public int getInFlight(HttpRequest httpRequest) {
+        return limit(httpRequest).currentInFlight();
+    }
+
+    private void release(HttpRequestResponse httpRequestResponse, boolean overload) {
+        Permit permit = (Permit) httpRequestResponse.removeHandlerState(this);
+        if (Objects.nonNull(permit)) {
+            permit.limit.release(System.nanoTime() - permit.startNanos, overload);
+        }
+    }
+
+    private Limit limit(HttpRequest httpRequest) {
+        return limits.computeIfAbsent(String.valueOf(keyFunction.apply(httpRequest)), key -> new Limit());
+    }
+
+    private static boolean isOverload(HttpResponse httpResponse) {
+        int statusCode = httpResponse.getStatusCode();
+        return statusCode == 429 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    /**
+     * Permit taken by single attempt.
+     */
+    private static final class Permit {
+        private final Limit limit;
+        private final long startNanos;
+
+        private Permit(Limit limit, long startNanos) {
+            this.limit = limit;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * Limit and in-flight requests of single host.
+     */
+    private final class Limit {
+        private double limit = adaptiveConcurrencyLimitConfig.getInitialLimit();
+        private double longRttNanos;
+        private int inFlight;
+        private int waiting;
+
+        private synchronized boolean acquire(long maxWaitInNanos) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            if (maxWaitInNanos == 0 || waiting >= adaptiveConcurrencyLimitConfig.getMaxQueueSize()) {
+                return false;
+            }
+            long deadline = System.nanoTime() + maxWaitInNanos;
+            waiting++;
+            try {
+                while (inFlight >= (int) limit) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+                inFlight++;
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                waiting--;
+            }
+        }
+
+        private synchronized void release(long rttNanos, boolean overload) {
+            boolean utilized = inFlight * 2 >= limit;
+            inFlight--;
+            if (overload) {
+                setLimit(limit * adaptiveConcurrencyLimitConfig.getBackoffRatio());
+            } else if (rttNanos > 0) {
+                longRttNanos = longRttNanos == 0
+                        ? rttNanos
+                        : longRttNanos + (rttNanos - longRttNanos) / adaptiveConcurrencyLimitConfig.getLongWindow();
+                // latency dropped after spike, let long-term average catch up so next rise is noticed
+                if (longRttNanos > 2 * rttNanos) {
+                    longRttNanos *= 0.95;
+                }
+                double gradient = Math.max(
+                        0.5, Math.min(1.0, adaptiveConcurrencyLimitConfig.getRttTolerance() * longRttNanos / rttNanos));
+                double newLimit = limit * gradient + Math.sqrt(limit);
+                // don't grow limit of a host which is not using it
+                if (newLimit < limit || utilized) {
+                    setLimit(limit * (1 - adaptiveConcurrencyLimitConfig.getSmoothing())
+                            + newLimit * adaptiveConcurrencyLimitConfig.getSmoothing());
+                }
+            }
+            notifyAll();
+        }
+
+        private void setLimit(double newLimit) {
+            limit = Math.max(
+                    adaptiveConcurrencyLimitConfig.getMinLimit(),
+                    Math.min(adaptiveConcurrencyLimitConfig.getMaxLimit(), newLimit));
+        }
+
+        private synchronized int currentLimit() {
+            return (int) limit;
+        }
+
+        private synchronized int currentInFlight() {
+            return inFlight;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.http.StringPool;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Circuit breaker which fails fast requests of a host (or any other key) that is known to be down.
+ * <ul>
+ *     <li>CLOSED - requests are permitted, outcome is recorded in sliding window</li>
+ *     <li>OPEN - failure or slow call rate reached threshold, requests are rejected without being sent</li>
+ *     <li>HALF_OPEN - after wait duration limited trial requests are permitted, circuit closes again when
+ *     they succeed and opens otherwise</li>
+ * </ul>
+ * Share the same instance between requests of a service, rejected requests bypass {@link RetryPolicy}.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class CircuitBreaker {
+
+    /**
+     * State of circuit.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final CircuitBreakerConfig circuitBreakerConfig;
+    private final Function<HttpRequest, String> keyFunction;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private Predicate<HttpRequestResponse> failurePredicate = CircuitBreaker::isFailure;
+
+    /**
+     * Instantiates a new Circuit breaker.
+     *
+     * @param circuitBreakerConfig the circuit breaker config
+     * @param keyFunction          the function to resolve circuit of http request
+     */
+    public CircuitBreaker(CircuitBreakerConfig circuitBreakerConfig, Function<HttpRequest, String> keyFunction) {
+        if (circuitBreakerConfig.getSlidingWindowSize() <= 0
+                || circuitBreakerConfig.getMinimumNumberOfCalls() <= 0
+                || circuitBreakerConfig.getPermittedCallsInHalfOpenState() <= 0) {
+            throw new IllegalArgumentException(StringPool.ERROR_CIRCUIT_BREAKER_VALUE);
+        }
+        this.circuitBreakerConfig = circuitBreakerConfig;
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * Circuit breaker with circuit per host.
+     *
+     * @param circuitBreakerConfig the circuit breaker config
+     * @return the circuit breaker
+     */
+    public static CircuitBreaker perHost(CircuitBreakerConfig circuitBreakerConfig) {
+        return new CircuitBreaker(
+                circuitBreakerConfig,
+                httpRequest -> Objects.nonNull(httpRequest.getHost())
+                        ? httpRequest.getHost().getHost()
+                        : null);
+    }
+
+    /**
+     * Circuit breaker with circuit per {@link HttpRequest#getHttpRequestName()}.
+     *
+     * @param circuitBreakerConfig the circuit breaker config
+     * @return the circuit breaker
+     */
+    public static CircuitBreaker perRequestName(CircuitBreakerConfig circuitBreakerConfig) {
+        return new CircuitBreaker(circuitBreakerConfig, HttpRequest::getHttpRequestName);
+    }
+
+    /**
+     * Use custom predicate to decide failed call, default treats exceptions and 5xx responses as failure.
+     *
+     * @param failurePredicate the failure predicate
+     * @return the circuit breaker
+     */
+    public CircuitBreaker withFailurePredicate(Predicate<HttpRequestResponse> failurePredicate) {
+        this.failurePredicate = failurePredicate;
+        return this;
+    }
+
+    /**
+     * Try to acquire permission to send http request.
+     *
+     * @param httpRequest the http request
+     * @return false when circuit is open and request must not be sent
+     */
+    public boolean tryAcquirePermission(HttpRequest httpRequest) {
+        return circuit(httpRequest).tryAcquirePermission(System.nanoTime());
+    }
+
+    /**
+     * Give back permission of http request which was rejected locally (rate limit, concurrency limit, deadline)
+     * before it was sent, nothing is recorded in sliding window.
+     *
+     * @param httpRequest the http request
+     */
+    public void releasePermission(HttpRequest httpRequest) {
+        circuit(httpRequest).releasePermission();
+    }
+
+    /**
+     * Record outcome of http request which was permitted by {@link #tryAcquirePermission(HttpRequest)}.
+     *
+     * @param httpRequestResponse the http request response
+     * @param durationInMillis    the duration of call in milliseconds
+     */
+    public void onResult(HttpRequestResponse httpRequestResponse, long durationInMillis) {
+        circuit(httpRequestResponse.getHttpRequest())
+                .onResult(
+                        failurePredicate.test(httpRequestResponse),
+                        durationInMillis >= circuitBreakerConfig.getSlowCallDurationThresholdInMilliseconds(),
+                        System.nanoTime());
+    }
+
+    /**
+     * Gets state of circuit of http request.
+     *
+     * @param httpRequest the http request
+     * @return the state
+     */
+    public State getState(HttpRequest httpRequest) {
+        return circuit(httpRequest).state;
+    }
+
+    private Circuit circuit(HttpRequest httpRequest) {
+        return circuits.computeIfAbsent(String.valueOf(keyFunction.apply(httpRequest)), key -> new Circuit());
+    }
+
+    private static boolean isFailure(HttpRequestResponse httpRequestResponse) {
+        return Objects.isNull(httpRequestResponse.getHttpResponse())
+                || httpRequestResponse.getHttpResponse().getStatusCode() >= 500;
+    }
+
+    /**
+     * State and count based sliding window of single circuit.
+     */
+    private final class Circuit {
+        private static final int FAILURE = 1;
+        private static final int SLOW = 2;
+
+        private final byte[] outcomes = new byte[circuitBreakerConfig.getSlidingWindowSize()];
+        private volatile State state = State.CLOSED;
+        private int index;
+        private int calls;
+        private int failures;
+        private int slowCalls;
+        private long openedAt;
+        private int halfOpenPermits;
+        private int halfOpenCalls;
+        private int halfOpenFailures;
+
+        private synchronized boolean tryAcquirePermission(long now) {
+            if (state == State.OPEN) {
+                if (now - openedAt
+                        < TimeUnit.MILLISECONDS.toNanos(
+                                circuitBreakerConfig.getWaitDurationInOpenStateInMilliseconds())) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                halfOpenPermits = circuitBreakerConfig.getPermittedCallsInHalfOpenState();
+                halfOpenCalls = 0;
+                halfOpenFailures = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits == 0) {
+                    return false;
+                }
+                halfOpenPermits--;
+            }
+            return true;
+        }
+
+        private synchronized void releasePermission() {
+            if (state == State.HALF_OPEN) {
+                halfOpenPermits = Math.min(
+                        halfOpenPermits + 1, circuitBreakerConfig.getPermittedCallsInHalfOpenState() - halfOpenCalls);
+            }
+        }
+
+        private synchronized void onResult(boolean failure, boolean slow, long now) {
+            if (state == State.HALF_OPEN) {
+                halfOpenCalls++;
+                if (failure || slow) {
+                    halfOpenFailures++;
+                }
+                if (halfOpenCalls == circuitBreakerConfig.getPermittedCallsInHalfOpenState()) {
+                    if (halfOpenFailures * 100 >= circuitBreakerConfig.getFailureRateThreshold() * halfOpenCalls) {
+                        open(now);
+                    } else {
+                        close();
+                    }
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                return;
+            }
+            record(failure, slow);
+            if (calls >= circuitBreakerConfig.getMinimumNumberOfCalls()
+                    && (failures * 100 >= circuitBreakerConfig.getFailureRateThreshold() * calls
+                            || slowCalls * 100 >= circuitBreakerConfig.getSlowCallRateThreshold() * calls)) {
+                open(now);
+            }
+        }
+
+        private void record(boolean failure, boolean slow) {
+            if (calls == outcomes.length) {
+                byte evicted = outcomes[index];
+                failures -= evicted & FAILURE;
+                slowCalls -= (evicted & SLOW) >> 1;
+            } else {
+                calls++;
+            }
+            outcomes[index] = (byte) ((failure ? FAILURE : 0) | (slow ? SLOW : 0));
+            failures += failure ? 1 : 0;
+            slowCalls += slow ? 1 : 0;
+            index = (index + 1) % outcomes.length;
+        }
+
+        private void open(long now) {
+            state = State.OPEN;
+            openedAt = now;
+        }
+
+        private void close() {
+            state = State.CLOSED;
+            index = 0;
+            calls = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.javaquery.http.retry;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of {@link CircuitBreaker}.
+ * Outcome of last {@link #slidingWindowSize} calls is kept per circuit, circuit opens when failure rate or slow call
+ * rate reaches its threshold and at least {@link #minimumNumberOfCalls} were recorded.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+@Builder
+public class CircuitBreakerConfig {
+
+    /**
+     * Percentage of failed calls (1-100) at which circuit opens.
+     */
+    @Builder.Default
+    private int failureRateThreshold = 50;
+
+    /**
+     * Percentage of slow calls (1-100) at which circuit opens.
+     */
+    @Builder.Default
+    private int slowCallRateThreshold = 100;
+
+    /**
+     * Calls taking longer than this are slow.
+     */
+    @Builder.Default
+    private long slowCallDurationThresholdInMilliseconds = 60 * 1000;
+
+    /**
+     * Number of most recent calls used to calculate failure and slow call rate.
+     */
+    @Builder.Default
+    private int slidingWindowSize = 100;
+
+    /**
+     * Minimum number of calls in the window before rates are evaluated.
+     */
+    @Builder.Default
+    private int minimumNumberOfCalls = 10;
+
+    /**
+     * Time circuit stays open and rejects calls before trial calls are permitted.
+     */
+    @Builder.Default
+    private long waitDurationInOpenStateInMilliseconds = 30 * 1000;
+
+    /**
+     * Number of trial calls permitted when circuit is half-open.
+     */
+    @Builder.Default
+    private int permittedCallsInHalfOpenState = 5;
+}
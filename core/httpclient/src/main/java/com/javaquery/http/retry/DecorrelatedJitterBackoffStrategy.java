@@ -0,0 +1,35 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpRequestResponse;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decorrelated jitter backoff, delay is random between baseDelay and previousDelay * 3 capped at maxDelay.
+ * Previous delay is taken from {@link HttpRequestResponse#getPreviousRetryDelay()}.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class DecorrelatedJitterBackoffStrategy implements RetryPolicy.BackoffStrategy {
+
+    private final long baseDelayInMilliseconds;
+    private final long maxDelayInMilliseconds;
+
+    /**
+     * Instantiates a new Decorrelated jitter backoff strategy.
+     *
+     * @param baseDelayInMilliseconds the base delay in milliseconds
+     * @param maxDelayInMilliseconds  the max delay in milliseconds
+     */
+    public DecorrelatedJitterBackoffStrategy(long baseDelayInMilliseconds, long maxDelayInMilliseconds) {
+        this.baseDelayInMilliseconds = baseDelayInMilliseconds;
+        this.maxDelayInMilliseconds = maxDelayInMilliseconds;
+    }
+
+    @Override
+    public long delayBeforeNextRetry(HttpRequestResponse httpRequestResponse, int retriesAttempted) {
+        long previousDelay = Math.max(baseDelayInMilliseconds, httpRequestResponse.getPreviousRetryDelay());
+        long upperBound = Math.max(baseDelayInMilliseconds, Math.min(maxDelayInMilliseconds, previousDelay * 3));
+        return ThreadLocalRandom.current().nextLong(baseDelayInMilliseconds, upperBound + 1);
+    }
+}
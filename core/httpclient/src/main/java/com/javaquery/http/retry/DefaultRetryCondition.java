@@ -1,11 +1,13 @@
 package com.javaquery.http.retry;
 
 import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.http.exception.ConcurrencyLimitExceededException;
 import java.util.Objects;
 
 /**
  * The default retry condition you can use for server outage error.
- * Http status code 500 and 503 are supported for now.
+ * Http status code 500 and 503 are supported for now. Requests rejected by {@link AdaptiveConcurrencyLimiter} are
+ * retried too as they were never sent, requests rejected by {@link RateLimiterRegistry} fail fast.
  *
  * @author javaquery
  * @since 1.0.0
@@ -14,7 +16,12 @@ public class DefaultRetryCondition implements RetryPolicy.RetryCondition {
 
     @Override
     public boolean shouldRetry(HttpRequestResponse httpRequestResponse, int retriesAttempted) {
-        return isServiceOutage(httpRequestResponse);
+        return isServiceOutage(httpRequestResponse) || isConcurrencyLimitExceeded(httpRequestResponse);
+    }
+
+    private boolean isConcurrencyLimitExceeded(HttpRequestResponse httpRequestResponse) {
+        return Objects.nonNull(httpRequestResponse)
+                && httpRequestResponse.getException() instanceof ConcurrencyLimitExceededException;
     }
 
     private boolean isServiceOutage(HttpRequestResponse httpRequestResponse) {
@@ -0,0 +1,35 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpRequestResponse;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter, delay is random between 0 and min(maxDelay, baseDelay * 2^retriesAttempted).
+ * Spreads retries of many clients over time so they don't hit recovering server at once.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class FullJitterBackoffStrategy implements RetryPolicy.BackoffStrategy {
+
+    private final long baseDelayInMilliseconds;
+    private final long maxDelayInMilliseconds;
+
+    /**
+     * Instantiates a new Full jitter backoff strategy.
+     *
+     * @param baseDelayInMilliseconds the base delay in milliseconds
+     * @param maxDelayInMilliseconds  the max delay in milliseconds
+     */
+    public FullJitterBackoffStrategy(long baseDelayInMilliseconds, long maxDelayInMilliseconds) {
+        this.baseDelayInMilliseconds = baseDelayInMilliseconds;
+        this.maxDelayInMilliseconds = maxDelayInMilliseconds;
+    }
+
+    @Override
+    public long delayBeforeNextRetry(HttpRequestResponse httpRequestResponse, int retriesAttempted) {
+        long ceiling = (1L << Math.min(retriesAttempted, 30)) * baseDelayInMilliseconds;
+        ceiling = Math.min(ceiling, maxDelayInMilliseconds);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.javaquery.http.retry;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of {@link HedgingPolicy}.
+ * Hedged attempt is sent after {@link #hedgeDelayInMilliseconds}, or after {@link #latencyPercentile} of latency of
+ * the http request (by name) once {@link #minSamples} were recorded.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+@Getter
+@Builder
+public class HedgingConfig {
+
+    /**
+     * Fixed delay after which hedged attempt is sent, used until latency percentile has enough samples.
+     */
+    @Builder.Default
+    private long hedgeDelayInMilliseconds = 100;
+
+    /**
+     * Latency percentile (0-100) used as hedge delay, i.e. 95.0 so only the slowest 5% of requests are hedged.
+     * 0 or less (default) to always use the fixed delay.
+     */
+    @Builder.Default
+    private double latencyPercentile = -1;
+
+    /**
+     * Number of samples required before latency percentile is used.
+     */
+    @Builder.Default
+    private long minSamples = 100;
+
+    /**
+     * Hedged attempts are sent only while the budget of the host is not exhausted, null for no budget.
+     */
+    @JsonIgnore
+    @Builder.Default
+    private RetryBudget hedgingBudget = null;
+}
@@ -0,0 +1,118 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.StringPool;
+import com.javaquery.http.metrics.LatencyHistogram;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+
+/**
+ * Hedged requests to cut tail latency of idempotent (GET, PUT, DELETE) requests.
+ * When first attempt has not received response within hedge delay, second (hedged) attempt is sent and whichever
+ * completes first is used, the other one is cancelled. Hedge delay is either fixed or a live percentile of latency
+ * of the http request (by name), i.e. p95 so only the slowest 5% of requests are hedged.
+ * <p>
+ * Hedged attempt is not a retry, {@link RetryPolicy} is evaluated once on the winning response. Extra load is capped
+ * by {@link HedgingConfig#getHedgingBudget()}, share the same instance with
+ * {@link RetryPolicy#withRetryBudget(RetryBudget)} to cap retries and hedges together. Hedged attempt is sent only
+ * when permit of {@link com.javaquery.http.HttpClientConfig#getRateLimiterRegistry()} is available right away.
+ * <p>
+ * Attempts of hedged request are sent over non-blocking {@link com.javaquery.http.HttpTransport#executeAsync}
+ * (also by {@link com.javaquery.http.HttpClient#execute}), so response is buffered in memory and response cache
+ * does not apply.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public final class HedgingPolicy {
+
+    @Getter
+    private final HedgingConfig hedgingConfig;
+
+    private final Map<String, LatencyHistogram> latencyHistograms = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Hedging policy.
+     *
+     * @param hedgingConfig the hedging config
+     */
+    public HedgingPolicy(HedgingConfig hedgingConfig) {
+        if (hedgingConfig.getHedgeDelayInMilliseconds() < 0) {
+            throw new IllegalArgumentException(StringPool.ERROR_HEDGE_DELAY_VALUE);
+        }
+        if (hedgingConfig.getLatencyPercentile() > 100 || hedgingConfig.getMinSamples() < 1) {
+            throw new IllegalArgumentException(StringPool.ERROR_HEDGE_PERCENTILE_VALUE);
+        }
+        this.hedgingConfig = hedgingConfig;
+    }
+
+    /**
+     * Http request can be hedged when it's idempotent and its payload can be sent more than once.
+     *
+     * @param httpRequest the http request
+     * @return the boolean
+     */
+    public boolean isHedgeable(HttpRequest httpRequest) {
+        HttpMethod httpMethod = httpRequest.getHttpMethod();
+        return (httpMethod == HttpMethod.GET || httpMethod == HttpMethod.PUT || httpMethod == HttpMethod.DELETE)
+                && (Objects.isNull(httpRequest.getHttpPayload())
+                        || httpRequest.getHttpPayload().isReplayable());
+    }
+
+    /**
+     * Delay after which hedged attempt of the http request is sent.
+     *
+     * @param httpRequest the http request
+     * @return the delay in milliseconds
+     */
+    public long hedgeDelay(HttpRequest httpRequest) {
+        if (hedgingConfig.getLatencyPercentile() > 0) {
+            LatencyHistogram latencyHistogram = latencyHistograms.get(httpRequest.getHttpRequestName());
+            if (Objects.nonNull(latencyHistogram) && latencyHistogram.getCount() >= hedgingConfig.getMinSamples()) {
+                return TimeUnit.MICROSECONDS.toMillis(
+                        latencyHistogram.getPercentileInMicros(hedgingConfig.getLatencyPercentile()));
+            }
+        }
+        return hedgingConfig.getHedgeDelayInMilliseconds();
+    }
+
+    /**
+     * Record request (not a hedge) in hedging budget.
+     *
+     * @param host the host
+     */
+    public void recordRequest(String host) {
+        if (Objects.nonNull(hedgingConfig.getHedgingBudget())) {
+            hedgingConfig.getHedgingBudget().recordRequest(host);
+        }
+    }
+
+    /**
+     * Try to withdraw a hedge from budget of the host.
+     *
+     * @param host the host
+     * @return true if hedged attempt is permitted
+     */
+    public boolean tryAcquireHedge(String host) {
+        return Objects.isNull(hedgingConfig.getHedgingBudget())
+                || hedgingConfig.getHedgingBudget().tryAcquireRetry(host);
+    }
+
+    /**
+     * Record latency of the http request from first attempt sent till response of the winning attempt received.
+     *
+     * @param httpRequest    the http request
+     * @param latencyInNanos the latency in nanoseconds
+     */
+    public void recordLatency(HttpRequest httpRequest, long latencyInNanos) {
+        if (hedgingConfig.getLatencyPercentile() > 0) {
+            latencyHistograms
+                    .computeIfAbsent(httpRequest.getHttpRequestName(), key -> new LatencyHistogram())
+                    .record(latencyInNanos);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.StringPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket rate limiter permitting bursts up to <code>burst</code> requests and
+ * <code>permitsPerSecond</code> sustained rate.
+ * <p>
+ * Implemented as generic cell rate algorithm, the bucket is a single theoretical arrival time updated with CAS,
+ * so concurrent callers never serialize behind a lock. Callers reserve a slot and wait (if needed) on their own.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class RateLimiter {
+
+    private final long emissionIntervalInNanos;
+    private final long burstToleranceInNanos;
+    private final AtomicLong theoreticalArrivalTime = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Instantiates a new Rate limiter.
+     *
+     * @param permitsPerSecond the sustained rate of requests per second
+     * @param burst            the number of requests permitted at once when bucket is full
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException(StringPool.ERROR_RATE_LIMITER_VALUE);
+        }
+        this.emissionIntervalInNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstToleranceInNanos = emissionIntervalInNanos * burst;
+    }
+
+    /**
+     * Try to acquire permit without waiting.
+     *
+     * @return true if permit is acquired
+     */
+    public boolean tryAcquire() {
+        return tryReserve(0) == 0;
+    }
+
+    /**
+     * Try to reserve permit which becomes available within max wait.
+     *
+     * @param maxWaitInNanos the max wait in nanoseconds
+     * @return nanoseconds to wait before sending the request, -1 when permit is not available within max wait
+     */
+    public long tryReserve(long maxWaitInNanos) {
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrivalTime.get();
+            long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + emissionIntervalInNanos;
+            long wait = next - now - burstToleranceInNanos;
+            if (wait > maxWaitInNanos) {
+                return -1;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * Give back permit reserved with {@link #tryReserve(long)} when request is not sent after all.
+     */
+    void release() {
+        theoreticalArrivalTime.addAndGet(-emissionIntervalInNanos);
+    }
+}
@@ -0,0 +1,130 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.StringPool;
+import com.javaquery.http.exception.RateLimitExceededException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limiters of {@link com.javaquery.http.HttpClient} per host and per {@link HttpRequest#getHttpRequestName()}.
+ * Request is sent once it gets permit of both its host and request name limiter (when configured), waiting up to
+ * max wait for them. With max wait of 0 request fails fast with {@link RateLimitExceededException}. Permit of host
+ * limiter is given back when request name limiter rejects the request, so rejected requests don't consume host rate.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class RateLimiterRegistry {
+
+    private final Map<String, RateLimiter> hostRateLimiters = new ConcurrentHashMap<>();
+    private final Map<String, RateLimiter> requestNameRateLimiters = new ConcurrentHashMap<>();
+    private final long maxWaitInMilliseconds;
+
+    /**
+     * Instantiates a new Rate limiter registry.
+     *
+     * @param maxWaitInMilliseconds the max time to wait for permit, 0 to fail fast
+     */
+    public RateLimiterRegistry(long maxWaitInMilliseconds) {
+        if (maxWaitInMilliseconds < 0) {
+            throw new IllegalArgumentException(StringPool.ERROR_MAX_WAIT_VALUE);
+        }
+        this.maxWaitInMilliseconds = maxWaitInMilliseconds;
+    }
+
+    /**
+     * Limit requests to the host, i.e. <code>api.example.com</code>.
+     *
+     * @param host        the host
+     * @param rateLimiter the rate limiter
+     * @return the rate limiter registry
+     */
+    public RateLimiterRegistry withHostLimit(String host, RateLimiter rateLimiter) {
+        hostRateLimiters.put(host, rateLimiter);
+        return this;
+    }
+
+    /**
+     * Limit requests with the http request name.
+     *
+     * @param httpRequestName the http request name
+     * @param rateLimiter     the rate limiter
+     * @return the rate limiter registry
+     */
+    public RateLimiterRegistry withRequestNameLimit(String httpRequestName, RateLimiter rateLimiter) {
+        requestNameRateLimiters.put(httpRequestName, rateLimiter);
+        return this;
+    }
+
+    /**
+     * Reserve permits of http request.
+     *
+     * @param httpRequest the http request
+     * @return milliseconds to wait before sending the request
+     * @throws RateLimitExceededException when permit is not available within max wait
+     */
+    public long reserve(HttpRequest httpRequest) {
+        long maxWaitInNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitInMilliseconds);
+        RateLimiter hostRateLimiter = hostRateLimiter(httpRequest);
+        long wait = reserve(hostRateLimiter, maxWaitInNanos, httpRequest);
+        try {
+            wait = Math.max(wait, reserve(requestNameRateLimiter(httpRequest), maxWaitInNanos, httpRequest));
+        } catch (RateLimitExceededException e) {
+            if (Objects.nonNull(hostRateLimiter)) {
+                hostRateLimiter.release();
+            }
+            throw e;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(wait + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    }
+
+    /**
+     * Acquire permits of http request only when they are available right away, used for optional attempts
+     * (i.e. hedged) which are dropped instead of waiting.
+     *
+     * @param httpRequest the http request
+     * @return true if permits are acquired
+     */
+    public boolean tryAcquire(HttpRequest httpRequest) {
+        RateLimiter hostRateLimiter = hostRateLimiter(httpRequest);
+        RateLimiter requestNameRateLimiter = requestNameRateLimiter(httpRequest);
+        if (Objects.nonNull(hostRateLimiter) && !hostRateLimiter.tryAcquire()) {
+            return false;
+        }
+        if (Objects.nonNull(requestNameRateLimiter) && !requestNameRateLimiter.tryAcquire()) {
+            if (Objects.nonNull(hostRateLimiter)) {
+                hostRateLimiter.release();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private RateLimiter hostRateLimiter(HttpRequest httpRequest) {
+        return Objects.nonNull(httpRequest.getHost())
+                        && Objects.nonNull(httpRequest.getHost().getHost())
+                ? hostRateLimiters.get(httpRequest.getHost().getHost())
+                : null;
+    }
+
+    private RateLimiter requestNameRateLimiter(HttpRequest httpRequest) {
+        return Objects.nonNull(httpRequest.getHttpRequestName())
+                ? requestNameRateLimiters.get(httpRequest.getHttpRequestName())
+                : null;
+    }
+
+    private long reserve(RateLimiter rateLimiter, long maxWaitInNanos, HttpRequest httpRequest) {
+        if (Objects.isNull(rateLimiter)) {
+            return 0;
+        }
+        long wait = rateLimiter.tryReserve(maxWaitInNanos);
+        if (wait < 0) {
+            throw new RateLimitExceededException(
+                    String.format(StringPool.ERROR_RATE_LIMIT_EXCEEDED, httpRequest.getHttpRequestName()));
+        }
+        return wait;
+    }
+}
@@ -0,0 +1,71 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.util.Strings;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.utils.DateUtils;
+
+/**
+ * Honors the <code>Retry-After</code> header (delay in seconds or http date) of the response and falls back
+ * to given backoff strategy when header is not present.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class RetryAfterBackoffStrategy implements RetryPolicy.BackoffStrategy {
+
+    private final RetryPolicy.BackoffStrategy backoffStrategy;
+    private final long maxDelayInMilliseconds;
+
+    /**
+     * Instantiates a new Retry after backoff strategy.
+     *
+     * @param backoffStrategy        the backoff strategy used when header is not present
+     * @param maxDelayInMilliseconds the max delay in milliseconds server can ask for
+     */
+    public RetryAfterBackoffStrategy(RetryPolicy.BackoffStrategy backoffStrategy, long maxDelayInMilliseconds) {
+        this.backoffStrategy = backoffStrategy;
+        this.maxDelayInMilliseconds = maxDelayInMilliseconds;
+    }
+
+    @Override
+    public long delayBeforeNextRetry(HttpRequestResponse httpRequestResponse, int retriesAttempted) {
+        long retryAfter = retryAfter(httpRequestResponse);
+        if (retryAfter >= 0) {
+            return Math.min(retryAfter, maxDelayInMilliseconds);
+        }
+        return backoffStrategy.delayBeforeNextRetry(httpRequestResponse, retriesAttempted);
+    }
+
+    /**
+     * Parse Retry-After header of response.
+     * @param httpRequestResponse the http request response
+     * @return delay in milliseconds or -1 when not present or invalid
+     */
+    private long retryAfter(HttpRequestResponse httpRequestResponse) {
+        if (Objects.isNull(httpRequestResponse.getHttpResponse())
+                || Objects.isNull(httpRequestResponse.getHttpResponse().getHeaders())) {
+            return -1;
+        }
+        String value = null;
+        for (Map.Entry<String, String> header :
+                httpRequestResponse.getHttpResponse().getHeaders().entrySet()) {
+            if (HttpHeaders.RETRY_AFTER.equalsIgnoreCase(header.getKey())) {
+                value = header.getValue();
+            }
+        }
+        if (Strings.nullOrEmpty(value)) {
+            return -1;
+        }
+        value = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException e) {
+            Date date = DateUtils.parseDate(value);
+            return Objects.nonNull(date) ? Math.max(0, date.getTime() - System.currentTimeMillis()) : -1;
+        }
+    }
+}
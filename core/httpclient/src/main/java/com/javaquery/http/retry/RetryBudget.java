@@ -0,0 +1,135 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.StringPool;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Caps retries to a percentage of live traffic per host over a sliding window, so retries can't amplify
+ * an outage of upstream server. Share the same instance across {@link RetryPolicy} for a process-wide budget.
+ * <p>
+ * Retry is permitted while <code>retries &lt; minRetriesPerSecond * window + retryRatio * requests</code>
+ * where requests and retries are counted over the last <code>windowInSeconds</code>.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class RetryBudget {
+
+    private final double retryRatio;
+    private final int minRetriesPerSecond;
+    private final int windowInSeconds;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Retry budget.
+     *
+     * @param retryRatio          the ratio of retries to requests permitted, i.e. 0.2 for 20%
+     * @param minRetriesPerSecond the retries per second always permitted regardless of traffic
+     * @param windowInSeconds     the sliding window in seconds
+     */
+    public RetryBudget(double retryRatio, int minRetriesPerSecond, int windowInSeconds) {
+        if (retryRatio < 0 || minRetriesPerSecond < 0 || windowInSeconds <= 0) {
+            throw new IllegalArgumentException(StringPool.ERROR_RETRY_BUDGET_VALUE);
+        }
+        this.retryRatio = retryRatio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.windowInSeconds = windowInSeconds;
+    }
+
+    /**
+     * Record request (not a retry) sent to the host.
+     *
+     * @param host the host
+     */
+    public void recordRequest(String host) {
+        window(host).add(1, 0);
+    }
+
+    /**
+     * Try to withdraw a retry from budget of the host.
+     *
+     * @param host the host
+     * @return true if retry is permitted and recorded, false when budget is exhausted
+     */
+    public boolean tryAcquireRetry(String host) {
+        Window window = window(host);
+        synchronized (window) {
+            long[] counts = window.sum(currentSecond());
+            double permitted = (double) minRetriesPerSecond * windowInSeconds + retryRatio * counts[0];
+            if (counts[1] + 1 > permitted) {
+                return false;
+            }
+            window.add(0, 1);
+            return true;
+        }
+    }
+
+    private Window window(String host) {
+        return windows.computeIfAbsent(String.valueOf(host), key -> new Window(windowInSeconds));
+    }
+
+    private static long currentSecond() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+    }
+
+    /**
+     * Ring of one second buckets holding requests and retries. Bucket is immutable and replaced with CAS, so second
+     * and counts always change together and a concurrent add is neither lost by a reset nor counted in other second.
+     */
+    private static final class Window {
+        private final int size;
+        private final AtomicReferenceArray<Bucket> buckets;
+
+        private Window(int size) {
+            this.size = size;
+            this.buckets = new AtomicReferenceArray<>(size);
+        }
+
+        private void add(long requestCount, long retryCount) {
+            while (true) {
+                long currentSecond = currentSecond();
+                int index = (int) Math.floorMod(currentSecond, (long) size);
+                Bucket bucket = buckets.get(index);
+                if (Objects.nonNull(bucket) && bucket.second > currentSecond) {
+                    // clock was read before the bucket moved on, read it again
+                    continue;
+                }
+                Bucket next = Objects.nonNull(bucket) && bucket.second == currentSecond
+                        ? new Bucket(currentSecond, bucket.requests + requestCount, bucket.retries + retryCount)
+                        : new Bucket(currentSecond, requestCount, retryCount);
+                if (buckets.compareAndSet(index, bucket, next)) {
+                    return;
+                }
+            }
+        }
+
+        private long[] sum(long currentSecond) {
+            long requestCount = 0;
+            long retryCount = 0;
+            for (int i = 0; i < size; i++) {
+                Bucket bucket = buckets.get(i);
+                if (Objects.nonNull(bucket) && bucket.second > currentSecond - size) {
+                    requestCount += bucket.requests;
+                    retryCount += bucket.retries;
+                }
+            }
+            return new long[] {requestCount, retryCount};
+        }
+    }
+
+    private static final class Bucket {
+        private final long second;
+        private final long requests;
+        private final long retries;
+
+        private Bucket(long second, long requests, long retries) {
+            this.second = second;
+            this.requests = requests;
+            this.retries = retries;
+        }
+    }
+}
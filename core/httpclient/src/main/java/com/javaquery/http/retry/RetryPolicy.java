@@ -24,6 +24,9 @@ public final class RetryPolicy {
 
     private boolean retryTillSuccess = false;
 
+    @JsonIgnore
+    private RetryBudget retryBudget;
+
     /**
      * Instantiates a new Retry policy.
      *
@@ -56,6 +59,17 @@ public final class RetryPolicy {
         this.retryTillSuccess = true;
     }
 
+    /**
+     * Retries are permitted only while the budget of the host is not exhausted.
+     *
+     * @param retryBudget the retry budget, share the same instance across policies for a process-wide budget
+     * @return the retry policy
+     */
+    public RetryPolicy withRetryBudget(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+        return this;
+    }
+
     /**
      * Implement interface to provide retry condition on http response.
      */
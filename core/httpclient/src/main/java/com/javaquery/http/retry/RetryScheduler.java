@@ -0,0 +1,41 @@
+package com.javaquery.http.retry;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared timer to schedule delayed retries instead of parking the calling thread during backoff.
+ * Timer thread only hands the task over to given executor so it is never blocked by the task itself.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public final class RetryScheduler {
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "jlite-http-retry-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
+    private RetryScheduler() {}
+
+    /**
+     * Schedule task to be executed on given executor after the delay.
+     *
+     * @param runnable              the task
+     * @param delayInMilliseconds   the delay in milliseconds
+     * @param executor              the executor to run task on
+     * @return the scheduled future, cancel it to drop the task
+     */
+    public static ScheduledFuture<?> schedule(Runnable runnable, long delayInMilliseconds, Executor executor) {
+        return SCHEDULER.schedule(
+                () -> executor.execute(runnable), Math.max(0, delayInMilliseconds), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,183 @@
+package com.javaquery.http;
+
+import com.javaquery.helper.BatchProcessor;
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class BulkRequestExecutorTest {
+
+    @Test
+    public void executeAllInOrderWithinPerHostLimit() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/item", httpExchange -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep((long) (Math.random() * 20));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    active.decrementAndGet();
+                    LocalHttpServer.respond(
+                            httpExchange, 200, httpExchange.getRequestURI().getQuery());
+                });
+                HttpClient httpClient = new HttpClient(
+                        HttpClientConfig.builder().maxConnectionsPerRoute(4).build())) {
+            List<HttpRequest> httpRequests = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                httpRequests.add(httpRequest(localHttpServer, "/item", i));
+            }
+
+            List<BulkResult<String>> results =
+                    httpClient.executeAll(new HttpExecutionContext(), httpRequests, bodyHandler());
+            Assertions.assertEquals(50, results.size());
+            for (int i = 0; i < 50; i++) {
+                Assertions.assertTrue(results.get(i).isSuccess());
+                Assertions.assertEquals(i, results.get(i).getIndex());
+                Assertions.assertEquals("index=" + i, results.get(i).getResult());
+            }
+            Assertions.assertTrue(maxActive.get() <= 4);
+        }
+    }
+
+    @Test
+    public void deliverBatchesWithoutStallingOnFailure() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle("/item", httpExchange -> LocalHttpServer.respond(httpExchange, 200, "ok"))
+                        .handle("/fail", httpExchange -> LocalHttpServer.respond(httpExchange, 500, "fail"));
+                HttpClient httpClient = new HttpClient()) {
+            List<HttpRequest> httpRequests = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                httpRequests.add(httpRequest(localHttpServer, i % 5 == 0 ? "/fail" : "/item", i));
+            }
+
+            List<Integer> batchSizes = new ArrayList<>();
+            List<BulkResult<String>> results = new ArrayList<>();
+            int[] completed = new int[2];
+            BulkRequestExecutor.<String>builder(httpClient)
+                    .httpResponseHandler(bodyHandler())
+                    .maxConcurrency(3)
+                    .batchSize(7)
+                    .batchProcessor(new BatchProcessor<BulkResult<String>>() {
+                        @Override
+                        public void onBatch(List<BulkResult<String>> batch) {
+                            batchSizes.add(batch.size());
+                            results.addAll(batch);
+                        }
+
+                        @Override
+                        public void onComplete(int totalProcessed, int totalBatches) {
+                            completed[0] = totalProcessed;
+                            completed[1] = totalBatches;
+                        }
+                    })
+                    .execute(httpRequests);
+
+            Assertions.assertEquals(List.of(7, 7, 6), batchSizes);
+            Assertions.assertArrayEquals(new int[] {20, 3}, completed);
+            Assertions.assertEquals(
+                    4, results.stream().filter(result -> !result.isSuccess()).count());
+            results.stream()
+                    .filter(result -> !result.isSuccess())
+                    .forEach(result -> Assertions.assertEquals(0, result.getIndex() % 5));
+        }
+    }
+
+    @Test
+    public void boundReadAheadBehindSlowRequestWhenOrdered() throws Exception {
+        // maxConcurrency * ORDERED_WINDOW_FACTOR
+        int window = 8;
+        AtomicInteger pulled = new AtomicInteger();
+        AtomicInteger maxPulledWhileSlow = new AtomicInteger();
+        AtomicBoolean slowOutstanding = new AtomicBoolean(true);
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle("/slow", httpExchange -> {
+                            // hold the oldest request until the executor filled its window, however slow the host is
+                            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                            try {
+                                while (pulled.get() < window && System.nanoTime() < deadline) {
+                                    Thread.sleep(10);
+                                }
+                                Thread.sleep(100);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            slowOutstanding.set(false);
+                            LocalHttpServer.respond(httpExchange, 200, "slow");
+                        })
+                        .handle("/item", httpExchange -> LocalHttpServer.respond(httpExchange, 200, "ok"));
+                HttpClient httpClient = new HttpClient()) {
+            Iterable<HttpRequest> httpRequests = () -> new Iterator<HttpRequest>() {
+                @Override
+                public boolean hasNext() {
+                    return pulled.get() < 100;
+                }
+
+                @Override
+                public HttpRequest next() {
+                    int index = pulled.getAndIncrement();
+                    if (slowOutstanding.get()) {
+                        maxPulledWhileSlow.accumulateAndGet(index + 1, Math::max);
+                    }
+                    return httpRequest(localHttpServer, index == 0 ? "/slow" : "/item", index);
+                }
+            };
+
+            List<BulkResult<String>> results = new ArrayList<>();
+            BulkRequestExecutor.<String>builder(httpClient)
+                    .httpResponseHandler(bodyHandler())
+                    .maxConcurrency(2)
+                    .ordered(true)
+                    .batchProcessor(new BatchProcessor<BulkResult<String>>() {
+                        @Override
+                        public void onBatch(List<BulkResult<String>> batch) {
+                            results.addAll(batch);
+                        }
+
+                        @Override
+                        public void onComplete(int totalProcessed, int totalBatches) {}
+                    })
+                    .execute(httpRequests);
+
+            Assertions.assertEquals(window, maxPulledWhileSlow.get());
+            Assertions.assertEquals(100, results.size());
+            for (int i = 0; i < 100; i++) {
+                Assertions.assertEquals(i, results.get(i).getIndex());
+            }
+        }
+    }
+
+    private HttpRequest httpRequest(LocalHttpServer localHttpServer, String endPoint, int index) {
+        return new HttpRequest.HttpRequestBuilder("Bulk", HttpMethod.GET)
+                .withHost(localHttpServer.host())
+                .withEndPoint(endPoint)
+                .withQueryParameter("index", String.valueOf(index))
+                .build();
+    }
+
+    private HttpResponseHandler<String> bodyHandler() {
+        return new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                if (httpResponse.getStatusCode() >= 500) {
+                    throw new IllegalStateException("Server error");
+                }
+                return httpResponse.getBody();
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.javaquery.http;
+
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class ConnectionWarmUpTest {
+
+    @Test
+    public void warmUpConnectionsOnStartup() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle("/warm", httpExchange -> LocalHttpServer.respond(httpExchange, 200, "warm"));
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .dnsCacheConfig(DnsCacheConfig.builder().build())
+                        .warmUpConnections(Map.of(localHttpServer.host(), 3))
+                        .build())) {
+            ConnectionWarmUp connectionWarmUp = httpClient.getConnectionWarmUp();
+            Assertions.assertTrue(connectionWarmUp.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(connectionWarmUp.isSuccessful());
+            Assertions.assertEquals(3, connectionWarmUp.getConnectionsOpened().get(localHttpServer.host()));
+            Assertions.assertEquals(3, httpClient.getConnectionPoolStats().getAvailable());
+
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Warm", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/warm")
+                    .build();
+            HttpResponseHandler<String> httpResponseHandler = new HttpResponseHandler<String>() {
+                @Override
+                public String onResponse(HttpResponse httpResponse) {
+                    return httpResponse.getBody();
+                }
+
+                @Override
+                public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+            };
+            Assertions.assertEquals(
+                    "warm", httpClient.execute(new HttpExecutionContext(), httpRequest, httpResponseHandler));
+            Assertions.assertEquals(3, httpClient.getConnectionPoolStats().getAvailable());
+            Assertions.assertEquals(
+                    "warm",
+                    httpClient
+                            .executeAsync(new HttpExecutionContext(), httpRequest, httpResponseHandler)
+                            .get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void reportHostWhichFailedToWarmUp() throws Exception {
+        try (HttpClient httpClient = new HttpClient()) {
+            ConnectionWarmUp connectionWarmUp = httpClient.warmUp(Map.of("http://warmup.invalid", 2));
+            Assertions.assertTrue(connectionWarmUp.await(5, TimeUnit.SECONDS));
+            Assertions.assertFalse(connectionWarmUp.isSuccessful());
+            Assertions.assertTrue(connectionWarmUp.getErrors().containsKey("http://warmup.invalid"));
+        }
+    }
+
+    @Test
+    public void noWarmUpConfigured() throws Exception {
+        try (HttpClient httpClient = new HttpClient()) {
+            Assertions.assertTrue(httpClient.getConnectionWarmUp().isDone());
+            Assertions.assertTrue(httpClient.getConnectionWarmUp().isSuccessful());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.javaquery.http;
+
+import java.net.InetAddress;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class DnsCacheTest {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @Test
+    public void cacheResolvedAddresses() throws Exception {
+        DnsCache dnsCache = dnsCache(60_000, 0);
+        InetAddress[] addresses = dnsCache.resolve("api.example.com");
+        Assertions.assertArrayEquals(addresses, dnsCache.resolve("api.example.com"));
+        Assertions.assertEquals(1, lookups.get());
+
+        dnsCache.invalidate("api.example.com");
+        dnsCache.resolve("api.example.com");
+        Assertions.assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void resolveAgainAfterTtl() throws Exception {
+        DnsCache dnsCache = dnsCache(50, 0);
+        dnsCache.resolve("api.example.com");
+        Thread.sleep(100);
+        dnsCache.resolve("api.example.com");
+        Assertions.assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void refreshInBackgroundBeforeExpiry() throws Exception {
+        DnsCache dnsCache = dnsCache(1_000, 900);
+        dnsCache.resolve("api.example.com");
+        Thread.sleep(150);
+        dnsCache.resolve("api.example.com");
+        for (int i = 0; i < 50 && lookups.get() < 2; i++) {
+            Thread.sleep(20);
+        }
+        Assertions.assertEquals(2, lookups.get());
+        dnsCache.resolve("api.example.com");
+        Assertions.assertEquals(2, lookups.get());
+    }
+
+    private DnsCache dnsCache(long ttlInMilliseconds, long refreshAheadInMilliseconds) {
+        return new DnsCache(
+                DnsCacheConfig.builder()
+                        .ttlInMilliseconds(ttlInMilliseconds)
+                        .refreshAheadInMilliseconds(refreshAheadInMilliseconds)
+                        .dnsResolver(host -> {
+                            lookups.incrementAndGet();
+                            return new InetAddress[] {InetAddress.getByAddress(host, new byte[] {10, 0, 0, 1})};
+                        })
+                        .build(),
+                ForkJoinPool.commonPool());
+    }
+}
@@ -0,0 +1,205 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.HttpException;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class DownloadTest {
+
+    private static final int RANGE_SIZE = 64 * 1024;
+
+    private final byte[] content = content(10 * RANGE_SIZE + 123);
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+    private final AtomicBoolean failLastRanges = new AtomicBoolean();
+    private final AtomicBoolean acceptRanges = new AtomicBoolean(true);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void downloadRangesConcurrentlyAndVerifyChecksum() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/file", this::serve);
+                HttpClient httpClient = new HttpClient()) {
+            Path target = tempDir.resolve("file.bin");
+            DownloadResult downloadResult = httpClient.download(
+                    new HttpExecutionContext(),
+                    fileRequest(localHttpServer),
+                    target,
+                    DownloadConfig.builder()
+                            .parallelism(4)
+                            .rangeSizeInBytes(RANGE_SIZE)
+                            .checksumAlgorithm("SHA-256")
+                            .expectedChecksum(sha256(content))
+                            .build());
+
+            Assertions.assertArrayEquals(content, Files.readAllBytes(target));
+            Assertions.assertEquals(content.length, downloadResult.getContentLength());
+            Assertions.assertEquals(content.length, downloadResult.getBytesTransferred());
+            Assertions.assertEquals(11, downloadResult.getRangeCount());
+            Assertions.assertEquals(11, rangeRequests.get());
+            Assertions.assertEquals(sha256(content), downloadResult.getChecksum());
+            Assertions.assertFalse(Files.exists(tempDir.resolve("file.bin.part")));
+        }
+    }
+
+    @Test
+    public void resumeFromCompletedRanges() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/file", this::serve);
+                HttpClient httpClient = new HttpClient()) {
+            Path target = tempDir.resolve("file.bin");
+            DownloadConfig downloadConfig = DownloadConfig.builder()
+                    .parallelism(2)
+                    .rangeSizeInBytes(RANGE_SIZE)
+                    .build();
+
+            failLastRanges.set(true);
+            Assertions.assertThrows(
+                    HttpException.class,
+                    () -> httpClient.download(
+                            new HttpExecutionContext(), fileRequest(localHttpServer), target, downloadConfig));
+            Assertions.assertFalse(Files.exists(target));
+            Assertions.assertTrue(Files.exists(tempDir.resolve("file.bin.part.state")));
+
+            failLastRanges.set(false);
+            rangeRequests.set(0);
+            DownloadResult downloadResult = httpClient.download(
+                    new HttpExecutionContext(), fileRequest(localHttpServer), target, downloadConfig);
+
+            Assertions.assertArrayEquals(content, Files.readAllBytes(target));
+            // first range probes the resource again, ranges 1-7 completed by the failed download
+            Assertions.assertEquals(7, downloadResult.getResumedRangeCount());
+            Assertions.assertEquals(4, rangeRequests.get());
+            Assertions.assertEquals(RANGE_SIZE * 3L + 123, downloadResult.getBytesTransferred());
+            Assertions.assertFalse(Files.exists(tempDir.resolve("file.bin.part.state")));
+        }
+    }
+
+    @Test
+    public void streamWhenRangesAreNotSupported() throws Exception {
+        acceptRanges.set(false);
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/file", this::serve);
+                HttpClient httpClient = new HttpClient()) {
+            Path target = tempDir.resolve("file.bin");
+            DownloadResult downloadResult =
+                    httpClient.download(new HttpExecutionContext(), fileRequest(localHttpServer), target);
+
+            Assertions.assertArrayEquals(content, Files.readAllBytes(target));
+            Assertions.assertEquals(1, downloadResult.getRangeCount());
+            Assertions.assertEquals(content.length, downloadResult.getContentLength());
+        }
+    }
+
+    @Test
+    public void failOnChecksumMismatch() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/file", this::serve);
+                HttpClient httpClient = new HttpClient()) {
+            Path target = tempDir.resolve("file.bin");
+            Assertions.assertThrows(
+                    HttpException.class,
+                    () -> httpClient.download(
+                            new HttpExecutionContext(),
+                            fileRequest(localHttpServer),
+                            target,
+                            DownloadConfig.builder()
+                                    .rangeSizeInBytes(RANGE_SIZE)
+                                    .checksumAlgorithm("SHA-256")
+                                    .expectedChecksum(sha256(new byte[0]))
+                                    .build()));
+            Assertions.assertFalse(Files.exists(target));
+            Assertions.assertFalse(Files.exists(tempDir.resolve("file.bin.part")));
+        }
+    }
+
+    @Test
+    public void downloadEmptyResource() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/file", httpExchange -> {
+                    httpExchange.getResponseHeaders().add("Content-Range", "bytes */0");
+                    LocalHttpServer.respond(httpExchange, 416, "");
+                });
+                HttpClient httpClient = new HttpClient()) {
+            Path target = tempDir.resolve("file.bin");
+            DownloadResult downloadResult =
+                    httpClient.download(new HttpExecutionContext(), fileRequest(localHttpServer), target);
+
+            Assertions.assertEquals(0, Files.size(target));
+            Assertions.assertEquals(0, downloadResult.getContentLength());
+            Assertions.assertEquals(1, downloadResult.getRangeCount());
+            Assertions.assertFalse(Files.exists(tempDir.resolve("file.bin.part")));
+        }
+    }
+
+    @Test
+    public void deletePartWhenFirstRangeFails() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle("/file", httpExchange -> LocalHttpServer.respond(httpExchange, 404, "not found"));
+                HttpClient httpClient = new HttpClient()) {
+            Path target = tempDir.resolve("file.bin");
+            Assertions.assertThrows(
+                    HttpException.class,
+                    () -> httpClient.download(new HttpExecutionContext(), fileRequest(localHttpServer), target));
+            Assertions.assertFalse(Files.exists(target));
+            Assertions.assertFalse(Files.exists(tempDir.resolve("file.bin.part")));
+        }
+    }
+
+    private void serve(HttpExchange httpExchange) throws IOException {
+        String range = httpExchange.getRequestHeaders().getFirst("Range");
+        httpExchange.getResponseHeaders().add("ETag", "\"v1\"");
+        if (range == null || !acceptRanges.get()) {
+            write(httpExchange, 200, 0, content.length);
+            return;
+        }
+        rangeRequests.incrementAndGet();
+        String[] bounds = range.substring("bytes=".length()).split("-");
+        int start = Integer.parseInt(bounds[0]);
+        int end = Math.min(Integer.parseInt(bounds[1]), content.length - 1);
+        if (failLastRanges.get() && start >= 8 * RANGE_SIZE) {
+            LocalHttpServer.respond(httpExchange, 503, "unavailable");
+            return;
+        }
+        httpExchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+        write(httpExchange, 206, start, end - start + 1);
+    }
+
+    private void write(HttpExchange httpExchange, int statusCode, int offset, int length) throws IOException {
+        httpExchange.sendResponseHeaders(statusCode, length);
+        try (OutputStream outputStream = httpExchange.getResponseBody()) {
+            outputStream.write(content, offset, length);
+        }
+    }
+
+    private HttpRequest fileRequest(LocalHttpServer localHttpServer) {
+        return new HttpRequest.HttpRequestBuilder("DownloadFile", HttpMethod.GET)
+                .withHost(localHttpServer.host())
+                .withEndPoint("/file")
+                .build();
+    }
+
+    private static byte[] content(int length) {
+        byte[] bytes = new byte[length];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+            stringBuilder.append(String.format("%02x", b));
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,146 @@
+package com.javaquery.http;
+
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.metrics.HistogramHttpClientMetrics;
+import com.javaquery.http.retry.HedgingConfig;
+import com.javaquery.http.retry.HedgingPolicy;
+import com.javaquery.http.retry.RetryBudget;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HedgedRequestTest {
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    @Test
+    public void hedgeSlowRequest() throws Exception {
+        HistogramHttpClientMetrics httpClientMetrics = new HistogramHttpClientMetrics();
+        try (LocalHttpServer localHttpServer = server();
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .httpClientMetrics(httpClientMetrics)
+                        .build())) {
+            HttpRequest httpRequest = request(localHttpServer, HttpMethod.GET, hedgingPolicy(HedgingConfig.builder()));
+            long start = System.nanoTime();
+            Assertions.assertEquals("fast", httpClient.execute(new HttpExecutionContext(), httpRequest, body()));
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1500);
+            Assertions.assertEquals(2, hits.get());
+            Assertions.assertEquals(1, httpClientMetrics.getHedges());
+            Assertions.assertEquals(0, httpClientMetrics.getRetries());
+        }
+    }
+
+    @Test
+    public void hedgeSlowAsyncRequest() throws Exception {
+        try (LocalHttpServer localHttpServer = server();
+                HttpClient httpClient = new HttpClient()) {
+            HttpRequest httpRequest = request(localHttpServer, HttpMethod.GET, hedgingPolicy(HedgingConfig.builder()));
+            Assertions.assertEquals(
+                    "fast",
+                    httpClient
+                            .executeAsync(new HttpExecutionContext(), httpRequest, body())
+                            .get(1500, TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(2, hits.get());
+        }
+    }
+
+    @Test
+    public void doNotHedgeNonIdempotentRequest() throws Exception {
+        try (LocalHttpServer localHttpServer = server();
+                HttpClient httpClient = new HttpClient()) {
+            HttpRequest httpRequest = request(localHttpServer, HttpMethod.POST, hedgingPolicy(HedgingConfig.builder()));
+            Assertions.assertEquals("slow", httpClient.execute(new HttpExecutionContext(), httpRequest, body()));
+            Assertions.assertEquals(1, hits.get());
+        }
+    }
+
+    @Test
+    public void doNotHedgeWhenBudgetExhausted() throws Exception {
+        try (LocalHttpServer localHttpServer = server();
+                HttpClient httpClient = new HttpClient()) {
+            HedgingPolicy hedgingPolicy =
+                    hedgingPolicy(HedgingConfig.builder().hedgingBudget(new RetryBudget(0, 0, 10)));
+            HttpRequest httpRequest = request(localHttpServer, HttpMethod.GET, hedgingPolicy);
+            Assertions.assertEquals("slow", httpClient.execute(new HttpExecutionContext(), httpRequest, body()));
+            Assertions.assertEquals(1, hits.get());
+        }
+    }
+
+    @Test
+    public void hedgeDelayFromLatencyPercentile() {
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Hedged", HttpMethod.GET)
+                .withHost("http://localhost")
+                .build();
+        HedgingPolicy hedgingPolicy = hedgingPolicy(HedgingConfig.builder()
+                .hedgeDelayInMilliseconds(1000)
+                .latencyPercentile(50)
+                .minSamples(4));
+        for (int i = 0; i < 3; i++) {
+            hedgingPolicy.recordLatency(httpRequest, TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        Assertions.assertEquals(1000, hedgingPolicy.hedgeDelay(httpRequest));
+        hedgingPolicy.recordLatency(httpRequest, TimeUnit.MILLISECONDS.toNanos(20));
+        Assertions.assertTrue(hedgingPolicy.hedgeDelay(httpRequest) >= 20);
+        Assertions.assertTrue(hedgingPolicy.hedgeDelay(httpRequest) <= 22);
+    }
+
+    @Test
+    public void rejectInvalidHedgingConfig() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> hedgingPolicy(HedgingConfig.builder().hedgeDelayInMilliseconds(-1)));
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> hedgingPolicy(HedgingConfig.builder().latencyPercentile(101)));
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> hedgingPolicy(HedgingConfig.builder().minSamples(0)));
+    }
+
+    private HedgingPolicy hedgingPolicy(HedgingConfig.HedgingConfigBuilder hedgingConfigBuilder) {
+        return new HedgingPolicy(hedgingConfigBuilder.build());
+    }
+
+    /**
+     * First request is answered after a second, the rest immediately.
+     */
+    private LocalHttpServer server() {
+        return LocalHttpServer.start().handle("/hedged", httpExchange -> {
+            if (hits.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(httpExchange.getRequestMethod().equals("GET") ? 2000 : 300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                LocalHttpServer.respond(httpExchange, 200, "slow");
+            } else {
+                LocalHttpServer.respond(httpExchange, 200, "fast");
+            }
+        });
+    }
+
+    private HttpRequest request(LocalHttpServer localHttpServer, HttpMethod httpMethod, HedgingPolicy hedgingPolicy) {
+        return new HttpRequest.HttpRequestBuilder("Hedged", httpMethod)
+                .withHost(localHttpServer.host())
+                .withEndPoint("/hedged")
+                .withHedgingPolicy(hedgingPolicy)
+                .build();
+    }
+
+    private HttpResponseHandler<String> body() {
+        return new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                return httpResponse.getBody();
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package com.javaquery.http;
+
+import com.javaquery.http.handler.HttpRequestHandler;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.retry.DefaultRetryCondition;
+import com.javaquery.http.retry.RetryPolicy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HttpAsyncRequestTest {
+
+    @Test
+    public void performAsyncGetRequest() throws Exception {
+        List<String> events = new CopyOnWriteArrayList<>();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle("/get", httpExchange -> LocalHttpServer.respond(httpExchange, 200, "{\"id\":1}"));
+                HttpClient httpClient = new HttpClient()) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("AsyncGet", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/get")
+                    .build();
+
+            HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+            httpExecutionContext.addHttpRequestHandler(eventHttpRequestHandler(events));
+
+            CompletableFuture<Integer> future =
+                    httpClient.executeAsync(httpExecutionContext, httpRequest, new HttpResponseHandler<Integer>() {
+                        @Override
+                        public Integer onResponse(HttpResponse httpResponse) {
+                            Assertions.assertEquals(200, httpResponse.getStatusCode());
+                            return httpResponse.getJSONObjectBody().getInt("id");
+                        }
+
+                        @Override
+                        public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+                    });
+
+            Assertions.assertEquals(1, future.get(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(List.of("beforeRequest", "afterResponse"), events);
+        }
+    }
+
+    @Test
+    public void performAsyncRetryRequest() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        AtomicInteger maxRetryAttempted = new AtomicInteger();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/status/500", httpExchange -> {
+                    hits.incrementAndGet();
+                    LocalHttpServer.respond(httpExchange, 500, "error");
+                });
+                HttpClient httpClient = new HttpClient()) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("AsyncRetry", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/status/500")
+                    .withRetryPolicy(
+                            new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retries) -> 10, 3))
+                    .build();
+
+            CompletableFuture<Integer> future = httpClient.executeAsync(
+                    new HttpExecutionContext(), httpRequest, new HttpResponseHandler<Integer>() {
+                        @Override
+                        public Integer onResponse(HttpResponse httpResponse) {
+                            return httpResponse.getStatusCode();
+                        }
+
+                        @Override
+                        public void onMaxRetryAttempted(HttpResponse httpResponse) {
+                            maxRetryAttempted.incrementAndGet();
+                        }
+                    });
+
+            Assertions.assertEquals(500, future.get(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(4, hits.get());
+            Assertions.assertEquals(1, maxRetryAttempted.get());
+        }
+    }
+
+    private HttpRequestHandler eventHttpRequestHandler(List<String> events) {
+        return new HttpRequestHandler() {
+            @Override
+            public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+                events.add("beforeRequest");
+            }
+
+            @Override
+            public void afterResponse(
+                    HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {
+                events.add("afterResponse");
+            }
+
+            @Override
+            public void onError(
+                    HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {
+                events.add("onError");
+            }
+        };
+    }
+}
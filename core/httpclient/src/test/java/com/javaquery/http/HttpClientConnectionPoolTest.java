@@ -0,0 +1,114 @@
+package com.javaquery.http;
+
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HttpClientConnectionPoolTest {
+
+    @Test
+    public void reuseConnectionAcrossRequests() throws Exception {
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/ping", httpExchange -> {
+                    clientPorts.add(httpExchange.getRemoteAddress().getPort());
+                    LocalHttpServer.respond(httpExchange, 200, "pong");
+                });
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .maxConnectionsTotal(5)
+                        .maxConnectionsPerRoute(1)
+                        .build())) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Ping", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/ping")
+                    .build();
+
+            for (int i = 0; i < 5; i++) {
+                String body = httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler());
+                Assertions.assertEquals("pong", body);
+            }
+            Assertions.assertEquals(1, clientPorts.size());
+        }
+    }
+
+    @Test
+    public void releaseConnectionWhenBodyNotRead() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle("/ping", httpExchange -> LocalHttpServer.respond(httpExchange, 200, "pong"));
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .maxConnectionsTotal(1)
+                        .maxConnectionsPerRoute(1)
+                        .build())) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Ping", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/ping")
+                    .build();
+
+            for (int i = 0; i < 3; i++) {
+                Integer statusCode =
+                        httpClient.execute(new HttpExecutionContext(), httpRequest, new HttpResponseHandler<Integer>() {
+                            @Override
+                            public Integer onResponse(HttpResponse httpResponse) {
+                                return httpResponse.getStatusCode();
+                            }
+
+                            @Override
+                            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+                        });
+                Assertions.assertEquals(200, statusCode);
+            }
+        }
+    }
+
+    @Test
+    public void defaultClientsShareTransportAndDontStartThreads() throws Exception {
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/ping", httpExchange -> {
+            clientPorts.add(httpExchange.getRemoteAddress().getPort());
+            LocalHttpServer.respond(httpExchange, 200, "pong");
+        })) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Ping", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/ping")
+                    .build();
+            for (int i = 0; i < 5; i++) {
+                // client per call, closed or not, as baseline callers do
+                HttpClient httpClient = new HttpClient();
+                Assertions.assertEquals(
+                        "pong", httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler()));
+                if (i % 2 == 0) {
+                    httpClient.close();
+                }
+            }
+            for (int i = 0; i < 5; i++) {
+                HttpClient httpClient =
+                        new HttpClient(HttpClientConfig.builder().build());
+                Assertions.assertEquals(
+                        "pong", httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler()));
+            }
+            Assertions.assertEquals(1 + 5, clientPorts.size());
+            long evictorThreads = Thread.getAllStackTraces().keySet().stream()
+                    .map(Thread::getName)
+                    .filter(name -> name.contains("evictor"))
+                    .count();
+            Assertions.assertEquals(1, evictorThreads);
+        }
+    }
+
+    private HttpResponseHandler<String> bodyHandler() {
+        return new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                return httpResponse.getBody();
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+}
@@ -0,0 +1,196 @@
+package com.javaquery.http;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HttpLoggingTest {
+
+    private final HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Logging", HttpMethod.GET)
+            .withHost("http://localhost")
+            .withEndPoint("/logging")
+            .withHeader(StringPool.AUTHORIZATION, "Bearer secret")
+            .withHeader("X-Trace", "0123456789")
+            .build();
+
+    @Test
+    public void sampleSuccessErrorAndSlowCalls() {
+        HttpLoggingConfig httpLoggingConfig = HttpLoggingConfig.builder()
+                .successSampleRate(0)
+                .errorSampleRate(1)
+                .slowCallThresholdInMilliseconds(500)
+                .build();
+        Assertions.assertFalse(HttpRequestLogMarker.isSampled(httpRequestResponse(200, 10), httpLoggingConfig));
+        Assertions.assertTrue(HttpRequestLogMarker.isSampled(httpRequestResponse(503, 10), httpLoggingConfig));
+        Assertions.assertTrue(HttpRequestLogMarker.isSampled(httpRequestResponse(200, 1000), httpLoggingConfig));
+
+        HttpRequestResponse failed = new HttpRequestResponse(httpRequest);
+        failed.setExecutionEndTime();
+        Assertions.assertTrue(HttpRequestLogMarker.isSampled(failed, httpLoggingConfig));
+    }
+
+    @Test
+    public void writeDefaultFields() throws Exception {
+        JSONObject logLine =
+                write(httpRequestResponse(200, 25), HttpLoggingConfig.builder().build());
+        Assertions.assertEquals(StringPool.LOG_HTTP_REQUEST, logLine.getString(StringPool.LOG_ACTION));
+        Assertions.assertEquals("Logging", logLine.getString("httpRequestName"));
+        Assertions.assertEquals("GET", logLine.getString("httpMethod"));
+        Assertions.assertEquals("http://localhost/logging", logLine.getString("uri"));
+        Assertions.assertEquals(200, logLine.getInt("statusCode"));
+        Assertions.assertEquals(25, logLine.getLong(StringPool.EXECUTION_TIME_MS));
+        Assertions.assertFalse(logLine.has("requestHeaders"));
+        Assertions.assertFalse(logLine.has("responseBody"));
+    }
+
+    @Test
+    public void captureMaskedHeadersAndTruncatedBody() throws Exception {
+        HttpLoggingConfig httpLoggingConfig = HttpLoggingConfig.builder()
+                .fields(EnumSet.of(HttpLogField.STATUS_CODE, HttpLogField.REQUEST_HEADERS, HttpLogField.RESPONSE_BODY))
+                .maxCapturedLength(4)
+                .build();
+        JSONObject logLine = write(httpRequestResponse(200, 25), httpLoggingConfig);
+        Assertions.assertEquals(3, logLine.length());
+        Assertions.assertEquals("****", logLine.getJSONObject("requestHeaders").getString(StringPool.AUTHORIZATION));
+        Assertions.assertEquals("0123", logLine.getJSONObject("requestHeaders").getString("X-Trace"));
+        Assertions.assertEquals("resp", logLine.getString("responseBody"));
+    }
+
+    @Test
+    public void captureBodyPrefixWithoutConsumingStream() throws Exception {
+        byte[] content = "streamed response body".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        AtomicInteger bytesRead = new AtomicInteger();
+        InputStream inputStream = new FilterInputStream(new ByteArrayInputStream(content)) {
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int read = super.read(bytes, offset, length);
+                bytesRead.addAndGet(Math.max(read, 0));
+                return read;
+            }
+        };
+        BasicHttpResponse basicHttpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "");
+        basicHttpResponse.setEntity(new InputStreamEntity(inputStream, content.length));
+        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(httpRequest);
+        httpRequestResponse.setHttpResponse(new HttpResponse(basicHttpResponse));
+        httpRequestResponse.setExecutionEndTime();
+
+        JSONObject logLine = write(
+                httpRequestResponse,
+                HttpLoggingConfig.builder()
+                        .fields(EnumSet.of(HttpLogField.RESPONSE_BODY))
+                        .maxCapturedLength(8)
+                        .build());
+        Assertions.assertEquals("streamed", logLine.getString("responseBody"));
+        Assertions.assertEquals(8, bytesRead.get());
+        try (InputStream body = httpRequestResponse.getHttpResponse().getBodyAsStream()) {
+            Assertions.assertArrayEquals(content, body.readAllBytes());
+        }
+    }
+
+    @Test
+    public void measureExecutionTimeOfAttemptInProgress() throws Exception {
+        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(httpRequest);
+        httpRequestResponse.setExecutionStartTime(System.currentTimeMillis() - 1000);
+        HttpLoggingConfig httpLoggingConfig = HttpLoggingConfig.builder()
+                .successSampleRate(0)
+                .errorSampleRate(0)
+                .slowCallThresholdInMilliseconds(500)
+                .build();
+        Assertions.assertTrue(HttpRequestLogMarker.isSampled(httpRequestResponse, httpLoggingConfig));
+        Assertions.assertTrue(
+                write(httpRequestResponse, httpLoggingConfig).getLong(StringPool.EXECUTION_TIME_MS) >= 1000);
+    }
+
+    @Test
+    public void captureRequestWhenMarkerIsCreated() throws Exception {
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Logging", HttpMethod.GET)
+                .withHost("http://localhost")
+                .withEndPoint("/logging")
+                .withHeader("X-Trace", "first")
+                .withQueryParameter("page", "1")
+                .build();
+        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(httpRequest);
+        httpRequestResponse.setExecutionEndTime();
+        HttpRequestLogMarker httpRequestLogMarker = new HttpRequestLogMarker(
+                httpRequestResponse,
+                HttpLoggingConfig.builder()
+                        .fields(EnumSet.of(HttpLogField.URI, HttpLogField.REQUEST_HEADERS))
+                        .build());
+
+        // next attempt changes the request before async appender writes the log line
+        httpRequest.withHeader("X-Trace", "second").withQueryParameter("page", "2");
+        JSONObject logLine = write(httpRequestLogMarker);
+        Assertions.assertEquals("http://localhost/logging?page=1", logLine.getString("uri"));
+        Assertions.assertEquals("first", logLine.getJSONObject("requestHeaders").getString("X-Trace"));
+    }
+
+    @Test
+    public void executeWithLoggingConfig() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle("/logging", httpExchange -> LocalHttpServer.respond(httpExchange, 200, "logged"));
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .httpLoggingConfig(HttpLoggingConfig.builder()
+                                .fields(EnumSet.allOf(HttpLogField.class))
+                                .build())
+                        .build())) {
+            HttpRequest localRequest = new HttpRequest.HttpRequestBuilder("Logging", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/logging")
+                    .build();
+            String body = httpClient.execute(new HttpExecutionContext(), localRequest, new HttpResponseHandler<>() {
+                @Override
+                public String onResponse(HttpResponse httpResponse) {
+                    return httpResponse.getBody();
+                }
+
+                @Override
+                public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+            });
+            Assertions.assertEquals("logged", body);
+        }
+    }
+
+    private HttpRequestResponse httpRequestResponse(int statusCode, long executionTime) {
+        BasicHttpResponse basicHttpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, "");
+        basicHttpResponse.setEntity(new StringEntity("response", StringPool.UTF8));
+        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(httpRequest);
+        httpRequestResponse.setHttpResponse(new HttpResponse(basicHttpResponse));
+        httpRequestResponse.setExecutionEndTime();
+        httpRequestResponse.setExecutionStartTime(httpRequestResponse.getExecutionEndTime() - executionTime);
+        return httpRequestResponse;
+    }
+
+    private static JSONObject write(HttpRequestResponse httpRequestResponse, HttpLoggingConfig httpLoggingConfig)
+            throws Exception {
+        return write(new HttpRequestLogMarker(httpRequestResponse, httpLoggingConfig));
+    }
+
+    private static JSONObject write(HttpRequestLogMarker httpRequestLogMarker) throws Exception {
+        StringWriter stringWriter = new StringWriter();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(stringWriter)) {
+            generator.writeStartObject();
+            httpRequestLogMarker.writeTo(generator);
+            generator.writeEndObject();
+        }
+        return new JSONObject(stringWriter.toString());
+    }
+}
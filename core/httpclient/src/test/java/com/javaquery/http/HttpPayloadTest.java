@@ -0,0 +1,165 @@
+package com.javaquery.http;
+
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.retry.DefaultRetryCondition;
+import com.javaquery.http.retry.RetryPolicy;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HttpPayloadTest {
+
+    private static final byte[] CONTENT = "binary-content".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void sendBinaryPayloads() throws Exception {
+        Path path = Files.createTempFile("payload", ".bin");
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/echo", HttpPayloadTest::echo);
+                HttpClient httpClient = new HttpClient()) {
+            Files.write(path, CONTENT);
+            HttpRequest.HttpPayload[] httpPayloads = {
+                new HttpRequest.HttpPayload("application/octet-stream", CONTENT),
+                new HttpRequest.HttpPayload("application/octet-stream", ByteBuffer.wrap(CONTENT)),
+                new HttpRequest.HttpPayload("application/octet-stream", path),
+                new HttpRequest.HttpPayload(
+                        "application/octet-stream", () -> new ByteArrayInputStream(CONTENT), CONTENT.length),
+                new HttpRequest.HttpPayload("application/octet-stream", new ByteArrayInputStream(CONTENT), -1)
+            };
+            for (HttpRequest.HttpPayload httpPayload : httpPayloads) {
+                HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Echo", HttpMethod.POST)
+                        .withHost(localHttpServer.host())
+                        .withEndPoint("/echo")
+                        .withHttpPayload(httpPayload)
+                        .build();
+                Assertions.assertEquals(
+                        "application/octet-stream:binary-content",
+                        httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler()));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void replayStreamPayloadOnRetry() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        AtomicInteger opened = new AtomicInteger();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/echo", httpExchange -> {
+                    if (hits.incrementAndGet() == 1) {
+                        readAll(httpExchange.getRequestBody());
+                        LocalHttpServer.respond(httpExchange, 503, "unavailable");
+                    } else {
+                        echo(httpExchange);
+                    }
+                });
+                HttpClient httpClient = new HttpClient()) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Echo", HttpMethod.POST)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/echo")
+                    .withHttpPayload(new HttpRequest.HttpPayload(
+                            "application/octet-stream",
+                            () -> {
+                                opened.incrementAndGet();
+                                return new ByteArrayInputStream(CONTENT);
+                            },
+                            -1))
+                    .withRetryPolicy(
+                            new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retries) -> 1, 1))
+                    .build();
+            Assertions.assertEquals(
+                    "application/octet-stream:binary-content",
+                    httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler()));
+            Assertions.assertEquals(2, hits.get());
+            Assertions.assertEquals(2, opened.get());
+        }
+    }
+
+    @Test
+    public void dontResendInputStreamPayload() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/echo", httpExchange -> {
+                    hits.incrementAndGet();
+                    readAll(httpExchange.getRequestBody());
+                    LocalHttpServer.respond(httpExchange, 500, "failed");
+                });
+                HttpClient httpClient = new HttpClient()) {
+            HttpRequest.HttpPayload[] httpPayloads = {
+                new HttpRequest.HttpPayload("application/octet-stream", new ByteArrayInputStream(CONTENT), -1),
+                new HttpRequest.HttpPayload(
+                        StandardCharsets.UTF_8.name(),
+                        "multipart/form-data",
+                        Collections.singletonMap("file", new ByteArrayInputStream(CONTENT))),
+                new HttpRequest.HttpPayload(
+                        StandardCharsets.UTF_8.name(),
+                        "multipart/form-data",
+                        Collections.singletonMap(
+                                "files", List.of(new ByteArrayInputStream(CONTENT), new ByteArrayInputStream(CONTENT))))
+            };
+            for (HttpRequest.HttpPayload httpPayload : httpPayloads) {
+                HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Echo", HttpMethod.POST)
+                        .withHost(localHttpServer.host())
+                        .withEndPoint("/echo")
+                        .withHttpPayload(httpPayload)
+                        .withRetryPolicy(
+                                new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retries) -> 1, 3))
+                        .build();
+                hits.set(0);
+                Assertions.assertEquals(
+                        "failed", httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler()));
+                Assertions.assertEquals(1, hits.get());
+
+                hits.set(0);
+                Assertions.assertEquals(
+                        "failed",
+                        httpClient
+                                .executeAsync(new HttpExecutionContext(), httpRequest, bodyHandler())
+                                .get(5, TimeUnit.SECONDS));
+                Assertions.assertEquals(1, hits.get());
+            }
+        }
+    }
+
+    private static void echo(HttpExchange httpExchange) throws IOException {
+        String body = new String(readAll(httpExchange.getRequestBody()), StandardCharsets.UTF_8);
+        LocalHttpServer.respond(
+                httpExchange, 200, httpExchange.getRequestHeaders().getFirst("Content-Type") + ":" + body);
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            byteArrayOutputStream.write(buffer, 0, read);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    private HttpResponseHandler<String> bodyHandler() {
+        return new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                return httpResponse.getBody();
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+}
@@ -0,0 +1,182 @@
+package com.javaquery.http;
+
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HttpRequestCoalescingTest {
+
+    @Test
+    public void shareInFlightRequest() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/slow", httpExchange -> {
+                    hits.incrementAndGet();
+                    sleep(500);
+                    LocalHttpServer.respond(httpExchange, 200, "shared");
+                });
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .requestCoalescingEnabled(true)
+                        .build())) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Slow", HttpMethod.GET)
+                            .withHost(localHttpServer.host())
+                            .withEndPoint("/slow")
+                            .withHeader("Authorization", "Bearer token")
+                            .build();
+                    return httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler());
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                Assertions.assertEquals("shared:shared", future.get(10, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(1, hits.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void separateRequestsWithDifferentHeaders() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/slow", httpExchange -> {
+                    hits.incrementAndGet();
+                    sleep(300);
+                    LocalHttpServer.respond(httpExchange, 200, "own");
+                });
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .requestCoalescingEnabled(true)
+                        .build())) {
+            List<Future<String>> futures = new ArrayList<>();
+            for (String token : new String[] {"first", "second"}) {
+                futures.add(executorService.submit(() -> {
+                    HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Slow", HttpMethod.GET)
+                            .withHost(localHttpServer.host())
+                            .withEndPoint("/slow")
+                            .withHeader("authorization", token)
+                            .build();
+                    return httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler());
+                }));
+            }
+            for (Future<String> future : futures) {
+                Assertions.assertEquals("own:own", future.get(10, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(2, hits.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void separateRequestsWithDifferentCredentials() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/slow", httpExchange -> {
+                    String authorization = httpExchange.getRequestHeaders().getFirst(StringPool.AUTHORIZATION);
+                    if (Objects.isNull(authorization)) {
+                        httpExchange.getResponseHeaders().add("WWW-Authenticate", "Basic realm=\"slow\"");
+                        LocalHttpServer.respond(httpExchange, 401, "");
+                        return;
+                    }
+                    sleep(300);
+                    LocalHttpServer.respond(httpExchange, 200, authorization);
+                });
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .requestCoalescingEnabled(true)
+                        .build())) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> futures = new ArrayList<>();
+            for (String username : new String[] {"alice", "bob"}) {
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Slow", HttpMethod.GET)
+                            .withHost(localHttpServer.host())
+                            .withEndPoint("/slow")
+                            .withUsernamePassword(username, "secret")
+                            .build();
+                    return httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler());
+                }));
+            }
+            start.countDown();
+            Assertions.assertEquals(
+                    "Basic YWxpY2U6c2VjcmV0:Basic YWxpY2U6c2VjcmV0",
+                    futures.get(0).get(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(
+                    "Basic Ym9iOnNlY3JldA==:Basic Ym9iOnNlY3JldA==",
+                    futures.get(1).get(10, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void separateRequestsForDifferentRanges() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/slow", httpExchange -> {
+                    sleep(300);
+                    LocalHttpServer.respond(
+                            httpExchange, 200, httpExchange.getRequestHeaders().getFirst("Range"));
+                });
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .requestCoalescingEnabled(true)
+                        .build())) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> futures = new ArrayList<>();
+            for (String range : new String[] {"bytes=0-9", "bytes=10-19"}) {
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Slow", HttpMethod.GET)
+                            .withHost(localHttpServer.host())
+                            .withEndPoint("/slow")
+                            .withHeader("range", range)
+                            .build();
+                    return httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler());
+                }));
+            }
+            start.countDown();
+            Assertions.assertEquals("bytes=0-9:bytes=0-9", futures.get(0).get(10, TimeUnit.SECONDS));
+            Assertions.assertEquals("bytes=10-19:bytes=10-19", futures.get(1).get(10, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpResponseHandler<String> bodyHandler() {
+        return new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                // body of shared response can be read more than once
+                return httpResponse.getBody() + ":" + httpResponse.getBody();
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+}
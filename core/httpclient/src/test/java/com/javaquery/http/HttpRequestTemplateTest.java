@@ -0,0 +1,164 @@
+package com.javaquery.http;
+
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.retry.DefaultRetryCondition;
+import com.javaquery.http.retry.RetryPolicy;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HttpRequestTemplateTest {
+
+    private final HttpRequestTemplate getOrder = new HttpRequestTemplate.HttpRequestTemplateBuilder(
+                    "GetOrder", HttpMethod.GET)
+            .withHost("https://api.example.com")
+            .withPort(8443)
+            .withEndPoint("/v1/users/{userId}/orders/{orderId}")
+            .withHeader(StringPool.ACCEPT, "application/json")
+            .build();
+
+    @Test
+    public void bindPathVariablesAndQueryParameters() {
+        HttpRequest httpRequest = getOrder.newHttpRequest()
+                .withPathVariable("userId", "john doe")
+                .withPathVariable("orderId", "a/b")
+                .withQueryParameter("expand", "items,total")
+                .withQueryParameter("note", "x&y")
+                .build();
+        Assertions.assertEquals(
+                "https://api.example.com:8443/v1/users/john%20doe/orders/a%2Fb?expand=items%2Ctotal&note=x%26y",
+                httpRequest.httpRequestURI().toString());
+        Assertions.assertEquals("/v1/users/john doe/orders/a/b", httpRequest.getEndPoint());
+        Assertions.assertEquals("application/json", httpRequest.getHeaders().get(StringPool.ACCEPT));
+        Assertions.assertEquals("GetOrder", httpRequest.getHttpRequestName());
+        Assertions.assertEquals(8443, httpRequest.getPort());
+    }
+
+    @Test
+    public void sameURIAsHttpRequestBuilder() {
+        HttpRequest fromBuilder = new HttpRequest.HttpRequestBuilder("GetOrder", HttpMethod.GET)
+                .withHost("https://api.example.com")
+                .withPort(8443)
+                .withEndPoint("/v1/users/7/orders/9")
+                .withQueryParameter("page", "2")
+                .build();
+        HttpRequest fromTemplate = getOrder.newHttpRequest()
+                .withPathVariable("userId", "7")
+                .withPathVariable("orderId", "9")
+                .withQueryParameter("page", "2")
+                .build();
+        Assertions.assertEquals(fromBuilder.httpRequestURI(), fromTemplate.httpRequestURI());
+    }
+
+    @Test
+    public void memoizeURIUntilQueryParametersChange() {
+        HttpRequest httpRequest = getOrder.newHttpRequest()
+                .withPathVariable("userId", "7")
+                .withPathVariable("orderId", "9")
+                .build();
+        URI uri = httpRequest.httpRequestURI();
+        Assertions.assertSame(uri, httpRequest.httpRequestURI());
+
+        httpRequest.withQueryParameter("page", "2");
+        Assertions.assertEquals(
+                "https://api.example.com:8443/v1/users/7/orders/9?page=2",
+                httpRequest.httpRequestURI().toString());
+
+        httpRequest.getQueryParameters().put("size", "10");
+        Assertions.assertEquals(
+                "https://api.example.com:8443/v1/users/7/orders/9?page=2&size=10",
+                httpRequest.httpRequestURI().toString());
+    }
+
+    @Test
+    public void rebuildBuilderURIWhenQueryParametersMapChanges() {
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("GetOrder", HttpMethod.GET)
+                .withHost("https://api.example.com")
+                .withEndPoint("/v1/users/7/orders/9")
+                .build();
+        Assertions.assertEquals(
+                "https://api.example.com/v1/users/7/orders/9",
+                httpRequest.httpRequestURI().toString());
+
+        httpRequest.getQueryParameters().put("page", "2");
+        Assertions.assertEquals(
+                "https://api.example.com/v1/users/7/orders/9?page=2",
+                httpRequest.httpRequestURI().toString());
+    }
+
+    @Test
+    public void requestsFromOneBinderDoNotShareMaps() {
+        HttpRequestTemplate.HttpRequestBinder httpRequestBinder = getOrder.newHttpRequest()
+                .withPathVariable("userId", "7")
+                .withPathVariable("orderId", "9")
+                .withQueryParameter("page", "1");
+        HttpRequest first = httpRequestBinder.build();
+        HttpRequest second = httpRequestBinder.build();
+
+        first.withHeader("X-Trace", "first").withQueryParameter("page", "2");
+        httpRequestBinder.withHeader("X-Trace", "binder").withQueryParameter("size", "10");
+
+        Assertions.assertEquals("first", first.getHeaders().get("X-Trace"));
+        Assertions.assertNull(second.getHeaders().get("X-Trace"));
+        Assertions.assertEquals(
+                "https://api.example.com:8443/v1/users/7/orders/9?page=2",
+                first.httpRequestURI().toString());
+        Assertions.assertEquals(
+                "https://api.example.com:8443/v1/users/7/orders/9?page=1",
+                second.httpRequestURI().toString());
+    }
+
+    @Test
+    public void rejectUnboundPathVariable() {
+        HttpRequestTemplate.HttpRequestBinder httpRequestBinder =
+                getOrder.newHttpRequest().withPathVariable("userId", "7");
+        Assertions.assertThrows(IllegalArgumentException.class, httpRequestBinder::build);
+        Assertions.assertThrows(
+                IllegalArgumentException.class, () -> httpRequestBinder.withPathVariable("unknown", "1"));
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> new HttpRequestTemplate.HttpRequestTemplateBuilder("Invalid", HttpMethod.GET)
+                        .withHost("https://api.example.com")
+                        .withEndPoint("/users/{id")
+                        .build());
+    }
+
+    @Test
+    public void retryTemplateRequest() throws Exception {
+        List<String> requestURIs = new CopyOnWriteArrayList<>();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/items", httpExchange -> {
+                    requestURIs.add(httpExchange.getRequestURI().toString());
+                    LocalHttpServer.respond(httpExchange, requestURIs.size() == 1 ? 503 : 200, "ok");
+                });
+                HttpClient httpClient = new HttpClient()) {
+            HttpRequestTemplate getItem = new HttpRequestTemplate.HttpRequestTemplateBuilder("GetItem", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/items/{id}")
+                    .withRetryPolicy(
+                            new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retries) -> 1, 1))
+                    .build();
+            HttpRequest httpRequest = getItem.newHttpRequest()
+                    .withPathVariable("id", "\u00e9 1")
+                    .withQueryParameter("q", "a b")
+                    .build();
+            Integer statusCode =
+                    httpClient.execute(new HttpExecutionContext(), httpRequest, new HttpResponseHandler<Integer>() {
+                        @Override
+                        public Integer onResponse(HttpResponse httpResponse) {
+                            return httpResponse.getStatusCode();
+                        }
+
+                        @Override
+                        public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+                    });
+            Assertions.assertEquals(200, statusCode);
+            Assertions.assertEquals(List.of("/items/%C3%A9%201?q=a+b", "/items/%C3%A9%201?q=a+b"), requestURIs);
+        }
+    }
+}
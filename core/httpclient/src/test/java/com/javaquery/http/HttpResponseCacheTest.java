@@ -0,0 +1,170 @@
+package com.javaquery.http;
+
+import com.javaquery.http.handler.HttpRequestHandler;
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HttpResponseCacheTest {
+
+    @Test
+    public void serveFreshResponseFromCache() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/fresh", httpExchange -> {
+                    hits.incrementAndGet();
+                    httpExchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+                    LocalHttpServer.respond(httpExchange, 200, "fresh");
+                });
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .httpCacheConfig(HttpCacheConfig.builder().build())
+                        .build())) {
+            HttpRequest httpRequest = httpRequest(localHttpServer, "/fresh");
+            Assertions.assertEquals("MISS:fresh", execute(httpClient, httpRequest));
+            Assertions.assertEquals("HIT:fresh", execute(httpClient, httpRequest));
+            Assertions.assertEquals(1, hits.get());
+        }
+    }
+
+    @Test
+    public void revalidateWithETag() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        Path cacheDirectory = Files.createTempDirectory("http-cache");
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/etag", httpExchange -> {
+                    hits.incrementAndGet();
+                    httpExchange.getResponseHeaders().add("Cache-Control", "max-age=0, must-revalidate");
+                    httpExchange.getResponseHeaders().add("ETag", "\"v1\"");
+                    if ("\"v1\"".equals(httpExchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                        LocalHttpServer.respond(httpExchange, 304, "");
+                    } else {
+                        LocalHttpServer.respond(httpExchange, 200, "etag");
+                    }
+                });
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .httpCacheConfig(HttpCacheConfig.builder()
+                                .cacheDirectory(cacheDirectory)
+                                .build())
+                        .build())) {
+            HttpRequest httpRequest = httpRequest(localHttpServer, "/etag");
+            List<HttpCacheStatus> observed = Collections.synchronizedList(new ArrayList<>());
+            HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+            httpExecutionContext.addHttpRequestHandler(new HttpRequestHandler() {
+                @Override
+                public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {}
+
+                @Override
+                public void afterResponse(
+                        HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {
+                    observed.add(httpResponse.getCacheStatus());
+                }
+
+                @Override
+                public void onError(
+                        HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {}
+            });
+            Assertions.assertEquals("etag", httpClient.execute(httpExecutionContext, httpRequest, bodyHandler()));
+            Assertions.assertEquals("etag", httpClient.execute(httpExecutionContext, httpRequest, bodyHandler()));
+            Assertions.assertEquals(2, hits.get());
+            Assertions.assertEquals(List.of(HttpCacheStatus.MISS, HttpCacheStatus.VALIDATED), observed);
+        }
+    }
+
+    @Test
+    public void dontServeResponseOfOneUserToAnother() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/user", httpExchange -> {
+                    hits.incrementAndGet();
+                    String authorization = httpExchange.getRequestHeaders().getFirst(StringPool.AUTHORIZATION);
+                    if (Objects.isNull(authorization)) {
+                        httpExchange.getResponseHeaders().add("WWW-Authenticate", "Basic realm=\"user\"");
+                        LocalHttpServer.respond(httpExchange, 401, "");
+                        return;
+                    }
+                    httpExchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+                    LocalHttpServer.respond(httpExchange, 200, authorization);
+                });
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .httpCacheConfig(HttpCacheConfig.builder().build())
+                        .build())) {
+            Assertions.assertEquals(
+                    "MISS:Bearer alice",
+                    execute(
+                            httpClient,
+                            userHttpRequest(localHttpServer).withHeader(StringPool.AUTHORIZATION, "Bearer alice")));
+            Assertions.assertEquals(
+                    "MISS:Bearer bob",
+                    execute(
+                            httpClient,
+                            userHttpRequest(localHttpServer).withHeader(StringPool.AUTHORIZATION, "Bearer bob")));
+            Assertions.assertEquals(
+                    "null:Basic YWxpY2U6c2VjcmV0",
+                    execute(httpClient, userHttpRequest(localHttpServer).withUsernamePassword("alice", "secret")));
+            Assertions.assertEquals(
+                    "null:Basic Ym9iOnNlY3JldA==",
+                    execute(httpClient, userHttpRequest(localHttpServer).withUsernamePassword("bob", "secret")));
+            Assertions.assertEquals(6, hits.get());
+        }
+    }
+
+    @Test
+    public void cacheDisabledByDefault() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/fresh", httpExchange -> {
+                    httpExchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+                    LocalHttpServer.respond(httpExchange, 200, "fresh");
+                });
+                HttpClient httpClient = new HttpClient()) {
+            Assertions.assertEquals("null:fresh", execute(httpClient, httpRequest(localHttpServer, "/fresh")));
+        }
+    }
+
+    private HttpRequest httpRequest(LocalHttpServer localHttpServer, String endPoint) {
+        return new HttpRequest.HttpRequestBuilder("Cache", HttpMethod.GET)
+                .withHost(localHttpServer.host())
+                .withEndPoint(endPoint)
+                .build();
+    }
+
+    private HttpRequest.HttpRequestBuilder userHttpRequest(LocalHttpServer localHttpServer) {
+        return new HttpRequest.HttpRequestBuilder("Cache", HttpMethod.GET)
+                .withHost(localHttpServer.host())
+                .withEndPoint("/user");
+    }
+
+    private String execute(HttpClient httpClient, HttpRequest.HttpRequestBuilder httpRequestBuilder) {
+        return execute(httpClient, httpRequestBuilder.build());
+    }
+
+    private String execute(HttpClient httpClient, HttpRequest httpRequest) {
+        return httpClient.execute(new HttpExecutionContext(), httpRequest, new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                return httpResponse.getCacheStatus() + ":" + httpResponse.getBody();
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        });
+    }
+
+    private HttpResponseHandler<String> bodyHandler() {
+        return new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                return httpResponse.getBody();
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+}
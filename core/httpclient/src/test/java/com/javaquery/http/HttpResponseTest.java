@@ -0,0 +1,101 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HttpResponseTest {
+
+    @Test
+    public void memoizeBody() throws IOException {
+        HttpResponse httpResponse = httpResponse("{\"id\":1}", -1);
+        Assertions.assertEquals("{\"id\":1}", httpResponse.getBody());
+        Assertions.assertEquals("{\"id\":1}", httpResponse.getBody());
+        Assertions.assertEquals(1, httpResponse.getJSONObjectBody().getInt("id"));
+
+        try (InputStream inputStream = httpResponse.getBodyAsStream()) {
+            Assertions.assertEquals("{\"id\":1}", new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void writeBodyToOutputStream() throws IOException {
+        HttpResponse httpResponse = httpResponse("streamed", -1);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Assertions.assertEquals(8, httpResponse.writeBodyTo(outputStream));
+        Assertions.assertEquals("streamed", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void maxBodySizeExceeded() {
+        HttpResponse httpResponse = httpResponse("0123456789", 5);
+        Assertions.assertThrows(HttpException.class, httpResponse::getBody);
+        Assertions.assertTrue(httpResponse.isMaxBodySizeExceeded());
+    }
+
+    @Test
+    public void writeLargeBodyToFile() throws Exception {
+        int size = 4 * 1024 * 1024;
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/download", httpExchange -> {
+                    httpExchange.sendResponseHeaders(200, size);
+                    byte[] chunk = new byte[8192];
+                    try (OutputStream outputStream = httpExchange.getResponseBody()) {
+                        for (int written = 0; written < size; written += chunk.length) {
+                            outputStream.write(chunk);
+                        }
+                    }
+                });
+                HttpClient httpClient = new HttpClient()) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Download", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/download")
+                    .build();
+            Path target = Files.createTempFile("download", ".bin");
+            try {
+                Long written =
+                        httpClient.execute(new HttpExecutionContext(), httpRequest, new HttpResponseHandler<Long>() {
+                            @Override
+                            public Long onResponse(HttpResponse httpResponse) {
+                                try {
+                                    return httpResponse.writeBodyTo(target);
+                                } catch (IOException e) {
+                                    throw new HttpException(e);
+                                }
+                            }
+
+                            @Override
+                            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+                        });
+                Assertions.assertEquals(size, written);
+                Assertions.assertEquals(size, Files.size(target));
+            } finally {
+                Files.deleteIfExists(target);
+            }
+        }
+    }
+
+    private HttpResponse httpResponse(String body, long maxBodySize) {
+        BasicHttpResponse basicHttpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        basicHttpResponse.setEntity(
+                new InputStreamEntity(new ByteArrayInputStream(bytes), bytes.length, ContentType.APPLICATION_JSON));
+        return new HttpResponse(basicHttpResponse, maxBodySize);
+    }
+}
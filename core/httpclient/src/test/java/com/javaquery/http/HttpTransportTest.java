@@ -0,0 +1,232 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.handler.HttpRequestHandler;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.retry.DefaultRetryCondition;
+import com.javaquery.http.retry.RetryPolicy;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HttpTransportTest {
+
+    private static final byte[] CONTENT = "binary-content".getBytes(StandardCharsets.UTF_8);
+
+    static Stream<HttpTransport.Factory> httpTransportFactories() {
+        return Stream.of(ApacheHttpTransport::new, JdkHttpTransport::new);
+    }
+
+    @ParameterizedTest
+    @MethodSource("httpTransportFactories")
+    public void sendPayloadsAndHeaders(HttpTransport.Factory httpTransportFactory) throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/echo", HttpTransportTest::echo);
+                HttpClient httpClient = httpClient(httpTransportFactory)) {
+            HttpRequest.HttpPayload[] httpPayloads = {
+                new HttpRequest.HttpPayload(StringPool.UTF8, "application/json", "{\"id\":1}"),
+                new HttpRequest.HttpPayload(StringPool.UTF8, "application/x-www-form-urlencoded", Map.of("id", "1")),
+                new HttpRequest.HttpPayload("application/octet-stream", CONTENT),
+                new HttpRequest.HttpPayload(
+                        "application/octet-stream", () -> new ByteArrayInputStream(CONTENT), CONTENT.length),
+                new HttpRequest.HttpPayload("application/octet-stream", new ByteArrayInputStream(CONTENT), -1)
+            };
+            String[] expected = {
+                "POST|application/json|Basic dXNlcjpwYXNz|a=1|{\"id\":1}",
+                "POST|application/x-www-form-urlencoded; charset=UTF-8|Basic dXNlcjpwYXNz|a=1|id=1",
+                "POST|application/octet-stream|Basic dXNlcjpwYXNz|a=1|binary-content",
+                "POST|application/octet-stream|Basic dXNlcjpwYXNz|a=1|binary-content",
+                "POST|application/octet-stream|Basic dXNlcjpwYXNz|a=1|binary-content"
+            };
+            for (int i = 0; i < httpPayloads.length; i++) {
+                HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Echo", HttpMethod.POST)
+                        .withHost(localHttpServer.host())
+                        .withEndPoint("/echo")
+                        .withQueryParameter("a", "1")
+                        .withHeader(StringPool.AUTHORIZATION, "Basic dXNlcjpwYXNz")
+                        .withHttpPayload(httpPayloads[i])
+                        .build();
+                Assertions.assertEquals(
+                        expected[i], httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler()));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("httpTransportFactories")
+    public void sendMultipartPayload(HttpTransport.Factory httpTransportFactory, @TempDir Path tempDir)
+            throws Exception {
+        // larger than pipe of JdkHttpTransport so writer thread blocks until the body is read
+        String fileContent = "0123456789abcdef".repeat(64 * 1024);
+        Path file = Files.writeString(tempDir.resolve("file.txt"), fileContent);
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/echo", HttpTransportTest::echo);
+                HttpClient httpClient = httpClient(httpTransportFactory)) {
+            Map<String, Object> form = new LinkedHashMap<>();
+            form.put("id", "1");
+            form.put("file", file);
+            form.put("stream", (Supplier<InputStream>) () -> new ByteArrayInputStream(CONTENT));
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Upload", HttpMethod.POST)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/echo")
+                    .withHttpPayload(new HttpRequest.HttpPayload(StringPool.UTF8, "multipart/form-data", form))
+                    .build();
+            String[] bodies = {
+                httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler()),
+                httpClient
+                        .executeAsync(new HttpExecutionContext(), httpRequest, bodyHandler())
+                        .get(10, TimeUnit.SECONDS)
+            };
+            for (String body : bodies) {
+                Assertions.assertTrue(body.startsWith("POST|multipart/form-data; boundary="));
+                Assertions.assertTrue(body.contains("name=\"id\""));
+                Assertions.assertTrue(body.contains(fileContent));
+                Assertions.assertTrue(body.contains("binary-content"));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("httpTransportFactories")
+    public void retryOnEitherTransport(HttpTransport.Factory httpTransportFactory) throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/flaky", httpExchange -> {
+                    if (hits.incrementAndGet() % 2 == 1) {
+                        LocalHttpServer.respond(httpExchange, 503, "unavailable");
+                    } else {
+                        LocalHttpServer.respond(httpExchange, 200, "ok");
+                    }
+                });
+                HttpClient httpClient = httpClient(httpTransportFactory)) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Flaky", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/flaky")
+                    .withRetryPolicy(
+                            new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retries) -> 1, 2))
+                    .build();
+            Assertions.assertEquals("ok", httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHandler()));
+            Assertions.assertEquals(
+                    "ok",
+                    httpClient
+                            .executeAsync(new HttpExecutionContext(), httpRequest, bodyHandler())
+                            .get(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(4, hits.get());
+            Assertions.assertEquals(0, httpClient.getConnectionPoolStats().getLeased());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("httpTransportFactories")
+    public void enforceMaxBodySizeOnAsyncRequest(HttpTransport.Factory httpTransportFactory) throws Exception {
+        AtomicReference<Exception> error = new AtomicReference<>();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle(
+                                "/large",
+                                httpExchange -> LocalHttpServer.respond(httpExchange, 200, "x".repeat(10240)));
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .httpTransportFactory(httpTransportFactory)
+                        .maxResponseBodySizeInBytes(1024)
+                        .build())) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Large", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/large")
+                    .build();
+            HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+            httpExecutionContext.addHttpRequestHandler(new HttpRequestHandler() {
+                @Override
+                public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {}
+
+                @Override
+                public void afterResponse(
+                        HttpExecutionContext httpExecutionContext,
+                        HttpRequest httpRequest,
+                        HttpResponse httpResponse) {}
+
+                @Override
+                public void onError(
+                        HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {
+                    error.set(exception);
+                }
+            });
+            Assertions.assertNull(httpClient
+                    .executeAsync(httpExecutionContext, httpRequest, bodyHandler())
+                    .get(10, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(HttpException.class, error.get());
+            Assertions.assertEquals(
+                    String.format(StringPool.ERROR_MAX_BODY_SIZE, 1024),
+                    error.get().getMessage());
+        }
+    }
+
+    @Test
+    public void rejectAsyncRequestAfterClose() throws Exception {
+        ApacheHttpTransport apacheHttpTransport =
+                new ApacheHttpTransport(HttpClientConfig.builder().build());
+        apacheHttpTransport.close();
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Closed", HttpMethod.GET)
+                .withHost("http://localhost")
+                .withEndPoint("/closed")
+                .build();
+        Assertions.assertThrows(IllegalStateException.class, () -> apacheHttpTransport.executeAsync(httpRequest));
+    }
+
+    @Test
+    public void rejectResponseCacheOnJdkTransport() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> new JdkHttpTransport(HttpClientConfig.builder()
+                        .httpCacheConfig(HttpCacheConfig.builder().build())
+                        .build()));
+    }
+
+    private static HttpClient httpClient(HttpTransport.Factory httpTransportFactory) {
+        return new HttpClient(HttpClientConfig.builder()
+                .httpTransportFactory(httpTransportFactory)
+                .build());
+    }
+
+    private static void echo(HttpExchange httpExchange) throws IOException {
+        String body = new String(httpExchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        LocalHttpServer.respond(
+                httpExchange,
+                200,
+                String.join(
+                        "|",
+                        httpExchange.getRequestMethod(),
+                        httpExchange.getRequestHeaders().getFirst("Content-Type"),
+                        httpExchange.getRequestHeaders().getFirst(StringPool.AUTHORIZATION),
+                        httpExchange.getRequestURI().getQuery(),
+                        body));
+    }
+
+    private HttpResponseHandler<String> bodyHandler() {
+        return new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                return Objects.nonNull(httpResponse) ? httpResponse.getBody() : null;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package com.javaquery.http;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class JsonCodecTest {
+
+    static Stream<HttpTransport.Factory> httpTransportFactories() {
+        return Stream.of(ApacheHttpTransport::new, JdkHttpTransport::new);
+    }
+
+    @ParameterizedTest
+    @MethodSource("httpTransportFactories")
+    public void sendAndReceiveTypedBody(HttpTransport.Factory httpTransportFactory) throws Exception {
+        String[] contentType = new String[1];
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/orders", httpExchange -> {
+                    contentType[0] = httpExchange.getRequestHeaders().getFirst("Content-Type");
+                    echo(httpExchange);
+                });
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .httpTransportFactory(httpTransportFactory)
+                        .build())) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("CreateOrder", HttpMethod.POST)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/orders")
+                    .withHttpPayload(HttpRequest.HttpPayload.json(new Order(7, "book", 2)))
+                    .build();
+
+            Order order = httpClient.execute(
+                    new HttpExecutionContext(),
+                    httpRequest,
+                    handler(httpResponse -> httpResponse.getBodyAs(Order.class)));
+            Assertions.assertEquals(new Order(7, "book", 2), order);
+            Assertions.assertEquals("application/json; charset=UTF-8", contentType[0]);
+        }
+    }
+
+    @Test
+    public void readGenericTypeIgnoringUnknownProperties() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle(
+                                "/orders",
+                                httpExchange -> LocalHttpServer.respond(
+                                        httpExchange,
+                                        200,
+                                        "\uFEFF[{\"id\":1,\"item\":\"pen\",\"quantity\":3,\"status\":\"open\"},"
+                                                + "{\"id\":2,\"item\":\"ink\",\"quantity\":1}]"))
+                        .handle("/empty", httpExchange -> LocalHttpServer.respond(httpExchange, 200, ""));
+                HttpClient httpClient = new HttpClient()) {
+            List<Order> orders = httpClient.execute(
+                    new HttpExecutionContext(),
+                    httpRequest(localHttpServer, "/orders"),
+                    handler(httpResponse -> httpResponse.getBodyAs(new TypeReference<List<Order>>() {})));
+            Assertions.assertEquals(List.of(new Order(1, "pen", 3), new Order(2, "ink", 1)), orders);
+
+            Assertions.assertNull(httpClient.execute(
+                    new HttpExecutionContext(),
+                    httpRequest(localHttpServer, "/empty"),
+                    handler(httpResponse -> httpResponse.getBodyAs(Order.class))));
+        }
+    }
+
+    @Test
+    public void codecDoesNotCloseStreams() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                throw new IllegalStateException("closed");
+            }
+        };
+        JsonCodec.DEFAULT.write(new Order(3, "cup", 4), outputStream);
+        JsonCodec.DEFAULT.write(new Order(4, "mug", 5), outputStream);
+        Assertions.assertEquals(
+                "{\"id\":3,\"item\":\"cup\",\"quantity\":4}{\"id\":4,\"item\":\"mug\",\"quantity\":5}",
+                outputStream.toString(StandardCharsets.UTF_8));
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Assertions.assertEquals(new Order(3, "cup", 4), JsonCodec.DEFAULT.read(inputStream, Order.class));
+    }
+
+    private static void echo(HttpExchange httpExchange) throws IOException {
+        LocalHttpServer.respond(
+                httpExchange, 200, new String(httpExchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private HttpRequest httpRequest(LocalHttpServer localHttpServer, String endPoint) {
+        return new HttpRequest.HttpRequestBuilder("Orders", HttpMethod.GET)
+                .withHost(localHttpServer.host())
+                .withEndPoint(endPoint)
+                .build();
+    }
+
+    private <R> HttpResponseHandler<R> handler(Function<HttpResponse, R> function) {
+        return new HttpResponseHandler<R>() {
+            @Override
+            public R onResponse(HttpResponse httpResponse) {
+                return function.apply(httpResponse);
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+
+    public static class Order {
+        private long id;
+        private String item;
+        private int quantity;
+
+        public Order() {}
+
+        Order(long id, String item, int quantity) {
+            this.id = id;
+            this.item = item;
+            this.quantity = quantity;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getItem() {
+            return item;
+        }
+
+        public void setItem(String item) {
+            this.item = item;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Order)) {
+                return false;
+            }
+            Order order = (Order) o;
+            return id == order.id && quantity == order.quantity && item.equals(order.item);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id);
+        }
+    }
+}
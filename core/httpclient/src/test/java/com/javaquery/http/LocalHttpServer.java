@@ -0,0 +1,60 @@
+package com.javaquery.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process http server used by tests so they do not depend on live endpoints.
+ *
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class LocalHttpServer implements AutoCloseable {
+
+    private final HttpServer httpServer;
+
+    private LocalHttpServer(HttpServer httpServer) {
+        this.httpServer = httpServer;
+    }
+
+    public static LocalHttpServer start() {
+        try {
+            HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            httpServer.setExecutor(Executors.newCachedThreadPool());
+            httpServer.start();
+            return new LocalHttpServer(httpServer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public LocalHttpServer handle(String path, HttpHandler httpHandler) {
+        httpServer.createContext(path, httpHandler);
+        return this;
+    }
+
+    public String host() {
+        return "http://localhost:" + httpServer.getAddress().getPort();
+    }
+
+    public static void respond(HttpExchange httpExchange, int statusCode, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        httpExchange.sendResponseHeaders(statusCode, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream outputStream = httpExchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+    }
+}
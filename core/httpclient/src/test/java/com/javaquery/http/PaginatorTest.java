@@ -0,0 +1,172 @@
+package com.javaquery.http;
+
+import com.javaquery.helper.BatchProcessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class PaginatorTest {
+
+    private static final int PAGES = 5;
+
+    @Test
+    public void streamItemsOfAllPagesInOrder() throws Exception {
+        try (LocalHttpServer localHttpServer = pagedServer(new AtomicInteger(), 0);
+                HttpClient httpClient = new HttpClient()) {
+            try (Stream<String> items = httpClient
+                    .paginate(
+                            new HttpExecutionContext(), pageRequest(localHttpServer, 0), pageExtractor(localHttpServer))
+                    .stream()) {
+                List<String> expected = new ArrayList<>();
+                for (int page = 0; page < PAGES; page++) {
+                    for (int item = 0; item < 3; item++) {
+                        expected.add(page + "-" + item);
+                    }
+                }
+                Assertions.assertEquals(expected, items.collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @Test
+    public void prefetchPagesAheadOfConsumer() throws Exception {
+        AtomicInteger pageRequests = new AtomicInteger();
+        try (LocalHttpServer localHttpServer = pagedServer(pageRequests, 0);
+                HttpClient httpClient = new HttpClient()) {
+            Paginator<String> paginator = httpClient.paginate(
+                    new HttpExecutionContext(), pageRequest(localHttpServer, 0), pageExtractor(localHttpServer), 2);
+            Assertions.assertEquals("0-0", paginator.next());
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (pageRequests.get() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(200);
+            /* page 0 is consumed, pages 1 and 2 are buffered */
+            Assertions.assertEquals(3, pageRequests.get());
+
+            int items = 1;
+            while (paginator.hasNext()) {
+                paginator.next();
+                items++;
+            }
+            Assertions.assertEquals(PAGES * 3, items);
+            Assertions.assertEquals(PAGES, pageRequests.get());
+        }
+    }
+
+    @Test
+    public void overlapFetchWithProcessing() throws Exception {
+        try (LocalHttpServer localHttpServer = pagedServer(new AtomicInteger(), 100);
+                HttpClient httpClient = new HttpClient()) {
+            long start = System.currentTimeMillis();
+            Paginator<String> paginator = httpClient.paginate(
+                    new HttpExecutionContext(), pageRequest(localHttpServer, 0), pageExtractor(localHttpServer));
+            while (paginator.hasNext()) {
+                if (paginator.next().endsWith("-0")) {
+                    Thread.sleep(100);
+                }
+            }
+            /* sequential fetch and process would take 5 * (100 + 100) ms */
+            Assertions.assertTrue(System.currentTimeMillis() - start < 900);
+        }
+    }
+
+    @Test
+    public void feedBatchProcessor() throws Exception {
+        try (LocalHttpServer localHttpServer = pagedServer(new AtomicInteger(), 0);
+                HttpClient httpClient = new HttpClient()) {
+            List<Integer> batchSizes = new ArrayList<>();
+            int[] completed = new int[2];
+            httpClient
+                    .paginate(
+                            new HttpExecutionContext(), pageRequest(localHttpServer, 0), pageExtractor(localHttpServer))
+                    .forEachBatch(4, new BatchProcessor<String>() {
+                        @Override
+                        public void onBatch(List<String> batch) {
+                            batchSizes.add(batch.size());
+                        }
+
+                        @Override
+                        public void onComplete(int totalProcessed, int totalBatches) {
+                            completed[0] = totalProcessed;
+                            completed[1] = totalBatches;
+                        }
+                    });
+            Assertions.assertEquals(List.of(4, 4, 4, 3), batchSizes);
+            Assertions.assertArrayEquals(new int[] {15, 4}, completed);
+        }
+    }
+
+    @Test
+    public void failWhenPageCannotBeExtracted() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/items", httpExchange -> {
+                    String page = httpExchange.getRequestURI().getQuery().substring("page=".length());
+                    if ("2".equals(page)) {
+                        LocalHttpServer.respond(httpExchange, 500, "fail");
+                    } else {
+                        LocalHttpServer.respond(httpExchange, 200, page + "-0," + page + "-1," + page + "-2");
+                    }
+                });
+                HttpClient httpClient = new HttpClient()) {
+            Paginator<String> paginator = httpClient.paginate(
+                    new HttpExecutionContext(), pageRequest(localHttpServer, 0), pageExtractor(localHttpServer));
+            List<String> items = new ArrayList<>();
+            IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, () -> {
+                while (paginator.hasNext()) {
+                    items.add(paginator.next());
+                }
+            });
+            Assertions.assertEquals("Server error", exception.getMessage());
+            Assertions.assertEquals(6, items.size());
+        }
+    }
+
+    private LocalHttpServer pagedServer(AtomicInteger pageRequests, long delayInMilliseconds) {
+        return LocalHttpServer.start().handle("/items", httpExchange -> {
+            pageRequests.incrementAndGet();
+            try {
+                Thread.sleep(delayInMilliseconds);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String page = httpExchange.getRequestURI().getQuery().substring("page=".length());
+            LocalHttpServer.respond(httpExchange, 200, page + "-0," + page + "-1," + page + "-2");
+        });
+    }
+
+    private HttpRequest pageRequest(LocalHttpServer localHttpServer, int page) {
+        return new HttpRequest.HttpRequestBuilder("Items", HttpMethod.GET)
+                .withHost(localHttpServer.host())
+                .withEndPoint("/items")
+                .withQueryParameter("page", String.valueOf(page))
+                .build();
+    }
+
+    private PageExtractor<String> pageExtractor(LocalHttpServer localHttpServer) {
+        return new PageExtractor<String>() {
+            @Override
+            public List<String> getItems(HttpResponse httpResponse) {
+                if (httpResponse.getStatusCode() >= 500) {
+                    throw new IllegalStateException("Server error");
+                }
+                return Arrays.asList(httpResponse.getBody().split(","));
+            }
+
+            @Override
+            public HttpRequest getNextPageRequest(HttpRequest httpRequest, HttpResponse httpResponse) {
+                int page = Integer.parseInt(httpRequest.getQueryParameters().get("page"));
+                return page + 1 < PAGES ? pageRequest(localHttpServer, page + 1) : null;
+            }
+        };
+    }
+}
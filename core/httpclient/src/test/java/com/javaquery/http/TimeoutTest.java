@@ -0,0 +1,219 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.DeadlineExceededException;
+import com.javaquery.http.handler.HttpRequestHandler;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.retry.RetryPolicy;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class TimeoutTest {
+
+    static Stream<HttpTransport.Factory> httpTransportFactories() {
+        return Stream.of(ApacheHttpTransport::new, JdkHttpTransport::new);
+    }
+
+    @Test
+    public void socketTimeoutOfRequestOverridesClient() throws Exception {
+        try (LocalHttpServer localHttpServer = slowServer(300);
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .timeoutConfig(TimeoutConfig.builder()
+                                .socketTimeoutInMilliseconds(100)
+                                .build())
+                        .build())) {
+            List<Exception> errors = new CopyOnWriteArrayList<>();
+            HttpExecutionContext httpExecutionContext = errorCollector(errors);
+
+            Assertions.assertNull(httpClient.execute(httpExecutionContext, slowRequest(localHttpServer, null), body()));
+            Assertions.assertTrue(errors.get(0) instanceof SocketTimeoutException);
+
+            TimeoutConfig timeoutConfig =
+                    TimeoutConfig.builder().socketTimeoutInMilliseconds(2000).build();
+            Assertions.assertEquals(
+                    "slow",
+                    httpClient.execute(httpExecutionContext, slowRequest(localHttpServer, timeoutConfig), body()));
+            Assertions.assertEquals(1, errors.size());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("httpTransportFactories")
+    public void deadlineAbortsSlowAttempt(HttpTransport.Factory httpTransportFactory) throws Exception {
+        try (LocalHttpServer localHttpServer = slowServer(3000);
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .httpTransportFactory(httpTransportFactory)
+                        .build())) {
+            TimeoutConfig timeoutConfig =
+                    TimeoutConfig.builder().deadlineInMilliseconds(300).build();
+            List<Exception> errors = new CopyOnWriteArrayList<>();
+
+            long start = System.nanoTime();
+            Assertions.assertNull(
+                    httpClient.execute(errorCollector(errors), slowRequest(localHttpServer, timeoutConfig), body()));
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+            Assertions.assertTrue(errors.get(0) instanceof DeadlineExceededException);
+
+            start = System.nanoTime();
+            Assertions.assertNull(httpClient
+                    .executeAsync(errorCollector(errors), slowRequest(localHttpServer, timeoutConfig), body())
+                    .get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+            Assertions.assertTrue(errors.get(1) instanceof DeadlineExceededException);
+        }
+    }
+
+    @Test
+    public void deadlineEndsRetryTillSuccess() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/unavailable", httpExchange -> {
+                    hits.incrementAndGet();
+                    LocalHttpServer.respond(httpExchange, 503, "unavailable");
+                });
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .timeoutConfig(TimeoutConfig.builder()
+                                .deadlineInMilliseconds(500)
+                                .build())
+                        .build())) {
+            RetryPolicy retryPolicy =
+                    new RetryPolicy((httpRequestResponse, retries) -> true, (httpRequestResponse, retries) -> 150, 0);
+            retryPolicy.retryTillSuccess();
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Unavailable", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/unavailable")
+                    .withRetryPolicy(retryPolicy)
+                    .build();
+            List<Exception> errors = new CopyOnWriteArrayList<>();
+
+            long start = System.nanoTime();
+            Assertions.assertNull(httpClient.execute(errorCollector(errors), httpRequest, body()));
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Assertions.assertTrue(elapsed >= 450 && elapsed < 2500);
+            Assertions.assertTrue(hits.get() >= 1 && hits.get() <= 5);
+            Assertions.assertEquals(1, errors.size());
+            Assertions.assertTrue(errors.get(0) instanceof DeadlineExceededException);
+
+            hits.set(0);
+            start = System.nanoTime();
+            Assertions.assertNull(httpClient
+                    .executeAsync(errorCollector(errors), httpRequest, body())
+                    .get(5, TimeUnit.SECONDS));
+            elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Assertions.assertTrue(elapsed >= 450 && elapsed < 2500);
+            Assertions.assertTrue(hits.get() >= 1 && hits.get() <= 5);
+            Assertions.assertTrue(errors.get(1) instanceof DeadlineExceededException);
+        }
+    }
+
+    @Test
+    public void deadlinePassedBeforeRetryFailsAttempt() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/unavailable", httpExchange -> {
+                    LocalHttpServer.respond(httpExchange, 503, "unavailable");
+                });
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .timeoutConfig(TimeoutConfig.builder()
+                                .deadlineInMilliseconds(100)
+                                .build())
+                        .build())) {
+            RetryPolicy retryPolicy =
+                    new RetryPolicy((httpRequestResponse, retries) -> true, (httpRequestResponse, retries) -> 10, 3);
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Unavailable", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/unavailable")
+                    .withRetryPolicy(retryPolicy)
+                    .build();
+            List<Exception> errors = new CopyOnWriteArrayList<>();
+            HttpExecutionContext httpExecutionContext = errorCollector(errors);
+            // retryable response is processed only after deadline passed
+            httpExecutionContext.addHttpRequestHandler(new HttpRequestHandler() {
+                @Override
+                public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {}
+
+                @Override
+                public void afterResponse(
+                        HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void onError(
+                        HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {}
+            });
+
+            Assertions.assertNull(httpClient.execute(httpExecutionContext, httpRequest, body()));
+            Assertions.assertEquals(1, errors.size());
+            Assertions.assertTrue(errors.get(0) instanceof DeadlineExceededException);
+
+            Assertions.assertNull(httpClient
+                    .executeAsync(httpExecutionContext, httpRequest, body())
+                    .get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(2, errors.size());
+            Assertions.assertTrue(errors.get(1) instanceof DeadlineExceededException);
+        }
+    }
+
+    private LocalHttpServer slowServer(long delayInMilliseconds) {
+        return LocalHttpServer.start().handle("/slow", httpExchange -> {
+            try {
+                Thread.sleep(delayInMilliseconds);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            LocalHttpServer.respond(httpExchange, 200, "slow");
+        });
+    }
+
+    private HttpRequest slowRequest(LocalHttpServer localHttpServer, TimeoutConfig timeoutConfig) {
+        return new HttpRequest.HttpRequestBuilder("Slow", HttpMethod.GET)
+                .withHost(localHttpServer.host())
+                .withEndPoint("/slow")
+                .withTimeoutConfig(timeoutConfig)
+                .build();
+    }
+
+    private HttpExecutionContext errorCollector(List<Exception> errors) {
+        HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+        httpExecutionContext.addHttpRequestHandler(new HttpRequestHandler() {
+            @Override
+            public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {}
+
+            @Override
+            public void afterResponse(
+                    HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {}
+
+            @Override
+            public void onError(
+                    HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {
+                errors.add(exception);
+            }
+        });
+        return httpExecutionContext;
+    }
+
+    private HttpResponseHandler<String> body() {
+        return new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                return httpResponse != null ? httpResponse.getBody() : null;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package com.javaquery.http.metrics;
+
+import com.javaquery.http.HttpClient;
+import com.javaquery.http.HttpClientConfig;
+import com.javaquery.http.HttpExecutionContext;
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.http.HttpResponse;
+import com.javaquery.http.LocalHttpServer;
+import com.javaquery.http.exception.DeadlineExceededException;
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.retry.DefaultRetryCondition;
+import com.javaquery.http.retry.RetryPolicy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.impl.execchain.RequestAbortedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class HttpClientMetricsTest {
+
+    @Test
+    public void latencyHistogramPercentiles() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            latencyHistogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        Assertions.assertEquals(1000, latencyHistogram.getCount());
+        Assertions.assertEquals(1_000_000, latencyHistogram.getMaxInMicros());
+        Assertions.assertEquals(500_500, latencyHistogram.getMeanInMicros(), 1);
+        assertWithin(500_000, latencyHistogram.getPercentileInMicros(50));
+        assertWithin(990_000, latencyHistogram.getPercentileInMicros(99));
+        Assertions.assertEquals(1_000_000, latencyHistogram.getPercentileInMicros(100));
+    }
+
+    @Test
+    public void bucketsCoverWholeRange() {
+        long previousUpperBound = -1;
+        for (long value : new long[] {0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.index(value);
+            long upperBound = LatencyHistogram.upperBound(index);
+            Assertions.assertTrue(upperBound >= value);
+            Assertions.assertTrue(upperBound >= previousUpperBound);
+            previousUpperBound = upperBound;
+        }
+    }
+
+    @Test
+    public void recordRequestMetrics() throws Exception {
+        HistogramHttpClientMetrics httpClientMetrics = new HistogramHttpClientMetrics();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle("/ping", httpExchange -> LocalHttpServer.respond(httpExchange, 200, "pong"))
+                        .handle("/status/503", httpExchange -> LocalHttpServer.respond(httpExchange, 503, "down"));
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .maxConnectionsTotal(10)
+                        .httpClientMetrics(httpClientMetrics)
+                        .build())) {
+            for (int i = 0; i < 3; i++) {
+                httpClient.execute(
+                        new HttpExecutionContext(), httpRequest(localHttpServer, "Ping", "/ping"), handler());
+            }
+            HttpRequest retriedRequest = new HttpRequest.HttpRequestBuilder("Down", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/status/503")
+                    .withRetryPolicy(
+                            new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retries) -> 1, 2))
+                    .build();
+            httpClient.execute(new HttpExecutionContext(), retriedRequest, handler());
+
+            Assertions.assertEquals(
+                    3, httpClientMetrics.getRequestNameHistogram("Ping").getCount());
+            Assertions.assertEquals(
+                    3, httpClientMetrics.getRequestNameHistogram("Down").getCount());
+            Assertions.assertEquals(
+                    6, httpClientMetrics.getHostHistogram("localhost").getCount());
+            Assertions.assertEquals(3, httpClientMetrics.getStatusClassCount(2));
+            Assertions.assertEquals(3, httpClientMetrics.getStatusClassCount(5));
+            Assertions.assertEquals(2, httpClientMetrics.getRetries());
+            Assertions.assertEquals(3 * 4 + 3 * 4, httpClientMetrics.getBytesReceived());
+            Assertions.assertEquals(
+                    10, httpClientMetrics.getConnectionPoolStats().getMax());
+            Assertions.assertEquals(
+                    0, httpClientMetrics.getConnectionPoolStats().getLeased());
+        }
+    }
+
+    @Test
+    public void classifyTimeouts() {
+        Exception[] timeouts = {
+            new DeadlineExceededException("deadline"),
+            new SocketTimeoutException("read"),
+            new ConnectTimeoutException("connect"),
+            new ConnectionPoolTimeoutException("pool"),
+            new HttpTimeoutException("jdk"),
+            new HttpConnectTimeoutException("jdk connect"),
+            new RequestAbortedException("aborted"),
+            new HttpException(new CompletionException(new SocketTimeoutException("wrapped")))
+        };
+        HistogramHttpClientMetrics httpClientMetrics = new HistogramHttpClientMetrics();
+        HttpRequestResponse httpRequestResponse =
+                new HttpRequestResponse(new HttpRequest.HttpRequestBuilder("Timeout", HttpMethod.GET)
+                        .withHost("http://localhost")
+                        .withEndPoint("/timeout")
+                        .build());
+        for (Exception exception : timeouts) {
+            Assertions.assertTrue(HttpClientMetrics.isTimeout(exception), exception.toString());
+            httpClientMetrics.recordAttempt(httpRequestResponse, exception, -1, -1, -1);
+        }
+        Assertions.assertFalse(HttpClientMetrics.isTimeout(new IOException("reset")));
+        Assertions.assertFalse(HttpClientMetrics.isTimeout(new InterruptedIOException("interrupted")));
+        httpClientMetrics.recordAttempt(httpRequestResponse, new IOException("reset"), -1, -1, -1);
+        Assertions.assertEquals(timeouts.length, httpClientMetrics.getTimeouts());
+        Assertions.assertEquals(timeouts.length + 1, httpClientMetrics.getErrors());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        Assertions.assertTrue(Math.abs(actual - expected) <= expected / 16, expected + " ~ " + actual);
+    }
+
+    private HttpRequest httpRequest(LocalHttpServer localHttpServer, String httpRequestName, String endPoint) {
+        return new HttpRequest.HttpRequestBuilder(httpRequestName, HttpMethod.GET)
+                .withHost(localHttpServer.host())
+                .withEndPoint(endPoint)
+                .build();
+    }
+
+    private HttpResponseHandler<Integer> handler() {
+        return new HttpResponseHandler<Integer>() {
+            @Override
+            public Integer onResponse(HttpResponse httpResponse) {
+                return httpResponse.getStatusCode();
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+}
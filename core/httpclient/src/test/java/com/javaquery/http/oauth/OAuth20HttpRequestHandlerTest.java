@@ -0,0 +1,215 @@
+package com.javaquery.http.oauth;
+
+import com.javaquery.http.HttpClient;
+import com.javaquery.http.HttpExecutionContext;
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpResponse;
+import com.javaquery.http.LocalHttpServer;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class OAuth20HttpRequestHandlerTest {
+
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+
+    @Test
+    public void cacheAccessTokenAcrossRequests() throws Exception {
+        try (LocalHttpServer localHttpServer = server(3600, 0);
+                HttpClient httpClient = new HttpClient()) {
+            HttpExecutionContext httpExecutionContext = httpExecutionContext(localHttpServer, httpClient, 60);
+            for (int i = 0; i < 5; i++) {
+                Assertions.assertEquals("Bearer token-1", execute(httpClient, httpExecutionContext, localHttpServer));
+            }
+            Assertions.assertEquals(1, tokenRequests.get());
+        }
+    }
+
+    @Test
+    public void coalesceConcurrentTokenRequests() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try (LocalHttpServer localHttpServer = server(3600, 200);
+                HttpClient httpClient = new HttpClient()) {
+            HttpExecutionContext httpExecutionContext = httpExecutionContext(localHttpServer, httpClient, 60);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> execute(httpClient, httpExecutionContext, localHttpServer)));
+            }
+            for (Future<String> future : futures) {
+                Assertions.assertEquals("Bearer token-1", future.get());
+            }
+            Assertions.assertEquals(1, tokenRequests.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void replayWithFreshTokenOnUnauthorized() throws Exception {
+        try (LocalHttpServer localHttpServer = server(3600, 0);
+                HttpClient httpClient = new HttpClient()) {
+            HttpExecutionContext httpExecutionContext = httpExecutionContext(localHttpServer, httpClient, 60);
+            localHttpServer.handle("/revoked", httpExchange -> {
+                String authorization = httpExchange.getRequestHeaders().getFirst("Authorization");
+                LocalHttpServer.respond(
+                        httpExchange, "Bearer token-1".equals(authorization) ? 401 : 200, authorization);
+            });
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Revoked", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/revoked")
+                    .build();
+            Assertions.assertEquals(
+                    "200:Bearer token-2", httpClient.execute(httpExecutionContext, httpRequest, statusAndBody()));
+            Assertions.assertEquals(2, tokenRequests.get());
+        }
+    }
+
+    @Test
+    public void replayAsyncWithFreshTokenOnUnauthorized() throws Exception {
+        try (LocalHttpServer localHttpServer = server(3600, 100);
+                HttpClient httpClient = new HttpClient()) {
+            HttpExecutionContext httpExecutionContext = httpExecutionContext(localHttpServer, httpClient, 60);
+            localHttpServer.handle("/revoked", httpExchange -> {
+                String authorization = httpExchange.getRequestHeaders().getFirst("Authorization");
+                LocalHttpServer.respond(
+                        httpExchange, "Bearer token-1".equals(authorization) ? 401 : 200, authorization);
+            });
+            OAuth20HttpRequestHandler oAuth20HttpRequestHandler = (OAuth20HttpRequestHandler)
+                    httpExecutionContext.getHttpRequestHandlers().get(0);
+            oAuth20HttpRequestHandler.prefetchAccessToken(httpExecutionContext).get(5, TimeUnit.SECONDS);
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Revoked", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/revoked")
+                    .build();
+            Assertions.assertEquals(
+                    "200:Bearer token-2",
+                    httpClient
+                            .executeAsync(httpExecutionContext, httpRequest, statusAndBody())
+                            .get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(2, tokenRequests.get());
+        }
+    }
+
+    @Test
+    public void refreshAccessTokenInBackground() throws Exception {
+        try (LocalHttpServer localHttpServer = server(2, 0);
+                HttpClient httpClient = new HttpClient()) {
+            HttpExecutionContext httpExecutionContext = httpExecutionContext(localHttpServer, httpClient, 1);
+            Assertions.assertEquals("Bearer token-1", execute(httpClient, httpExecutionContext, localHttpServer));
+            for (int i = 0; i < 50 && tokenRequests.get() < 2; i++) {
+                Thread.sleep(100);
+            }
+            Assertions.assertEquals(2, tokenRequests.get());
+            Assertions.assertEquals("Bearer token-2", execute(httpClient, httpExecutionContext, localHttpServer));
+        }
+    }
+
+    @Test
+    public void useOnlyCachedTokenOnAsyncRequest() throws Exception {
+        try (LocalHttpServer localHttpServer = server(3600, 300);
+                HttpClient httpClient = new HttpClient()) {
+            HttpExecutionContext httpExecutionContext = httpExecutionContext(localHttpServer, httpClient, 60);
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Api", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/api")
+                    .build();
+            long start = System.nanoTime();
+            Assertions.assertNull(httpClient
+                    .executeAsync(httpExecutionContext, httpRequest, statusAndBody())
+                    .get(5, TimeUnit.SECONDS));
+            // failed without waiting for token endpoint
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 300);
+
+            OAuth20HttpRequestHandler oAuth20HttpRequestHandler = (OAuth20HttpRequestHandler)
+                    httpExecutionContext.getHttpRequestHandlers().get(0);
+            oAuth20HttpRequestHandler.prefetchAccessToken(httpExecutionContext).get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(
+                    "200:Bearer token-1",
+                    httpClient
+                            .executeAsync(httpExecutionContext, httpRequest, statusAndBody())
+                            .get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, tokenRequests.get());
+        }
+    }
+
+    private LocalHttpServer server(long expiresIn, long tokenDelay) {
+        return LocalHttpServer.start()
+                .handle("/oauth/token", httpExchange -> token(httpExchange, expiresIn, tokenDelay))
+                .handle(
+                        "/api",
+                        httpExchange -> LocalHttpServer.respond(
+                                httpExchange,
+                                200,
+                                httpExchange.getRequestHeaders().getFirst("Authorization")));
+    }
+
+    private void token(HttpExchange httpExchange, long expiresIn, long tokenDelay) throws IOException {
+        String form = new String(httpExchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Assertions.assertEquals("grant_type=client_credentials&scope=read", form);
+        Assertions.assertEquals(
+                "Basic Y2xpZW50OnNlY3JldA==", httpExchange.getRequestHeaders().getFirst("Authorization"));
+        try {
+            Thread.sleep(tokenDelay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LocalHttpServer.respond(
+                httpExchange,
+                200,
+                "{\"access_token\":\"token-" + tokenRequests.incrementAndGet()
+                        + "\",\"token_type\":\"Bearer\",\"expires_in\":" + expiresIn + "}");
+    }
+
+    private HttpExecutionContext httpExecutionContext(
+            LocalHttpServer localHttpServer, HttpClient httpClient, long refreshBeforeExpiryInSeconds) {
+        HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+        httpExecutionContext.addHttpRequestHandler(new OAuth20HttpRequestHandler(
+                OAuth20Config.builder()
+                        .clientId("client")
+                        .clientSecret("secret")
+                        .tokenEndpoint(localHttpServer.host() + "/oauth/token")
+                        .scope("read")
+                        .refreshBeforeExpiryInSeconds(refreshBeforeExpiryInSeconds)
+                        .build(),
+                httpClient));
+        return httpExecutionContext;
+    }
+
+    private String execute(
+            HttpClient httpClient, HttpExecutionContext httpExecutionContext, LocalHttpServer localHttpServer) {
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Api", HttpMethod.GET)
+                .withHost(localHttpServer.host())
+                .withEndPoint("/api")
+                .build();
+        return httpClient
+                .execute(httpExecutionContext, httpRequest, statusAndBody())
+                .substring(4);
+    }
+
+    private HttpResponseHandler<String> statusAndBody() {
+        return new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                return httpResponse != null ? httpResponse.getStatusCode() + ":" + httpResponse.getBody() : null;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+}
@@ -0,0 +1,273 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpClient;
+import com.javaquery.http.HttpExecutionContext;
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.http.HttpResponse;
+import com.javaquery.http.LocalHttpServer;
+import com.javaquery.http.exception.ConcurrencyLimitExceededException;
+import com.javaquery.http.handler.HttpRequestHandler;
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private final HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Limited", HttpMethod.GET)
+            .withHost("http://api.example.com")
+            .build();
+
+    @Test
+    public void shrinkOnOverloadAndGrowWhileLatencyIsStable() throws Exception {
+        AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter =
+                AdaptiveConcurrencyLimiter.perHost(AdaptiveConcurrencyLimitConfig.builder()
+                        .initialLimit(10)
+                        .maxLimit(20)
+                        .build());
+        HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+
+        for (int i = 0; i < 5; i++) {
+            HttpRequestResponse attempt = new HttpRequestResponse(httpRequest);
+            adaptiveConcurrencyLimiter.beforeRequest(httpExecutionContext, attempt);
+            adaptiveConcurrencyLimiter.afterResponse(httpExecutionContext, attempt, httpResponse(503));
+        }
+        // 10 * 0.9^5
+        Assertions.assertEquals(5, adaptiveConcurrencyLimiter.getLimit(httpRequest));
+
+        for (int round = 0; round < 5; round++) {
+            int limit = adaptiveConcurrencyLimiter.getLimit(httpRequest);
+            List<HttpRequestResponse> attempts = new ArrayList<>();
+            for (int i = 0; i < limit; i++) {
+                HttpRequestResponse attempt = new HttpRequestResponse(httpRequest);
+                adaptiveConcurrencyLimiter.beforeRequest(httpExecutionContext, attempt);
+                attempts.add(attempt);
+            }
+            Assertions.assertThrows(
+                    ConcurrencyLimitExceededException.class,
+                    () -> adaptiveConcurrencyLimiter.beforeRequest(
+                            httpExecutionContext, new HttpRequestResponse(httpRequest)));
+            Thread.sleep(20);
+            for (HttpRequestResponse attempt : attempts) {
+                adaptiveConcurrencyLimiter.afterResponse(httpExecutionContext, attempt, httpResponse(200));
+            }
+        }
+        int limit = adaptiveConcurrencyLimiter.getLimit(httpRequest);
+        Assertions.assertTrue(limit > 5);
+        Assertions.assertEquals(0, adaptiveConcurrencyLimiter.getInFlight(httpRequest));
+
+        HttpRequestResponse attempt = new HttpRequestResponse(httpRequest);
+        adaptiveConcurrencyLimiter.beforeRequest(httpExecutionContext, attempt);
+        adaptiveConcurrencyLimiter.onError(httpExecutionContext, attempt, new IOException("reset"));
+        Assertions.assertTrue(adaptiveConcurrencyLimiter.getLimit(httpRequest) < limit);
+    }
+
+    @Test
+    public void releaseOnlyPermitTakenByTheAttempt() {
+        AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter =
+                AdaptiveConcurrencyLimiter.perHost(AdaptiveConcurrencyLimitConfig.builder()
+                        .initialLimit(2)
+                        .maxLimit(2)
+                        .build());
+        HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+
+        // same http request sent by two attempts at once
+        HttpRequestResponse first = new HttpRequestResponse(httpRequest);
+        HttpRequestResponse second = new HttpRequestResponse(httpRequest);
+        adaptiveConcurrencyLimiter.beforeRequest(httpExecutionContext, first);
+        adaptiveConcurrencyLimiter.beforeRequest(httpExecutionContext, second);
+        Assertions.assertEquals(2, adaptiveConcurrencyLimiter.getInFlight(httpRequest));
+
+        // attempt failed in handler added before the limiter, it never took a permit
+        adaptiveConcurrencyLimiter.onError(
+                httpExecutionContext, new HttpRequestResponse(httpRequest), new IllegalStateException("handler"));
+        Assertions.assertEquals(2, adaptiveConcurrencyLimiter.getInFlight(httpRequest));
+
+        adaptiveConcurrencyLimiter.afterResponse(httpExecutionContext, second, httpResponse(200));
+        adaptiveConcurrencyLimiter.onError(httpExecutionContext, second, new IOException("reset"));
+        Assertions.assertEquals(1, adaptiveConcurrencyLimiter.getInFlight(httpRequest));
+
+        adaptiveConcurrencyLimiter.afterResponse(httpExecutionContext, first, httpResponse(200));
+        Assertions.assertEquals(0, adaptiveConcurrencyLimiter.getInFlight(httpRequest));
+    }
+
+    @Test
+    public void rejectRequestsOverLimit() throws Exception {
+        AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter =
+                AdaptiveConcurrencyLimiter.perHost(AdaptiveConcurrencyLimitConfig.builder()
+                        .initialLimit(2)
+                        .minLimit(2)
+                        .maxLimit(2)
+                        .build());
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        try (LocalHttpServer localHttpServer = slowServer();
+                HttpClient httpClient = new HttpClient()) {
+            HttpRequest slowRequest = slowRequest(localHttpServer);
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(httpClient.executeAsync(
+                        httpExecutionContext(adaptiveConcurrencyLimiter, errors), slowRequest, statusCodeHandler()));
+            }
+            int succeeded = 0;
+            for (CompletableFuture<Integer> future : futures) {
+                succeeded += future.get(5, TimeUnit.SECONDS) == 200 ? 1 : 0;
+            }
+            Assertions.assertEquals(2, succeeded);
+            Assertions.assertEquals(2, errors.size());
+            Assertions.assertTrue(errors.stream().allMatch(e -> e instanceof ConcurrencyLimitExceededException));
+            Assertions.assertEquals(0, adaptiveConcurrencyLimiter.getInFlight(slowRequest));
+        }
+    }
+
+    @Test
+    public void queueRequestsUntilPermitIsReleased() throws Exception {
+        AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter =
+                AdaptiveConcurrencyLimiter.perHost(AdaptiveConcurrencyLimitConfig.builder()
+                        .initialLimit(1)
+                        .maxLimit(1)
+                        .maxWaitInMilliseconds(5_000)
+                        .build());
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        try (LocalHttpServer localHttpServer = slowServer();
+                HttpClient httpClient = new HttpClient()) {
+            HttpRequest slowRequest = slowRequest(localHttpServer);
+            long start = System.nanoTime();
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(CompletableFuture.supplyAsync(() -> httpClient.execute(
+                        httpExecutionContext(adaptiveConcurrencyLimiter, errors), slowRequest, statusCodeHandler())));
+            }
+            for (CompletableFuture<Integer> future : futures) {
+                Assertions.assertEquals(200, future.get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 400);
+            Assertions.assertTrue(errors.isEmpty());
+        }
+    }
+
+    @Test
+    public void failFastOnAsyncRequestInsteadOfWaiting() throws Exception {
+        AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter =
+                AdaptiveConcurrencyLimiter.perHost(AdaptiveConcurrencyLimitConfig.builder()
+                        .initialLimit(1)
+                        .maxLimit(1)
+                        .maxWaitInMilliseconds(5_000)
+                        .build());
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        try (LocalHttpServer localHttpServer = slowServer();
+                HttpClient httpClient = new HttpClient()) {
+            HttpRequest slowRequest = slowRequest(localHttpServer);
+            CompletableFuture<Integer> first = httpClient.executeAsync(
+                    httpExecutionContext(adaptiveConcurrencyLimiter, errors), slowRequest, statusCodeHandler());
+            CompletableFuture<Integer> second = httpClient.executeAsync(
+                    httpExecutionContext(adaptiveConcurrencyLimiter, errors), slowRequest, statusCodeHandler());
+            Assertions.assertEquals(-1, second.get(5, TimeUnit.SECONDS));
+            // rejected while first request still holds the only permit
+            Assertions.assertFalse(first.isDone());
+            Assertions.assertEquals(200, first.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, errors.size());
+            Assertions.assertTrue(errors.get(0) instanceof ConcurrencyLimitExceededException);
+        }
+    }
+
+    @Test
+    public void retryRejectedRequestWithoutTrippingCircuitBreaker() throws Exception {
+        AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter =
+                AdaptiveConcurrencyLimiter.perHost(AdaptiveConcurrencyLimitConfig.builder()
+                        .initialLimit(1)
+                        .maxLimit(1)
+                        .build());
+        CircuitBreaker circuitBreaker = CircuitBreaker.perHost(
+                CircuitBreakerConfig.builder().minimumNumberOfCalls(1).build());
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        try (LocalHttpServer localHttpServer = slowServer();
+                HttpClient httpClient = new HttpClient()) {
+            HttpRequest slowRequest = new HttpRequest.HttpRequestBuilder("Slow", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/slow")
+                    .withRetryPolicy(
+                            new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retries) -> 100, 5))
+                    .withCircuitBreaker(circuitBreaker)
+                    .build();
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(httpClient.executeAsync(
+                        httpExecutionContext(adaptiveConcurrencyLimiter, errors), slowRequest, statusCodeHandler()));
+            }
+            for (CompletableFuture<Integer> future : futures) {
+                Assertions.assertEquals(200, future.get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertFalse(errors.isEmpty());
+            Assertions.assertTrue(errors.stream().allMatch(ConcurrencyLimitExceededException.class::isInstance));
+            Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(slowRequest));
+        }
+    }
+
+    private LocalHttpServer slowServer() {
+        return LocalHttpServer.start().handle("/slow", httpExchange -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            LocalHttpServer.respond(httpExchange, 200, "slow");
+        });
+    }
+
+    private HttpRequest slowRequest(LocalHttpServer localHttpServer) {
+        return new HttpRequest.HttpRequestBuilder("Slow", HttpMethod.GET)
+                .withHost(localHttpServer.host())
+                .withEndPoint("/slow")
+                .build();
+    }
+
+    private HttpExecutionContext httpExecutionContext(
+            AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter, List<Exception> errors) {
+        HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+        httpExecutionContext.addHttpRequestHandler(adaptiveConcurrencyLimiter);
+        httpExecutionContext.addHttpRequestHandler(new HttpRequestHandler() {
+            @Override
+            public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {}
+
+            @Override
+            public void afterResponse(
+                    HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {}
+
+            @Override
+            public void onError(
+                    HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {
+                errors.add(exception);
+            }
+        });
+        return httpExecutionContext;
+    }
+
+    private HttpResponse httpResponse(int statusCode) {
+        return new HttpResponse(new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, null));
+    }
+
+    private HttpResponseHandler<Integer> statusCodeHandler() {
+        return new HttpResponseHandler<Integer>() {
+            @Override
+            public Integer onResponse(HttpResponse httpResponse) {
+                return httpResponse != null ? httpResponse.getStatusCode() : -1;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+}
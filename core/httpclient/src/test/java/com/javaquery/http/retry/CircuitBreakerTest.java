@@ -0,0 +1,209 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpClient;
+import com.javaquery.http.HttpClientConfig;
+import com.javaquery.http.HttpExecutionContext;
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.http.HttpResponse;
+import com.javaquery.http.LocalHttpServer;
+import com.javaquery.http.TimeoutConfig;
+import com.javaquery.http.handler.HttpRequestHandler;
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class CircuitBreakerTest {
+
+    private final HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Circuit", HttpMethod.GET)
+            .withHost("http://api.example.com")
+            .build();
+
+    @Test
+    public void openHalfOpenAndClose() throws Exception {
+        CircuitBreaker circuitBreaker = CircuitBreaker.perHost(CircuitBreakerConfig.builder()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenStateInMilliseconds(50)
+                .permittedCallsInHalfOpenState(2)
+                .build());
+
+        record(circuitBreaker, 200);
+        record(circuitBreaker, 200);
+        record(circuitBreaker, 503);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(httpRequest));
+        record(circuitBreaker, 503);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(httpRequest));
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission(httpRequest));
+
+        Thread.sleep(60);
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission(httpRequest));
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission(httpRequest));
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission(httpRequest));
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState(httpRequest));
+        circuitBreaker.onResult(httpRequestResponse(200), 1);
+        circuitBreaker.onResult(httpRequestResponse(200), 1);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(httpRequest));
+    }
+
+    @Test
+    public void openOnSlowCalls() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.perRequestName(CircuitBreakerConfig.builder()
+                .minimumNumberOfCalls(2)
+                .slowCallRateThreshold(100)
+                .slowCallDurationThresholdInMilliseconds(1000)
+                .build());
+        circuitBreaker.onResult(httpRequestResponse(200), 1500);
+        circuitBreaker.onResult(httpRequestResponse(200), 2000);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(httpRequest));
+    }
+
+    @Test
+    public void bypassRetryWhenCircuitIsOpen() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/status/503", httpExchange -> {
+                    hits.incrementAndGet();
+                    LocalHttpServer.respond(httpExchange, 503, "unavailable");
+                });
+                HttpClient httpClient = new HttpClient()) {
+            CircuitBreaker circuitBreaker = CircuitBreaker.perHost(
+                    CircuitBreakerConfig.builder().minimumNumberOfCalls(2).build());
+            HttpRequest circuitRequest = new HttpRequest.HttpRequestBuilder("Circuit", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/status/503")
+                    .withRetryPolicy(
+                            new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retries) -> 1, 5))
+                    .withCircuitBreaker(circuitBreaker)
+                    .build();
+            AtomicInteger maxRetryAttempted = new AtomicInteger();
+            HttpResponseHandler<String> httpResponseHandler = new HttpResponseHandler<String>() {
+                @Override
+                public String onResponse(HttpResponse httpResponse) {
+                    return String.valueOf(httpResponse.getStatusCode());
+                }
+
+                @Override
+                public void onMaxRetryAttempted(HttpResponse httpResponse) {
+                    maxRetryAttempted.incrementAndGet();
+                }
+
+                @Override
+                public String onCircuitBreakerOpen(HttpRequest httpRequest) {
+                    return "open";
+                }
+            };
+
+            Assertions.assertEquals(
+                    "open", httpClient.execute(new HttpExecutionContext(), circuitRequest, httpResponseHandler));
+            Assertions.assertEquals(2, hits.get());
+            Assertions.assertEquals(
+                    "open",
+                    httpClient
+                            .executeAsync(new HttpExecutionContext(), circuitRequest, httpResponseHandler)
+                            .get());
+            Assertions.assertEquals(2, hits.get());
+            Assertions.assertEquals(0, maxRetryAttempted.get());
+        }
+    }
+
+    @Test
+    public void giveBackHalfOpenPermitOfRequestNotSent() throws Exception {
+        CircuitBreaker circuitBreaker = CircuitBreaker.perHost(CircuitBreakerConfig.builder()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .waitDurationInOpenStateInMilliseconds(50)
+                .permittedCallsInHalfOpenState(1)
+                .build());
+        record(circuitBreaker, 503);
+        record(circuitBreaker, 503);
+        Thread.sleep(60);
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission(httpRequest));
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission(httpRequest));
+        circuitBreaker.releasePermission(httpRequest);
+        circuitBreaker.releasePermission(httpRequest);
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission(httpRequest));
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission(httpRequest));
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState(httpRequest));
+    }
+
+    @Test
+    public void ignoreAttemptsRejectedBeforeBeingSent() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle("/ping", httpExchange -> LocalHttpServer.respond(httpExchange, 200, "pong"));
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .rateLimiterRegistry(
+                                new RateLimiterRegistry(0).withRequestNameLimit("Limited", new RateLimiter(1, 1)))
+                        .build())) {
+            CircuitBreaker circuitBreaker = CircuitBreaker.perHost(
+                    CircuitBreakerConfig.builder().minimumNumberOfCalls(2).build());
+            HttpRequest limitedRequest = new HttpRequest.HttpRequestBuilder("Limited", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/ping")
+                    .withCircuitBreaker(circuitBreaker)
+                    .build();
+            for (int i = 0; i < 5; i++) {
+                httpClient.execute(new HttpExecutionContext(), limitedRequest, null);
+                httpClient
+                        .executeAsync(new HttpExecutionContext(), limitedRequest, null)
+                        .get(5, TimeUnit.SECONDS);
+            }
+            Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(limitedRequest));
+
+            // deadline passes in request handler before the attempt is sent
+            HttpRequest deadlineRequest = new HttpRequest.HttpRequestBuilder("Deadline", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/ping")
+                    .withTimeoutConfig(
+                            TimeoutConfig.builder().deadlineInMilliseconds(10).build())
+                    .withCircuitBreaker(circuitBreaker)
+                    .build();
+            HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+            httpExecutionContext.addHttpRequestHandler(new HttpRequestHandler() {
+                @Override
+                public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void afterResponse(
+                        HttpExecutionContext httpExecutionContext,
+                        HttpRequest httpRequest,
+                        HttpResponse httpResponse) {}
+
+                @Override
+                public void onError(
+                        HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {}
+            });
+            for (int i = 0; i < 3; i++) {
+                httpClient.execute(httpExecutionContext, deadlineRequest, null);
+            }
+            Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(deadlineRequest));
+        }
+    }
+
+    private void record(CircuitBreaker circuitBreaker, int statusCode) {
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission(httpRequest));
+        circuitBreaker.onResult(httpRequestResponse(statusCode), 1);
+    }
+
+    private HttpRequestResponse httpRequestResponse(int statusCode) {
+        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(httpRequest);
+        httpRequestResponse.setHttpResponse(
+                new HttpResponse(new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, "")));
+        return httpRequestResponse;
+    }
+}
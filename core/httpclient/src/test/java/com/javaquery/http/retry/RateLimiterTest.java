@@ -0,0 +1,137 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpClient;
+import com.javaquery.http.HttpClientConfig;
+import com.javaquery.http.HttpExecutionContext;
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpResponse;
+import com.javaquery.http.LocalHttpServer;
+import com.javaquery.http.exception.RateLimitExceededException;
+import com.javaquery.http.handler.HttpRequestHandler;
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class RateLimiterTest {
+
+    @Test
+    public void permitBurstThenSustainedRate() {
+        RateLimiter rateLimiter = new RateLimiter(10, 3);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(rateLimiter.tryAcquire());
+        }
+        Assertions.assertFalse(rateLimiter.tryAcquire());
+        long wait = rateLimiter.tryReserve(TimeUnit.SECONDS.toNanos(1));
+        Assertions.assertTrue(wait > 0 && wait <= TimeUnit.MILLISECONDS.toNanos(100));
+        Assertions.assertEquals(-1, rateLimiter.tryReserve(TimeUnit.MILLISECONDS.toNanos(50)));
+    }
+
+    @Test
+    public void giveBackHostPermitWhenRequestNameLimitRejects() {
+        RateLimiterRegistry rateLimiterRegistry = new RateLimiterRegistry(0)
+                .withHostLimit("localhost", new RateLimiter(1, 2))
+                .withRequestNameLimit("Limited", new RateLimiter(1, 1));
+        HttpRequest limited = new HttpRequest.HttpRequestBuilder("Limited", HttpMethod.GET)
+                .withHost("http://localhost")
+                .withEndPoint("/ping")
+                .build();
+        HttpRequest other = new HttpRequest.HttpRequestBuilder("Other", HttpMethod.GET)
+                .withHost("http://localhost")
+                .withEndPoint("/ping")
+                .build();
+        Assertions.assertEquals(0, rateLimiterRegistry.reserve(limited));
+        Assertions.assertThrows(RateLimitExceededException.class, () -> rateLimiterRegistry.reserve(limited));
+        Assertions.assertFalse(rateLimiterRegistry.tryAcquire(limited));
+        Assertions.assertTrue(rateLimiterRegistry.tryAcquire(other));
+        Assertions.assertFalse(rateLimiterRegistry.tryAcquire(other));
+    }
+
+    @Test
+    public void waitForPermitInBlockingAndAsyncExecution() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle("/ping", httpExchange -> LocalHttpServer.respond(httpExchange, 200, "pong"));
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .rateLimiterRegistry(
+                                new RateLimiterRegistry(5_000).withRequestNameLimit("Limited", new RateLimiter(20, 1)))
+                        .build())) {
+            HttpRequest httpRequest = httpRequest(localHttpServer);
+            long start = System.nanoTime();
+            for (int i = 0; i < 3; i++) {
+                Assertions.assertEquals(
+                        200, httpClient.execute(new HttpExecutionContext(), httpRequest, statusCodeHandler()));
+            }
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(httpClient.executeAsync(new HttpExecutionContext(), httpRequest, statusCodeHandler()));
+            }
+            for (CompletableFuture<Integer> future : futures) {
+                Assertions.assertEquals(200, future.get(5, TimeUnit.SECONDS));
+            }
+            // 6 requests at 20 per second with burst of 1
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 240);
+        }
+    }
+
+    @Test
+    public void failFastWhenPermitNotAvailable() throws Exception {
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start()
+                        .handle("/ping", httpExchange -> LocalHttpServer.respond(httpExchange, 200, "pong"));
+                HttpClient httpClient = new HttpClient(HttpClientConfig.builder()
+                        .rateLimiterRegistry(
+                                new RateLimiterRegistry(0).withHostLimit("localhost", new RateLimiter(1, 1)))
+                        .build())) {
+            HttpRequest httpRequest = httpRequest(localHttpServer);
+            AtomicReference<Exception> error = new AtomicReference<>();
+            HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+            httpExecutionContext.addHttpRequestHandler(new HttpRequestHandler() {
+                @Override
+                public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {}
+
+                @Override
+                public void afterResponse(
+                        HttpExecutionContext httpExecutionContext,
+                        HttpRequest httpRequest,
+                        HttpResponse httpResponse) {}
+
+                @Override
+                public void onError(
+                        HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {
+                    error.set(exception);
+                }
+            });
+
+            Assertions.assertEquals(200, httpClient.execute(httpExecutionContext, httpRequest, statusCodeHandler()));
+            Assertions.assertEquals(-1, httpClient.execute(httpExecutionContext, httpRequest, statusCodeHandler()));
+            Assertions.assertTrue(error.get() instanceof RateLimitExceededException);
+        }
+    }
+
+    private HttpRequest httpRequest(LocalHttpServer localHttpServer) {
+        return new HttpRequest.HttpRequestBuilder("Limited", HttpMethod.GET)
+                .withHost(localHttpServer.host())
+                .withEndPoint("/ping")
+                .build();
+    }
+
+    private HttpResponseHandler<Integer> statusCodeHandler() {
+        return new HttpResponseHandler<Integer>() {
+            @Override
+            public Integer onResponse(HttpResponse httpResponse) {
+                return httpResponse != null ? httpResponse.getStatusCode() : -1;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+        };
+    }
+}
@@ -0,0 +1,156 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpClient;
+import com.javaquery.http.HttpExecutionContext;
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.http.HttpResponse;
+import com.javaquery.http.LocalHttpServer;
+import com.javaquery.http.exception.ConcurrencyLimitExceededException;
+import com.javaquery.http.exception.RateLimitExceededException;
+import com.javaquery.http.handler.HttpResponseHandler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.8
+ */
+public class RetryPolicyTest {
+
+    private final HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Retry", HttpMethod.GET)
+            .withHost("http://localhost")
+            .build();
+
+    @Test
+    public void fullJitterBackoffStrategy() {
+        FullJitterBackoffStrategy backoffStrategy = new FullJitterBackoffStrategy(100, 1000);
+        for (int retriesAttempted = 0; retriesAttempted < 10; retriesAttempted++) {
+            long delay = backoffStrategy.delayBeforeNextRetry(new HttpRequestResponse(httpRequest), retriesAttempted);
+            Assertions.assertTrue(delay >= 0);
+            Assertions.assertTrue(delay <= Math.min(1000, 100L << retriesAttempted));
+        }
+    }
+
+    @Test
+    public void decorrelatedJitterBackoffStrategy() {
+        DecorrelatedJitterBackoffStrategy backoffStrategy = new DecorrelatedJitterBackoffStrategy(100, 1000);
+        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(httpRequest);
+        for (int retriesAttempted = 0; retriesAttempted < 10; retriesAttempted++) {
+            long delay = backoffStrategy.delayBeforeNextRetry(httpRequestResponse, retriesAttempted);
+            Assertions.assertTrue(delay >= 100);
+            Assertions.assertTrue(
+                    delay <= Math.min(1000, Math.max(100, httpRequestResponse.getPreviousRetryDelay()) * 3));
+            httpRequestResponse.setPreviousRetryDelay(delay);
+        }
+    }
+
+    @Test
+    public void defaultRetryConditionRetriesOnlyConcurrencyLimitRejection() {
+        DefaultRetryCondition defaultRetryCondition = new DefaultRetryCondition();
+
+        HttpRequestResponse concurrencyLimited = new HttpRequestResponse(httpRequest);
+        concurrencyLimited.setException(new ConcurrencyLimitExceededException("limited"));
+        Assertions.assertTrue(defaultRetryCondition.shouldRetry(concurrencyLimited, 0));
+
+        // RateLimiterRegistry fails fast once max wait is exceeded
+        HttpRequestResponse rateLimited = new HttpRequestResponse(httpRequest);
+        rateLimited.setException(new RateLimitExceededException("limited"));
+        Assertions.assertFalse(defaultRetryCondition.shouldRetry(rateLimited, 0));
+    }
+
+    @Test
+    public void retryAfterBackoffStrategy() {
+        RetryAfterBackoffStrategy backoffStrategy =
+                new RetryAfterBackoffStrategy((httpRequestResponse, retries) -> 7, 60_000);
+
+        HttpRequestResponse withoutHeader = new HttpRequestResponse(httpRequest);
+        withoutHeader.setHttpResponse(new HttpResponse(new BasicHttpResponse(HttpVersion.HTTP_1_1, 503, "")));
+        Assertions.assertEquals(7, backoffStrategy.delayBeforeNextRetry(withoutHeader, 0));
+
+        BasicHttpResponse basicHttpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, 503, "");
+        basicHttpResponse.addHeader("retry-after", "2");
+        HttpRequestResponse withHeader = new HttpRequestResponse(httpRequest);
+        withHeader.setHttpResponse(new HttpResponse(basicHttpResponse));
+        Assertions.assertEquals(2000, backoffStrategy.delayBeforeNextRetry(withHeader, 0));
+    }
+
+    @Test
+    public void retryBudget() {
+        RetryBudget retryBudget = new RetryBudget(0.1, 0, 10);
+        for (int i = 0; i < 20; i++) {
+            retryBudget.recordRequest("api.example.com");
+        }
+        Assertions.assertTrue(retryBudget.tryAcquireRetry("api.example.com"));
+        Assertions.assertTrue(retryBudget.tryAcquireRetry("api.example.com"));
+        Assertions.assertFalse(retryBudget.tryAcquireRetry("api.example.com"));
+        Assertions.assertFalse(retryBudget.tryAcquireRetry("other.example.com"));
+    }
+
+    @Test
+    public void retryBudgetCountsConcurrentRequests() throws Exception {
+        RetryBudget retryBudget = new RetryBudget(0.1, 0, 10);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        retryBudget.recordRequest("api.example.com");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        int retries = 0;
+        while (retryBudget.tryAcquireRetry("api.example.com")) {
+            retries++;
+        }
+        Assertions.assertEquals(8_000, retries);
+    }
+
+    @Test
+    public void stopRetryWhenBudgetExhausted() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        try (LocalHttpServer localHttpServer = LocalHttpServer.start().handle("/status/503", httpExchange -> {
+                    hits.incrementAndGet();
+                    LocalHttpServer.respond(httpExchange, 503, "unavailable");
+                });
+                HttpClient httpClient = new HttpClient()) {
+            RetryPolicy retryPolicy = new RetryPolicy(
+                            new DefaultRetryCondition(), (httpRequestResponse, retries) -> 1, 5)
+                    .withRetryBudget(new RetryBudget(0, 1, 2));
+            HttpRequest budgetRequest = new HttpRequest.HttpRequestBuilder("Budget", HttpMethod.GET)
+                    .withHost(localHttpServer.host())
+                    .withEndPoint("/status/503")
+                    .withRetryPolicy(retryPolicy)
+                    .build();
+
+            Integer statusCode =
+                    httpClient.execute(new HttpExecutionContext(), budgetRequest, new HttpResponseHandler<Integer>() {
+                        @Override
+                        public Integer onResponse(HttpResponse httpResponse) {
+                            return httpResponse.getStatusCode();
+                        }
+
+                        @Override
+                        public void onMaxRetryAttempted(HttpResponse httpResponse) {}
+                    });
+            Assertions.assertEquals(503, statusCode);
+            Assertions.assertEquals(3, hits.get());
+        }
+    }
+}